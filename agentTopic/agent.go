@@ -12,15 +12,20 @@ import (
 	"fmt"
 	"io"
 	"log"
+	"math"
+	"net"
 	"net/http"
 	"os"
 	"os/signal"
 	"runtime"
 	"sort"
+	"sync"
+	"sync/atomic"
 	"syscall"
 	"time"
 
 	"github.com/IBM/sarama"
+	"github.com/fxamacker/cbor/v2"
 	"github.com/shirou/gopsutil/v3/cpu"
 	"github.com/shirou/gopsutil/v3/disk"
 	"github.com/shirou/gopsutil/v3/host"
@@ -39,6 +44,13 @@ type AgentConfig struct {
 	ApiKey      string `json:"apiKey"`
 	KafkaBroker string `json:"kafkaBroker"`
 	KafkaTopic  string `json:"kafkaTopic"`
+	KafkaEncoding string `json:"kafkaEncoding"`
+	Producer    struct {
+		Compression      string `json:"compression"`
+		LingerMs         int    `json:"lingerMs"`
+		BatchMaxMessages int    `json:"batchMaxMessages"`
+		RetryBufferSize  int    `json:"retryBufferSize"`
+	} `json:"producer"`
 	Collection  struct {
 		MetricsIntervalSeconds    int  `json:"metricsIntervalSeconds"`
 		HeartbeatIntervalSeconds  int  `json:"heartbeatIntervalSeconds"`
@@ -46,6 +58,10 @@ type AgentConfig struct {
 		NetworkConnectionsLimit   int  `json:"networkConnectionsLimit"`
 		EnableNetworkSpeed        bool `json:"enableNetworkSpeed"`
 		EnableDetailedProcesses   bool `json:"enableDetailedProcesses"`
+		DeltaEnabled              bool `json:"deltaEnabled"`
+		FullSnapshotEvery         int  `json:"fullSnapshotEvery"`
+		ReportsPerEnvelope        int  `json:"reportsPerEnvelope"`
+		AdaptiveInterval          bool `json:"adaptiveInterval"`
 	} `json:"collection"`
 	Security struct {
 		TLSEnabled      bool   `json:"tlsEnabled"`
@@ -74,45 +90,68 @@ var logger *log.Logger
 // Data Models
 // ==================================================================
 
+// MetricReport is sent as JSON, or as CBOR with the integer keys below when
+// kafkaEncoding is "cbor". Keys are part of the wire contract with the
+// backend's TelemetryDeserializer: never renumber, only append.
 type MetricReport struct {
-	AgentID        string              `json:"agentId"`
-	ApiKey         string              `json:"apiKey"`
-	Hostname       string              `json:"hostname"`
-	OsVersion      string              `json:"osVersion"`
-	AgentVersion   string              `json:"agentVersion"`
-	CpuUsage       float64             `json:"cpuUsage"`
-	RamUsedPercent float64             `json:"ramUsedPercent"`
-	RamTotalMb     uint64              `json:"ramTotalMb"`
-	RamUsedMb      uint64              `json:"ramUsedMb"`
-	DiskUsedPercent float64            `json:"diskUsedPercent"`
-	DiskTotalGb    uint64              `json:"diskTotalGb"`
-	DiskUsedGb     uint64              `json:"diskUsedGb"`
-	Processes      []ProcessModel      `json:"processes"`
-	NetworkConnections []NetworkConnection `json:"networkConnections"`
-	BytesSentSec   uint64              `json:"bytesSentSec"`
-	BytesRecvSec   uint64              `json:"bytesRecvSec"`
-	Timestamp      time.Time           `json:"timestamp"`
-	UptimeSeconds  uint64              `json:"uptimeSeconds"`
+	AgentID        string              `json:"agentId" cbor:"1,keyasint"`
+	ApiKey         string              `json:"apiKey" cbor:"2,keyasint"`
+	Hostname       string              `json:"hostname" cbor:"3,keyasint"`
+	OsVersion      string              `json:"osVersion" cbor:"4,keyasint"`
+	AgentVersion   string              `json:"agentVersion" cbor:"5,keyasint"`
+	CpuUsage       float64             `json:"cpuUsage" cbor:"6,keyasint"`
+	RamUsedPercent float64             `json:"ramUsedPercent" cbor:"7,keyasint"`
+	RamTotalMb     uint64              `json:"ramTotalMb" cbor:"8,keyasint"`
+	RamUsedMb      uint64              `json:"ramUsedMb" cbor:"9,keyasint"`
+	DiskUsedPercent float64            `json:"diskUsedPercent" cbor:"10,keyasint"`
+	DiskTotalGb    uint64              `json:"diskTotalGb" cbor:"11,keyasint"`
+	DiskUsedGb     uint64              `json:"diskUsedGb" cbor:"12,keyasint"`
+	Processes      []ProcessModel      `json:"processes" cbor:"13,keyasint"`
+	NetworkConnections []NetworkConnection `json:"networkConnections" cbor:"14,keyasint"`
+	BytesSentSec   uint64              `json:"bytesSentSec" cbor:"15,keyasint"`
+	BytesRecvSec   uint64              `json:"bytesRecvSec" cbor:"16,keyasint"`
+	Timestamp      time.Time           `json:"timestamp" cbor:"17,keyasint"`
+	UptimeSeconds  uint64              `json:"uptimeSeconds" cbor:"18,keyasint"`
+
+	// Delta protocol: in a DELTA, Processes and NetworkConnections hold only
+	// the entries added or changed since BaseSequence
+	MessageType        string              `json:"messageType,omitempty" cbor:"19,keyasint,omitempty"`
+	Sequence           uint64              `json:"sequence,omitempty" cbor:"20,keyasint,omitempty"`
+	BaseSequence       uint64              `json:"baseSequence,omitempty" cbor:"21,keyasint,omitempty"`
+	RemovedProcessPids []int32             `json:"removedProcessPids,omitempty" cbor:"22,keyasint,omitempty"`
+	RemovedConnections []NetworkConnection `json:"removedConnections,omitempty" cbor:"23,keyasint,omitempty"`
+
+	// Sequence counts the reports of the agent run started at SequenceEpoch
+	// (unix millis); the backend drops a report it has already seen
+	SequenceEpoch uint64 `json:"sequenceEpoch,omitempty" cbor:"25,keyasint,omitempty"`
 }
 
 type ProcessModel struct {
-	Pid       int32   `json:"pid"`
-	Name      string  `json:"name"`
-	Cpu       float64 `json:"cpu"`
-	MemPercent float32 `json:"memPercent"`
-	Username  string  `json:"username"`
-	Status    string  `json:"status"`
+	Pid       int32   `json:"pid" cbor:"1,keyasint"`
+	Name      string  `json:"name" cbor:"2,keyasint"`
+	Cpu       float64 `json:"cpu" cbor:"3,keyasint"`
+	MemPercent float32 `json:"memPercent" cbor:"4,keyasint"`
+	Username  string  `json:"username" cbor:"5,keyasint"`
+	Status    string  `json:"status" cbor:"6,keyasint"`
 }
 
 type NetworkConnection struct {
-	Pid           int32  `json:"pid"`
-	LocalAddress  string `json:"localAddress"`
-	LocalPort     uint32 `json:"localPort"`
-	RemoteAddress string `json:"remoteAddress"`
-	RemotePort    uint32 `json:"remotePort"`
-	ProcessName   string `json:"processName"`
-	Status        string `json:"status"`
-	Protocol      string `json:"protocol"`
+	Pid           int32  `json:"pid" cbor:"1,keyasint"`
+	LocalAddress  string `json:"localAddress" cbor:"2,keyasint"`
+	LocalPort     uint32 `json:"localPort" cbor:"3,keyasint"`
+	RemoteAddress string `json:"remoteAddress" cbor:"4,keyasint"`
+	RemotePort    uint32 `json:"remotePort" cbor:"5,keyasint"`
+	ProcessName   string `json:"processName" cbor:"6,keyasint"`
+	Status        string `json:"status" cbor:"7,keyasint"`
+	Protocol      string `json:"protocol" cbor:"8,keyasint"`
+}
+
+// ReportEnvelope packs consecutive reports into one Kafka record. The backend
+// validates the envelope's credentials once and applies them to every report.
+type ReportEnvelope struct {
+	AgentID string          `json:"agentId" cbor:"1,keyasint"`
+	ApiKey  string          `json:"apiKey" cbor:"2,keyasint"`
+	Reports []*MetricReport `json:"reports" cbor:"24,keyasint"`
 }
 
 type RegistrationRequest struct {
@@ -130,6 +169,15 @@ type RegistrationResponse struct {
 	Message string `json:"message"`
 }
 
+type HeartbeatResponse struct {
+	ResyncRequired bool `json:"resyncRequired"`
+
+	// Reporting pace recommended by the backend from its ingest load and
+	// this host's recent anomalies; 0 / empty from older backends
+	RecommendedIntervalSeconds int    `json:"recommendedIntervalSeconds"`
+	DetailLevel                string `json:"detailLevel"`
+}
+
 type HeartbeatRequest struct {
 	AgentID        string  `json:"agentId"`
 	CpuUsage       float64 `json:"cpuUsage"`
@@ -189,12 +237,21 @@ func loadDefaultConfig() {
 	config.ServerURL = "http://localhost:8080"
 	config.KafkaBroker = "localhost:9092"
 	config.KafkaTopic = "telemetry"
+	config.KafkaEncoding = "json"
+	config.Producer.Compression = "zstd"
+	config.Producer.LingerMs = 100
+	config.Producer.BatchMaxMessages = 100
+	config.Producer.RetryBufferSize = 360
 	config.Collection.MetricsIntervalSeconds = 10
 	config.Collection.HeartbeatIntervalSeconds = 30
 	config.Collection.ProcessesLimit = 50
 	config.Collection.NetworkConnectionsLimit = 100
 	config.Collection.EnableNetworkSpeed = true
 	config.Collection.EnableDetailedProcesses = true
+	config.Collection.DeltaEnabled = true
+	config.Collection.FullSnapshotEvery = 30
+	config.Collection.ReportsPerEnvelope = 1
+	config.Collection.AdaptiveInterval = true
 	config.Logging.Level = "info"
 	config.Logging.FilePath = "sentinelagent.log"
 }
@@ -221,6 +278,9 @@ func loadConfig() bool {
 	if kafkaTopic := os.Getenv("KAFKA_TOPIC"); kafkaTopic != "" {
 		config.KafkaTopic = kafkaTopic
 	}
+	if kafkaEncoding := os.Getenv("KAFKA_ENCODING"); kafkaEncoding != "" {
+		config.KafkaEncoding = kafkaEncoding
+	}
 	if agentID := os.Getenv("AGENT_ID"); agentID != "" {
 		config.AgentID = agentID
 	}
@@ -339,6 +399,11 @@ func collectMetrics() (*MetricReport, error) {
 		report.BytesSentSec, report.BytesRecvSec = calculateNetworkSpeed()
 	}
 	
+	// Process and connection lists are not sent at the METRICS detail level
+	if reportDetail == "METRICS" {
+		return report, nil
+	}
+	
 	// Process Information
 	if config.Collection.EnableDetailedProcesses {
 		report.Processes = collectProcesses()
@@ -424,6 +489,114 @@ func collectNetworkConnections() []NetworkConnection {
 	return connList
 }
 
+// ==================================================================
+// Delta Telemetry
+// ==================================================================
+
+// A process whose CPU usage moved less than this (percentage points) and
+// whose identity is unchanged is not re-sent in a delta
+const cpuDeltaThreshold = 0.5
+
+// deltaState mirrors the process and connection state the backend holds for
+// this agent. Only used from the main loop goroutine.
+type deltaState struct {
+	sequence    uint64
+	sinceFull   int
+	resync      bool
+	processes   map[int32]ProcessModel
+	connections map[string]NetworkConnection
+}
+
+var delta = deltaState{resync: true}
+
+// sequenceEpoch identifies this run of the agent, whose sequence starts over
+var sequenceEpoch = uint64(time.Now().UnixMilli())
+
+func connectionKey(c NetworkConnection) string {
+	return fmt.Sprintf("%d|%s|%d|%s|%d", c.Pid, c.LocalAddress, c.LocalPort, c.RemoteAddress, c.RemotePort)
+}
+
+// prepareReport numbers the report and, with delta telemetry enabled and
+// unless a full snapshot is due, replaces its process and connection lists
+// with the changes since the previous report. At the METRICS detail level
+// the lists are left out altogether.
+func prepareReport(report *MetricReport) {
+	delta.sequence++
+	report.Sequence = delta.sequence
+	report.SequenceEpoch = sequenceEpoch
+
+	if reportDetail == "METRICS" {
+		report.MessageType = "METRICS"
+		report.Processes = nil
+		report.NetworkConnections = nil
+		// The backend keeps its snapshot meanwhile; start over with a full one afterwards
+		delta.resync = true
+		return
+	}
+
+	if !config.Collection.DeltaEnabled {
+		return
+	}
+
+	if delta.resync || delta.sinceFull >= config.Collection.FullSnapshotEvery {
+		report.MessageType = "FULL"
+		delta.resync = false
+		delta.sinceFull = 0
+		delta.processes = make(map[int32]ProcessModel, len(report.Processes))
+		for _, p := range report.Processes {
+			delta.processes[p.Pid] = p
+		}
+		delta.connections = make(map[string]NetworkConnection, len(report.NetworkConnections))
+		for _, c := range report.NetworkConnections {
+			delta.connections[connectionKey(c)] = c
+		}
+		return
+	}
+
+	report.MessageType = "DELTA"
+	report.BaseSequence = delta.sequence - 1
+	delta.sinceFull++
+
+	currentPids := make(map[int32]bool, len(report.Processes))
+	var changedProcesses []ProcessModel
+	for _, p := range report.Processes {
+		currentPids[p.Pid] = true
+		prev, known := delta.processes[p.Pid]
+		if !known || prev.Name != p.Name || prev.Username != p.Username ||
+			math.Abs(prev.Cpu-p.Cpu) >= cpuDeltaThreshold {
+			changedProcesses = append(changedProcesses, p)
+			delta.processes[p.Pid] = p
+		}
+	}
+	for pid := range delta.processes {
+		if !currentPids[pid] {
+			report.RemovedProcessPids = append(report.RemovedProcessPids, pid)
+			delete(delta.processes, pid)
+		}
+	}
+
+	currentKeys := make(map[string]bool, len(report.NetworkConnections))
+	var changedConnections []NetworkConnection
+	for _, c := range report.NetworkConnections {
+		key := connectionKey(c)
+		currentKeys[key] = true
+		prev, known := delta.connections[key]
+		if !known || prev.Status != c.Status || prev.ProcessName != c.ProcessName {
+			changedConnections = append(changedConnections, c)
+			delta.connections[key] = c
+		}
+	}
+	for key, c := range delta.connections {
+		if !currentKeys[key] {
+			report.RemovedConnections = append(report.RemovedConnections, c)
+			delete(delta.connections, key)
+		}
+	}
+
+	report.Processes = changedProcesses
+	report.NetworkConnections = changedConnections
+}
+
 // ==================================================================
 // Registration & Communication
 // ==================================================================
@@ -478,10 +651,10 @@ func registerAgent() error {
 	return nil
 }
 
-func sendHeartbeat() error {
+func sendHeartbeat() (*HeartbeatResponse, error) {
 	metrics, err := collectMetrics()
 	if err != nil {
-		return err
+		return nil, err
 	}
 	
 	heartbeat := HeartbeatRequest{
@@ -493,47 +666,249 @@ func sendHeartbeat() error {
 	}
 	
 	jsonData, _ := json.Marshal(heartbeat)
-	url := fmt.Sprintf("%s/api/v1/agents/%s/heartbeat", config.ServerURL, config.AgentID)
+	url := fmt.Sprintf("%s/api/v1/agents/heartbeat", config.ServerURL)
+	
+	req, err := http.NewRequest(http.MethodPost, url, bytes.NewBuffer(jsonData))
+	if err != nil {
+		return nil, err
+	}
+	req.Header.Set("Content-Type", "application/json")
+	req.Header.Set("X-Agent-Key", config.ApiKey)
 	
 	client := &http.Client{Timeout: 10 * time.Second}
-	resp, err := client.Post(url, "application/json", bytes.NewBuffer(jsonData))
+	resp, err := client.Do(req)
 	if err != nil {
-		return err
+		return nil, err
 	}
 	defer resp.Body.Close()
 	
 	if resp.StatusCode != http.StatusOK {
-		return fmt.Errorf("heartbeat failed: %s", resp.Status)
+		return nil, fmt.Errorf("heartbeat failed: %s", resp.Status)
 	}
 	
-	return nil
+	var hbResp HeartbeatResponse
+	if err := json.NewDecoder(resp.Body).Decode(&hbResp); err != nil {
+		// An empty body from an older backend carries no instructions
+		return &hbResp, nil
+	}
+	if hbResp.ResyncRequired {
+		logger.Println("🔄 Backend requested a full telemetry snapshot")
+		delta.resync = true
+	}
+	
+	return &hbResp, nil
 }
 
-func sendToKafka(report *MetricReport) error {
-	config := sarama.NewConfig()
-	config.Producer.RequiredAcks = sarama.WaitForLocal
-	config.Producer.Retry.Max = 3
-	config.Producer.Return.Successes = true
-	
-	producer, err := sarama.NewSyncProducer([]string{config.KafkaBroker}, config)
-	if err != nil {
-		return fmt.Errorf("failed to create producer: %w", err)
+// Reporting pace currently in effect; only used from the main loop goroutine
+var (
+	metricsInterval time.Duration
+	reportDetail    = "FULL"
+)
+
+// applyReportingAdvice follows the interval and detail level recommended in a
+// heartbeat response, keeping the configured interval when there is none
+func applyReportingAdvice(hbResp *HeartbeatResponse, ticker *time.Ticker) {
+	if !config.Collection.AdaptiveInterval || hbResp == nil || hbResp.RecommendedIntervalSeconds <= 0 {
+		return
+	}
+	seconds := hbResp.RecommendedIntervalSeconds
+	if seconds > maxMetricsIntervalSeconds {
+		seconds = maxMetricsIntervalSeconds
+	}
+	interval := time.Duration(seconds) * time.Second
+	if interval != metricsInterval {
+		logger.Printf("⏱️ Metrics interval %v -> %v (backend recommendation)", metricsInterval, interval)
+		metricsInterval = interval
+		ticker.Reset(interval)
+	}
+	detail := hbResp.DetailLevel
+	if detail != "METRICS" {
+		detail = "FULL"
+	}
+	if detail != reportDetail {
+		logger.Printf("📋 Report detail %s -> %s (backend recommendation)", reportDetail, detail)
+		reportDetail = detail
+	}
+}
+
+// Upper bound for a recommended interval, so a bad response cannot silence the agent
+const maxMetricsIntervalSeconds = 600
+
+// encodeReport serializes a report or envelope in the configured wire format
+// and returns the content type announced in the record header
+func encodeReport(value interface{}) ([]byte, string, error) {
+	if config.KafkaEncoding == "cbor" {
+		data, err := cbor.Marshal(value)
+		return data, "application/cbor", err
+	}
+	data, err := json.Marshal(value)
+	return data, "application/json", err
+}
+
+// packReports returns the single report itself, or an envelope carrying the
+// credentials once for all of them
+func packReports(reports []*MetricReport) interface{} {
+	if len(reports) == 1 {
+		return reports[0]
+	}
+	envelope := &ReportEnvelope{AgentID: reports[0].AgentID, ApiKey: reports[0].ApiKey, Reports: reports}
+	for _, r := range reports {
+		r.AgentID = ""
+		r.ApiKey = ""
+	}
+	return envelope
+}
+
+// sendToKafka hands reports to the long-lived producer, creating it on first
+// use. It only fails when the reports could not be queued at all.
+func sendToKafka(reports []*MetricReport) error {
+	if kafka == nil {
+		p, err := newTelemetryProducer()
+		if err != nil {
+			return fmt.Errorf("failed to create producer: %w", err)
+		}
+		kafka = p
 	}
-	defer producer.Close()
 	
-	jsonData, err := json.Marshal(report)
+	key := reports[0].AgentID
+	payload, contentType, err := encodeReport(packReports(reports))
 	if err != nil {
 		return err
 	}
 	
-	msg := &sarama.ProducerMessage{
+	kafka.send(&sarama.ProducerMessage{
 		Topic: config.KafkaTopic,
-		Key:   sarama.StringEncoder(report.AgentID),
-		Value: sarama.ByteEncoder(jsonData),
+		Key:   sarama.StringEncoder(key),
+		Value: sarama.ByteEncoder(payload),
+		Headers: []sarama.RecordHeader{
+			{Key: []byte("content-type"), Value: []byte(contentType)},
+		},
+	})
+	return nil
+}
+
+// ==================================================================
+// Kafka Producer
+// ==================================================================
+
+// telemetryProducer holds one async producer for the agent's lifetime, so
+// the broker connection and metadata are reused across reports. Sarama
+// batches and compresses per partition and retries short broker hiccups by
+// itself. Messages it gives up on go to a bounded backlog that is re-sent,
+// oldest first, ahead of any new report.
+type telemetryProducer struct {
+	producer sarama.AsyncProducer
+	
+	mu      sync.Mutex
+	backlog []*sarama.ProducerMessage
+	limit   int
+	
+	// Set when a report had to be dropped, so the next one must be FULL
+	dropped atomic.Bool
+}
+
+var kafka *telemetryProducer
+
+func newTelemetryProducer() (*telemetryProducer, error) {
+	cfg := sarama.NewConfig()
+	cfg.Version = sarama.V2_1_0_0 // zstd needs 2.1+
+	cfg.Producer.RequiredAcks = sarama.WaitForLocal
+	cfg.Producer.Compression = compressionCodec(config.Producer.Compression)
+	cfg.Producer.Flush.Frequency = time.Duration(config.Producer.LingerMs) * time.Millisecond
+	cfg.Producer.Flush.Messages = config.Producer.BatchMaxMessages
+	cfg.Producer.Retry.Max = 5
+	cfg.Producer.Retry.Backoff = 500 * time.Millisecond
+	cfg.Producer.Return.Successes = false
+	cfg.Producer.Return.Errors = true
+	
+	producer, err := sarama.NewAsyncProducer([]string{config.KafkaBroker}, cfg)
+	if err != nil {
+		return nil, err
+	}
+	
+	p := &telemetryProducer{producer: producer, limit: max(config.Producer.RetryBufferSize, 1)}
+	go p.collectFailures()
+	return p, nil
+}
+
+func compressionCodec(name string) sarama.CompressionCodec {
+	switch name {
+	case "none":
+		return sarama.CompressionNone
+	case "gzip":
+		return sarama.CompressionGZIP
+	case "snappy":
+		return sarama.CompressionSnappy
+	case "lz4":
+		return sarama.CompressionLZ4
+	default:
+		return sarama.CompressionZSTD
 	}
+}
+
+// send never blocks the collection loop: while a backlog exists or sarama's
+// input buffer is full, the message waits in the backlog instead
+func (p *telemetryProducer) send(msg *sarama.ProducerMessage) {
+	p.mu.Lock()
+	defer p.mu.Unlock()
 	
-	_, _, err = producer.SendMessage(msg)
-	return err
+	for len(p.backlog) > 0 {
+		select {
+		case p.producer.Input() <- p.backlog[0]:
+			p.backlog[0] = nil
+			p.backlog = p.backlog[1:]
+			continue
+		default:
+		}
+		break
+	}
+	if len(p.backlog) == 0 {
+		select {
+		case p.producer.Input() <- msg:
+			return
+		default:
+		}
+	}
+	p.enqueue(msg)
+}
+
+// collectFailures moves messages sarama gave up on into the backlog
+func (p *telemetryProducer) collectFailures() {
+	for perr := range p.producer.Errors() {
+		logger.Printf("⚠️ Kafka delivery failed, keeping report for retry: %v", perr.Err)
+		p.mu.Lock()
+		p.enqueue(perr.Msg)
+		p.mu.Unlock()
+	}
+}
+
+// enqueue appends to the backlog, dropping the oldest report when full.
+// Caller holds p.mu.
+func (p *telemetryProducer) enqueue(msg *sarama.ProducerMessage) {
+	if len(p.backlog) >= p.limit {
+		p.backlog[0] = nil
+		p.backlog = p.backlog[1:]
+		p.dropped.Store(true)
+	}
+	p.backlog = append(p.backlog, msg)
+}
+
+// consumeDropped reports whether a report was dropped since the last call
+func (p *telemetryProducer) consumeDropped() bool {
+	return p.dropped.Swap(false)
+}
+
+// close flushes what sarama holds; the backlog is lost
+func (p *telemetryProducer) close() {
+	p.mu.Lock()
+	pending := len(p.backlog)
+	p.mu.Unlock()
+	if pending > 0 {
+		logger.Printf("⚠️ Discarding %d unsent reports", pending)
+	}
+	if err := p.producer.Close(); err != nil {
+		logger.Printf("⚠️ Error closing Kafka producer: %v", err)
+	}
 }
 
 // ==================================================================
@@ -578,7 +953,8 @@ func main() {
 	signal.Notify(sigChan, syscall.SIGINT, syscall.SIGTERM)
 	
 	// Create ticker for metrics collection
-	metricsTicker := time.NewTicker(time.Duration(config.Collection.MetricsIntervalSeconds) * time.Second)
+	metricsInterval = time.Duration(config.Collection.MetricsIntervalSeconds) * time.Second
+	metricsTicker := time.NewTicker(metricsInterval)
 	defer metricsTicker.Stop()
 	
 	heartbeatTicker := time.NewTicker(time.Duration(config.Collection.HeartbeatIntervalSeconds) * time.Second)
@@ -589,6 +965,7 @@ func main() {
 	logger.Printf("💓 Heartbeat interval: %ds", config.Collection.HeartbeatIntervalSeconds)
 	
 	// Main loop
+	var pending []*MetricReport
 	for {
 		select {
 		case <-metricsTicker.C:
@@ -598,24 +975,50 @@ func main() {
 				continue
 			}
 			
+			// The backend will never see a dropped report, so the next delta would not apply
+			if kafka != nil && kafka.consumeDropped() {
+				delta.resync = true
+			}
+			prepareReport(report)
+			
+			// Reports are held back until an envelope is full
+			pending = append(pending, report)
+			if len(pending) < config.Collection.ReportsPerEnvelope {
+				continue
+			}
+			
 			// Send to Kafka
-			if err := sendToKafka(report); err != nil {
+			err = sendToKafka(pending)
+			pending = nil
+			if err != nil {
 				logger.Printf("⚠️ Failed to send to Kafka: %v", err)
+				delta.resync = true
 			} else {
-				logger.Printf("📤 Metrics sent | CPU: %.1f%% | RAM: %.1f%% | Net: ↑%d ↓%d bytes/s",
+				logger.Printf("📤 Metrics queued | CPU: %.1f%% | RAM: %.1f%% | Net: ↑%d ↓%d bytes/s",
 					report.CpuUsage, report.RamUsedPercent, report.BytesSentSec, report.BytesRecvSec)
 			}
 			
 		case <-heartbeatTicker.C:
 			if config.AgentID != "" {
-				if err := sendHeartbeat(); err != nil {
+				hbResp, err := sendHeartbeat()
+				if err != nil {
 					logger.Printf("⚠️ Heartbeat failed: %v", err)
+				} else {
+					applyReportingAdvice(hbResp, metricsTicker)
 				}
 			}
 			
 		case sig := <-sigChan:
 			logger.Printf("\n🛑 Received signal: %v", sig)
 			logger.Println("👋 Shutting down gracefully...")
+			if len(pending) > 0 {
+				if err := sendToKafka(pending); err != nil {
+					logger.Printf("⚠️ Failed to send to Kafka: %v", err)
+				}
+			}
+			if kafka != nil {
+				kafka.close()
+			}
 			return
 		}
 	}
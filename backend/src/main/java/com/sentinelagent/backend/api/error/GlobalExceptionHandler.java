@@ -1,5 +1,6 @@
 package com.sentinelagent.backend.api.error;
 
+import com.sentinelagent.backend.application.common.InvalidContinuationTokenException;
 import com.sentinelagent.backend.domain.agent.exception.AgentAlreadyExistsException;
 import com.sentinelagent.backend.domain.agent.exception.AgentNotFoundException;
 import com.sentinelagent.backend.domain.agent.exception.InvalidAgentCredentialsException;
@@ -85,6 +86,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
     }
 
+    /**
+     * Handle malformed pagination tokens
+     */
+    @ExceptionHandler(InvalidContinuationTokenException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPageToken(InvalidContinuationTokenException ex) {
+        log.warn("Invalid page token: {}", ex.getMessage());
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid page token",
+                ex.getMessage(),
+                LocalDateTime.now());
+        return ResponseEntity.badRequest().body(response);
+    }
+
     /**
      * Handle other domain exceptions
      */
@@ -0,0 +1,82 @@
+package com.sentinelagent.backend.api.v1.admin;
+
+import com.sentinelagent.backend.application.telemetry.BypassTelemetryFiltersUseCase;
+import com.sentinelagent.backend.application.telemetry.GetIngestStatsUseCase;
+import com.sentinelagent.backend.application.telemetry.GetIngestStatsUseCase.IngestStatsDto;
+import com.sentinelagent.backend.application.telemetry.ReplayDeadLettersUseCase;
+import com.sentinelagent.backend.application.telemetry.dto.DeadLetterReplayStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+
+/**
+ * REST Controller for telemetry pipeline administration.
+ * Restricted to administrators.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/telemetry")
+@RequiredArgsConstructor
+public class TelemetryAdminController {
+
+    private final ReplayDeadLettersUseCase replayDeadLettersUseCase;
+    private final GetIngestStatsUseCase getIngestStatsUseCase;
+    private final BypassTelemetryFiltersUseCase bypassTelemetryFiltersUseCase;
+
+    /**
+     * Send dead-lettered telemetry back through ingestion
+     * POST /api/v1/admin/telemetry/dead-letters/replay?maxRecords=1000&ratePerSecond=50
+     */
+    @PostMapping("/dead-letters/replay")
+    public ResponseEntity<DeadLetterReplayStatus> replayDeadLetters(
+            @RequestParam(required = false) Integer maxRecords,
+            @RequestParam(required = false) Integer ratePerSecond) {
+        return ResponseEntity.accepted().body(replayDeadLettersUseCase.execute(maxRecords, ratePerSecond));
+    }
+
+    /**
+     * Progress of the latest replay
+     * GET /api/v1/admin/telemetry/dead-letters/replay
+     */
+    @GetMapping("/dead-letters/replay")
+    public ResponseEntity<DeadLetterReplayStatus> getReplayStatus() {
+        return ResponseEntity.ok(replayDeadLettersUseCase.status());
+    }
+
+    /**
+     * Ingest counters, e.g. duplicate reports dropped and entries removed per filter
+     * GET /api/v1/admin/telemetry/ingest-stats
+     */
+    @GetMapping("/ingest-stats")
+    public ResponseEntity<IngestStatsDto> getIngestStats() {
+        return ResponseEntity.ok(getIngestStatsUseCase.execute());
+    }
+
+    /**
+     * Agents whose telemetry bypasses the ingest filters
+     * GET /api/v1/admin/telemetry/filters/bypass
+     */
+    @GetMapping("/filters/bypass")
+    public ResponseEntity<Set<String>> getFilterBypass() {
+        return ResponseEntity.ok(bypassTelemetryFiltersUseCase.bypassedAgents());
+    }
+
+    /**
+     * Store the telemetry of an agent unfiltered, e.g. during an investigation
+     * PUT /api/v1/admin/telemetry/filters/bypass/{agentId}
+     */
+    @PutMapping("/filters/bypass/{agentId}")
+    public ResponseEntity<Set<String>> bypassFilters(@PathVariable String agentId) {
+        return ResponseEntity.ok(bypassTelemetryFiltersUseCase.bypass(agentId));
+    }
+
+    /**
+     * Filter the telemetry of an agent again
+     * DELETE /api/v1/admin/telemetry/filters/bypass/{agentId}
+     */
+    @DeleteMapping("/filters/bypass/{agentId}")
+    public ResponseEntity<Set<String>> restoreFilters(@PathVariable String agentId) {
+        return ResponseEntity.ok(bypassTelemetryFiltersUseCase.restore(agentId));
+    }
+}
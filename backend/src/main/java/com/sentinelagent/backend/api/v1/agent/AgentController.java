@@ -2,12 +2,23 @@ package com.sentinelagent.backend.api.v1.agent;
 
 import com.sentinelagent.backend.application.agent.*;
 import com.sentinelagent.backend.application.agent.dto.*;
+import com.sentinelagent.backend.application.common.dto.PageResponse;
+import com.sentinelagent.backend.application.telemetry.GetMetricHistoryUseCase;
+import com.sentinelagent.backend.application.telemetry.GetNetworkFlowsUseCase;
+import com.sentinelagent.backend.application.telemetry.GetRecentMetricsUseCase;
+import com.sentinelagent.backend.application.telemetry.GetReportsUseCase;
+import com.sentinelagent.backend.application.telemetry.dto.MetricReportSummaryDto;
+import com.sentinelagent.backend.application.telemetry.dto.MetricSeriesDto;
+import com.sentinelagent.backend.application.telemetry.dto.NetworkFlowDto;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for Agent Management.
@@ -21,6 +32,11 @@ public class AgentController {
     private final RegisterAgentUseCase registerAgentUseCase;
     private final ProcessHeartbeatUseCase processHeartbeatUseCase;
     private final GetAgentsUseCase getAgentsUseCase;
+    private final GetReportsUseCase getReportsUseCase;
+    private final GetRecentMetricsUseCase getRecentMetricsUseCase;
+    private final GetMetricHistoryUseCase getMetricHistoryUseCase;
+    private final GetNetworkFlowsUseCase getNetworkFlowsUseCase;
+    private final SearchAgentsUseCase searchAgentsUseCase;
 
     /**
      * Register a new agent
@@ -38,20 +54,42 @@ public class AgentController {
      * POST /api/v1/agents/heartbeat
      */
     @PostMapping("/heartbeat")
-    public ResponseEntity<Void> heartbeat(
+    public ResponseEntity<HeartbeatResponse> heartbeat(
             @RequestHeader("X-Agent-Key") String apiKey,
             @Valid @RequestBody HeartbeatRequest request) {
-        processHeartbeatUseCase.execute(apiKey, request);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(processHeartbeatUseCase.execute(apiKey, request));
     }
 
     /**
-     * Get all registered agents
-     * GET /api/v1/agents
+     * Get registered agents, one page at a time
+     * GET /api/v1/agents?limit=50&pageToken=...
      */
     @GetMapping
-    public ResponseEntity<List<AgentDetailsDto>> getAllAgents() {
-        return ResponseEntity.ok(getAgentsUseCase.getAllAgents());
+    public CompletableFuture<ResponseEntity<PageResponse<AgentDetailsDto>>> getAllAgents(
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(required = false) Integer limit) {
+        return getAgentsUseCase.getAllAgents(pageToken, limit).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Filter agents by attributes and count facets over the matches; repeated or
+     * comma-separated values of one parameter are alternatives
+     * GET /api/v1/agents/search?status=ACTIVE&os=Linux,Windows&version=1.4.0&seenWithinMinutes=15&limit=50
+     */
+    @GetMapping("/search")
+    public ResponseEntity<AgentSearchDto> searchAgents(
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) List<String> os,
+            @RequestParam(required = false) List<String> version,
+            @RequestParam(required = false) Integer seenWithinMinutes,
+            @RequestParam(required = false) Integer limit) {
+        AgentFilter filter = AgentFilter.builder()
+                .statuses(status)
+                .operatingSystems(os)
+                .agentVersions(version)
+                .seenWithinMinutes(seenWithinMinutes)
+                .build();
+        return ResponseEntity.ok(searchAgentsUseCase.execute(filter, limit));
     }
 
     /**
@@ -59,17 +97,70 @@ public class AgentController {
      * GET /api/v1/agents/{agentId}
      */
     @GetMapping("/{agentId}")
-    public ResponseEntity<AgentDetailsDto> getAgentById(@PathVariable String agentId) {
-        return ResponseEntity.ok(getAgentsUseCase.getById(agentId));
+    public CompletableFuture<ResponseEntity<AgentDetailsDto>> getAgentById(@PathVariable String agentId) {
+        return getAgentsUseCase.getById(agentId).thenApply(ResponseEntity::ok);
     }
 
     /**
-     * Get agents by status
-     * GET /api/v1/agents/status/{status}
+     * Get agents by status, one page at a time
+     * GET /api/v1/agents/status/{status}?limit=50&pageToken=...
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<AgentDetailsDto>> getAgentsByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(getAgentsUseCase.getAgentsByStatus(status));
+    public CompletableFuture<ResponseEntity<PageResponse<AgentDetailsDto>>> getAgentsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(required = false) Integer limit) {
+        return getAgentsUseCase.getAgentsByStatus(status, pageToken, limit).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Get an agent's reports, newest first, one page at a time
+     * GET /api/v1/agents/{agentId}/reports?limit=50&pageToken=...
+     */
+    @GetMapping("/{agentId}/reports")
+    public CompletableFuture<ResponseEntity<PageResponse<MetricReportSummaryDto>>> getAgentReports(
+            @PathVariable String agentId,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(required = false) Integer limit) {
+        return getReportsUseCase.getReportsByAgent(agentId, pageToken, limit).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Get an agent's recent samples of one metric from the in-memory hot store
+     * GET /api/v1/agents/{agentId}/metrics/recent?field=cpuUsage&minutes=60
+     */
+    @GetMapping("/{agentId}/metrics/recent")
+    public ResponseEntity<MetricSeriesDto> getRecentMetrics(
+            @PathVariable String agentId,
+            @RequestParam(defaultValue = "cpuUsage") String field,
+            @RequestParam(defaultValue = "60") int minutes) {
+        return ResponseEntity.ok(getRecentMetricsUseCase.execute(agentId, field, minutes));
+    }
+
+    /**
+     * Get an agent's long-range series of one metric from compressed chunks
+     * GET /api/v1/agents/{agentId}/metrics/history?field=cpuUsage&from=...&to=...
+     */
+    @GetMapping("/{agentId}/metrics/history")
+    public ResponseEntity<MetricSeriesDto> getMetricHistory(
+            @PathVariable String agentId,
+            @RequestParam(defaultValue = "cpuUsage") String field,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(getMetricHistoryUseCase.execute(agentId, field, from, to));
+    }
+
+    /**
+     * Get an agent's connection history as flows aggregated per window
+     * GET /api/v1/agents/{agentId}/flows?from=...&to=...&limit=50
+     */
+    @GetMapping("/{agentId}/flows")
+    public ResponseEntity<List<NetworkFlowDto>> getNetworkFlows(
+            @PathVariable String agentId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(getNetworkFlowsUseCase.execute(agentId, from, to, limit));
     }
 
     /**
@@ -0,0 +1,40 @@
+package com.sentinelagent.backend.api.v1.hunting;
+
+import com.sentinelagent.backend.application.hunting.HuntProcessUseCase;
+import com.sentinelagent.backend.application.hunting.PivotEndpointUseCase;
+import com.sentinelagent.backend.application.hunting.dto.EndpointPivotDto;
+import com.sentinelagent.backend.application.hunting.dto.ProcessHuntDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for fleet-wide threat hunting.
+ * Queries are answered from in-memory indexes kept current by ingestion.
+ */
+@RestController
+@RequestMapping("/api/v1/hunting")
+@RequiredArgsConstructor
+public class HuntingController {
+
+    private final HuntProcessUseCase huntProcessUseCase;
+    private final PivotEndpointUseCase pivotEndpointUseCase;
+
+    /**
+     * Agents whose latest report lists a process
+     * GET /api/v1/hunting/processes?name=mimikatz
+     */
+    @GetMapping("/processes")
+    public ResponseEntity<ProcessHuntDto> huntProcess(@RequestParam String name) {
+        return ResponseEntity.ok(huntProcessUseCase.execute(name));
+    }
+
+    /**
+     * Agents and processes that connected to a remote address within the last hour
+     * GET /api/v1/hunting/endpoints?address=203.0.113.9
+     */
+    @GetMapping("/endpoints")
+    public ResponseEntity<EndpointPivotDto> pivotEndpoint(@RequestParam String address) {
+        return ResponseEntity.ok(pivotEndpointUseCase.execute(address));
+    }
+}
@@ -0,0 +1,35 @@
+package com.sentinelagent.backend.api.v1.network;
+
+import com.sentinelagent.backend.application.telemetry.SearchNetworkFlowsUseCase;
+import com.sentinelagent.backend.application.telemetry.dto.NetworkFlowDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST Controller for network flow queries across agents.
+ */
+@RestController
+@RequestMapping("/api/v1/network")
+@RequiredArgsConstructor
+public class NetworkFlowController {
+
+    private final SearchNetworkFlowsUseCase searchNetworkFlowsUseCase;
+
+    /**
+     * Flows of all agents to remote addresses in a CIDR block (IPv4 or IPv6)
+     * GET /api/v1/network/flows?cidr=203.0.113.0/24&from=...&to=...&limit=50
+     */
+    @GetMapping("/flows")
+    public ResponseEntity<List<NetworkFlowDto>> searchFlows(
+            @RequestParam String cidr,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchNetworkFlowsUseCase.execute(cidr, from, to, limit));
+    }
+}
@@ -0,0 +1,138 @@
+package com.sentinelagent.backend.application.agent;
+
+import com.sentinelagent.backend.application.agent.dto.ReportDetailLevel;
+import com.sentinelagent.backend.application.telemetry.IngestLoadShedder;
+import com.sentinelagent.backend.application.telemetry.IngestMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recommends how often and in what detail each agent reports, returned in
+ * its heartbeat response.
+ *
+ * An agent with an anomaly in the last suspicious-window (critical CPU or
+ * RAM, or a high or critical risk level from the security analysis) reports
+ * at the active interval with full detail. One calm for quiet-after reports
+ * at the quiet interval, any other at the normal interval. While ingestion
+ * is degraded (see IngestLoadShedder) the intervals of calm agents are
+ * stretched and they send metrics only, so total ingest volume drops
+ * without losing sight of the suspicious hosts.
+ *
+ * State is in memory; after a restart every agent starts out normal.
+ */
+@Slf4j
+@Component
+public class AgentReportingAdvisor {
+
+    private static final Pattern RISK_LEVEL = Pattern.compile(
+            "\"?risk_level\"?\\s*:\\s*\"?([A-Za-z]+)", Pattern.CASE_INSENSITIVE);
+
+    private final IngestLoadShedder loadShedder;
+    private final int activeIntervalSeconds;
+    private final int normalIntervalSeconds;
+    private final int quietIntervalSeconds;
+    private final int maxIntervalSeconds;
+    private final long suspiciousWindowMillis;
+    private final long quietAfterMillis;
+    private final double criticalPercent;
+
+    private final Map<String, AgentActivity> activity = new ConcurrentHashMap<>();
+
+    public AgentReportingAdvisor(IngestLoadShedder loadShedder,
+            @Value("${telemetry.reporting.active-interval-seconds:5}") int activeIntervalSeconds,
+            @Value("${telemetry.reporting.normal-interval-seconds:10}") int normalIntervalSeconds,
+            @Value("${telemetry.reporting.quiet-interval-seconds:30}") int quietIntervalSeconds,
+            @Value("${telemetry.reporting.max-interval-seconds:120}") int maxIntervalSeconds,
+            @Value("${telemetry.reporting.suspicious-window-minutes:30}") int suspiciousWindowMinutes,
+            @Value("${telemetry.reporting.quiet-after-minutes:60}") int quietAfterMinutes,
+            @Value("${telemetry.reporting.critical-percent:90}") double criticalPercent) {
+        this.loadShedder = loadShedder;
+        this.activeIntervalSeconds = activeIntervalSeconds;
+        this.normalIntervalSeconds = normalIntervalSeconds;
+        this.quietIntervalSeconds = quietIntervalSeconds;
+        this.maxIntervalSeconds = maxIntervalSeconds;
+        this.suspiciousWindowMillis = suspiciousWindowMinutes * 60_000L;
+        this.quietAfterMillis = quietAfterMinutes * 60_000L;
+        this.criticalPercent = criticalPercent;
+    }
+
+    /**
+     * Record the load figures of a report or heartbeat
+     */
+    public void observeMetrics(String agentId, double cpuUsage, double ramUsedPercent) {
+        touch(agentId, isCritical(cpuUsage, ramUsedPercent));
+    }
+
+    /**
+     * Whether CPU or RAM usage is at the critical level
+     */
+    public boolean isCritical(double cpuUsage, double ramUsedPercent) {
+        return cpuUsage >= criticalPercent || ramUsedPercent >= criticalPercent;
+    }
+
+    /**
+     * Record the outcome of a security analysis (JSON with a risk_level)
+     */
+    public void observeAnalysis(String agentId, String analysis) {
+        if (analysis == null) {
+            return;
+        }
+        Matcher matcher = RISK_LEVEL.matcher(analysis);
+        if (matcher.find()) {
+            String level = matcher.group(1).toUpperCase(Locale.ROOT);
+            if (level.equals("HIGH") || level.equals("CRITICAL")) {
+                log.info("Agent {} flagged {} by analysis, raising its reporting rate", agentId, level);
+                touch(agentId, true);
+            }
+        }
+    }
+
+    public Recommendation recommend(String agentId) {
+        long now = System.currentTimeMillis();
+        AgentActivity state = activity.computeIfAbsent(agentId, id -> new AgentActivity(now));
+        IngestMode mode = loadShedder.mode();
+
+        if (state.lastAnomalyAt > 0 && now - state.lastAnomalyAt < suspiciousWindowMillis) {
+            return new Recommendation(activeIntervalSeconds, ReportDetailLevel.FULL);
+        }
+        long calmSince = Math.max(state.firstSeenAt, state.lastAnomalyAt);
+        int interval = now - calmSince >= quietAfterMillis ? quietIntervalSeconds : normalIntervalSeconds;
+        return switch (mode) {
+            case FULL -> new Recommendation(interval, ReportDetailLevel.FULL);
+            case METRICS_ONLY -> new Recommendation(Math.min(interval * 2, maxIntervalSeconds),
+                    ReportDetailLevel.METRICS);
+            case SAMPLED -> new Recommendation(Math.min(interval * 4, maxIntervalSeconds),
+                    ReportDetailLevel.METRICS);
+        };
+    }
+
+    private void touch(String agentId, boolean anomaly) {
+        if (agentId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        AgentActivity state = activity.computeIfAbsent(agentId, id -> new AgentActivity(now));
+        if (anomaly) {
+            state.lastAnomalyAt = now;
+        }
+    }
+
+    public record Recommendation(int intervalSeconds, ReportDetailLevel detailLevel) {
+    }
+
+    private static final class AgentActivity {
+        private final long firstSeenAt;
+        private volatile long lastAnomalyAt;
+
+        private AgentActivity(long firstSeenAt) {
+            this.firstSeenAt = firstSeenAt;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.sentinelagent.backend.application.agent;
+
+import com.sentinelagent.backend.domain.agent.AgentRepository;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory agent counts per status.
+ *
+ * Counters move atomically on every persisted status transition and are
+ * periodically reconciled against a single $group aggregation, which also
+ * corrects drift from transitions made by other backend instances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AgentStatusCounters {
+
+    private static final AgentStatus[] STATUSES = AgentStatus.values();
+
+    private final AgentRepository agentRepository;
+    private final AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+
+    @EventListener
+    public void onStatusChanged(AgentStatusChangedEvent event) {
+        if (event.previousStatus() != null) {
+            counts.decrementAndGet(event.previousStatus().ordinal());
+        }
+        if (event.newStatus() != null) {
+            counts.incrementAndGet(event.newStatus().ordinal());
+        }
+    }
+
+    /**
+     * Correct the counters from the database (runs at startup, then periodically).
+     * The correction is applied as a difference from the counts read before the
+     * query, so transitions counted while it runs are kept rather than overwritten.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${agents.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            long[] before = new long[STATUSES.length];
+            for (AgentStatus status : STATUSES) {
+                before[status.ordinal()] = counts.get(status.ordinal());
+            }
+            Map<AgentStatus, Long> actual = agentRepository.countAllByStatus();
+            for (AgentStatus status : STATUSES) {
+                long drift = actual.getOrDefault(status, 0L) - before[status.ordinal()];
+                if (drift != 0) {
+                    long reconciled = counts.addAndGet(status.ordinal(), drift);
+                    log.debug("Reconciled {} agent count by {} to {}", status, drift, reconciled);
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("Agent status reconciliation failed: {}", ex.getMessage());
+        }
+    }
+
+    public long get(AgentStatus status) {
+        return counts.get(status.ordinal());
+    }
+}
@@ -1,16 +1,20 @@
 package com.sentinelagent.backend.application.agent;
 
 import com.sentinelagent.backend.application.agent.dto.AgentDetailsDto;
+import com.sentinelagent.backend.application.common.ContinuationToken;
+import com.sentinelagent.backend.application.common.PageSize;
+import com.sentinelagent.backend.application.common.dto.PageResponse;
 import com.sentinelagent.backend.domain.agent.Agent;
 import com.sentinelagent.backend.domain.agent.AgentId;
-import com.sentinelagent.backend.domain.agent.AgentRepository;
 import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AsyncAgentRepository;
 import com.sentinelagent.backend.domain.agent.exception.AgentNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -18,44 +22,69 @@ import java.util.stream.Collectors;
  * 
  * Handles agent queries:
  * - Get agent by ID
- * - List all agents
- * - List agents by status
+ * - List all agents (keyset-paginated by agent ID)
+ * - List agents by status (keyset-paginated by agent ID)
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GetAgentsUseCase {
 
-    private final AgentRepository agentRepository;
+    private final AsyncAgentRepository agentRepository;
+    private final AgentStatusCounters agentStatusCounters;
 
-    public AgentDetailsDto getById(String agentId) {
-        Agent agent = agentRepository.findById(AgentId.of(agentId))
-                .orElseThrow(() -> new AgentNotFoundException(agentId));
-        return mapToDto(agent);
+    public CompletableFuture<AgentDetailsDto> getById(String agentId) {
+        return agentRepository.findById(AgentId.of(agentId))
+                .thenApply(agent -> mapToDto(agent.orElseThrow(() -> new AgentNotFoundException(agentId))));
     }
 
-    public List<AgentDetailsDto> getAllAgents() {
-        return agentRepository.findAll().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    public CompletableFuture<PageResponse<AgentDetailsDto>> getAllAgents(String pageToken, Integer limit) {
+        int pageSize = PageSize.normalize(limit);
+        return agentRepository.findPage(decodeAfterId(pageToken), pageSize + 1)
+                .thenApply(agents -> toPage(agents, pageSize));
     }
 
-    public List<AgentDetailsDto> getAgentsByStatus(String status) {
-        AgentStatus agentStatus = AgentStatus.valueOf(status.toUpperCase());
-        return agentRepository.findByStatus(agentStatus).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    public CompletableFuture<PageResponse<AgentDetailsDto>> getAgentsByStatus(String status, String pageToken,
+            Integer limit) {
+        AgentStatus agentStatus = AgentStatus.parse(status);
+        int pageSize = PageSize.normalize(limit);
+        return agentRepository.findPageByStatus(agentStatus, decodeAfterId(pageToken), pageSize + 1)
+                .thenApply(agents -> toPage(agents, pageSize));
     }
 
+    /**
+     * Served from in-memory counters; no database access
+     */
     public AgentStatsDto getStats() {
-        long activeCount = agentRepository.countByStatus(AgentStatus.ACTIVE);
-        long inactiveCount = agentRepository.countByStatus(AgentStatus.INACTIVE);
-        long revokedCount = agentRepository.countByStatus(AgentStatus.REVOKED);
-        long errorCount = agentRepository.countByStatus(AgentStatus.ERROR);
+        long activeCount = agentStatusCounters.get(AgentStatus.ACTIVE);
+        long inactiveCount = agentStatusCounters.get(AgentStatus.INACTIVE);
+        long revokedCount = agentStatusCounters.get(AgentStatus.REVOKED);
+        long errorCount = agentStatusCounters.get(AgentStatus.ERROR);
 
         return new AgentStatsDto(activeCount, inactiveCount, revokedCount, errorCount);
     }
 
+    private AgentId decodeAfterId(String pageToken) {
+        if (pageToken == null || pageToken.isBlank()) {
+            return null;
+        }
+        return AgentId.of(ContinuationToken.decode(pageToken, 1)[0]);
+    }
+
+    /**
+     * One extra row is fetched to know whether another page exists without a count query
+     */
+    private PageResponse<AgentDetailsDto> toPage(List<Agent> agents, int pageSize) {
+        boolean hasMore = agents.size() > pageSize;
+        List<Agent> pageItems = hasMore ? agents.subList(0, pageSize) : agents;
+        String nextToken = hasMore
+                ? ContinuationToken.encode(pageItems.get(pageItems.size() - 1).getId().getValue())
+                : null;
+        return new PageResponse<>(pageItems.stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList()), nextToken);
+    }
+
     private AgentDetailsDto mapToDto(Agent agent) {
         return AgentDetailsDto.builder()
                 .agentId(agent.getId().getValue())
@@ -1,7 +1,10 @@
 package com.sentinelagent.backend.application.agent;
 
 import com.sentinelagent.backend.application.agent.dto.HeartbeatRequest;
+import com.sentinelagent.backend.application.agent.dto.HeartbeatResponse;
+import com.sentinelagent.backend.application.agent.port.AgentAttributeIndex;
 import com.sentinelagent.backend.application.agent.port.ApiKeyService;
+import com.sentinelagent.backend.application.telemetry.TelemetrySnapshotCache;
 import com.sentinelagent.backend.domain.agent.*;
 import com.sentinelagent.backend.domain.agent.exception.AgentNotFoundException;
 import com.sentinelagent.backend.domain.agent.exception.InvalidAgentCredentialsException;
@@ -15,7 +18,9 @@ import org.springframework.stereotype.Service;
  * Handles heartbeat processing:
  * 1. Validate agent API key
  * 2. Update last heartbeat timestamp
- * 3. Update agent status if needed
+ * 3. Update agent status if needed and re-index its attributes
+ * 4. Tell the agent whether its telemetry delta state must be resynced
+ * 5. Recommend its reporting interval and detail level
  */
 @Slf4j
 @Service
@@ -24,8 +29,11 @@ public class ProcessHeartbeatUseCase {
 
     private final AgentRepository agentRepository;
     private final ApiKeyService apiKeyService;
+    private final TelemetrySnapshotCache snapshotCache;
+    private final AgentReportingAdvisor reportingAdvisor;
+    private final AgentAttributeIndex attributeIndex;
 
-    public void execute(String apiKey, HeartbeatRequest request) {
+    public HeartbeatResponse execute(String apiKey, HeartbeatRequest request) {
         log.debug("Processing heartbeat for agent: {}", request.getAgentId());
 
         // Find agent by ID
@@ -53,6 +61,17 @@ public class ProcessHeartbeatUseCase {
         }
 
         agentRepository.save(agent);
+        attributeIndex.index(agent);
         log.debug("Heartbeat processed for agent: {}", agent.getId().getValue());
+
+        String agentId = agent.getId().getValue();
+        reportingAdvisor.observeMetrics(agentId, request.getCpuUsage(), request.getRamUsedPercent());
+        AgentReportingAdvisor.Recommendation recommendation = reportingAdvisor.recommend(agentId);
+
+        return HeartbeatResponse.builder()
+                .resyncRequired(snapshotCache.consumeResyncRequest(agentId))
+                .recommendedIntervalSeconds(recommendation.intervalSeconds())
+                .detailLevel(recommendation.detailLevel())
+                .build();
     }
 }
@@ -2,6 +2,7 @@ package com.sentinelagent.backend.application.agent;
 
 import com.sentinelagent.backend.application.agent.dto.AgentRegistrationRequest;
 import com.sentinelagent.backend.application.agent.dto.AgentRegistrationResponse;
+import com.sentinelagent.backend.application.agent.port.AgentAttributeIndex;
 import com.sentinelagent.backend.application.agent.port.ApiKeyService;
 import com.sentinelagent.backend.domain.agent.*;
 import com.sentinelagent.backend.domain.agent.exception.AgentAlreadyExistsException;
@@ -27,6 +28,7 @@ public class RegisterAgentUseCase {
 
     private final AgentRepository agentRepository;
     private final ApiKeyService apiKeyService;
+    private final AgentAttributeIndex attributeIndex;
 
     public AgentRegistrationResponse execute(AgentRegistrationRequest request) {
         log.info("Registering new agent: hostname={}", request.getHostname());
@@ -55,6 +57,7 @@ public class RegisterAgentUseCase {
 
         // Persist agent
         Agent savedAgent = agentRepository.save(agent);
+        attributeIndex.index(savedAgent);
         log.info("Agent registered successfully: id={}, hostname={}",
                 savedAgent.getId().getValue(), savedAgent.getHostname());
 
@@ -0,0 +1,22 @@
+package com.sentinelagent.backend.application.agent;
+
+import com.sentinelagent.backend.application.agent.dto.AgentFilter;
+import com.sentinelagent.backend.application.agent.dto.AgentSearchDto;
+import com.sentinelagent.backend.application.agent.port.AgentAttributeIndex;
+import com.sentinelagent.backend.application.common.PageSize;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Use Case: Filter the fleet by agent attributes and count facets, answered from memory
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchAgentsUseCase {
+
+    private final AgentAttributeIndex attributeIndex;
+
+    public AgentSearchDto execute(AgentFilter filter, Integer limit) {
+        return attributeIndex.search(filter, PageSize.normalize(limit));
+    }
+}
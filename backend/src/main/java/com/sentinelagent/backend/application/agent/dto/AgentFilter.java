@@ -0,0 +1,26 @@
+package com.sentinelagent.backend.application.agent.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Filter over agent attributes: an agent matches when it has one of the listed
+ * values of every attribute given (OR within an attribute, AND across them).
+ * Empty or null lists do not restrict.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgentFilter {
+
+    private List<String> statuses;
+    private List<String> operatingSystems;
+    private List<String> agentVersions;
+    // Last heartbeat at most this many minutes ago
+    private Integer seenWithinMinutes;
+}
@@ -0,0 +1,28 @@
+package com.sentinelagent.backend.application.agent.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO representing the agents matching an AgentFilter and their facet counts.
+ * Facets count all matching agents per value; lastHeartbeat counts them per
+ * recency bucket ("5m", "15m", "1h", "24h" cumulative, then "older").
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgentSearchDto {
+
+    private int total;
+    private List<String> agentIds;
+    private Map<String, Integer> status;
+    private Map<String, Integer> operatingSystem;
+    private Map<String, Integer> agentVersion;
+    private Map<String, Integer> lastHeartbeat;
+}
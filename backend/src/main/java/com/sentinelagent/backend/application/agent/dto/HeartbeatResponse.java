@@ -0,0 +1,23 @@
+package com.sentinelagent.backend.application.agent.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for Agent heartbeat
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HeartbeatResponse {
+
+    // The backend lost the agent's delta state; the next report must be a full snapshot
+    private boolean resyncRequired;
+
+    // How often and with what detail the agent should report from now on
+    private int recommendedIntervalSeconds;
+    private ReportDetailLevel detailLevel;
+}
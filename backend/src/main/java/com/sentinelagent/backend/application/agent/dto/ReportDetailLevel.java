@@ -0,0 +1,17 @@
+package com.sentinelagent.backend.application.agent.dto;
+
+/**
+ * What an agent puts in its telemetry reports
+ */
+public enum ReportDetailLevel {
+
+    /**
+     * Metrics plus process and connection lists (or their deltas)
+     */
+    FULL,
+
+    /**
+     * Numeric metrics only
+     */
+    METRICS
+}
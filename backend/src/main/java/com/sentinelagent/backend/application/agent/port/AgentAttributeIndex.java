@@ -0,0 +1,39 @@
+package com.sentinelagent.backend.application.agent.port;
+
+import com.sentinelagent.backend.application.agent.dto.AgentFilter;
+import com.sentinelagent.backend.application.agent.dto.AgentSearchDto;
+import com.sentinelagent.backend.domain.agent.Agent;
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+
+import java.util.List;
+
+/**
+ * Port interface for the in-memory index of agent attributes (status,
+ * operating system, agent version, heartbeat recency) used to filter the
+ * fleet and count facets without querying the database.
+ * Implemented by Infrastructure layer.
+ */
+public interface AgentAttributeIndex {
+
+    /**
+     * Index or re-index an agent after registration or heartbeat
+     */
+    void index(Agent agent);
+
+    /**
+     * Move an agent to another status; a null status removes it from the index
+     */
+    void updateStatus(AgentId agentId, AgentStatus status);
+
+    /**
+     * Replace the whole index with the given agents
+     */
+    void rebuild(List<Agent> agents);
+
+    /**
+     * Agents matching the filter, at most {@code limit} of them, and facet counts
+     * over all matching agents
+     */
+    AgentSearchDto search(AgentFilter filter, int limit);
+}
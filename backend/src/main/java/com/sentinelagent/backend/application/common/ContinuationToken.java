@@ -0,0 +1,52 @@
+package com.sentinelagent.backend.application.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token used for keyset pagination.
+ *
+ * A token carries the sort key of the last item of a page (e.g. the agent ID,
+ * or receivedAt + report ID) so the next page can resume with an index range
+ * scan instead of skipping an offset. Clients must treat it as opaque.
+ */
+public final class ContinuationToken {
+
+    private static final char SEPARATOR = '\n';
+
+    private ContinuationToken() {
+    }
+
+    /**
+     * Encode the given key parts into a URL-safe token
+     */
+    public static String encode(String... parts) {
+        String joined = String.join(String.valueOf(SEPARATOR), parts);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token back into its key parts
+     *
+     * @throws InvalidContinuationTokenException if the token is malformed or
+     *                                           does not carry the expected parts
+     */
+    public static String[] decode(String token, int expectedParts) {
+        try {
+            String joined = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = joined.split(String.valueOf(SEPARATOR), -1);
+            if (parts.length != expectedParts) {
+                throw new InvalidContinuationTokenException();
+            }
+            for (String part : parts) {
+                if (part.isEmpty()) {
+                    throw new InvalidContinuationTokenException();
+                }
+            }
+            return parts;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidContinuationTokenException();
+        }
+    }
+}
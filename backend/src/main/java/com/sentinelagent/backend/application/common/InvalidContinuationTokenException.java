@@ -0,0 +1,13 @@
+package com.sentinelagent.backend.application.common;
+
+import com.sentinelagent.backend.domain.common.DomainException;
+
+/**
+ * Exception thrown when a pagination continuation token cannot be decoded
+ */
+public class InvalidContinuationTokenException extends DomainException {
+
+    public InvalidContinuationTokenException() {
+        super("Invalid or expired page token");
+    }
+}
@@ -0,0 +1,23 @@
+package com.sentinelagent.backend.application.common;
+
+/**
+ * Page size bounds shared by the keyset-paginated listings.
+ */
+public final class PageSize {
+
+    public static final int DEFAULT = 50;
+    public static final int MAX = 500;
+
+    private PageSize() {
+    }
+
+    /**
+     * Clamp a client-requested page size into [1, MAX], defaulting when absent
+     */
+    public static int normalize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return DEFAULT;
+        }
+        return Math.min(requested, MAX);
+    }
+}
@@ -0,0 +1,10 @@
+package com.sentinelagent.backend.application.common.dto;
+
+import java.util.List;
+
+/**
+ * DTO representing one page of a keyset-paginated listing.
+ * {@code nextPageToken} is null when there are no further pages.
+ */
+public record PageResponse<T>(List<T> items, String nextPageToken) {
+}
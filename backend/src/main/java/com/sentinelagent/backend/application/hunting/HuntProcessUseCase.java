@@ -0,0 +1,27 @@
+package com.sentinelagent.backend.application.hunting;
+
+import com.sentinelagent.backend.application.hunting.dto.ProcessHuntDto;
+import com.sentinelagent.backend.application.hunting.port.ProcessIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Use Case: Find the hosts running a process right now, answered from memory
+ */
+@Service
+@RequiredArgsConstructor
+public class HuntProcessUseCase {
+
+    private final ProcessIndex processIndex;
+
+    public ProcessHuntDto execute(String processName) {
+        List<String> agentIds = processIndex.agentsRunning(processName);
+        return ProcessHuntDto.builder()
+                .processName(processName)
+                .agentCount(agentIds.size())
+                .agentIds(agentIds)
+                .build();
+    }
+}
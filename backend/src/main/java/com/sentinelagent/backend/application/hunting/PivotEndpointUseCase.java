@@ -0,0 +1,40 @@
+package com.sentinelagent.backend.application.hunting;
+
+import com.sentinelagent.backend.application.hunting.dto.EndpointPivotDto;
+import com.sentinelagent.backend.application.hunting.port.RemoteEndpointIndex;
+import com.sentinelagent.backend.application.hunting.port.RemoteEndpointIndex.Contact;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Use Case: Pivot from a remote address to every agent and process that
+ * recently connected to it, answered from memory
+ */
+@Service
+@RequiredArgsConstructor
+public class PivotEndpointUseCase {
+
+    private final RemoteEndpointIndex remoteEndpointIndex;
+
+    public EndpointPivotDto execute(String remoteAddress) {
+        List<Contact> contacts = remoteEndpointIndex.contacts(remoteAddress);
+        return EndpointPivotDto.builder()
+                .remoteAddress(remoteAddress)
+                .agentCount((int) contacts.stream().map(Contact::agentId).distinct().count())
+                .contacts(contacts)
+                .build();
+    }
+
+    /**
+     * Other agents that recently connected to the address, e.g. once it is known to be malicious
+     */
+    public List<String> otherAgents(String remoteAddress, String agentId) {
+        return remoteEndpointIndex.contacts(remoteAddress).stream()
+                .map(Contact::agentId)
+                .filter(id -> !id.equals(agentId))
+                .distinct()
+                .toList();
+    }
+}
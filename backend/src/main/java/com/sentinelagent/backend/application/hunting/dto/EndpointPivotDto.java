@@ -0,0 +1,23 @@
+package com.sentinelagent.backend.application.hunting.dto;
+
+import com.sentinelagent.backend.application.hunting.port.RemoteEndpointIndex.Contact;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing the agents and processes that recently contacted a remote address.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EndpointPivotDto {
+
+    private String remoteAddress;
+    private int agentCount;
+    private List<Contact> contacts;
+}
@@ -0,0 +1,22 @@
+package com.sentinelagent.backend.application.hunting.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing the agents currently running a process.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessHuntDto {
+
+    private String processName;
+    private int agentCount;
+    private List<String> agentIds;
+}
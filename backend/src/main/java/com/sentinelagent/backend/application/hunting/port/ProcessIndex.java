@@ -0,0 +1,29 @@
+package com.sentinelagent.backend.application.hunting.port;
+
+import com.sentinelagent.backend.domain.telemetry.Process;
+import com.sentinelagent.backend.domain.telemetry.TelemetryChanges;
+
+import java.util.List;
+
+/**
+ * Port interface for the fleet-wide index of running process names.
+ * Implemented by Infrastructure layer.
+ */
+public interface ProcessIndex {
+
+    /**
+     * Apply an agent's report: the processes it started and stopped since its
+     * previous report, or its whole process list when the report is a full
+     * snapshot or the index dropped the agent in the meantime
+     *
+     * @param processes the report's complete process list
+     * @param changes   null if the report's lists are not known
+     */
+    void apply(String agentId, List<Process> processes, TelemetryChanges changes, boolean fullReport);
+
+    /**
+     * Agents whose latest report lists a process of that name; names are
+     * compared case-insensitively, without directory and .exe suffix
+     */
+    List<String> agentsRunning(String processName);
+}
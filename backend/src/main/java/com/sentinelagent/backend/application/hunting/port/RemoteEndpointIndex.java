@@ -0,0 +1,29 @@
+package com.sentinelagent.backend.application.hunting.port;
+
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+
+import java.util.List;
+
+/**
+ * Port interface for the fleet-wide index of recently contacted remote addresses.
+ * Implemented by Infrastructure layer.
+ */
+public interface RemoteEndpointIndex {
+
+    /**
+     * Record the remote ends of one report's connections
+     */
+    void record(String agentId, List<NetworkConnection> connections, long observedAtMillis);
+
+    /**
+     * Agents and processes that connected to the address within the index window,
+     * most recent first
+     */
+    List<Contact> contacts(String remoteAddress);
+
+    /**
+     * @param lastSeen epoch millis of the latest report showing the connection
+     */
+    record Contact(String agentId, String processName, long lastSeen) {
+    }
+}
@@ -1,8 +1,11 @@
 package com.sentinelagent.backend.application.security;
 
+import com.sentinelagent.backend.application.hunting.PivotEndpointUseCase;
 import com.sentinelagent.backend.domain.telemetry.MetricReport;
 import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.TelemetryChanges;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
@@ -15,7 +18,15 @@ import java.util.stream.Collectors;
 /**
  * Use Case for AI-powered security analysis.
  * Part of the Application Layer.
+ *
+ * When the report carries the changes since the agent's previous report,
+ * only the started processes and opened connections are enriched and put
+ * in front of the model; the rest were examined with earlier reports.
+ *
+ * A malicious remote address is pivoted across the fleet from memory, and
+ * the other agents that recently contacted it are named in the context.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AnalyzeSecurityUseCase {
@@ -23,9 +34,14 @@ public class AnalyzeSecurityUseCase {
     private final ChatModel chatModel;
     private final RagSecurityUseCase ragSecurityUseCase;
     private final NetworkIntelligenceUseCase networkIntelligence;
+    private final PivotEndpointUseCase pivotEndpointUseCase;
 
     public String execute(MetricReport report) {
-        String networkContext = enrichNetworkData(report.getNetworkConnections());
+        TelemetryChanges changes = report.getChanges();
+        String networkContext = changes != null
+                ? "New connections since the previous report:\n"
+                        + enrichNetworkData(report.getAgentId(), changes.getOpenedConnections())
+                : enrichNetworkData(report.getAgentId(), report.getNetworkConnections());
 
         double uploadMB = report.getUploadSpeedMbps();
         double downloadMB = report.getDownloadSpeedMbps();
@@ -51,7 +67,7 @@ public class AnalyzeSecurityUseCase {
                 - RAM Usage: {ram}%
                 - Network Upload Speed: {upload} MB/s
                 - Network Download Speed: {download} MB/s
-                - Active Processes: {processes}
+                - {process_heading}: {processes}
 
                 --- INSTRUCTIONS ---
                 1. Analyze 'Network Intelligence'. If a known malicious IP is found, FLAGGED immediately.
@@ -69,13 +85,22 @@ public class AnalyzeSecurityUseCase {
                 "ram", report.getRamUsedPercent(),
                 "upload", String.format("%.2f", uploadMB),
                 "download", String.format("%.2f", downloadMB),
-                "processes", report.getProcesses() != null ? report.getProcesses().toString() : "No processes");
+                "process_heading", changes != null ? "Process Changes" : "Active Processes",
+                "processes", changes != null ? describeProcessChanges(changes)
+                        : report.getProcesses() != null ? report.getProcesses().toString() : "No processes");
 
         Prompt prompt = template.create(params);
         return chatModel.call(prompt).getResult().getOutput().getText();
     }
 
-    private String enrichNetworkData(List<NetworkConnection> connections) {
+    private static String describeProcessChanges(TelemetryChanges changes) {
+        if (changes.getStartedProcesses().isEmpty() && changes.getStoppedProcesses().isEmpty()) {
+            return "None since the previous report";
+        }
+        return "started " + changes.getStartedProcesses() + ", stopped " + changes.getStoppedProcesses();
+    }
+
+    private String enrichNetworkData(String agentId, List<NetworkConnection> connections) {
         if (connections == null || connections.isEmpty()) {
             return "No active network connections.";
         }
@@ -88,12 +113,21 @@ public class AnalyzeSecurityUseCase {
 
                     String pName = (conn.getProcessName() != null) ? conn.getProcessName() : "Unknown";
 
-                    return String.format(
+                    String line = String.format(
                             "- Process: %s | Remote IP: %s | Location: %s | Reputation: %s",
                             pName,
                             ip,
                             country,
                             isMalicious ? "MALICIOUS ⚠️" : "Safe");
+                    if (isMalicious) {
+                        List<String> otherAgents = pivotEndpointUseCase.otherAgents(ip, agentId);
+                        if (!otherAgents.isEmpty()) {
+                            log.warn("Malicious IP {} seen by agent {} was also contacted by {} other agent(s): {}",
+                                    ip, agentId, otherAgents.size(), otherAgents);
+                            line += " | Also contacted by other agents: " + String.join(", ", otherAgents);
+                        }
+                    }
+                    return line;
                 })
                 .collect(Collectors.joining("\n"));
     }
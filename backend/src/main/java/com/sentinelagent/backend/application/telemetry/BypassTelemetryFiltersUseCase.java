@@ -0,0 +1,38 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.filter.TelemetryFilterChain;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Use Case: Exempt agents from the telemetry filter chain, e.g. while they are
+ * under forensic investigation, so their reports are stored complete
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BypassTelemetryFiltersUseCase {
+
+    private final TelemetryFilterChain filterChain;
+
+    public Set<String> bypass(String agentId) {
+        if (filterChain.bypass(agentId)) {
+            log.info("Telemetry filters bypassed for agent {}", agentId);
+        }
+        return filterChain.bypassedAgents();
+    }
+
+    public Set<String> restore(String agentId) {
+        if (filterChain.restore(agentId)) {
+            log.info("Telemetry filters restored for agent {}", agentId);
+        }
+        return filterChain.bypassedAgents();
+    }
+
+    public Set<String> bypassedAgents() {
+        return filterChain.bypassedAgents();
+    }
+}
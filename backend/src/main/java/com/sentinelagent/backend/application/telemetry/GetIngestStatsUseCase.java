@@ -0,0 +1,36 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.filter.TelemetryFilterChain;
+import com.sentinelagent.backend.application.telemetry.filter.TelemetryFilterChain.FilterStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Use Case: State and counters of the telemetry ingest pipeline since the backend started
+ */
+@Service
+@RequiredArgsConstructor
+public class GetIngestStatsUseCase {
+
+    private final TelemetryDeduplicator deduplicator;
+    private final IngestLoadShedder loadShedder;
+    private final TelemetryFilterChain filterChain;
+    private final TelemetryChangeTracker changeTracker;
+
+    public IngestStatsDto execute() {
+        return new IngestStatsDto(loadShedder.mode(), loadShedder.lastLag(),
+                deduplicator.duplicatesDropped(), loadShedder.reportsShed(), filterChain.stats(),
+                changeTracker.changesDerived());
+    }
+
+    /**
+     * @param consumerLag    last measured lag, -1 if not measured yet
+     * @param filters        reduction per filter of the telemetry filter chain
+     * @param changesDerived process and connection change events passed to the analysis
+     */
+    public record IngestStatsDto(IngestMode mode, long consumerLag, long duplicatesDropped, long reportsShed,
+            List<FilterStats> filters, long changesDerived) {
+    }
+}
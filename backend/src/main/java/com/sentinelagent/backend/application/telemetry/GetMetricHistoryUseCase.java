@@ -0,0 +1,71 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.dto.MetricSeriesDto;
+import com.sentinelagent.backend.application.telemetry.port.MetricHistoryStore;
+import com.sentinelagent.backend.domain.telemetry.MetricField;
+import com.sentinelagent.backend.domain.telemetry.exception.InvalidMetricFieldException;
+import com.sentinelagent.backend.domain.telemetry.exception.InvalidTimeRangeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * Use Case: Query an agent's long-range metric history
+ *
+ * Reads the compressed per-agent series and decodes only the requested field.
+ * The range is limited, since the whole series is collected into one response.
+ */
+@Service
+public class GetMetricHistoryUseCase {
+
+    private final MetricHistoryStore metricHistoryStore;
+    private final Duration maxRange;
+
+    public GetMetricHistoryUseCase(MetricHistoryStore metricHistoryStore,
+            @Value("${timeseries.history.max-range-days:31}") int maxRangeDays) {
+        this.metricHistoryStore = metricHistoryStore;
+        this.maxRange = Duration.ofDays(maxRangeDays);
+    }
+
+    public MetricSeriesDto execute(String agentId, String field, LocalDateTime from, LocalDateTime to) {
+        MetricField metricField = MetricField.fromPropertyName(field);
+        if (!metricHistoryStore.isArchived(metricField)) {
+            throw new InvalidMetricFieldException("Metric field has no history: " + field);
+        }
+        if (to.isBefore(from)) {
+            throw new InvalidTimeRangeException("from " + from + " is after to " + to);
+        }
+        if (Duration.between(from, to).compareTo(maxRange) > 0) {
+            throw new InvalidTimeRangeException("longer than " + maxRange.toDays() + " days");
+        }
+        long fromMillis = from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long toMillis = to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        long[] timestamps = new long[256];
+        double[] values = new double[256];
+        int count = 0;
+        try (MetricHistoryStore.SampleCursor cursor =
+                metricHistoryStore.readRange(agentId, metricField, fromMillis, toMillis)) {
+            while (cursor.next()) {
+                if (count == timestamps.length) {
+                    timestamps = Arrays.copyOf(timestamps, count * 2);
+                    values = Arrays.copyOf(values, count * 2);
+                }
+                timestamps[count] = cursor.timestamp();
+                values[count] = cursor.value();
+                count++;
+            }
+        }
+
+        return MetricSeriesDto.builder()
+                .agentId(agentId)
+                .field(metricField.getPropertyName())
+                .timestamps(Arrays.copyOf(timestamps, count))
+                .values(Arrays.copyOf(values, count))
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.common.PageSize;
+import com.sentinelagent.backend.application.telemetry.dto.NetworkFlowDto;
+import com.sentinelagent.backend.application.telemetry.port.NetworkFlowStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Use Case: Query an agent's connection history as aggregated network flows
+ */
+@Service
+@RequiredArgsConstructor
+public class GetNetworkFlowsUseCase {
+
+    private final NetworkFlowStore networkFlowStore;
+
+    public List<NetworkFlowDto> execute(String agentId, LocalDateTime from, LocalDateTime to, Integer limit) {
+        return networkFlowStore.findFlows(agentId, from, to, PageSize.normalize(limit));
+    }
+}
@@ -0,0 +1,42 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.dto.MetricSeriesDto;
+import com.sentinelagent.backend.application.telemetry.port.RecentMetricStore;
+import com.sentinelagent.backend.domain.telemetry.MetricField;
+import com.sentinelagent.backend.domain.telemetry.exception.InvalidTimeRangeException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+
+/**
+ * Use Case: Query an agent's recent metric window
+ *
+ * Served entirely from the in-process hot store; never touches MongoDB.
+ */
+@Service
+@RequiredArgsConstructor
+public class GetRecentMetricsUseCase {
+
+    private final RecentMetricStore recentMetricStore;
+
+    public MetricSeriesDto execute(String agentId, String field, int minutes) {
+        MetricField metricField = MetricField.fromPropertyName(field);
+        if (minutes <= 0) {
+            throw new InvalidTimeRangeException("minutes must be positive, got " + minutes);
+        }
+        long now = System.currentTimeMillis();
+        long from = now - minutes * 60_000L;
+
+        long[] timestamps = new long[recentMetricStore.samplesPerAgent()];
+        double[] values = new double[timestamps.length];
+        int count = recentMetricStore.readRange(agentId, metricField, from, now, timestamps, values);
+
+        return MetricSeriesDto.builder()
+                .agentId(agentId)
+                .field(metricField.getPropertyName())
+                .timestamps(Arrays.copyOf(timestamps, count))
+                .values(Arrays.copyOf(values, count))
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.common.ContinuationToken;
+import com.sentinelagent.backend.application.common.InvalidContinuationTokenException;
+import com.sentinelagent.backend.application.common.PageSize;
+import com.sentinelagent.backend.application.common.dto.PageResponse;
+import com.sentinelagent.backend.application.telemetry.dto.MetricReportSummaryDto;
+import com.sentinelagent.backend.domain.telemetry.AsyncMetricReportRepository;
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import com.sentinelagent.backend.domain.telemetry.MetricReportId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Use Case: Query stored telemetry reports
+ *
+ * Lists an agent's reports newest first using keyset pagination on
+ * (receivedAt, id), so page cost does not grow with the page number.
+ */
+@Service
+@RequiredArgsConstructor
+public class GetReportsUseCase {
+
+    private final AsyncMetricReportRepository metricReportRepository;
+
+    public CompletableFuture<PageResponse<MetricReportSummaryDto>> getReportsByAgent(String agentId, String pageToken, Integer limit) {
+        int pageSize = PageSize.normalize(limit);
+
+        LocalDateTime beforeReceivedAt = null;
+        MetricReportId beforeId = null;
+        if (pageToken != null && !pageToken.isBlank()) {
+            String[] parts = ContinuationToken.decode(pageToken, 2);
+            try {
+                beforeReceivedAt = LocalDateTime.parse(parts[0]);
+            } catch (DateTimeParseException ex) {
+                throw new InvalidContinuationTokenException();
+            }
+            beforeId = MetricReportId.of(parts[1]);
+        }
+
+        return metricReportRepository.findPageByAgentId(agentId, beforeReceivedAt, beforeId, pageSize + 1)
+                .thenApply(reports -> toPage(reports, pageSize));
+    }
+
+    private PageResponse<MetricReportSummaryDto> toPage(List<MetricReport> reports, int pageSize) {
+        boolean hasMore = reports.size() > pageSize;
+        List<MetricReport> pageItems = hasMore ? reports.subList(0, pageSize) : reports;
+        String nextToken = null;
+        if (hasMore) {
+            MetricReport last = pageItems.get(pageItems.size() - 1);
+            nextToken = ContinuationToken.encode(last.getReceivedAt().toString(), last.getId().getValue());
+        }
+
+        return new PageResponse<>(pageItems.stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList()), nextToken);
+    }
+
+    private MetricReportSummaryDto mapToDto(MetricReport report) {
+        return MetricReportSummaryDto.builder()
+                .reportId(report.getId().getValue())
+                .agentId(report.getAgentId())
+                .hostname(report.getHostname())
+                .cpuUsage(report.getCpuUsage())
+                .ramUsedPercent(report.getRamUsedPercent())
+                .diskUsedPercent(report.getDiskUsedPercent())
+                .bytesSentSec(report.getBytesSentSec())
+                .bytesRecvSec(report.getBytesRecvSec())
+                .processCount(report.getProcesses() != null ? report.getProcesses().size() : 0)
+                .networkConnectionsCount(
+                        report.getNetworkConnections() != null ? report.getNetworkConnections().size() : 0)
+                .receivedAt(report.getReceivedAt())
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.port.ConsumerLagProbe;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chooses the IngestMode from the consumer lag.
+ * Part of the Application Layer.
+ *
+ * Stale telemetry is not worth a full analysis while ingestion is behind, so
+ * the pipeline degrades to metrics-only persistence once the lag reaches
+ * metrics-only-lag and to sampled persistence at sampled-lag. It steps back
+ * only when the lag has fallen below recover-ratio times the threshold of
+ * the mode it leaves, so a lag hovering around a threshold does not flap.
+ *
+ * Reports are still deduplicated and applied to the delta snapshot in every
+ * mode; agent state stays consistent and full analysis resumes directly.
+ */
+@Slf4j
+@Component
+public class IngestLoadShedder {
+
+    private final ConsumerLagProbe lagProbe;
+    private final boolean enabled;
+    private final long metricsOnlyLag;
+    private final long sampledLag;
+    private final double recoverRatio;
+    private final int sampleEvery;
+
+    private volatile IngestMode mode = IngestMode.FULL;
+    private volatile long lastLag = ConsumerLagProbe.UNKNOWN;
+    private final Map<String, AtomicLong> sampleCounters = new ConcurrentHashMap<>();
+    private final AtomicLong reportsShed = new AtomicLong();
+
+    public IngestLoadShedder(ConsumerLagProbe lagProbe,
+            @Value("${telemetry.shedding.enabled:true}") boolean enabled,
+            @Value("${telemetry.shedding.metrics-only-lag:1000}") long metricsOnlyLag,
+            @Value("${telemetry.shedding.sampled-lag:10000}") long sampledLag,
+            @Value("${telemetry.shedding.recover-ratio:0.5}") double recoverRatio,
+            @Value("${telemetry.shedding.sample-every:10}") int sampleEvery) {
+        this.lagProbe = lagProbe;
+        this.enabled = enabled;
+        this.metricsOnlyLag = metricsOnlyLag;
+        this.sampledLag = sampledLag;
+        this.recoverRatio = recoverRatio;
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    @Scheduled(fixedDelayString = "${telemetry.shedding.check-interval-ms:5000}")
+    public void evaluate() {
+        if (!enabled) {
+            return;
+        }
+        long lag = lagProbe.currentLag();
+        if (lag != ConsumerLagProbe.UNKNOWN) {
+            update(lag);
+        }
+    }
+
+    /**
+     * Move to the mode for the given lag
+     */
+    public void update(long lag) {
+        lastLag = lag;
+        IngestMode next = switch (mode) {
+            case FULL -> lag >= sampledLag ? IngestMode.SAMPLED
+                    : lag >= metricsOnlyLag ? IngestMode.METRICS_ONLY
+                    : IngestMode.FULL;
+            case METRICS_ONLY -> lag >= sampledLag ? IngestMode.SAMPLED
+                    : lag < metricsOnlyLag * recoverRatio ? IngestMode.FULL
+                    : IngestMode.METRICS_ONLY;
+            case SAMPLED -> lag < metricsOnlyLag * recoverRatio ? IngestMode.FULL
+                    : lag < sampledLag * recoverRatio ? IngestMode.METRICS_ONLY
+                    : IngestMode.SAMPLED;
+        };
+        if (next != mode) {
+            log.warn("Telemetry ingest mode {} -> {} (consumer lag {})", mode, next, lag);
+            mode = next;
+        }
+    }
+
+    public IngestMode mode() {
+        return mode;
+    }
+
+    public long lastLag() {
+        return lastLag;
+    }
+
+    /**
+     * Whether a report of the agent is stored in the given mode; counts the ones that are not
+     */
+    public boolean keep(IngestMode mode, String agentId) {
+        if (mode != IngestMode.SAMPLED) {
+            return true;
+        }
+        long n = sampleCounters.computeIfAbsent(agentId != null ? agentId : "", id -> new AtomicLong())
+                .getAndIncrement();
+        if (n % sampleEvery == 0) {
+            return true;
+        }
+        reportsShed.incrementAndGet();
+        return false;
+    }
+
+    public long reportsShed() {
+        return reportsShed.get();
+    }
+}
@@ -0,0 +1,23 @@
+package com.sentinelagent.backend.application.telemetry;
+
+/**
+ * How much work ingestion does per telemetry report, from the most to the least.
+ * Part of the Application Layer.
+ */
+public enum IngestMode {
+
+    /**
+     * Store reports with their processes and connections and analyze each one
+     */
+    FULL,
+
+    /**
+     * Store the numeric metrics of each report only; no security analysis
+     */
+    METRICS_ONLY,
+
+    /**
+     * Store the numeric metrics of one report in N per agent; no security analysis
+     */
+    SAMPLED
+}
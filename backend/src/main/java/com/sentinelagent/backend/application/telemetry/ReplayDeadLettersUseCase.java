@@ -0,0 +1,51 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.dto.DeadLetterReplayStatus;
+import com.sentinelagent.backend.application.telemetry.port.DeadLetterReplayer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Use Case: Replay dead-lettered telemetry at a controlled rate
+ *
+ * Replayed records go back through the main ingest topic; if they fail again
+ * they take the normal retry path.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReplayDeadLettersUseCase {
+
+    public static final int DEFAULT_MAX_RECORDS = 1000;
+    public static final int MAX_RECORDS = 100_000;
+    public static final int DEFAULT_RATE = 50;
+    public static final int MAX_RATE = 1000;
+
+    private final DeadLetterReplayer replayer;
+
+    /**
+     * @return the replay status; {@code running} with the earlier settings if a replay was already in progress
+     */
+    public DeadLetterReplayStatus execute(Integer maxRecords, Integer recordsPerSecond) {
+        int records = clamp(maxRecords, DEFAULT_MAX_RECORDS, MAX_RECORDS);
+        int rate = clamp(recordsPerSecond, DEFAULT_RATE, MAX_RATE);
+        if (replayer.start(records, rate)) {
+            log.info("Replaying up to {} dead-lettered telemetry records at {}/s", records, rate);
+        } else {
+            log.warn("Dead-letter replay requested while one is running");
+        }
+        return replayer.status();
+    }
+
+    public DeadLetterReplayStatus status() {
+        return replayer.status();
+    }
+
+    private static int clamp(Integer requested, int defaultValue, int max) {
+        if (requested == null || requested <= 0) {
+            return defaultValue;
+        }
+        return Math.min(requested, max);
+    }
+}
@@ -1,36 +1,190 @@
 package com.sentinelagent.backend.application.telemetry;
 
+import com.sentinelagent.backend.application.hunting.port.ProcessIndex;
+import com.sentinelagent.backend.application.hunting.port.RemoteEndpointIndex;
 import com.sentinelagent.backend.application.telemetry.dto.TelemetryData;
+import com.sentinelagent.backend.application.telemetry.filter.FilteredTelemetry;
+import com.sentinelagent.backend.application.telemetry.filter.TelemetryFilterChain;
+import com.sentinelagent.backend.application.telemetry.port.MetricHistoryStore;
+import com.sentinelagent.backend.application.telemetry.port.NetworkFlowStore;
+import com.sentinelagent.backend.application.telemetry.port.RecentMetricStore;
+import com.sentinelagent.backend.application.telemetry.port.StringDictionary;
+import com.sentinelagent.backend.domain.telemetry.AsyncMetricReportRepository;
 import com.sentinelagent.backend.domain.telemetry.MetricReport;
-import com.sentinelagent.backend.domain.telemetry.MetricReportRepository;
 import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
 import com.sentinelagent.backend.domain.telemetry.Process;
-import lombok.RequiredArgsConstructor;
+import com.sentinelagent.backend.domain.telemetry.TelemetryChanges;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Use Case for saving telemetry data.
  * Part of the Application Layer.
+ *
+ * The write is issued without waiting for it; the returned future completes
+ * once the report is stored. Reports unpacked from one envelope are stored
+ * with a single bulk insert.
+ *
+ * Reports an agent already delivered are dropped before they are stored or
+ * analyzed (see TelemetryDeduplicator). While ingestion is behind, only the
+ * numeric metrics of all or some reports are stored (see IngestLoadShedder).
+ * Process and connection lists are reduced by the TelemetryFilterChain; the
+ * changes since the agent's previous report are derived from the unfiltered
+ * lists (see TelemetryChangeTracker), passed on with the report and applied
+ * to the fleet-wide process index. The unfiltered connections are also
+ * counted into the agent's network flows, which can replace the connection
+ * lists of stored reports, and into the fleet-wide remote endpoint index.
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class SaveTelemetryUseCase {
 
-    private final MetricReportRepository metricReportRepository;
+    private final AsyncMetricReportRepository metricReportRepository;
+    private final RecentMetricStore recentMetricStore;
+    private final MetricHistoryStore metricHistoryStore;
+    private final StringDictionary dictionary;
+    private final TelemetrySnapshotCache snapshotCache;
+    private final TelemetryDeduplicator deduplicator;
+    private final IngestLoadShedder loadShedder;
+    private final TelemetryFilterChain filterChain;
+    private final TelemetryChangeTracker changeTracker;
+    private final NetworkFlowStore networkFlowStore;
+    private final ProcessIndex processIndex;
+    private final RemoteEndpointIndex remoteEndpointIndex;
+    private final boolean keepReportConnections;
 
-    public MetricReport execute(TelemetryData data) {
-        log.info("💾 Saving telemetry from agent: {}", data.getAgentId());
+    public SaveTelemetryUseCase(AsyncMetricReportRepository metricReportRepository,
+            RecentMetricStore recentMetricStore,
+            MetricHistoryStore metricHistoryStore,
+            StringDictionary dictionary,
+            TelemetrySnapshotCache snapshotCache,
+            TelemetryDeduplicator deduplicator,
+            IngestLoadShedder loadShedder,
+            TelemetryFilterChain filterChain,
+            TelemetryChangeTracker changeTracker,
+            NetworkFlowStore networkFlowStore,
+            ProcessIndex processIndex,
+            RemoteEndpointIndex remoteEndpointIndex,
+            @Value("${telemetry.flows.keep-report-connections:true}") boolean keepReportConnections) {
+        this.metricReportRepository = metricReportRepository;
+        this.recentMetricStore = recentMetricStore;
+        this.metricHistoryStore = metricHistoryStore;
+        this.dictionary = dictionary;
+        this.snapshotCache = snapshotCache;
+        this.deduplicator = deduplicator;
+        this.loadShedder = loadShedder;
+        this.filterChain = filterChain;
+        this.changeTracker = changeTracker;
+        this.networkFlowStore = networkFlowStore;
+        this.processIndex = processIndex;
+        this.remoteEndpointIndex = remoteEndpointIndex;
+        this.keepReportConnections = keepReportConnections;
+    }
+
+    /**
+     * Save consecutive reports of one agent, oldest first
+     *
+     * @return the stored reports; duplicates of reports already stored are dropped
+     */
+    public CompletableFuture<List<MetricReport>> executeAll(List<TelemetryData> telemetry) {
+        IngestMode mode = loadShedder.mode();
+        List<MetricReport> reports = new ArrayList<>(telemetry.size());
+        Set<MetricReport> redelivered = new HashSet<>();
+        for (TelemetryData data : telemetry) {
+            if (!deduplicator.accept(data)) {
+                continue;
+            }
+            // Resolved in every mode, so the delta snapshot stays current
+            TelemetryData resolved = snapshotCache.resolve(data);
+            if (!resolved.isRedelivered() && !resolved.isDetailsMissing()) {
+                // Unfiltered and in every mode, so the flow history and the pivot index stay complete
+                networkFlowStore.append(resolved.getAgentId(), resolved.getNetworkConnections(), LocalDateTime.now());
+                remoteEndpointIndex.record(resolved.getAgentId(), resolved.getNetworkConnections(),
+                        System.currentTimeMillis());
+            }
+            if (!loadShedder.keep(mode, data.getAgentId())) {
+                continue;
+            }
+            MetricReport report = buildReport(resolved, mode == IngestMode.FULL);
+            if (mode == IngestMode.FULL) {
+                // Reports that are not analyzed leave the tracker behind, so the first
+                // analyzed one covers everything that changed in the meantime
+                TelemetryChanges changes = changeTracker.track(resolved);
+                processIndex.apply(resolved.getAgentId(), resolved.getProcesses(), changes,
+                        resolved.getMessageType() == TelemetryData.MessageType.FULL);
+                report.setChanges(changes);
+            }
+            if (data.isRedelivered()) {
+                redelivered.add(report);
+            } else {
+                appendToStores(report);
+            }
+            reports.add(report);
+        }
+        if (reports.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        String agentId = reports.get(0).getAgentId();
+        log.info("💾 Saving {} telemetry report(s) from agent: {}", reports.size(), agentId);
+        return metricReportRepository.saveAll(reports).thenApply(stored -> {
+            if (stored.size() < reports.size()) {
+                deduplicator.recordStoredDuplicates(agentId, reports.size() - stored.size());
+            }
+            // A redelivered report may be a copy of a stored one, so it only reaches
+            // the in-memory stores once the report store has accepted it
+            for (MetricReport report : stored) {
+                if (redelivered.contains(report)) {
+                    appendToStores(report);
+                }
+            }
+            return stored;
+        });
+    }
+
+    /**
+     * Build the reports of telemetry that was already stored, so that a failed
+     * analysis can be retried without storing them twice. Their changes are not
+     * known any more, so they are analyzed in full.
+     */
+    public List<MetricReport> rebuild(List<TelemetryData> telemetry) {
+        List<MetricReport> reports = new ArrayList<>(telemetry.size());
+        for (TelemetryData data : telemetry) {
+            reports.add(buildReport(snapshotCache.resolve(data), true));
+        }
+        return reports;
+    }
+
+    private void appendToStores(MetricReport report) {
+        // The in-memory stores only need agentId and receivedAt, so new reports are fed
+        // on the calling thread rather than on the driver thread that completes the save
+        recentMetricStore.append(report);
+        metricHistoryStore.append(report);
+    }
+
+    /**
+     * @param data    telemetry with full process and connection lists (see TelemetrySnapshotCache)
+     * @param details whether the process and connection lists are kept
+     */
+    private MetricReport buildReport(TelemetryData data, boolean details) {
+        // The resolved lists may be the delta snapshot itself; the chain returns new lists
+        FilteredTelemetry filtered = details
+                ? filterChain.apply(data.getAgentId(), data.getProcesses(), data.getNetworkConnections())
+                : new FilteredTelemetry(List.of(), List.of());
 
         // Convert to domain entity
-        MetricReport report = MetricReport.builder()
+        return MetricReport.builder()
                 .agentId(data.getAgentId())
-                .hostname(data.getHostname())
+                .hostname(dictionary.intern(data.getHostname()))
+                .sequenceEpoch(data.getSequenceEpoch())
+                .sequence(data.getSequence())
                 .cpuUsage(data.getCpuUsage())
                 .ramUsedPercent(data.getRamUsedPercent())
                 .ramTotalMb(data.getRamTotalMb())
@@ -38,40 +192,38 @@ public class SaveTelemetryUseCase {
                 .diskTotalGb(data.getDiskTotalGb())
                 .bytesSentSec(data.getBytesSentSec())
                 .bytesRecvSec(data.getBytesRecvSec())
-                .processes(mapProcesses(data.getProcesses()))
-                .networkConnections(mapConnections(data.getNetworkConnections()))
+                .processes(internProcesses(filtered.getProcesses()))
+                .networkConnections(keepReportConnections ? internConnections(filtered.getConnections()) : List.of())
+                .omittedProcesses(filtered.getOmittedProcesses())
+                .omittedProcessCpu(filtered.getOmittedProcessCpu())
+                .omittedConnections(filtered.getOmittedConnections().isEmpty()
+                        ? null : filtered.getOmittedConnections())
                 .receivedAt(LocalDateTime.now())
                 .build();
-
-        return metricReportRepository.save(report);
     }
 
-    private List<Process> mapProcesses(List<TelemetryData.ProcessData> processes) {
+    /**
+     * Repeated strings are replaced by their canonical dictionary instances, so a
+     * report retained in memory (analysis queue, caches) shares them. The parsed
+     * entries are reused as they are.
+     */
+    private List<Process> internProcesses(List<Process> processes) {
         if (processes == null)
             return List.of();
-        return processes.stream()
-                .map(p -> Process.builder()
-                        .pid(p.getPid())
-                        .name(p.getName())
-                        .cpuUsage(p.getCpu())
-                        .username(p.getUsername())
-                        .build())
-                .collect(Collectors.toList());
+        for (Process p : processes) {
+            p.setName(dictionary.intern(p.getName()));
+            p.setUsername(dictionary.intern(p.getUsername()));
+        }
+        return processes;
     }
 
-    private List<NetworkConnection> mapConnections(List<TelemetryData.NetworkConnectionData> connections) {
+    private List<NetworkConnection> internConnections(List<NetworkConnection> connections) {
         if (connections == null)
             return List.of();
-        return connections.stream()
-                .map(c -> NetworkConnection.builder()
-                        .pid(c.getPid())
-                        .localAddress(c.getLocalAddress())
-                        .localPort(c.getLocalPort())
-                        .remoteAddress(c.getRemoteAddress())
-                        .remotePort(c.getRemotePort())
-                        .status(c.getStatus())
-                        .processName(c.getProcessName())
-                        .build())
-                .collect(Collectors.toList());
+        for (NetworkConnection c : connections) {
+            c.setStatus(dictionary.intern(c.getStatus()));
+            c.setProcessName(dictionary.intern(c.getProcessName()));
+        }
+        return connections;
     }
 }
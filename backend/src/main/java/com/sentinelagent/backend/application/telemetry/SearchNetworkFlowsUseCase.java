@@ -0,0 +1,25 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.common.PageSize;
+import com.sentinelagent.backend.application.telemetry.dto.NetworkFlowDto;
+import com.sentinelagent.backend.application.telemetry.port.NetworkFlowStore;
+import com.sentinelagent.backend.domain.telemetry.CidrBlock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Use Case: Find which agents talked to an address range, e.g. 203.0.113.0/24
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchNetworkFlowsUseCase {
+
+    private final NetworkFlowStore networkFlowStore;
+
+    public List<NetworkFlowDto> execute(String cidr, LocalDateTime from, LocalDateTime to, Integer limit) {
+        return networkFlowStore.findFlowsTo(CidrBlock.parse(cidr), from, to, PageSize.normalize(limit));
+    }
+}
@@ -0,0 +1,112 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.dto.TelemetryData;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import com.sentinelagent.backend.domain.telemetry.TelemetryChanges;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Derives process and connection change events from consecutive reports of each agent.
+ * Part of the Application Layer.
+ *
+ * The resolved process set (by pid and name) and connection set (by pid and
+ * both endpoints, as in TelemetrySnapshotCache) of a report are compared
+ * with those of the agent's previous report, so the security analysis only
+ * has to look at what started, stopped, opened or closed in between. The
+ * first report of an agent after a restart reports everything as started.
+ *
+ * Reports of one agent must be tracked in order. Reports whose lists are
+ * not known (metrics-only, unresolvable delta, redelivered) yield no changes
+ * and leave the state alone, so the next complete report is compared with
+ * the last complete one. The state of a deleted agent is dropped.
+ */
+@Slf4j
+@Component
+public class TelemetryChangeTracker {
+
+    private final Map<String, AgentState> states = new ConcurrentHashMap<>();
+    private final AtomicLong changesDerived = new AtomicLong();
+
+    /**
+     * @param resolved telemetry with full process and connection lists (see TelemetrySnapshotCache)
+     * @return the changes since the agent's previous report, or null if they are not known
+     */
+    public TelemetryChanges track(TelemetryData resolved) {
+        String agentId = resolved.getAgentId();
+        if (agentId == null || resolved.isRedelivered() || resolved.isDetailsMissing()) {
+            return null;
+        }
+        Map<String, Process> processes = new LinkedHashMap<>();
+        if (resolved.getProcesses() != null) {
+            resolved.getProcesses().forEach(p -> processes.put(processKey(p), p));
+        }
+        Map<String, NetworkConnection> connections = new LinkedHashMap<>();
+        if (resolved.getNetworkConnections() != null) {
+            resolved.getNetworkConnections().forEach(c ->
+                    connections.put(TelemetrySnapshotCache.connectionKey(c), c));
+        }
+
+        AgentState previous = states.put(agentId, new AgentState(processes, connections));
+        Map<String, Process> previousProcesses = previous != null ? previous.processes : Map.of();
+        Map<String, NetworkConnection> previousConnections = previous != null ? previous.connections : Map.of();
+
+        TelemetryChanges changes = TelemetryChanges.builder()
+                .startedProcesses(missingFrom(previousProcesses, processes))
+                .stoppedProcesses(missingFrom(processes, previousProcesses))
+                .openedConnections(missingFrom(previousConnections, connections))
+                .closedConnections(missingFrom(connections, previousConnections))
+                .build();
+        changesDerived.addAndGet(changes.size());
+        if (!changes.isEmpty()) {
+            log.debug("Agent {}: {} process(es) started, {} stopped, {} connection(s) opened, {} closed", agentId,
+                    changes.getStartedProcesses().size(), changes.getStoppedProcesses().size(),
+                    changes.getOpenedConnections().size(), changes.getClosedConnections().size());
+        }
+        return changes;
+    }
+
+    @EventListener
+    public void onStatusChanged(AgentStatusChangedEvent event) {
+        if (event.newStatus() == null) {
+            states.remove(event.agentId().getValue());
+        }
+    }
+
+    /**
+     * @return change events derived since startup
+     */
+    public long changesDerived() {
+        return changesDerived.get();
+    }
+
+    static String processKey(Process process) {
+        return process.getPid() + "|" + process.getName();
+    }
+
+    /**
+     * @return the entries of current whose key is not in reference
+     */
+    private static <T> List<T> missingFrom(Map<String, T> reference, Map<String, T> current) {
+        List<T> missing = new ArrayList<>();
+        current.forEach((key, entry) -> {
+            if (!reference.containsKey(key)) {
+                missing.add(entry);
+            }
+        });
+        return missing;
+    }
+
+    private record AgentState(Map<String, Process> processes, Map<String, NetworkConnection> connections) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.dto.TelemetryData;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * High-water mark of the report sequence of each agent, with the gaps below it.
+ * Part of the Application Layer.
+ *
+ * Agents number their reports per run (sequenceEpoch, sequence). Reports
+ * mostly arrive in order, but the agent re-sends the ones Kafka failed to
+ * take after newer ones, so the sequences skipped below the mark are kept
+ * as gaps. A report at or below the mark that fills no gap is a copy Kafka
+ * delivered again and is dropped before it is stored, applied to the delta
+ * snapshot or analyzed. A newer epoch means the agent restarted.
+ *
+ * Only the last MAX_GAPS gaps are tracked; reports below the tracked range
+ * pass, like redelivered records (retries, dead-letter replays), and the
+ * unique sequence index of the report store rejects the ones already
+ * stored. The mark is not persisted, so after a backend restart the index
+ * also catches the first redelivered reports. Agents that do not number
+ * their reports are never deduplicated; the marks of deleted agents are
+ * forgotten.
+ */
+@Slf4j
+@Component
+public class TelemetryDeduplicator {
+
+    // Sequences skipped below an agent's mark that are still expected
+    static final int MAX_GAPS = 1024;
+
+    private final Map<String, Mark> marks = new ConcurrentHashMap<>();
+    private final AtomicLong duplicatesDropped = new AtomicLong();
+
+    /**
+     * Whether the report is new; moves the agent's mark past it or fills its gap if so
+     */
+    public boolean accept(TelemetryData data) {
+        if (data.getAgentId() == null || data.getSequenceEpoch() <= 0 || data.getSequence() <= 0
+                || data.isRedelivered()) {
+            return true;
+        }
+        boolean[] accepted = new boolean[1];
+        marks.compute(data.getAgentId(), (agentId, mark) -> {
+            if (mark == null || data.getSequenceEpoch() > mark.epoch) {
+                accepted[0] = true;
+                return new Mark(data.getSequenceEpoch(), data.getSequence());
+            }
+            if (data.getSequenceEpoch() == mark.epoch) {
+                accepted[0] = mark.accept(data.getSequence());
+            }
+            return mark;
+        });
+        if (!accepted[0]) {
+            log.info("Dropping duplicate telemetry from agent {}: sequence {}/{}",
+                    data.getAgentId(), data.getSequenceEpoch(), data.getSequence());
+            duplicatesDropped.incrementAndGet();
+        }
+        return accepted[0];
+    }
+
+    @EventListener
+    public void onStatusChanged(AgentStatusChangedEvent event) {
+        if (event.newStatus() == null) {
+            marks.remove(event.agentId().getValue());
+        }
+    }
+
+    /**
+     * Count reports the store rejected as already stored
+     */
+    public void recordStoredDuplicates(String agentId, int count) {
+        log.info("Dropping {} duplicate telemetry reports from agent {}: already stored", count, agentId);
+        duplicatesDropped.addAndGet(count);
+    }
+
+    public long duplicatesDropped() {
+        return duplicatesDropped.get();
+    }
+
+    /**
+     * Guarded by the compute of its agent's entry
+     */
+    private static final class Mark {
+        private final long epoch;
+        private final TreeSet<Long> gaps = new TreeSet<>();
+        // Lowest sequence whose delivery is known; older ones are left to the store
+        private long floor;
+        private long sequence;
+
+        private Mark(long epoch, long sequence) {
+            this.epoch = epoch;
+            this.floor = sequence;
+            this.sequence = sequence;
+        }
+
+        private boolean accept(long next) {
+            if (next > sequence) {
+                // Gaps that are not tracked move the floor above them
+                long tracked = Math.max(sequence + 1, next - MAX_GAPS);
+                if (tracked > sequence + 1) {
+                    floor = tracked;
+                }
+                for (long skipped = tracked; skipped < next; skipped++) {
+                    gaps.add(skipped);
+                }
+                while (gaps.size() > MAX_GAPS) {
+                    floor = gaps.pollFirst() + 1;
+                }
+                sequence = next;
+                return true;
+            }
+            return next < floor || gaps.remove(next);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.dto.TelemetryData;
+import com.sentinelagent.backend.application.telemetry.dto.TelemetryData.MessageType;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last known process and connection state of each agent using the delta protocol.
+ * Part of the Application Layer.
+ *
+ * A FULL message replaces the agent's snapshot. A DELTA is applied on top of
+ * it when its base sequence matches the snapshot's; otherwise the state cannot
+ * be rebuilt, the snapshot is dropped and a resync is requested from the
+ * agent through its next heartbeat response. A METRICS message leaves the
+ * snapshot alone; the agent follows it with a FULL one.
+ *
+ * Messages of one agent must be resolved in order (the ingest pipeline keeps
+ * per-agent ordering). Redelivered messages (retries, dead-letter replays)
+ * are older than the snapshot and never touch it. The snapshot of a deleted
+ * agent is dropped.
+ */
+@Slf4j
+@Component
+public class TelemetrySnapshotCache {
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Set<String> resyncRequested = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Return the telemetry with full process and connection lists. An unresolvable
+     * DELTA is returned with empty lists, so its metrics are still stored, and
+     * marked detailsMissing.
+     */
+    public TelemetryData resolve(TelemetryData data) {
+        String agentId = data.getAgentId();
+        if (agentId == null || data.getSequence() <= 0) {
+            return data; // agent without delta support
+        }
+
+        if (data.getMessageType() == MessageType.METRICS) {
+            clearDetails(data);
+            return data;
+        }
+
+        if (data.isRedelivered()) {
+            // Newer messages have moved the snapshot on; a late DELTA can no longer be rebuilt
+            if (data.getMessageType() == MessageType.DELTA) {
+                clearDetails(data);
+            }
+            return data;
+        }
+
+        if (data.getMessageType() == MessageType.FULL) {
+            snapshots.put(agentId, new Snapshot(data));
+            resyncRequested.remove(agentId);
+            return data;
+        }
+
+        Snapshot snapshot = snapshots.get(agentId);
+        if (snapshot == null || snapshot.sequence != data.getBaseSequence()) {
+            log.warn("Telemetry sequence gap for agent {}: delta on {} but state is at {}, requesting resync",
+                    agentId, data.getBaseSequence(), snapshot != null ? snapshot.sequence : "none");
+            snapshots.remove(agentId);
+            resyncRequested.add(agentId);
+            clearDetails(data);
+            return data;
+        }
+
+        snapshot.apply(data);
+        data.setProcesses(new ArrayList<>(snapshot.processes.values()));
+        data.setNetworkConnections(new ArrayList<>(snapshot.connections.values()));
+        return data;
+    }
+
+    /**
+     * Whether the agent has to send a full snapshot; clears the request
+     */
+    public boolean consumeResyncRequest(String agentId) {
+        return resyncRequested.remove(agentId);
+    }
+
+    @EventListener
+    public void onStatusChanged(AgentStatusChangedEvent event) {
+        if (event.newStatus() == null) {
+            String agentId = event.agentId().getValue();
+            snapshots.remove(agentId);
+            resyncRequested.remove(agentId);
+        }
+    }
+
+    private static void clearDetails(TelemetryData data) {
+        data.setProcesses(List.of());
+        data.setNetworkConnections(List.of());
+        data.setDetailsMissing(true);
+    }
+
+    /**
+     * Identity of a connection; a status change of the same connection is an update
+     */
+    static String connectionKey(NetworkConnection c) {
+        return c.getPid() + "|" + c.getLocalAddress() + "|" + c.getLocalPort()
+                + "|" + c.getRemoteAddress() + "|" + c.getRemotePort();
+    }
+
+    private static final class Snapshot {
+        private long sequence;
+        private final Map<Integer, Process> processes = new LinkedHashMap<>();
+        private final Map<String, NetworkConnection> connections = new LinkedHashMap<>();
+
+        private Snapshot(TelemetryData full) {
+            this.sequence = full.getSequence();
+            if (full.getProcesses() != null) {
+                full.getProcesses().forEach(p -> processes.put(p.getPid(), p));
+            }
+            if (full.getNetworkConnections() != null) {
+                full.getNetworkConnections().forEach(c -> connections.put(connectionKey(c), c));
+            }
+        }
+
+        private void apply(TelemetryData delta) {
+            if (delta.getRemovedProcessPids() != null) {
+                delta.getRemovedProcessPids().forEach(processes::remove);
+            }
+            if (delta.getProcesses() != null) {
+                delta.getProcesses().forEach(p -> processes.put(p.getPid(), p));
+            }
+            if (delta.getRemovedConnections() != null) {
+                delta.getRemovedConnections().forEach(c -> connections.remove(connectionKey(c)));
+            }
+            if (delta.getNetworkConnections() != null) {
+                delta.getNetworkConnections().forEach(c -> connections.put(connectionKey(c), c));
+            }
+            sequence = delta.getSequence();
+        }
+    }
+}
@@ -8,6 +8,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Use Case: Validate telemetry data from an agent
  * 
@@ -18,54 +20,56 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ValidateTelemetryUseCase {
 
-    private final AgentRepository agentRepository;
+    private final AsyncAgentRepository agentRepository;
     private final ApiKeyService apiKeyService;
 
     /**
      * Validate telemetry and return the validated agent
      * 
-     * @return The validated Agent if credentials are valid
-     * @throws InvalidAgentCredentialsException if validation fails
+     * @return Future of the validated Agent (null for anonymous or unknown agents),
+     *         failed with InvalidAgentCredentialsException if validation fails
      */
-    public Agent execute(TelemetryData telemetry) {
+    public CompletableFuture<Agent> execute(TelemetryData telemetry) {
         String agentId = telemetry.getAgentId();
         String apiKey = telemetry.getApiKey();
 
         // If no agent ID, allow anonymous telemetry (for backward compatibility)
         if (agentId == null || agentId.isBlank()) {
             log.debug("Anonymous telemetry received (no agent ID)");
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
-        // Find agent
-        Agent agent = agentRepository.findById(AgentId.of(agentId))
-                .orElse(null);
+        // The API key hash check is CPU-bound, so it runs on the common pool rather
+        // than on the persistence driver thread that completes the lookup
+        return agentRepository.findById(AgentId.of(agentId)).thenComposeAsync(found -> {
+            Agent agent = found.orElse(null);
 
-        if (agent == null) {
-            log.warn("Telemetry from unknown agent: {}", agentId);
-            return null; // Allow but log - could be misconfigured agent
-        }
+            if (agent == null) {
+                log.warn("Telemetry from unknown agent: {}", agentId);
+                return CompletableFuture.completedFuture(null); // Allow but log - could be misconfigured agent
+            }
 
-        // Validate API key
-        if (!apiKeyService.validateApiKey(apiKey, agent.getApiKeyHash())) {
-            log.warn("Invalid API key for agent: {}", agentId);
-            throw new InvalidAgentCredentialsException();
-        }
+            // Validate API key
+            if (!apiKeyService.validateApiKey(apiKey, agent.getApiKeyHash())) {
+                log.warn("Invalid API key for agent: {}", agentId);
+                return CompletableFuture.failedFuture(new InvalidAgentCredentialsException());
+            }
 
-        // Check agent status
-        if (agent.getStatus() == AgentStatus.REVOKED) {
-            log.warn("Telemetry from revoked agent: {}", agentId);
-            throw new InvalidAgentCredentialsException("Agent has been revoked");
-        }
+            // Check agent status
+            if (agent.getStatus() == AgentStatus.REVOKED) {
+                log.warn("Telemetry from revoked agent: {}", agentId);
+                return CompletableFuture.failedFuture(
+                        new InvalidAgentCredentialsException("Agent has been revoked"));
+            }
 
-        // Update heartbeat
-        agent.recordHeartbeat();
-        if (agent.getStatus() == AgentStatus.INACTIVE) {
-            agent.activate();
-        }
-        agentRepository.save(agent);
+            // Update heartbeat
+            agent.recordHeartbeat();
+            if (agent.getStatus() == AgentStatus.INACTIVE) {
+                agent.activate();
+            }
 
-        log.debug("Telemetry validated for agent: {}", agentId);
-        return agent;
+            log.debug("Telemetry validated for agent: {}", agentId);
+            return agentRepository.save(agent);
+        });
     }
 }
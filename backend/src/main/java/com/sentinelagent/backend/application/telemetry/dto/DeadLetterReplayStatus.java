@@ -0,0 +1,26 @@
+package com.sentinelagent.backend.application.telemetry.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the latest dead-letter replay
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeadLetterReplayStatus {
+
+    private boolean running;
+    private long replayed;
+    private int maxRecords;
+    private int recordsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
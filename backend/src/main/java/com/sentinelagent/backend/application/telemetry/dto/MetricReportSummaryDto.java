@@ -0,0 +1,30 @@
+package com.sentinelagent.backend.application.telemetry.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing a stored metric report in listing responses
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MetricReportSummaryDto {
+
+    private String reportId;
+    private String agentId;
+    private String hostname;
+    private double cpuUsage;
+    private double ramUsedPercent;
+    private double diskUsedPercent;
+    private long bytesSentSec;
+    private long bytesRecvSec;
+    private int processCount;
+    private int networkConnectionsCount;
+    private LocalDateTime receivedAt;
+}
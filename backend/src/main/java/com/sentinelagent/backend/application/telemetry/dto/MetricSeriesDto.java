@@ -0,0 +1,22 @@
+package com.sentinelagent.backend.application.telemetry.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO representing one metric series of an agent.
+ * {@code timestamps} (epoch millis) and {@code values} are parallel arrays, oldest first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MetricSeriesDto {
+
+    private String agentId;
+    private String field;
+    private long[] timestamps;
+    private double[] values;
+}
@@ -0,0 +1,29 @@
+package com.sentinelagent.backend.application.telemetry.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing one network flow of an agent: the observations of a
+ * process talking to a remote address and port in one state, within one window.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NetworkFlowDto {
+
+    private String agentId;
+    private String processName;
+    private String remoteAddress;
+    private int remotePort;
+    private String state;
+    private LocalDateTime windowStart;
+    private LocalDateTime firstSeen;
+    private LocalDateTime lastSeen;
+    private int observations;
+}
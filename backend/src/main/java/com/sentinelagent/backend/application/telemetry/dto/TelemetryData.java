@@ -1,5 +1,7 @@
 package com.sentinelagent.backend.application.telemetry.dto;
 
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +13,17 @@ import java.util.List;
 /**
  * DTO for telemetry data received from agents via Kafka.
  * Part of the Application Layer.
+ *
+ * Process and connection entries are parsed straight into domain objects, so
+ * the report is built from them without copying the lists again.
+ *
+ * A FULL message carries complete process and connection lists. A DELTA
+ * message carries only the entries added or changed since {@code baseSequence}
+ * in the same lists, plus the removed ones. A METRICS message carries no
+ * lists at all (the agent was asked for metrics only, see the heartbeat).
+ *
+ * An envelope record packs several consecutive reports of one agent in
+ * {@code reports}; only its agentId and apiKey are set at the top level.
  */
 @Data
 @NoArgsConstructor
@@ -30,32 +43,56 @@ public class TelemetryData {
     private long bytesRecvSec;
     private LocalDateTime timestamp;
 
-    // For backward compatibility - using both naming conventions
-    private List<ProcessData> processes;
-    private List<NetworkConnectionData> networkConnections;
-
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
-    @Builder
-    public static class ProcessData {
-        private int pid;
-        private String name;
-        private double cpu;
-        private String username;
+    // Delta protocol; sequence 0 means an agent that does not number its messages
+    @Builder.Default
+    private MessageType messageType = MessageType.FULL;
+    private long sequence;
+    private long baseSequence;
+
+    // Start time of the agent run that numbered the message; 0 for older agents
+    private long sequenceEpoch;
+
+    private List<Process> processes;
+    private List<NetworkConnection> networkConnections;
+
+    // DELTA only
+    private List<Integer> removedProcessPids;
+    private List<NetworkConnection> removedConnections;
+
+    // Envelope only, oldest report first
+    private List<TelemetryData> reports;
+
+    // Not on the wire: set for records coming back from a retry or dead-letter replay
+    private boolean redelivered;
+
+    // Not on the wire: set by TelemetrySnapshotCache when the process and connection
+    // lists could not be resolved and were emptied
+    private boolean detailsMissing;
+
+    public boolean isEnvelope() {
+        return reports != null;
+    }
+
+    /**
+     * The reports carried by this record, oldest first: the envelope's reports,
+     * each bound to the envelope's credentials so one validation covers all of
+     * them, or this report itself
+     */
+    public List<TelemetryData> unpack() {
+        if (!isEnvelope()) {
+            return List.of(this);
+        }
+        for (TelemetryData report : reports) {
+            report.setAgentId(agentId);
+            report.setApiKey(apiKey);
+            report.setRedelivered(redelivered);
+        }
+        return reports;
     }
 
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
-    @Builder
-    public static class NetworkConnectionData {
-        private int pid;
-        private String processName;
-        private String localAddress;
-        private int localPort;
-        private String remoteAddress;
-        private int remotePort;
-        private String status;
+    public enum MessageType {
+        FULL,
+        DELTA,
+        METRICS
     }
 }
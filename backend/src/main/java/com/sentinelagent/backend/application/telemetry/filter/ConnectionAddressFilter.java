@@ -0,0 +1,74 @@
+package com.sentinelagent.backend.application.telemetry.filter;
+
+import com.sentinelagent.backend.domain.telemetry.CidrBlock;
+import com.sentinelagent.backend.domain.telemetry.IpAddress;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collapses connections whose remote end is loopback, link-local or inside
+ * one of the configured local subnets into a count per address class
+ */
+class ConnectionAddressFilter implements TelemetryFilter {
+
+    private static final List<CidrBlock> LOOPBACK = List.of(CidrBlock.parse("127.0.0.0/8"), CidrBlock.parse("::1"));
+    private static final List<CidrBlock> LINK_LOCAL =
+            List.of(CidrBlock.parse("169.254.0.0/16"), CidrBlock.parse("fe80::/10"));
+
+    private final boolean loopback;
+    private final boolean linkLocal;
+    private final List<CidrBlock> localSubnets;
+
+    ConnectionAddressFilter(boolean loopback, boolean linkLocal, List<CidrBlock> localSubnets) {
+        this.loopback = loopback;
+        this.linkLocal = linkLocal;
+        this.localSubnets = localSubnets;
+    }
+
+    @Override
+    public String name() {
+        return "connection-address";
+    }
+
+    @Override
+    public void apply(String agentId, FilteredTelemetry telemetry) {
+        List<NetworkConnection> kept = new ArrayList<>(telemetry.getConnections().size());
+        for (NetworkConnection connection : telemetry.getConnections()) {
+            String addressClass = classify(connection.getRemoteAddress());
+            if (addressClass != null) {
+                telemetry.omitConnection(addressClass);
+            } else {
+                kept.add(connection);
+            }
+        }
+        telemetry.setConnections(kept);
+    }
+
+    /**
+     * @return the class of a remote address that is collapsed, or null to keep the connection
+     */
+    String classify(String remoteAddress) {
+        IpAddress address = IpAddress.parse(remoteAddress);
+        if (address == null) {
+            return null;
+        }
+        if (loopback && containedIn(LOOPBACK, address)) {
+            return "loopback";
+        }
+        if (linkLocal && containedIn(LINK_LOCAL, address)) {
+            return "link-local";
+        }
+        return containedIn(localSubnets, address) ? "local" : null;
+    }
+
+    private static boolean containedIn(List<CidrBlock> blocks, IpAddress address) {
+        for (CidrBlock block : blocks) {
+            if (block.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package com.sentinelagent.backend.application.telemetry.filter;
+
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Collapses connections in the configured states (e.g. LISTEN, TIME_WAIT)
+ * into a count per state
+ */
+class ConnectionStateFilter implements TelemetryFilter {
+
+    private final Set<String> states;
+
+    ConnectionStateFilter(Set<String> states) {
+        this.states = states;
+    }
+
+    @Override
+    public String name() {
+        return "connection-state";
+    }
+
+    @Override
+    public void apply(String agentId, FilteredTelemetry telemetry) {
+        List<NetworkConnection> kept = new ArrayList<>(telemetry.getConnections().size());
+        for (NetworkConnection connection : telemetry.getConnections()) {
+            String state = connection.getStatus() != null ? connection.getStatus().toUpperCase(Locale.ROOT) : "";
+            if (states.contains(state)) {
+                telemetry.omitConnection("state:" + state);
+            } else {
+                kept.add(connection);
+            }
+        }
+        telemetry.setConnections(kept);
+    }
+}
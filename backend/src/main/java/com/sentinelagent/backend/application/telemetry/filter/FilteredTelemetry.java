@@ -0,0 +1,46 @@
+package com.sentinelagent.backend.application.telemetry.filter;
+
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process and connection lists of one report as they pass through the filter
+ * chain, with the aggregates of what the filters have removed
+ */
+@Getter
+@Setter
+public class FilteredTelemetry {
+
+    private List<Process> processes;
+    private List<NetworkConnection> connections;
+    private int omittedProcesses;
+    private double omittedProcessCpu;
+    private final Map<String, Integer> omittedConnections = new LinkedHashMap<>();
+
+    public FilteredTelemetry(List<Process> processes, List<NetworkConnection> connections) {
+        this.processes = processes != null ? processes : List.of();
+        this.connections = connections != null ? connections : List.of();
+    }
+
+    public void omitProcess(Process process) {
+        omittedProcesses++;
+        omittedProcessCpu += process.getCpuUsage();
+    }
+
+    /**
+     * Count a removed connection under the reason it was removed for
+     */
+    public void omitConnection(String reason) {
+        omittedConnections.merge(reason, 1, Integer::sum);
+    }
+
+    int size() {
+        return processes.size() + connections.size();
+    }
+}
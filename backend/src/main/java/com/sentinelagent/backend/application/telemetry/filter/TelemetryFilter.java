@@ -0,0 +1,19 @@
+package com.sentinelagent.backend.application.telemetry.filter;
+
+/**
+ * One step of the ingest filter chain (see TelemetryFilterChain).
+ * Filters replace the lists they reduce instead of modifying them, since the
+ * lists may be shared with the delta snapshot of the agent.
+ */
+public interface TelemetryFilter {
+
+    String name();
+
+    void apply(String agentId, FilteredTelemetry telemetry);
+
+    /**
+     * Drop whatever the filter remembers about a deleted agent
+     */
+    default void forget(String agentId) {
+    }
+}
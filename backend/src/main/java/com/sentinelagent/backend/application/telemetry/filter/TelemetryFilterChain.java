@@ -0,0 +1,148 @@
+package com.sentinelagent.backend.application.telemetry.filter;
+
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import com.sentinelagent.backend.domain.telemetry.CidrBlock;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Reduces the process and connection lists of a report before it is stored.
+ * Part of the Application Layer.
+ *
+ * The chain is compiled once from the telemetry.filter.* properties; a filter
+ * whose settings make it a no-op is left out. Connections that carry no
+ * detection value (listening sockets, closing states, loopback and local
+ * traffic) and the long tail of idle processes are replaced by counts on the
+ * report. Agents under investigation can bypass the chain to keep their
+ * telemetry complete.
+ */
+@Slf4j
+@Component
+public class TelemetryFilterChain {
+
+    private final boolean enabled;
+    private final List<TelemetryFilter> filters;
+    private final List<FilterCounters> counters;
+    private final Set<String> bypassedAgents = ConcurrentHashMap.newKeySet();
+
+    public TelemetryFilterChain(
+            @Value("${telemetry.filter.enabled:true}") boolean enabled,
+            @Value("${telemetry.filter.collapse-states:LISTEN,TIME_WAIT,CLOSE_WAIT,FIN_WAIT1,FIN_WAIT2,LAST_ACK,CLOSING}") String collapseStates,
+            @Value("${telemetry.filter.collapse-loopback:true}") boolean collapseLoopback,
+            @Value("${telemetry.filter.collapse-link-local:true}") boolean collapseLinkLocal,
+            @Value("${telemetry.filter.local-subnets:}") String localSubnets,
+            @Value("${telemetry.filter.top-processes:20}") int topProcesses,
+            @Value("${telemetry.filter.known-process-names-per-agent:2000}") int knownProcessNames,
+            @Value("${telemetry.filter.bypass-agents:}") String bypassAgents) {
+        this.enabled = enabled;
+
+        List<TelemetryFilter> chain = new ArrayList<>();
+        Set<String> states = split(collapseStates).stream()
+                .map(s -> s.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        if (!states.isEmpty()) {
+            chain.add(new ConnectionStateFilter(states));
+        }
+        List<CidrBlock> subnets = split(localSubnets).stream().map(CidrBlock::parse).toList();
+        if (collapseLoopback || collapseLinkLocal || !subnets.isEmpty()) {
+            chain.add(new ConnectionAddressFilter(collapseLoopback, collapseLinkLocal, subnets));
+        }
+        if (topProcesses > 0) {
+            chain.add(new TopProcessFilter(topProcesses, knownProcessNames));
+        }
+        this.filters = List.copyOf(chain);
+        this.counters = filters.stream().map(f -> new FilterCounters()).toList();
+        this.bypassedAgents.addAll(split(bypassAgents));
+
+        log.info("Telemetry filter chain {}: {}", enabled ? "enabled" : "disabled",
+                filters.stream().map(TelemetryFilter::name).toList());
+    }
+
+    /**
+     * Run the chain over the lists of one report. The given lists are not modified.
+     */
+    public FilteredTelemetry apply(String agentId, List<Process> processes, List<NetworkConnection> connections) {
+        FilteredTelemetry telemetry = new FilteredTelemetry(processes, connections);
+        if (!enabled || (agentId != null && bypassedAgents.contains(agentId))) {
+            return telemetry;
+        }
+        for (int i = 0; i < filters.size(); i++) {
+            int before = telemetry.size();
+            filters.get(i).apply(agentId, telemetry);
+            counters.get(i).examined.addAndGet(before);
+            counters.get(i).removed.addAndGet(before - telemetry.size());
+        }
+        return telemetry;
+    }
+
+    @EventListener
+    public void onStatusChanged(AgentStatusChangedEvent event) {
+        if (event.newStatus() == null) {
+            filters.forEach(filter -> filter.forget(event.agentId().getValue()));
+        }
+    }
+
+    /**
+     * Keep the telemetry of an agent complete, e.g. during a forensic investigation
+     *
+     * @return false if the agent was already bypassed
+     */
+    public boolean bypass(String agentId) {
+        return bypassedAgents.add(agentId);
+    }
+
+    /**
+     * @return false if the agent was not bypassed
+     */
+    public boolean restore(String agentId) {
+        return bypassedAgents.remove(agentId);
+    }
+
+    public Set<String> bypassedAgents() {
+        return Set.copyOf(bypassedAgents);
+    }
+
+    /**
+     * @return the entries each filter has seen and removed since startup, in chain order
+     */
+    public List<FilterStats> stats() {
+        List<FilterStats> stats = new ArrayList<>(filters.size());
+        for (int i = 0; i < filters.size(); i++) {
+            stats.add(new FilterStats(filters.get(i).name(),
+                    counters.get(i).examined.get(), counters.get(i).removed.get()));
+        }
+        return stats;
+    }
+
+    private static List<String> split(String list) {
+        return Arrays.stream(list.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    /**
+     * @param examined processes and connections that reached the filter
+     * @param removed  those it replaced by counts
+     */
+    public record FilterStats(String filter, long examined, long removed) {
+    }
+
+    private static final class FilterCounters {
+        private final AtomicLong examined = new AtomicLong();
+        private final AtomicLong removed = new AtomicLong();
+    }
+}
@@ -0,0 +1,78 @@
+package com.sentinelagent.backend.application.telemetry.filter;
+
+import com.sentinelagent.backend.domain.telemetry.Process;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the top-K processes by CPU usage and any process whose name the agent
+ * has not reported before; the long tail of idle, known processes is reduced
+ * to a count and their summed CPU usage.
+ *
+ * Up to maxKnownNames names are remembered per agent; past that, unseen
+ * names are treated as known. The names of a deleted agent are forgotten.
+ */
+class TopProcessFilter implements TelemetryFilter {
+
+    private static final Comparator<Process> BY_CPU_DESC =
+            Comparator.comparingDouble(Process::getCpuUsage).reversed();
+
+    private final int topK;
+    private final int maxKnownNames;
+    private final Map<String, Set<String>> knownNames = new ConcurrentHashMap<>();
+
+    TopProcessFilter(int topK, int maxKnownNames) {
+        this.topK = topK;
+        this.maxKnownNames = maxKnownNames;
+    }
+
+    @Override
+    public String name() {
+        return "top-processes";
+    }
+
+    @Override
+    public void apply(String agentId, FilteredTelemetry telemetry) {
+        List<Process> processes = telemetry.getProcesses();
+        Set<String> known = knownNames.computeIfAbsent(agentId != null ? agentId : "",
+                id -> ConcurrentHashMap.newKeySet());
+        if (processes.size() <= topK) {
+            processes.forEach(p -> remember(known, p.getName()));
+            return;
+        }
+
+        List<Process> byCpu = new ArrayList<>(processes);
+        byCpu.sort(BY_CPU_DESC);
+        List<Process> kept = new ArrayList<>(topK);
+        for (int i = 0; i < byCpu.size(); i++) {
+            Process process = byCpu.get(i);
+            boolean unseen = remember(known, process.getName());
+            if (i < topK || unseen) {
+                kept.add(process);
+            } else {
+                telemetry.omitProcess(process);
+            }
+        }
+        telemetry.setProcesses(kept);
+    }
+
+    @Override
+    public void forget(String agentId) {
+        knownNames.remove(agentId);
+    }
+
+    /**
+     * @return true if the name was not known yet and is now
+     */
+    private boolean remember(Set<String> known, String name) {
+        if (name == null || known.size() >= maxKnownNames) {
+            return false;
+        }
+        return known.add(name);
+    }
+}
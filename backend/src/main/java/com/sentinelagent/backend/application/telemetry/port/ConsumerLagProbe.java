@@ -0,0 +1,17 @@
+package com.sentinelagent.backend.application.telemetry.port;
+
+/**
+ * Port for measuring how far telemetry ingestion is behind the agents.
+ * Part of the Application Layer - implemented by the messaging infrastructure.
+ */
+public interface ConsumerLagProbe {
+
+    long UNKNOWN = -1;
+
+    /**
+     * Telemetry records published but not yet processed, summed over all partitions
+     *
+     * @return the lag, or {@link #UNKNOWN} if it cannot be measured right now
+     */
+    long currentLag();
+}
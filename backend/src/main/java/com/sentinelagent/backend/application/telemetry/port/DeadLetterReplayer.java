@@ -0,0 +1,21 @@
+package com.sentinelagent.backend.application.telemetry.port;
+
+import com.sentinelagent.backend.application.telemetry.dto.DeadLetterReplayStatus;
+
+/**
+ * Port for sending dead-lettered telemetry back through ingestion.
+ * Part of the Application Layer - implemented by the messaging infrastructure.
+ */
+public interface DeadLetterReplayer {
+
+    /**
+     * Start replaying in the background up to {@code maxRecords} dead letters, oldest
+     * first, at no more than {@code recordsPerSecond}. Only records dead-lettered before
+     * the start are replayed.
+     *
+     * @return false if a replay is already running
+     */
+    boolean start(int maxRecords, int recordsPerSecond);
+
+    DeadLetterReplayStatus status();
+}
@@ -0,0 +1,42 @@
+package com.sentinelagent.backend.application.telemetry.port;
+
+import com.sentinelagent.backend.domain.telemetry.MetricField;
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+
+/**
+ * Port interface for long-range, compressed per-agent metric series.
+ * Implemented by Infrastructure layer.
+ */
+public interface MetricHistoryStore {
+
+    /**
+     * Append the numeric fields of a report to its agent's series
+     */
+    void append(MetricReport report);
+
+    /**
+     * Whether the field's history is kept at all
+     */
+    boolean isArchived(MetricField field);
+
+    /**
+     * Open a cursor over one field's samples in [fromEpochMillis, toEpochMillis],
+     * oldest first. Stored blocks are decoded lazily while the cursor advances.
+     */
+    SampleCursor readRange(String agentId, MetricField field, long fromEpochMillis, long toEpochMillis);
+
+    /**
+     * Forward-only cursor over decoded samples; must be closed after use
+     */
+    interface SampleCursor extends AutoCloseable {
+
+        boolean next();
+
+        long timestamp();
+
+        double value();
+
+        @Override
+        void close();
+    }
+}
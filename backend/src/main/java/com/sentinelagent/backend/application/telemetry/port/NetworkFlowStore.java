@@ -0,0 +1,32 @@
+package com.sentinelagent.backend.application.telemetry.port;
+
+import com.sentinelagent.backend.application.telemetry.dto.NetworkFlowDto;
+import com.sentinelagent.backend.domain.telemetry.CidrBlock;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Port interface for per-agent network flows aggregated over fixed windows.
+ * Implemented by Infrastructure layer.
+ */
+public interface NetworkFlowStore {
+
+    /**
+     * Count the connections of one report into its agent's flows
+     */
+    void append(String agentId, List<NetworkConnection> connections, LocalDateTime observedAt);
+
+    /**
+     * Flows whose window overlaps [from, to], oldest window first, including the
+     * window still being aggregated
+     */
+    List<NetworkFlowDto> findFlows(String agentId, LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Flows of all agents to a remote address in the block whose window overlaps
+     * [from, to], answered from a numeric range index
+     */
+    List<NetworkFlowDto> findFlowsTo(CidrBlock block, LocalDateTime from, LocalDateTime to, int limit);
+}
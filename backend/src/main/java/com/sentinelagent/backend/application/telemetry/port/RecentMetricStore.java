@@ -0,0 +1,32 @@
+package com.sentinelagent.backend.application.telemetry.port;
+
+import com.sentinelagent.backend.domain.telemetry.MetricField;
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+
+/**
+ * Port interface for the in-process store of recent per-agent metric samples.
+ * Implemented by Infrastructure layer.
+ */
+public interface RecentMetricStore {
+
+    /**
+     * Append the numeric fields of a report to its agent's recent window
+     */
+    void append(MetricReport report);
+
+    /**
+     * Copy the samples of one field whose timestamp lies in [fromEpochMillis, toEpochMillis]
+     * into the caller-supplied arrays, oldest first. Does not allocate.
+     *
+     * @param timestampsOut receives sample timestamps (epoch millis)
+     * @param valuesOut     receives sample values; must be at least as long as timestampsOut
+     * @return the number of samples written
+     */
+    int readRange(String agentId, MetricField field, long fromEpochMillis, long toEpochMillis,
+            long[] timestampsOut, double[] valuesOut);
+
+    /**
+     * Maximum number of samples retained per agent
+     */
+    int samplesPerAgent();
+}
@@ -0,0 +1,34 @@
+package com.sentinelagent.backend.application.telemetry.port;
+
+/**
+ * Port interface for the dictionary of frequently repeated telemetry strings
+ * (hostnames, process names, usernames, connection states).
+ * Implemented by Infrastructure layer.
+ *
+ * Every known string has a compact, stable integer code shared by all backend
+ * instances, and one canonical in-memory instance.
+ */
+public interface StringDictionary {
+
+    int NO_CODE = -1;
+
+    /**
+     * Return the code of a string, assigning and persisting a new one on first sight.
+     *
+     * @return the code, or {@link #NO_CODE} for null or once the dictionary is full
+     */
+    int encode(String value);
+
+    /**
+     * Return the string of a code
+     *
+     * @return the string, or null if the code is unknown
+     */
+    String decode(int code);
+
+    /**
+     * Return the canonical instance of a string, so repeated values share one
+     * object on the heap. Strings that cannot be encoded are returned as is.
+     */
+    String intern(String value);
+}
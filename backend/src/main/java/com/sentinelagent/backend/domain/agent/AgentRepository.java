@@ -1,6 +1,7 @@
 package com.sentinelagent.backend.domain.agent;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -10,7 +11,8 @@ import java.util.Optional;
 public interface AgentRepository {
 
     /**
-     * Save or update an Agent
+     * Save or update an Agent.
+     * Publishes an {@link AgentStatusChangedEvent} when the persisted status changes.
      */
     Agent save(Agent agent);
 
@@ -45,7 +47,20 @@ public interface AgentRepository {
     List<Agent> findAll();
 
     /**
-     * Delete an Agent by ID
+     * Find up to {@code limit} Agents ordered by ID, starting after the given ID
+     * (keyset pagination; {@code afterId} may be null for the first page)
+     */
+    List<Agent> findPage(AgentId afterId, int limit);
+
+    /**
+     * Find up to {@code limit} Agents with a specific status ordered by ID,
+     * starting after the given ID
+     */
+    List<Agent> findPageByStatus(AgentStatus status, AgentId afterId, int limit);
+
+    /**
+     * Delete an Agent by ID.
+     * Publishes an {@link AgentStatusChangedEvent} for the removed agent.
      */
     void deleteById(AgentId id);
 
@@ -53,4 +68,9 @@ public interface AgentRepository {
      * Count Agents by status
      */
     long countByStatus(AgentStatus status);
+
+    /**
+     * Count Agents of every status in a single pass
+     */
+    Map<AgentStatus, Long> countAllByStatus();
 }
@@ -1,5 +1,9 @@
 package com.sentinelagent.backend.domain.agent;
 
+import com.sentinelagent.backend.domain.agent.exception.InvalidAgentStatusException;
+
+import java.util.Locale;
+
 /**
  * AgentStatus Enum - Represents the lifecycle states of an Agent.
  * Part of the Domain Layer.
@@ -24,5 +28,21 @@ public enum AgentStatus {
     /**
      * Agent is reporting errors or in error state
      */
-    ERROR
+    ERROR;
+
+    /**
+     * Status by name, case-insensitive and independent of the default locale
+     *
+     * @throws InvalidAgentStatusException if there is no such status
+     */
+    public static AgentStatus parse(String name) {
+        if (name == null) {
+            throw new InvalidAgentStatusException(null);
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidAgentStatusException(name);
+        }
+    }
 }
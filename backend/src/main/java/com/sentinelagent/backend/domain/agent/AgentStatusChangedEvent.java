@@ -0,0 +1,10 @@
+package com.sentinelagent.backend.domain.agent;
+
+/**
+ * Domain Event - An Agent's persisted status changed.
+ * {@code previousStatus} is null for a newly registered agent and
+ * {@code newStatus} is null for a deleted one.
+ * Part of the Domain Layer.
+ */
+public record AgentStatusChangedEvent(AgentId agentId, AgentStatus previousStatus, AgentStatus newStatus) {
+}
@@ -0,0 +1,24 @@
+package com.sentinelagent.backend.domain.agent;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking Repository Port for the Agent operations on hot paths
+ * (telemetry ingest and paginated REST reads).
+ *
+ * Futures complete on the persistence driver's threads, so callers must not
+ * run blocking work in dependent stages without switching executors.
+ * Same semantics as the matching AgentRepository methods.
+ */
+public interface AsyncAgentRepository {
+
+    CompletableFuture<Agent> save(Agent agent);
+
+    CompletableFuture<Optional<Agent>> findById(AgentId id);
+
+    CompletableFuture<List<Agent>> findPage(AgentId afterId, int limit);
+
+    CompletableFuture<List<Agent>> findPageByStatus(AgentStatus status, AgentId afterId, int limit);
+}
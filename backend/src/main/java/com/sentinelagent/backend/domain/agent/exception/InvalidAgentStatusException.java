@@ -0,0 +1,13 @@
+package com.sentinelagent.backend.domain.agent.exception;
+
+import com.sentinelagent.backend.domain.common.DomainException;
+
+/**
+ * Exception thrown when a requested agent status does not exist
+ */
+public class InvalidAgentStatusException extends DomainException {
+
+    public InvalidAgentStatusException(String status) {
+        super("Invalid agent status: " + status);
+    }
+}
@@ -0,0 +1,23 @@
+package com.sentinelagent.backend.domain.telemetry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking Repository Port for the MetricReport operations on hot paths
+ * (telemetry ingest and paginated REST reads).
+ *
+ * Futures complete on the persistence driver's threads, so callers must not
+ * run blocking work in dependent stages without switching executors.
+ * Same semantics as the matching MetricReportRepository methods.
+ */
+public interface AsyncMetricReportRepository {
+
+    CompletableFuture<MetricReport> save(MetricReport report);
+
+    CompletableFuture<List<MetricReport>> saveAll(List<MetricReport> reports);
+
+    CompletableFuture<List<MetricReport>> findPageByAgentId(String agentId, LocalDateTime beforeReceivedAt,
+            MetricReportId beforeId, int limit);
+}
@@ -0,0 +1,75 @@
+package com.sentinelagent.backend.domain.telemetry;
+
+import com.sentinelagent.backend.domain.telemetry.exception.InvalidCidrBlockException;
+import lombok.Value;
+
+/**
+ * Value Object for an IPv4 or IPv6 address block in CIDR notation, held as
+ * its first and last address.
+ * Part of the Domain Layer.
+ */
+@Value
+public class CidrBlock {
+
+    IpAddress first;
+    IpAddress last;
+
+    /**
+     * @throws InvalidCidrBlockException if the text is not a CIDR block; a bare address is a /32 or /128
+     */
+    public static CidrBlock parse(String cidr) {
+        String text = cidr != null ? cidr.trim() : "";
+        int slash = text.indexOf('/');
+        IpAddress address = IpAddress.parse(slash >= 0 ? text.substring(0, slash) : text);
+        if (address == null) {
+            throw new InvalidCidrBlockException(cidr);
+        }
+        int bits = address.isIpv4() ? 32 : 128;
+        int prefix;
+        try {
+            prefix = slash >= 0 ? Integer.parseInt(text.substring(slash + 1)) : bits;
+        } catch (NumberFormatException ex) {
+            throw new InvalidCidrBlockException(cidr);
+        }
+        if (prefix < 0 || prefix > bits) {
+            throw new InvalidCidrBlockException(cidr);
+        }
+
+        if (address.isIpv4()) {
+            long mask = prefix == 0 ? 0 : (0xFFFFFFFFL << (32 - prefix)) & 0xFFFFFFFFL;
+            long network = address.getLow() & mask;
+            return new CidrBlock(IpAddress.ipv4(network), IpAddress.ipv4(network | (~mask & 0xFFFFFFFFL)));
+        }
+        long highMask = mask(prefix);
+        long lowMask = mask(prefix - 64);
+        long high = address.getHigh() & highMask;
+        long low = address.getLow() & lowMask;
+        return new CidrBlock(IpAddress.ipv6(high, low), IpAddress.ipv6(high | ~highMask, low | ~lowMask));
+    }
+
+    public boolean isIpv4() {
+        return first.isIpv4();
+    }
+
+    public boolean contains(IpAddress address) {
+        if (address == null || address.isIpv4() != first.isIpv4()) {
+            return false;
+        }
+        return compareUnsigned(first, address) <= 0 && compareUnsigned(address, last) <= 0;
+    }
+
+    /**
+     * Mask of the leading bits of a 64-bit half
+     */
+    private static long mask(int bits) {
+        if (bits <= 0) {
+            return 0;
+        }
+        return bits >= 64 ? -1L : -1L << (64 - bits);
+    }
+
+    private static int compareUnsigned(IpAddress a, IpAddress b) {
+        int high = Long.compareUnsigned(a.getHigh(), b.getHigh());
+        return high != 0 ? high : Long.compareUnsigned(a.getLow(), b.getLow());
+    }
+}
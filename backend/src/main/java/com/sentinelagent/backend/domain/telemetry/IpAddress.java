@@ -0,0 +1,99 @@
+package com.sentinelagent.backend.domain.telemetry;
+
+import lombok.Value;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+
+/**
+ * Value Object for a numeric IP address.
+ * Part of the Domain Layer.
+ *
+ * IPv4 addresses are held as an unsigned 32-bit value in {@code low}; IPv6
+ * addresses as two unsigned 64-bit halves. IPv4-mapped IPv6 addresses
+ * (::ffff:a.b.c.d) are treated as the IPv4 address they carry.
+ */
+@Value
+public class IpAddress {
+
+    boolean ipv4;
+    long high;
+    long low;
+
+    public static IpAddress ipv4(long value) {
+        return new IpAddress(true, 0, value & 0xFFFFFFFFL);
+    }
+
+    public static IpAddress ipv6(long high, long low) {
+        return new IpAddress(false, high, low);
+    }
+
+    /**
+     * Parse an address literal; host names are never resolved
+     *
+     * @return the address, or null if the text is not an IPv4 or IPv6 literal
+     */
+    public static IpAddress parse(String literal) {
+        if (literal == null || literal.isEmpty()) {
+            return null;
+        }
+        long ipv4 = parseIpv4(literal);
+        if (ipv4 >= 0) {
+            return ipv4(ipv4);
+        }
+        String text = literal;
+        if (text.startsWith("[") && text.endsWith("]")) {
+            text = text.substring(1, text.length() - 1);
+        }
+        int zone = text.indexOf('%');
+        if (zone >= 0) {
+            text = text.substring(0, zone);
+        }
+        if (text.indexOf(':') < 0 || !text.chars().allMatch(IpAddress::isLiteralChar)) {
+            return null; // not a literal, InetAddress would try to resolve it
+        }
+        try {
+            InetAddress address = InetAddress.getByName(text);
+            if (address instanceof Inet4Address) {
+                return ipv4(ByteBuffer.wrap(address.getAddress()).getInt());
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(address.getAddress());
+            return ipv6(bytes.getLong(), bytes.getLong());
+        } catch (UnknownHostException ex) {
+            return null;
+        }
+    }
+
+    private static boolean isLiteralChar(int c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == ':' || c == '.';
+    }
+
+    /**
+     * @return the address as an unsigned 32-bit value, or -1 if it is not a dotted IPv4 address
+     */
+    static long parseIpv4(String address) {
+        long value = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = 0; i <= address.length(); i++) {
+            char c = i < address.length() ? address.charAt(i) : '.';
+            if (c == '.') {
+                if (octet < 0 || ++octets > 4) {
+                    return -1;
+                }
+                value = (value << 8) | octet;
+                octet = -1;
+            } else if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else {
+                return -1;
+            }
+        }
+        return octets == 4 ? value : -1;
+    }
+}
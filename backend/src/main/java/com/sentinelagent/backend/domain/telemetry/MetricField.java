@@ -0,0 +1,62 @@
+package com.sentinelagent.backend.domain.telemetry;
+
+import com.sentinelagent.backend.domain.telemetry.exception.InvalidMetricFieldException;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Numeric time-series fields of a {@link MetricReport}.
+ * Part of the Domain Layer.
+ */
+public enum MetricField {
+
+    CPU_USAGE("cpuUsage", MetricReport::getCpuUsage),
+    RAM_USED_PERCENT("ramUsedPercent", MetricReport::getRamUsedPercent),
+    RAM_TOTAL_MB("ramTotalMb", MetricReport::getRamTotalMb),
+    DISK_USED_PERCENT("diskUsedPercent", MetricReport::getDiskUsedPercent),
+    DISK_TOTAL_GB("diskTotalGb", MetricReport::getDiskTotalGb),
+    BYTES_SENT_SEC("bytesSentSec", MetricReport::getBytesSentSec),
+    BYTES_RECV_SEC("bytesRecvSec", MetricReport::getBytesRecvSec);
+
+    private static final MetricField[] VALUES = values();
+
+    private final String propertyName;
+    private final ToDoubleFunction<MetricReport> accessor;
+
+    MetricField(String propertyName, ToDoubleFunction<MetricReport> accessor) {
+        this.propertyName = propertyName;
+        this.accessor = accessor;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Read this field from a report as a double
+     */
+    public double valueOf(MetricReport report) {
+        return accessor.applyAsDouble(report);
+    }
+
+    /**
+     * Resolve a field by its report property name (e.g. "cpuUsage")
+     *
+     * @throws InvalidMetricFieldException if no field has that name
+     */
+    public static MetricField fromPropertyName(String propertyName) {
+        for (MetricField field : VALUES) {
+            if (field.propertyName.equals(propertyName)) {
+                return field;
+            }
+        }
+        throw new InvalidMetricFieldException("Unknown metric field: " + propertyName);
+    }
+
+    /**
+     * Cached copy of {@link #values()} for allocation-free iteration
+     */
+    public static MetricField[] all() {
+        return VALUES;
+    }
+}
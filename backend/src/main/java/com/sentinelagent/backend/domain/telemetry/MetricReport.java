@@ -4,6 +4,7 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Domain Entity representing agent telemetry reports.
@@ -22,6 +23,11 @@ public class MetricReport {
     private String agentId;
     private String hostname;
 
+    // Position assigned by the agent: the epoch identifies one agent run, the
+    // sequence counts its reports. Both are 0 when the agent does not number them
+    private long sequenceEpoch;
+    private long sequence;
+
     // System metrics
     private double cpuUsage;
     private double ramUsedPercent;
@@ -37,6 +43,15 @@ public class MetricReport {
     private List<Process> processes;
     private List<NetworkConnection> networkConnections;
 
+    // Entries left out of the lists above by ingest filtering, aggregated
+    private int omittedProcesses;
+    private double omittedProcessCpu;
+    private Map<String, Integer> omittedConnections;
+
+    // Changes since the agent's previous report, derived at ingest and not stored;
+    // null when unknown (e.g. redelivered or rebuilt reports)
+    private TelemetryChanges changes;
+
     private LocalDateTime receivedAt;
 
     /**
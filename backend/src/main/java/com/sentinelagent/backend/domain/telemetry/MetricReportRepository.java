@@ -13,6 +13,13 @@ public interface MetricReportRepository {
 
     MetricReport save(MetricReport report);
 
+    /**
+     * Save several reports, new ones in a single round trip. A new report that
+     * repeats the agent sequence of a stored one is not stored and is left out
+     * of the returned list.
+     */
+    List<MetricReport> saveAll(List<MetricReport> reports);
+
     Optional<MetricReport> findById(MetricReportId id);
 
     List<MetricReport> findByAgentId(String agentId);
@@ -23,6 +30,14 @@ public interface MetricReportRepository {
 
     List<MetricReport> findAll();
 
+    /**
+     * Find up to {@code limit} reports of an agent, newest first, strictly older
+     * than the (receivedAt, id) position of the last report already returned.
+     * Both position arguments are null for the first page.
+     */
+    List<MetricReport> findPageByAgentId(String agentId, LocalDateTime beforeReceivedAt,
+            MetricReportId beforeId, int limit);
+
     void deleteById(MetricReportId id);
 
     long count();
@@ -0,0 +1,39 @@
+package com.sentinelagent.backend.domain.telemetry;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Domain Value Object: processes and connections that appeared or went away
+ * on an agent since its previous report.
+ * Part of the Domain Layer - no external dependencies.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TelemetryChanges {
+
+    @Builder.Default
+    private List<Process> startedProcesses = List.of();
+    @Builder.Default
+    private List<Process> stoppedProcesses = List.of();
+    @Builder.Default
+    private List<NetworkConnection> openedConnections = List.of();
+    @Builder.Default
+    private List<NetworkConnection> closedConnections = List.of();
+
+    public boolean isEmpty() {
+        return startedProcesses.isEmpty() && stoppedProcesses.isEmpty()
+                && openedConnections.isEmpty() && closedConnections.isEmpty();
+    }
+
+    public int size() {
+        return startedProcesses.size() + stoppedProcesses.size()
+                + openedConnections.size() + closedConnections.size();
+    }
+}
@@ -0,0 +1,13 @@
+package com.sentinelagent.backend.domain.telemetry.exception;
+
+import com.sentinelagent.backend.domain.common.DomainException;
+
+/**
+ * Exception thrown when an address range is not a valid CIDR block
+ */
+public class InvalidCidrBlockException extends DomainException {
+
+    public InvalidCidrBlockException(String cidr) {
+        super("Invalid CIDR block: " + cidr);
+    }
+}
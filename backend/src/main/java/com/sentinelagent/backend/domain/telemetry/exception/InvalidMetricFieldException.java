@@ -0,0 +1,13 @@
+package com.sentinelagent.backend.domain.telemetry.exception;
+
+import com.sentinelagent.backend.domain.common.DomainException;
+
+/**
+ * Exception thrown when a requested metric field does not exist or is not stored where it is queried
+ */
+public class InvalidMetricFieldException extends DomainException {
+
+    public InvalidMetricFieldException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.sentinelagent.backend.domain.telemetry.exception;
+
+import com.sentinelagent.backend.domain.common.DomainException;
+
+/**
+ * Exception thrown when a queried time range is reversed or too long
+ */
+public class InvalidTimeRangeException extends DomainException {
+
+    public InvalidTimeRangeException(String reason) {
+        super("Invalid time range: " + reason);
+    }
+}
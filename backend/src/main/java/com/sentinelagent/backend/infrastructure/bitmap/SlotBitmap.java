@@ -0,0 +1,270 @@
+package com.sentinelagent.backend.infrastructure.bitmap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of agent slots (see AgentSlotRegistry).
+ * Part of the Infrastructure Layer.
+ *
+ * Like a Roaring container, the set is a sorted int array while it is sparse
+ * and switches to a plain bitset once that is smaller, so a process name
+ * running on three hosts costs three ints and a status shared by most of the
+ * fleet costs one bit per agent. Set operations on two dense bitmaps work a
+ * word at a time.
+ *
+ * Not thread-safe; callers serialize access per bitmap.
+ */
+public final class SlotBitmap {
+
+    private static final int[] NO_SLOTS = new int[0];
+
+    // Sparse form, sorted; unused while words is set
+    private int[] slots = NO_SLOTS;
+    // Dense form
+    private long[] words;
+    private int cardinality;
+
+    public boolean add(int slot) {
+        if (slot < 0) {
+            throw new IllegalArgumentException("Negative slot " + slot);
+        }
+        if (words != null) {
+            int word = slot >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+            }
+            long bit = 1L << slot;
+            if ((words[word] & bit) != 0) {
+                return false;
+            }
+            words[word] |= bit;
+            cardinality++;
+            return true;
+        }
+        int index = Arrays.binarySearch(slots, 0, cardinality, slot);
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        if (cardinality == slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(4, cardinality * 2));
+        }
+        System.arraycopy(slots, index, slots, index + 1, cardinality - index);
+        slots[index] = slot;
+        cardinality++;
+        if (denseIsSmaller()) {
+            toDense();
+        }
+        return true;
+    }
+
+    public boolean remove(int slot) {
+        if (slot < 0) {
+            return false;
+        }
+        if (words != null) {
+            int word = slot >>> 6;
+            long bit = 1L << slot;
+            if (word >= words.length || (words[word] & bit) == 0) {
+                return false;
+            }
+            words[word] &= ~bit;
+            cardinality--;
+            // Back to sparse once the array would take well under half the bitset
+            if (cardinality * 4L < words.length) {
+                toSparse();
+            }
+            return true;
+        }
+        int index = Arrays.binarySearch(slots, 0, cardinality, slot);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(slots, index + 1, slots, index, cardinality - index - 1);
+        cardinality--;
+        return true;
+    }
+
+    public boolean contains(int slot) {
+        if (slot < 0) {
+            return false;
+        }
+        if (words != null) {
+            int word = slot >>> 6;
+            return word < words.length && (words[word] & (1L << slot)) != 0;
+        }
+        return Arrays.binarySearch(slots, 0, cardinality, slot) >= 0;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Call the action for each slot in ascending order
+     */
+    public void forEach(IntConsumer action) {
+        if (words != null) {
+            for (int word = 0; word < words.length; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    action.accept((word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        } else {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(slots[i]);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] result = new int[cardinality];
+        int[] next = {0};
+        forEach(slot -> result[next[0]++] = slot);
+        return result;
+    }
+
+    public SlotBitmap copy() {
+        SlotBitmap copy = new SlotBitmap();
+        copy.cardinality = cardinality;
+        if (words != null) {
+            copy.words = words.clone();
+        } else {
+            copy.slots = Arrays.copyOf(slots, cardinality);
+        }
+        return copy;
+    }
+
+    /**
+     * @return a new bitmap of the slots in both
+     */
+    public static SlotBitmap and(SlotBitmap a, SlotBitmap b) {
+        if (a.words != null && b.words != null) {
+            long[] result = new long[Math.min(a.words.length, b.words.length)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = a.words[i] & b.words[i];
+            }
+            return fromWords(result);
+        }
+        SlotBitmap smaller = a.cardinality <= b.cardinality ? a : b;
+        SlotBitmap larger = smaller == a ? b : a;
+        SlotBitmap result = new SlotBitmap();
+        smaller.forEach(slot -> {
+            if (larger.contains(slot)) {
+                result.add(slot);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return the number of slots in both, without building the intersection
+     */
+    public static int andCardinality(SlotBitmap a, SlotBitmap b) {
+        if (a.words != null && b.words != null) {
+            int count = 0;
+            for (int i = 0; i < Math.min(a.words.length, b.words.length); i++) {
+                count += Long.bitCount(a.words[i] & b.words[i]);
+            }
+            return count;
+        }
+        SlotBitmap smaller = a.cardinality <= b.cardinality ? a : b;
+        SlotBitmap larger = smaller == a ? b : a;
+        int[] count = {0};
+        smaller.forEach(slot -> {
+            if (larger.contains(slot)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * @return a new bitmap of the slots in either
+     */
+    public static SlotBitmap or(SlotBitmap a, SlotBitmap b) {
+        if (a.words != null && b.words != null) {
+            long[] result = Arrays.copyOf(a.words, Math.max(a.words.length, b.words.length));
+            for (int i = 0; i < b.words.length; i++) {
+                result[i] |= b.words[i];
+            }
+            return fromWords(result);
+        }
+        SlotBitmap larger = a.cardinality >= b.cardinality ? a : b;
+        SlotBitmap smaller = larger == a ? b : a;
+        SlotBitmap result = larger.copy();
+        smaller.forEach(result::add);
+        return result;
+    }
+
+    /**
+     * @return a new bitmap of the slots in a but not in b
+     */
+    public static SlotBitmap andNot(SlotBitmap a, SlotBitmap b) {
+        if (a.words != null && b.words != null) {
+            long[] result = a.words.clone();
+            for (int i = 0; i < Math.min(result.length, b.words.length); i++) {
+                result[i] &= ~b.words[i];
+            }
+            return fromWords(result);
+        }
+        SlotBitmap result = new SlotBitmap();
+        a.forEach(slot -> {
+            if (!b.contains(slot)) {
+                result.add(slot);
+            }
+        });
+        return result;
+    }
+
+    private static SlotBitmap fromWords(long[] words) {
+        SlotBitmap bitmap = new SlotBitmap();
+        bitmap.words = words;
+        for (long word : words) {
+            bitmap.cardinality += Long.bitCount(word);
+        }
+        if (!bitmap.denseIsSmaller()) {
+            bitmap.toSparse();
+        }
+        return bitmap;
+    }
+
+    /**
+     * A slot costs 32 bits in the array; the bitset costs one bit per slot up to the highest
+     */
+    private boolean denseIsSmaller() {
+        int highest = words != null ? words.length * 64 : cardinality > 0 ? slots[cardinality - 1] + 1 : 0;
+        return cardinality * 32L > highest;
+    }
+
+    private void toDense() {
+        long[] dense = new long[(slots[cardinality - 1] >>> 6) + 1];
+        for (int i = 0; i < cardinality; i++) {
+            dense[slots[i] >>> 6] |= 1L << slots[i];
+        }
+        words = dense;
+        slots = NO_SLOTS;
+    }
+
+    private void toSparse() {
+        int[] sparse = new int[Math.max(4, cardinality)];
+        int[] next = {0};
+        long[] dense = words;
+        words = null;
+        for (int word = 0; word < dense.length; word++) {
+            long bits = dense[word];
+            while (bits != 0) {
+                sparse[next[0]++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        slots = sparse;
+    }
+}
@@ -0,0 +1,31 @@
+package com.sentinelagent.backend.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor for the security analysis stage of the ingest pipeline.
+ * Part of the Infrastructure Layer.
+ *
+ * Analysis calls external services and blocks, so it must never run on the
+ * persistence driver's threads that complete the save futures. The queue is
+ * bounded upstream by telemetry.pipeline.max-in-flight.
+ */
+@Configuration
+public class AnalysisExecutorConfig {
+
+    @Bean(name = "securityAnalysisExecutor")
+    public Executor securityAnalysisExecutor(@Value("${telemetry.analysis.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("security-analysis-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,55 @@
+package com.sentinelagent.backend.infrastructure.config;
+
+import com.sentinelagent.backend.application.telemetry.IngestLoadShedder;
+import com.sentinelagent.backend.application.telemetry.TelemetryChangeTracker;
+import com.sentinelagent.backend.application.telemetry.TelemetryDeduplicator;
+import com.sentinelagent.backend.application.telemetry.filter.TelemetryFilterChain;
+import com.sentinelagent.backend.application.telemetry.filter.TelemetryFilterChain.FilterStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Telemetry ingest meters, scraped by Prometheus from /actuator/prometheus.
+ * Part of the Infrastructure Layer.
+ */
+@Configuration
+public class IngestMetricsConfig {
+
+    @Bean
+    public MeterBinder ingestMeters(IngestLoadShedder loadShedder, TelemetryDeduplicator deduplicator,
+            TelemetryFilterChain filterChain, TelemetryChangeTracker changeTracker) {
+        return registry -> {
+            Gauge.builder("sentinel.ingest.mode", loadShedder, s -> s.mode().ordinal())
+                    .description("Telemetry ingest mode: 0 full, 1 metrics only, 2 sampled")
+                    .register(registry);
+            Gauge.builder("sentinel.ingest.consumer.lag", loadShedder, IngestLoadShedder::lastLag)
+                    .description("Telemetry records not yet consumed, -1 if unknown")
+                    .register(registry);
+            FunctionCounter.builder("sentinel.ingest.reports.shed", loadShedder, IngestLoadShedder::reportsShed)
+                    .description("Reports not stored in sampled mode")
+                    .register(registry);
+            FunctionCounter.builder("sentinel.ingest.duplicates.dropped", deduplicator,
+                            TelemetryDeduplicator::duplicatesDropped)
+                    .description("Redelivered reports dropped as duplicates")
+                    .register(registry);
+            FunctionCounter.builder("sentinel.ingest.changes.derived", changeTracker,
+                            TelemetryChangeTracker::changesDerived)
+                    .description("Process and connection change events derived from reports")
+                    .register(registry);
+            List<FilterStats> filters = filterChain.stats();
+            for (int i = 0; i < filters.size(); i++) {
+                int index = i;
+                FunctionCounter.builder("sentinel.ingest.filter.removed", filterChain,
+                                chain -> chain.stats().get(index).removed())
+                        .tag("filter", filters.get(i).filter())
+                        .description("Processes and connections replaced by counts")
+                        .register(registry);
+            }
+        };
+    }
+}
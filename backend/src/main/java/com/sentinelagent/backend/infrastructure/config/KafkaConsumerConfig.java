@@ -0,0 +1,71 @@
+package com.sentinelagent.backend.infrastructure.config;
+
+import com.sentinelagent.backend.infrastructure.messaging.TelemetryTopics;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Kafka listener containers for telemetry ingestion.
+ * Part of the Infrastructure Layer.
+ *
+ * The listener thread only dispatches records; validation and storage run on
+ * the ingest executor, concurrently across agents and in order per agent (see
+ * KeyOrderedDispatcher), so one partition can keep many cores busy. Records
+ * therefore complete out of order: they are acknowledged manually when done,
+ * and with async acks the container commits a partition's offset only up to
+ * the lowest record that has not completed yet.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${telemetry.consumer.concurrency:1}") int concurrency) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        // Keeps the spring.kafka.listener.* settings
+        configurer.configure(factory, consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
+
+    /**
+     * Retry and dead-letter topics, created at startup if missing
+     */
+    @Bean
+    public KafkaAdmin.NewTopics telemetryRetryTopics(@Value("${telemetry.retry.topic-partitions:1}") int partitions) {
+        List<NewTopic> topics = new ArrayList<>();
+        for (int level = 1; level <= TelemetryTopics.RETRY_LEVELS; level++) {
+            topics.add(TopicBuilder.name(TelemetryTopics.retry(level)).partitions(partitions).build());
+        }
+        topics.add(TopicBuilder.name(TelemetryTopics.DEAD_LETTER).partitions(partitions).build());
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
+    @Bean(name = "telemetryIngestExecutor")
+    public Executor telemetryIngestExecutor(@Value("${telemetry.ingest.threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("telemetry-ingest-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
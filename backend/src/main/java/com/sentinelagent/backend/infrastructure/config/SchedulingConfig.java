@@ -0,0 +1,13 @@
+package com.sentinelagent.backend.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background maintenance tasks.
+ * Part of the Infrastructure Layer.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
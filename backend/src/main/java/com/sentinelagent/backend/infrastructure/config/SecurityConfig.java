@@ -55,6 +55,10 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/agents/heartbeat").permitAll()
                         // Protected agent endpoints (require JWT for admin access)
                         .requestMatchers("/api/v1/agents/**").authenticated()
+                        // Prometheus scrape target and health probe
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        // Pipeline administration
+                        .requestMatchers("/api/v1/admin/**").hasAuthority("ROLE_ADMIN")
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
@@ -0,0 +1,184 @@
+package com.sentinelagent.backend.infrastructure.dictionary;
+
+import com.sentinelagent.backend.application.telemetry.port.StringDictionary;
+import com.sentinelagent.backend.infrastructure.persistence.entity.DictionaryEntryDocument;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MongoDB implementation of the StringDictionary port.
+ *
+ * The whole code table is kept in memory as a string-to-code hash map plus a
+ * code-indexed array, so encode and decode of known strings never touch the
+ * database. Codes are dense and assigned by inserting the next code into the
+ * 'string_dictionary' collection; the unique indexes on _id and value arbitrate
+ * between backend instances assigning concurrently.
+ *
+ * Lookups of known strings, and of any string once the dictionary is full,
+ * take no lock. A new string is inserted by the first thread to claim it
+ * while other threads encoding the same string wait for that insert; threads
+ * encoding other strings are not held up. A code lost to another instance is
+ * retried a bounded number of times before the value is stored unencoded.
+ */
+@Slf4j
+@Component
+public class MongoStringDictionary implements StringDictionary {
+
+    private static final int MAX_ASSIGN_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    // Values being inserted, so each new value is inserted by one thread
+    private final ConcurrentHashMap<String, CompletableFuture<Integer>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCode = new AtomicInteger();
+    private volatile String[] values = new String[1024];
+    private volatile boolean full;
+
+    public MongoStringDictionary(MongoTemplate mongoTemplate,
+            @Value("${dictionary.max-entries:100000}") int maxEntries) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxEntries = maxEntries;
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            loadFrom(0);
+            log.info("Loaded {} string dictionary entries", codes.size());
+        } catch (Exception ex) {
+            // Entries are picked up again on the first duplicate code or unknown decode
+            log.warn("Could not load string dictionary: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public int encode(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        return full ? NO_CODE : assign(value);
+    }
+
+    @Override
+    public String decode(int code) {
+        if (code < 0) {
+            return null;
+        }
+        String[] snapshot = values;
+        String value = code < snapshot.length ? snapshot[code] : null;
+        if (value == null) {
+            // Assigned by another instance since our last load
+            loadFrom(Math.min(code, nextCode.get()));
+            snapshot = values;
+            value = code < snapshot.length ? snapshot[code] : null;
+        }
+        return value;
+    }
+
+    @Override
+    public String intern(String value) {
+        int code = encode(value);
+        if (code == NO_CODE) {
+            return value;
+        }
+        return values[code];
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    private int assign(String value) {
+        CompletableFuture<Integer> claim = new CompletableFuture<>();
+        CompletableFuture<Integer> inFlight = pending.putIfAbsent(value, claim);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            Integer existing = codes.get(value);
+            int code = existing != null ? existing : insert(value);
+            claim.complete(code);
+            return code;
+        } catch (RuntimeException ex) {
+            claim.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            pending.remove(value, claim);
+        }
+    }
+
+    /**
+     * Insert the value under the next free code, without holding any lock during the insert
+     */
+    private int insert(String value) {
+        for (int attempt = 0; attempt < MAX_ASSIGN_ATTEMPTS; attempt++) {
+            int code = nextCode.getAndIncrement();
+            if (code >= maxEntries) {
+                full = true;
+                log.debug("String dictionary is full, storing value unencoded");
+                return NO_CODE;
+            }
+            try {
+                mongoTemplate.insert(new DictionaryEntryDocument(code, value));
+                register(code, value);
+                return code;
+            } catch (DuplicateKeyException ex) {
+                // Another instance took this code or already encoded this value
+                loadFrom(code);
+                Integer existing = codes.get(value);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+        }
+        log.warn("Could not assign a string dictionary code after {} attempts, storing value unencoded",
+                MAX_ASSIGN_ATTEMPTS);
+        return NO_CODE;
+    }
+
+    /**
+     * Register all persisted entries with a code of at least {@code fromCode}
+     */
+    private void loadFrom(int fromCode) {
+        Query query = new Query(Criteria.where("_id").gte(fromCode)).with(Sort.by(Sort.Direction.ASC, "_id"));
+        List<DictionaryEntryDocument> entries = mongoTemplate.find(query, DictionaryEntryDocument.class);
+        entries.forEach(entry -> register(entry.getCode(), entry.getValue()));
+    }
+
+    /**
+     * Only grows the code array, so it is the only step that needs the monitor
+     */
+    private synchronized void register(int code, String value) {
+        String[] current = values;
+        if (code >= current.length) {
+            current = Arrays.copyOf(current, Math.max(current.length * 2, code + 1));
+        }
+        current[code] = value;
+        values = current; // publish the array before the code becomes visible
+        codes.put(value, code);
+        nextCode.accumulateAndGet(code + 1, Math::max);
+    }
+}
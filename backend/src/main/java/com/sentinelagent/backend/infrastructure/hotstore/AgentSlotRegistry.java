@@ -0,0 +1,146 @@
+package com.sentinelagent.backend.infrastructure.hotstore;
+
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Assigns each agent ID a dense, stable integer slot while the agent exists.
+ * In-memory structures index their per-agent data by slot instead of by string key.
+ * Part of the Infrastructure Layer.
+ *
+ * The slot of a deleted agent is released and handed out again once the
+ * never-used slots run out. Structures holding per-slot data register a
+ * SlotReleaseListener, which clears the slot when it is released and again
+ * before it is reused, so nothing of the previous agent leaks into the next.
+ * An agent that finds all slots taken gets none and is not remembered, so
+ * unknown agent IDs cannot grow the registry.
+ */
+@Component
+public class AgentSlotRegistry {
+
+    public static final int NO_SLOT = -1;
+
+    private final ConcurrentHashMap<String, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final Queue<Integer> releasedSlots = new ConcurrentLinkedQueue<>();
+    private final List<SlotReleaseListener> releaseListeners = new CopyOnWriteArrayList<>();
+    private final AtomicReferenceArray<String> agents;
+    private final int capacity;
+
+    public AgentSlotRegistry(@Value("${hotstore.max-agents:10000}") int capacity) {
+        this.capacity = capacity;
+        this.agents = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Return the slot of an agent, assigning a free one on first sight.
+     *
+     * @return the slot, or {@link #NO_SLOT} when all slots are taken
+     */
+    public int slotOf(String agentId) {
+        Integer slot = slots.get(agentId);
+        if (slot != null) {
+            return slot;
+        }
+        // Claimed and cleared outside the map, since listeners take their own locks
+        int claimed = claimSlot();
+        if (claimed == NO_SLOT) {
+            return NO_SLOT;
+        }
+        agents.set(claimed, agentId);
+        Integer assigned = slots.putIfAbsent(agentId, claimed);
+        if (assigned != null) {
+            // Another thread assigned the agent first; the claimed slot is still clean
+            agents.compareAndSet(claimed, agentId, null);
+            releasedSlots.add(claimed);
+            return assigned;
+        }
+        return claimed;
+    }
+
+    /**
+     * Release the slot of an agent that no longer exists
+     */
+    public void release(String agentId) {
+        Integer slot = slots.remove(agentId);
+        if (slot == null) {
+            return;
+        }
+        agents.compareAndSet(slot, agentId, null);
+        clear(slot);
+        releasedSlots.add(slot);
+    }
+
+    @EventListener
+    public void onStatusChanged(AgentStatusChangedEvent event) {
+        // Revoked agents keep their slot: they are still listed and searchable
+        if (event.newStatus() == null) {
+            release(event.agentId().getValue());
+        }
+    }
+
+    public void addReleaseListener(SlotReleaseListener listener) {
+        releaseListeners.add(listener);
+    }
+
+    /**
+     * Return the agent holding a slot, e.g. to turn a slot bitmap back into agent IDs
+     *
+     * @return the agent ID, or null if the slot is not assigned
+     */
+    public String agentAt(int slot) {
+        return slot >= 0 && slot < capacity ? agents.get(slot) : null;
+    }
+
+    /**
+     * Return the slot of an already known agent without assigning one
+     */
+    public int lookup(String agentId) {
+        return slots.getOrDefault(agentId, NO_SLOT);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * A never-used slot while there are any, then the longest released one
+     */
+    private int claimSlot() {
+        int fresh = nextSlot.getAndUpdate(next -> next < capacity ? next + 1 : next);
+        if (fresh < capacity) {
+            return fresh;
+        }
+        Integer released = releasedSlots.poll();
+        if (released == null) {
+            return NO_SLOT;
+        }
+        clear(released);
+        return released;
+    }
+
+    private void clear(int slot) {
+        releaseListeners.forEach(listener -> listener.slotReleased(slot));
+    }
+
+    /**
+     * Implemented by structures that keep per-slot data
+     */
+    public interface SlotReleaseListener {
+
+        /**
+         * Drop everything held for the slot; it may be assigned to another agent next
+         */
+        void slotReleased(int slot);
+    }
+}
@@ -0,0 +1,400 @@
+package com.sentinelagent.backend.infrastructure.hotstore;
+
+import com.sentinelagent.backend.application.agent.dto.AgentFilter;
+import com.sentinelagent.backend.application.agent.dto.AgentSearchDto;
+import com.sentinelagent.backend.application.agent.port.AgentAttributeIndex;
+import com.sentinelagent.backend.domain.agent.Agent;
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentRepository;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import com.sentinelagent.backend.infrastructure.bitmap.SlotBitmap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory implementation of the AgentAttributeIndex port.
+ *
+ * One bitmap of agent slots per status, operating system and agent version,
+ * and one per minute in which agents last sent a heartbeat. A filter is an
+ * OR of the bitmaps of each attribute's values, ANDed across attributes;
+ * facets are counted by intersecting the result with every value's bitmap,
+ * so a dashboard gets all its counts from one pass in memory.
+ *
+ * Registration and heartbeats re-index their agent, persisted status changes
+ * (also those made elsewhere, e.g. revocation) move it, and the index is
+ * rebuilt from the database at startup and then periodically, which also
+ * picks up agents registered on other backend instances. Agents updated
+ * while a rebuild reads the database keep their live entry.
+ */
+@Slf4j
+@Component
+public class BitmapAgentAttributeIndex implements AgentAttributeIndex, AgentSlotRegistry.SlotReleaseListener {
+
+    static final String UNKNOWN = "unknown";
+    // Cumulative lastHeartbeat facets, then "older"
+    private static final int[] RECENCY_MINUTES = {5, 15, 60, 1440};
+    private static final String[] RECENCY_LABELS = {"5m", "15m", "1h", "24h"};
+    private static final String OLDER = "older";
+
+    private final AgentSlotRegistry slotRegistry;
+    private final AgentRepository agentRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Attributes attributes;
+    // Live updates are numbered; per slot, the number of its latest one. Guarded by the lock
+    private long updates;
+    private final long[] lastUpdateBySlot;
+
+    public BitmapAgentAttributeIndex(AgentSlotRegistry slotRegistry, AgentRepository agentRepository) {
+        this.slotRegistry = slotRegistry;
+        this.agentRepository = agentRepository;
+        this.attributes = new Attributes(slotRegistry.capacity());
+        this.lastUpdateBySlot = new long[slotRegistry.capacity()];
+        slotRegistry.addReleaseListener(this);
+    }
+
+    @Override
+    public void index(Agent agent) {
+        int slot = slotRegistry.slotOf(agent.getId().getValue());
+        if (slot == AgentSlotRegistry.NO_SLOT) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            attributes.set(slot, agent);
+            lastUpdateBySlot[slot] = ++updates;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateStatus(AgentId agentId, AgentStatus status) {
+        int slot = status != null
+                ? slotRegistry.slotOf(agentId.getValue())
+                : slotRegistry.lookup(agentId.getValue());
+        if (slot == AgentSlotRegistry.NO_SLOT) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (status != null) {
+                attributes.setStatus(slot, status);
+            } else {
+                attributes.clear(slot);
+            }
+            lastUpdateBySlot[slot] = ++updates;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void slotReleased(int slot) {
+        lock.writeLock().lock();
+        try {
+            attributes.clear(slot);
+            lastUpdateBySlot[slot] = ++updates;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild(List<Agent> agents) {
+        rebuild(agents, updatesSoFar());
+    }
+
+    /**
+     * Swap in an index built from agents read after the first {@code readAfter}
+     * live updates. Agents updated live since then keep their current entry,
+     * which is newer than the one read.
+     */
+    private void rebuild(List<Agent> agents, long readAfter) {
+        Attributes rebuilt = new Attributes(slotRegistry.capacity());
+        for (Agent agent : agents) {
+            int slot = slotRegistry.slotOf(agent.getId().getValue());
+            if (slot != AgentSlotRegistry.NO_SLOT) {
+                rebuilt.set(slot, agent);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < lastUpdateBySlot.length; slot++) {
+                if (lastUpdateBySlot[slot] > readAfter) {
+                    rebuilt.copy(attributes, slot);
+                }
+            }
+            attributes = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long updatesSoFar() {
+        lock.readLock().lock();
+        try {
+            return updates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onStatusChanged(AgentStatusChangedEvent event) {
+        updateStatus(event.agentId(), event.newStatus());
+    }
+
+    /**
+     * Reload every agent from the database (runs at startup, then periodically)
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${agents.index.rebuild-interval-ms:900000}")
+    public void reload() {
+        try {
+            long readAfter = updatesSoFar();
+            List<Agent> agents = agentRepository.findAll();
+            rebuild(agents, readAfter);
+            log.debug("Agent attribute index rebuilt with {} agent(s)", agents.size());
+        } catch (Exception ex) {
+            log.warn("Agent attribute index rebuild failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public AgentSearchDto search(AgentFilter filter, int limit) {
+        return search(filter, limit, System.currentTimeMillis());
+    }
+
+    AgentSearchDto search(AgentFilter filter, int limit, long nowMillis) {
+        long nowMinute = TimeUnit.MILLISECONDS.toMinutes(nowMillis);
+        lock.readLock().lock();
+        try {
+            SlotBitmap matches = attributes.match(filter, nowMinute);
+
+            List<String> agentIds = new ArrayList<>(Math.min(limit, matches.cardinality()));
+            for (int slot : matches.toArray()) {
+                if (agentIds.size() == limit) {
+                    break;
+                }
+                String agentId = slotRegistry.agentAt(slot);
+                if (agentId != null) {
+                    agentIds.add(agentId);
+                }
+            }
+            return AgentSearchDto.builder()
+                    .total(matches.cardinality())
+                    .agentIds(agentIds)
+                    .status(facet(attributes.byStatus, matches, AgentStatus::name))
+                    .operatingSystem(facet(attributes.byOperatingSystem, matches, Function.identity()))
+                    .agentVersion(facet(attributes.byAgentVersion, matches, Function.identity()))
+                    .lastHeartbeat(attributes.recencyFacet(matches, nowMinute))
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <K> Map<String, Integer> facet(Map<K, SlotBitmap> bitmaps, SlotBitmap matches,
+            Function<K, String> label) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        bitmaps.forEach((value, bitmap) -> {
+            int count = SlotBitmap.andCardinality(bitmap, matches);
+            if (count > 0) {
+                counts.put(label.apply(value), count);
+            }
+        });
+        return counts;
+    }
+
+    private static String valueOf(String attribute) {
+        return attribute == null || attribute.isBlank() ? UNKNOWN : attribute.trim();
+    }
+
+    private static long minuteOf(LocalDateTime time) {
+        return time == null
+                ? Long.MIN_VALUE
+                : TimeUnit.MILLISECONDS.toMinutes(time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    /**
+     * The bitmaps and, per slot, the values the agent is indexed under, so a
+     * change clears the old bit. Guarded by the index lock.
+     */
+    private static final class Attributes {
+
+        private final SlotBitmap all = new SlotBitmap();
+        private final Map<AgentStatus, SlotBitmap> byStatus = new EnumMap<>(AgentStatus.class);
+        private final Map<String, SlotBitmap> byOperatingSystem = new TreeMap<>();
+        private final Map<String, SlotBitmap> byAgentVersion = new TreeMap<>();
+        // Epoch minute of the last heartbeat; agents without one are under Long.MIN_VALUE
+        private final TreeMap<Long, SlotBitmap> byHeartbeatMinute = new TreeMap<>();
+
+        private final AgentStatus[] statuses;
+        private final String[] operatingSystems;
+        private final String[] agentVersions;
+        private final Long[] heartbeatMinutes;
+
+        Attributes(int capacity) {
+            statuses = new AgentStatus[capacity];
+            operatingSystems = new String[capacity];
+            agentVersions = new String[capacity];
+            heartbeatMinutes = new Long[capacity];
+        }
+
+        void set(int slot, Agent agent) {
+            all.add(slot);
+            setStatus(slot, agent.getStatus());
+            operatingSystems[slot] = move(byOperatingSystem, slot, operatingSystems[slot],
+                    valueOf(agent.getOperatingSystem()));
+            agentVersions[slot] = move(byAgentVersion, slot, agentVersions[slot], valueOf(agent.getAgentVersion()));
+            heartbeatMinutes[slot] = move(byHeartbeatMinute, slot, heartbeatMinutes[slot],
+                    minuteOf(agent.getLastHeartbeat()));
+        }
+
+        void setStatus(int slot, AgentStatus status) {
+            if (status == null) {
+                return;
+            }
+            all.add(slot);
+            statuses[slot] = move(byStatus, slot, statuses[slot], status);
+        }
+
+        void clear(int slot) {
+            if (!all.remove(slot)) {
+                return;
+            }
+            statuses[slot] = move(byStatus, slot, statuses[slot], null);
+            operatingSystems[slot] = move(byOperatingSystem, slot, operatingSystems[slot], null);
+            agentVersions[slot] = move(byAgentVersion, slot, agentVersions[slot], null);
+            heartbeatMinutes[slot] = move(byHeartbeatMinute, slot, heartbeatMinutes[slot], null);
+        }
+
+        /**
+         * Replace a slot's entry with its entry in another index
+         */
+        void copy(Attributes from, int slot) {
+            clear(slot);
+            if (!from.all.contains(slot)) {
+                return;
+            }
+            all.add(slot);
+            statuses[slot] = move(byStatus, slot, null, from.statuses[slot]);
+            operatingSystems[slot] = move(byOperatingSystem, slot, null, from.operatingSystems[slot]);
+            agentVersions[slot] = move(byAgentVersion, slot, null, from.agentVersions[slot]);
+            heartbeatMinutes[slot] = move(byHeartbeatMinute, slot, null, from.heartbeatMinutes[slot]);
+        }
+
+        SlotBitmap match(AgentFilter filter, long nowMinute) {
+            SlotBitmap matches = all;
+            if (filter == null) {
+                return matches.copy();
+            }
+            if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+                List<AgentStatus> wanted = filter.getStatuses().stream()
+                        .map(AgentStatus::parse)
+                        .toList();
+                matches = SlotBitmap.and(matches, union(wanted, byStatus));
+            }
+            if (filter.getOperatingSystems() != null && !filter.getOperatingSystems().isEmpty()) {
+                matches = SlotBitmap.and(matches, union(filter.getOperatingSystems().stream()
+                        .map(BitmapAgentAttributeIndex::valueOf).toList(), byOperatingSystem));
+            }
+            if (filter.getAgentVersions() != null && !filter.getAgentVersions().isEmpty()) {
+                matches = SlotBitmap.and(matches, union(filter.getAgentVersions().stream()
+                        .map(BitmapAgentAttributeIndex::valueOf).toList(), byAgentVersion));
+            }
+            if (filter.getSeenWithinMinutes() != null) {
+                matches = SlotBitmap.and(matches,
+                        union(byHeartbeatMinute.tailMap(nowMinute - filter.getSeenWithinMinutes()).values()));
+            }
+            return matches == all ? all.copy() : matches;
+        }
+
+        Map<String, Integer> recencyFacet(SlotBitmap matches, long nowMinute) {
+            int[] within = new int[RECENCY_MINUTES.length];
+            int older = 0;
+            for (Map.Entry<Long, SlotBitmap> bucket : byHeartbeatMinute.entrySet()) {
+                int count = SlotBitmap.andCardinality(bucket.getValue(), matches);
+                if (count == 0) {
+                    continue;
+                }
+                long age = nowMinute - bucket.getKey();
+                boolean recent = false;
+                for (int i = 0; i < RECENCY_MINUTES.length; i++) {
+                    if (bucket.getKey() != Long.MIN_VALUE && age <= RECENCY_MINUTES[i]) {
+                        within[i] += count;
+                        recent = true;
+                    }
+                }
+                if (!recent) {
+                    older += count;
+                }
+            }
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (int i = 0; i < RECENCY_LABELS.length; i++) {
+                counts.put(RECENCY_LABELS[i], within[i]);
+            }
+            counts.put(OLDER, older);
+            return counts;
+        }
+
+        private static <K> SlotBitmap union(List<K> values, Map<K, SlotBitmap> bitmaps) {
+            List<SlotBitmap> selected = new ArrayList<>(values.size());
+            for (K value : values) {
+                SlotBitmap bitmap = bitmaps.get(value);
+                if (bitmap != null) {
+                    selected.add(bitmap);
+                }
+            }
+            return union(selected);
+        }
+
+        private static SlotBitmap union(Collection<SlotBitmap> bitmaps) {
+            SlotBitmap union = new SlotBitmap();
+            for (SlotBitmap bitmap : bitmaps) {
+                union = SlotBitmap.or(union, bitmap);
+            }
+            return union;
+        }
+
+        /**
+         * Move a slot from the bitmap of its previous value to that of its new one
+         *
+         * @return the new value
+         */
+        private static <K> K move(Map<K, SlotBitmap> bitmaps, int slot, K previous, K current) {
+            if (previous != null && previous.equals(current)) {
+                return current;
+            }
+            if (previous != null) {
+                SlotBitmap bitmap = bitmaps.get(previous);
+                if (bitmap != null) {
+                    bitmap.remove(slot);
+                    if (bitmap.isEmpty()) {
+                        bitmaps.remove(previous);
+                    }
+                }
+            }
+            if (current != null) {
+                bitmaps.computeIfAbsent(current, value -> new SlotBitmap()).add(slot);
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.sentinelagent.backend.infrastructure.hotstore;
+
+import com.sentinelagent.backend.application.hunting.port.ProcessIndex;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import com.sentinelagent.backend.domain.telemetry.TelemetryChanges;
+import com.sentinelagent.backend.infrastructure.bitmap.SlotBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory implementation of the ProcessIndex port.
+ *
+ * An inverted index from normalized process name to the bitmap of agent
+ * slots running it. Each agent keeps a count of its processes per name, so a
+ * name's bit is only cleared when the last process of that name stops. The
+ * index follows the change events of the ingest path (see
+ * TelemetryChangeTracker) and resyncs an agent from each full snapshot; a
+ * lookup reads one bitmap.
+ *
+ * An agent is dropped from the index when it is deactivated, revoked or
+ * deleted, or when it has not reported for the report timeout, so hosts
+ * that went away do not stay "running" their last processes. Its next
+ * report then indexes its whole process list again.
+ *
+ * Reports of one agent are applied in order by the ingest pipeline; status
+ * changes and the timeout sweep take the agent's lock. Lookups may run
+ * concurrently and see each name's bitmap atomically.
+ */
+@Component
+public class BitmapProcessIndex implements ProcessIndex, AgentSlotRegistry.SlotReleaseListener {
+
+    private final AgentSlotRegistry slotRegistry;
+    private final long reportTimeoutMillis;
+    private final Map<String, SlotBitmap> agentsByName = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<AgentProcesses> processesBySlot;
+
+    public BitmapProcessIndex(AgentSlotRegistry slotRegistry,
+            @Value("${hunting.processes.report-timeout-minutes:10}") int reportTimeoutMinutes) {
+        this.slotRegistry = slotRegistry;
+        this.reportTimeoutMillis = reportTimeoutMinutes * 60_000L;
+        this.processesBySlot = new AtomicReferenceArray<>(slotRegistry.capacity());
+        slotRegistry.addReleaseListener(this);
+    }
+
+    @Override
+    public void apply(String agentId, List<Process> processes, TelemetryChanges changes, boolean fullReport) {
+        if (agentId == null || changes == null) {
+            return;
+        }
+        int slot = slotRegistry.slotOf(agentId);
+        if (slot == AgentSlotRegistry.NO_SLOT) {
+            return;
+        }
+        if (processesBySlot.get(slot) == null) {
+            processesBySlot.compareAndSet(slot, null, new AgentProcesses());
+        }
+        AgentProcesses agent = processesBySlot.get(slot);
+        synchronized (agent) {
+            if (fullReport || !agent.indexed) {
+                replace(slot, agent, processes);
+            } else {
+                changes.getStartedProcesses().forEach(process -> started(slot, agent, normalize(process.getName())));
+                changes.getStoppedProcesses().forEach(process -> stopped(slot, agent, normalize(process.getName())));
+            }
+            agent.indexed = true;
+            agent.lastReportMillis = System.currentTimeMillis();
+        }
+    }
+
+    @Override
+    public List<String> agentsRunning(String processName) {
+        String name = normalize(processName);
+        if (name == null) {
+            return List.of();
+        }
+        int[][] slots = new int[1][];
+        agentsByName.computeIfPresent(name, (n, bitmap) -> {
+            slots[0] = bitmap.toArray();
+            return bitmap;
+        });
+        if (slots[0] == null) {
+            return List.of();
+        }
+        List<String> agentIds = new ArrayList<>(slots[0].length);
+        for (int slot : slots[0]) {
+            String agentId = slotRegistry.agentAt(slot);
+            if (agentId != null) {
+                agentIds.add(agentId);
+            }
+        }
+        return agentIds;
+    }
+
+    /**
+     * Drop agents that are no longer active; a reactivated agent is indexed again by its next report
+     */
+    @EventListener
+    public void onStatusChanged(AgentStatusChangedEvent event) {
+        if (event.newStatus() == AgentStatus.ACTIVE) {
+            return;
+        }
+        int slot = slotRegistry.lookup(event.agentId().getValue());
+        if (slot != AgentSlotRegistry.NO_SLOT) {
+            clear(slot, 0);
+        }
+    }
+
+    @Override
+    public void slotReleased(int slot) {
+        clear(slot, 0);
+    }
+
+    /**
+     * Drop agents that have not reported for the report timeout
+     */
+    @Scheduled(fixedDelayString = "${hunting.processes.sweep-interval-ms:60000}")
+    public void dropSilentAgents() {
+        dropSilentAgents(System.currentTimeMillis());
+    }
+
+    void dropSilentAgents(long nowMillis) {
+        long reportedBefore = nowMillis - reportTimeoutMillis;
+        for (int slot = 0; slot < processesBySlot.length(); slot++) {
+            clear(slot, reportedBefore);
+        }
+    }
+
+    /**
+     * Drop the slot's processes unless it reported at or after {@code reportedBefore}; 0 drops them in any case
+     */
+    private void clear(int slot, long reportedBefore) {
+        AgentProcesses agent = processesBySlot.get(slot);
+        if (agent == null) {
+            return;
+        }
+        synchronized (agent) {
+            if (!agent.indexed || (reportedBefore > 0 && agent.lastReportMillis >= reportedBefore)) {
+                return;
+            }
+            agent.names.keySet().forEach(name -> unmark(slot, name));
+            agent.names.clear();
+            agent.indexed = false;
+        }
+    }
+
+    private void replace(int slot, AgentProcesses agent, List<Process> processes) {
+        Map<String, Integer> names = new HashMap<>();
+        if (processes != null) {
+            for (Process process : processes) {
+                String name = normalize(process.getName());
+                if (name != null) {
+                    names.merge(name, 1, Integer::sum);
+                }
+            }
+        }
+        agent.names.keySet().forEach(name -> {
+            if (!names.containsKey(name)) {
+                unmark(slot, name);
+            }
+        });
+        names.keySet().forEach(name -> {
+            if (!agent.names.containsKey(name)) {
+                mark(slot, name);
+            }
+        });
+        agent.names = names;
+    }
+
+    private void started(int slot, AgentProcesses agent, String name) {
+        if (name != null && agent.names.merge(name, 1, Integer::sum) == 1) {
+            mark(slot, name);
+        }
+    }
+
+    private void stopped(int slot, AgentProcesses agent, String name) {
+        Integer count = name != null ? agent.names.get(name) : null;
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            agent.names.put(name, count - 1);
+        } else {
+            agent.names.remove(name);
+            unmark(slot, name);
+        }
+    }
+
+    private void mark(int slot, String name) {
+        agentsByName.compute(name, (n, bitmap) -> {
+            SlotBitmap agents = bitmap != null ? bitmap : new SlotBitmap();
+            agents.add(slot);
+            return agents;
+        });
+    }
+
+    private void unmark(int slot, String name) {
+        agentsByName.computeIfPresent(name, (n, bitmap) -> {
+            bitmap.remove(slot);
+            return bitmap.isEmpty() ? null : bitmap;
+        });
+    }
+
+    /**
+     * Lower-case file name without directory and .exe suffix, so "C:\Windows\CMD.EXE" matches "cmd"
+     */
+    static String normalize(String processName) {
+        if (processName == null) {
+            return null;
+        }
+        String name = processName.trim().toLowerCase(Locale.ROOT);
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        if (name.endsWith(".exe")) {
+            name = name.substring(0, name.length() - 4);
+        }
+        return name.isEmpty() ? null : name;
+    }
+
+    /**
+     * An agent's running processes per normalized name; guarded by its own lock
+     */
+    private static final class AgentProcesses {
+        private Map<String, Integer> names = new HashMap<>();
+        // False until the first report and after the agent was dropped
+        private boolean indexed;
+        private long lastReportMillis;
+    }
+}
@@ -0,0 +1,147 @@
+package com.sentinelagent.backend.infrastructure.hotstore;
+
+import com.sentinelagent.backend.application.hunting.port.RemoteEndpointIndex;
+import com.sentinelagent.backend.domain.telemetry.IpAddress;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory implementation of the RemoteEndpointIndex port.
+ *
+ * Contacts are kept in a ring of time buckets (e.g. twelve of five minutes
+ * for a one-hour window), each mapping remote address to the (agent slot,
+ * process) pairs seen with it. A bucket that falls out of the window is
+ * replaced as a whole when its ring position is reused, so expiry costs
+ * nothing per entry; lookups skip buckets older than the window.
+ *
+ * Addresses are keyed numerically (see IpAddress), so textual variants of
+ * one address meet; connections without a remote IP literal are ignored.
+ */
+@Component
+public class BucketedRemoteEndpointIndex implements RemoteEndpointIndex, AgentSlotRegistry.SlotReleaseListener {
+
+    private final AgentSlotRegistry slotRegistry;
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> ring;
+
+    public BucketedRemoteEndpointIndex(AgentSlotRegistry slotRegistry,
+            @Value("${hunting.endpoints.window-minutes:60}") int windowMinutes,
+            @Value("${hunting.endpoints.bucket-minutes:5}") int bucketMinutes) {
+        this.slotRegistry = slotRegistry;
+        this.bucketMillis = bucketMinutes * 60_000L;
+        this.ring = new AtomicReferenceArray<>(Math.max(1, windowMinutes / bucketMinutes));
+        slotRegistry.addReleaseListener(this);
+    }
+
+    @Override
+    public void record(String agentId, List<NetworkConnection> connections, long observedAtMillis) {
+        if (agentId == null || connections == null || connections.isEmpty()) {
+            return;
+        }
+        int slot = slotRegistry.slotOf(agentId);
+        if (slot == AgentSlotRegistry.NO_SLOT) {
+            return;
+        }
+        Bucket bucket = bucketFor(Math.floorDiv(observedAtMillis, bucketMillis));
+        if (bucket == null) {
+            return; // older than the window
+        }
+        for (NetworkConnection connection : connections) {
+            IpAddress remote = IpAddress.parse(connection.getRemoteAddress());
+            if (remote == null || connection.getRemotePort() == 0 || isUnspecified(remote)) {
+                continue; // listening socket
+            }
+            bucket.contacts.computeIfAbsent(remote, address -> new ConcurrentHashMap<>())
+                    .merge(new SlotProcess(slot, connection.getProcessName()), observedAtMillis, Math::max);
+        }
+    }
+
+    @Override
+    public List<Contact> contacts(String remoteAddress) {
+        IpAddress remote = IpAddress.parse(remoteAddress);
+        if (remote == null) {
+            return List.of();
+        }
+        long oldest = Math.floorDiv(System.currentTimeMillis(), bucketMillis) - ring.length() + 1;
+        Map<SlotProcess, Long> merged = new HashMap<>();
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket == null || bucket.epoch < oldest) {
+                continue;
+            }
+            Map<SlotProcess, Long> seen = bucket.contacts.get(remote);
+            if (seen != null) {
+                seen.forEach((contact, lastSeen) -> merged.merge(contact, lastSeen, Math::max));
+            }
+        }
+
+        List<Contact> contacts = new ArrayList<>(merged.size());
+        merged.forEach((contact, lastSeen) -> {
+            String agentId = slotRegistry.agentAt(contact.slot());
+            if (agentId != null) {
+                contacts.add(new Contact(agentId, contact.processName(), lastSeen));
+            }
+        });
+        contacts.sort(Comparator.comparingLong(Contact::lastSeen).reversed());
+        return contacts;
+    }
+
+    /**
+     * Forget the slot's contacts; releases are rare, so every bucket is scanned
+     */
+    @Override
+    public void slotReleased(int slot) {
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null) {
+                bucket.contacts.values().forEach(seen -> seen.keySet().removeIf(contact -> contact.slot() == slot));
+            }
+        }
+    }
+
+    /**
+     * The bucket for an epoch, replacing the expired bucket at its ring position
+     *
+     * @return null if the epoch has already left the window
+     */
+    private Bucket bucketFor(long epoch) {
+        int position = (int) Math.floorMod(epoch, (long) ring.length());
+        while (true) {
+            Bucket current = ring.get(position);
+            if (current != null && current.epoch == epoch) {
+                return current;
+            }
+            if (current != null && current.epoch > epoch) {
+                return null;
+            }
+            if (ring.compareAndSet(position, current, new Bucket(epoch))) {
+                return ring.get(position);
+            }
+        }
+    }
+
+    private static boolean isUnspecified(IpAddress address) {
+        return address.getHigh() == 0 && address.getLow() == 0;
+    }
+
+    private record SlotProcess(int slot, String processName) {
+    }
+
+    private static final class Bucket {
+        private final long epoch;
+        private final Map<IpAddress, Map<SlotProcess, Long>> contacts = new ConcurrentHashMap<>();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.sentinelagent.backend.infrastructure.hotstore;
+
+import com.sentinelagent.backend.application.telemetry.port.RecentMetricStore;
+import com.sentinelagent.backend.domain.telemetry.MetricField;
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Off-heap implementation of the RecentMetricStore port.
+ *
+ * Each agent slot owns one direct ByteBuffer used as a fixed-size ring of
+ * samples. A sample row is laid out as [timestamp:long][field0..fieldN:double],
+ * so the whole recent window of a busy fleet lives outside the Java heap and
+ * never creates GC pressure. Writers of a slot are serialized; readers use a
+ * per-slot sequence counter (seqlock) and retry if a write raced the copy.
+ */
+@Slf4j
+@Component
+public class OffHeapMetricStore implements RecentMetricStore, AgentSlotRegistry.SlotReleaseListener {
+
+    private static final int FIELD_COUNT = MetricField.all().length;
+    private static final int ROW_BYTES = Long.BYTES + FIELD_COUNT * Double.BYTES;
+    private static final int MAX_READ_ATTEMPTS = 8;
+
+    private final AgentSlotRegistry slotRegistry;
+    private final int samplesPerAgent;
+    private final AtomicReferenceArray<ByteBuffer> rings;
+    private final AtomicLongArray writeCounts;
+    private final AtomicLongArray sequences;
+
+    public OffHeapMetricStore(AgentSlotRegistry slotRegistry,
+            @Value("${hotstore.samples-per-agent:360}") int samplesPerAgent) {
+        this.slotRegistry = slotRegistry;
+        this.samplesPerAgent = samplesPerAgent;
+        this.rings = new AtomicReferenceArray<>(slotRegistry.capacity());
+        this.writeCounts = new AtomicLongArray(slotRegistry.capacity());
+        this.sequences = new AtomicLongArray(slotRegistry.capacity());
+        slotRegistry.addReleaseListener(this);
+    }
+
+    @Override
+    public void append(MetricReport report) {
+        if (report.getAgentId() == null || report.getReceivedAt() == null) {
+            return;
+        }
+        int slot = slotRegistry.slotOf(report.getAgentId());
+        if (slot == AgentSlotRegistry.NO_SLOT) {
+            log.warn("Hot store is full, not tracking agent: {}", report.getAgentId());
+            return;
+        }
+
+        ByteBuffer ring = ringFor(slot);
+        long timestamp = report.getReceivedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        synchronized (ring) {
+            long count = writeCounts.get(slot);
+            int offset = (int) (count % samplesPerAgent) * ROW_BYTES;
+
+            sequences.incrementAndGet(slot); // odd: write in progress
+            ring.putLong(offset, timestamp);
+            MetricField[] fields = MetricField.all();
+            for (int i = 0; i < fields.length; i++) {
+                ring.putDouble(offset + Long.BYTES + i * Double.BYTES, fields[i].valueOf(report));
+            }
+            writeCounts.set(slot, count + 1);
+            sequences.incrementAndGet(slot); // even: stable
+        }
+    }
+
+    /**
+     * Empty the slot's ring; the buffer is kept for the next agent
+     */
+    @Override
+    public void slotReleased(int slot) {
+        ByteBuffer ring = rings.get(slot);
+        if (ring == null) {
+            return;
+        }
+        synchronized (ring) {
+            sequences.incrementAndGet(slot);
+            writeCounts.set(slot, 0);
+            sequences.incrementAndGet(slot);
+        }
+    }
+
+    @Override
+    public int readRange(String agentId, MetricField field, long fromEpochMillis, long toEpochMillis,
+            long[] timestampsOut, double[] valuesOut) {
+        int slot = slotRegistry.lookup(agentId);
+        if (slot == AgentSlotRegistry.NO_SLOT) {
+            return 0;
+        }
+        ByteBuffer ring = rings.get(slot);
+        if (ring == null) {
+            return 0;
+        }
+
+        int fieldOffset = Long.BYTES + field.ordinal() * Double.BYTES;
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long sequence = sequences.get(slot);
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int written = copyRange(ring, slot, fieldOffset, fromEpochMillis, toEpochMillis,
+                    timestampsOut, valuesOut);
+            VarHandle.acquireFence(); // keep the buffer reads ahead of the re-check
+            if (sequences.get(slot) == sequence) {
+                return written;
+            }
+        }
+
+        // Persistent write contention: fall back to a consistent read under the writer lock
+        synchronized (ring) {
+            return copyRange(ring, slot, fieldOffset, fromEpochMillis, toEpochMillis, timestampsOut, valuesOut);
+        }
+    }
+
+    private int copyRange(ByteBuffer ring, int slot, int fieldOffset, long fromEpochMillis, long toEpochMillis,
+            long[] timestampsOut, double[] valuesOut) {
+        long count = writeCounts.get(slot);
+        long first = Math.max(0, count - samplesPerAgent);
+        int written = 0;
+        for (long i = first; i < count && written < timestampsOut.length; i++) {
+            int offset = (int) (i % samplesPerAgent) * ROW_BYTES;
+            long timestamp = ring.getLong(offset);
+            if (timestamp >= fromEpochMillis && timestamp <= toEpochMillis) {
+                timestampsOut[written] = timestamp;
+                valuesOut[written] = ring.getDouble(offset + fieldOffset);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    @Override
+    public int samplesPerAgent() {
+        return samplesPerAgent;
+    }
+
+    private ByteBuffer ringFor(int slot) {
+        ByteBuffer ring = rings.get(slot);
+        if (ring == null) {
+            rings.compareAndSet(slot, null, ByteBuffer.allocateDirect(samplesPerAgent * ROW_BYTES));
+            ring = rings.get(slot);
+        }
+        return ring;
+    }
+}
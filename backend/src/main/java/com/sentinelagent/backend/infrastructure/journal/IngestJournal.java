@@ -0,0 +1,305 @@
+package com.sentinelagent.backend.infrastructure.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only journal of ingested telemetry, made of memory-mapped
+ * segment files (see JournalSegment).
+ *
+ * Writers append batches of entries, forced to disk before the call returns
+ * when sync is on. A single reader drains the entries in order from the last
+ * checkpoint; once it has persisted them elsewhere it moves the checkpoint on,
+ * and segments entirely before the checkpoint are deleted. After a restart the
+ * reader starts again at the checkpoint, so entries are delivered at least
+ * once and the reader must tolerate repeats. An entry the reader cannot
+ * persist at all is set aside in the rejected/ directory so it does not stall
+ * the entries behind it.
+ */
+@Slf4j
+public class IngestJournal implements AutoCloseable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("(\\d{20})\\.journal");
+    private static final String CHECKPOINT = "checkpoint";
+    private static final String REJECTED = "rejected";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final boolean sync;
+    private final ConcurrentSkipListMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    private volatile JournalSegment active;
+    private volatile JournalPosition checkpoint;
+
+    // Group commit: appends are numbered, and segments written since the last force collected
+    private final Set<JournalSegment> unforced = new LinkedHashSet<>(); // guarded by this
+    private long appended; // guarded by this
+    private final Object forceLock = new Object();
+    private long forced; // guarded by forceLock
+
+    public IngestJournal(Path directory, int segmentBytes, int maxSegments, boolean sync) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.sync = sync;
+        Files.createDirectories(directory);
+
+        List<Long> indexes = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    indexes.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        indexes.sort(null);
+        for (int i = 0; i < indexes.size(); i++) {
+            long index = indexes.get(i);
+            segments.put(index, JournalSegment.open(segmentPath(index), index, i == indexes.size() - 1));
+        }
+        active = segments.isEmpty() ? newSegment(0) : segments.lastEntry().getValue();
+
+        JournalPosition stored = readCheckpoint();
+        JournalPosition first = new JournalPosition(segments.firstKey(), 0);
+        checkpoint = stored == null || stored.compareTo(first) < 0 ? first : stored;
+        log.info("Ingest journal opened in {}: {} segment(s), resuming at {}", directory, segments.size(), checkpoint);
+    }
+
+    /**
+     * Append entries in order; with sync on, they are on disk when this returns.
+     *
+     * Writers copy their entries into the segment under the journal lock and
+     * then wait for a group commit: one of them forces every segment written
+     * since the last force, covering all appends made in the meantime, while
+     * the others keep appending or wait for it, so concurrent writers share
+     * one fsync instead of queueing for one each.
+     *
+     * @throws IllegalStateException if the journal is full because its reader fell behind
+     */
+    public void append(List<byte[]> entries) {
+        long sequence;
+        synchronized (this) {
+            if (sync) {
+                unforced.add(active);
+            }
+            for (byte[] entry : entries) {
+                if (JournalSegment.ENTRY_HEADER_BYTES + entry.length > segmentBytes) {
+                    throw new IllegalArgumentException("Journal entry of " + entry.length + " bytes exceeds the segment size");
+                }
+                if (!active.append(entry)) {
+                    if (segments.size() >= maxSegments) {
+                        throw new IllegalStateException("Ingest journal is full (" + maxSegments + " segments)");
+                    }
+                    active = newSegment(active.index() + 1);
+                    if (sync) {
+                        unforced.add(active);
+                    }
+                    active.append(entry);
+                }
+            }
+            sequence = ++appended;
+        }
+        if (sync) {
+            awaitForced(sequence);
+        }
+    }
+
+    /**
+     * Return once every append up to the sequence is on disk, forcing it if no
+     * other writer has yet
+     */
+    private void awaitForced(long sequence) {
+        synchronized (forceLock) {
+            if (forced >= sequence) {
+                return;
+            }
+            List<JournalSegment> toForce;
+            long upTo;
+            synchronized (this) {
+                toForce = new ArrayList<>(unforced);
+                unforced.clear();
+                upTo = appended;
+            }
+            for (JournalSegment segment : toForce) {
+                segment.force();
+            }
+            forced = upTo;
+        }
+    }
+
+    /**
+     * Up to {@code maxEntries} entries following the position, in order
+     */
+    public JournalBatch read(JournalPosition from, int maxEntries) {
+        List<byte[]> entries = new ArrayList<>();
+        JournalPosition position = from;
+        while (entries.size() < maxEntries) {
+            Map.Entry<Long, JournalSegment> current = segments.ceilingEntry(position.segment());
+            if (current == null) {
+                break;
+            }
+            JournalSegment segment = current.getValue();
+            if (segment.index() != position.segment()) {
+                position = new JournalPosition(segment.index(), 0);
+            }
+            // Checked before the write position: once a segment is no longer active its end is final
+            boolean isActive = segment == active;
+            if (position.offset() >= segment.writePosition()) {
+                if (isActive) {
+                    break;
+                }
+                position = new JournalPosition(segment.index() + 1, 0);
+                continue;
+            }
+            int length = segment.entryLength(position.offset());
+            if (length == 0) {
+                log.error("Corrupt ingest journal entry at {}, skipping the rest of the segment", position);
+                position = new JournalPosition(segment.index() + 1, 0);
+                continue;
+            }
+            entries.add(segment.read(position.offset(), length));
+            position = new JournalPosition(segment.index(),
+                    position.offset() + JournalSegment.ENTRY_HEADER_BYTES + length);
+        }
+        return new JournalBatch(entries, position);
+    }
+
+    public JournalPosition checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Record that everything before the position has been persisted, and delete
+     * the segments that lie entirely before it
+     */
+    public void checkpoint(JournalPosition position) {
+        try {
+            Path temp = directory.resolve(CHECKPOINT + ".tmp");
+            ByteBuffer bytes = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+            bytes.putLong(position.segment()).putInt(position.offset()).flip();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, directory.resolve(CHECKPOINT),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write the ingest journal checkpoint", ex);
+        }
+        checkpoint = position;
+
+        for (JournalSegment segment : segments.headMap(position.segment()).values()) {
+            if (segment == active) {
+                continue;
+            }
+            segments.remove(segment.index());
+            try {
+                segment.delete();
+            } catch (IOException ex) {
+                log.warn("Could not delete ingest journal segment {}: {}", segment.index(), ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Keep an entry that could not be persisted in rejected/, named after its position
+     */
+    public void setAside(JournalPosition position, byte[] entry) {
+        try {
+            Path rejected = Files.createDirectories(directory.resolve(REJECTED));
+            Files.write(rejected.resolve(String.format("%020d-%010d.entry", position.segment(), position.offset())),
+                    entry, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not set aside ingest journal entry " + position, ex);
+        }
+    }
+
+    /**
+     * Bytes appended after the checkpoint, i.e. how far the reader is behind
+     */
+    public long pendingBytes() {
+        JournalPosition from = checkpoint;
+        long pending = 0;
+        for (JournalSegment segment : segments.tailMap(from.segment()).values()) {
+            pending += segment.writePosition() - (segment.index() == from.segment() ? from.offset() : 0);
+        }
+        return pending;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        active.force();
+    }
+
+    private JournalSegment newSegment(long index) {
+        try {
+            JournalSegment segment = JournalSegment.create(segmentPath(index), index, segmentBytes);
+            if (sync) {
+                forceDirectory();
+            }
+            segments.put(index, segment);
+            return segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create ingest journal segment " + index, ex);
+        }
+    }
+
+    /**
+     * Make a rename or a new file in the journal directory durable. Not every
+     * platform can open a directory for this (Windows cannot); there the
+     * rename is as durable as the file system makes it.
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            log.debug("Could not force the ingest journal directory: {}", ex.getMessage());
+        }
+    }
+
+    private JournalPosition readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        return new JournalPosition(bytes.getLong(), bytes.getInt());
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%020d.journal", index));
+    }
+
+    /**
+     * Entries read from the journal and the position right after the last of them
+     */
+    public record JournalBatch(List<byte[]> entries, JournalPosition next) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.sentinelagent.backend.infrastructure.journal;
+
+/**
+ * A position in the ingest journal: a segment and a byte offset within it
+ */
+public record JournalPosition(long segment, int offset) implements Comparable<JournalPosition> {
+
+    @Override
+    public int compareTo(JournalPosition other) {
+        int bySegment = Long.compare(segment, other.segment);
+        return bySegment != 0 ? bySegment : Integer.compare(offset, other.offset);
+    }
+}
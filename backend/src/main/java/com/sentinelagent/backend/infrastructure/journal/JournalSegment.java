@@ -0,0 +1,128 @@
+package com.sentinelagent.backend.infrastructure.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped file of the ingest journal.
+ *
+ * Entries are laid out back to back as [length:int][crc32c:int][payload].
+ * The file is zero-filled when created, so a zero length marks the end of the
+ * written entries; an entry whose CRC does not match is a write torn by a
+ * crash and ends them too.
+ */
+final class JournalSegment {
+
+    static final int ENTRY_HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final long index;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    // Offset up to which entries are complete and visible to readers
+    private volatile int writePosition;
+
+    private JournalSegment(long index, Path path, MappedByteBuffer buffer) {
+        this.index = index;
+        this.path = path;
+        this.buffer = buffer;
+        this.size = buffer.capacity();
+    }
+
+    static JournalSegment create(Path path, long index, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new JournalSegment(index, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    /**
+     * Map an existing segment and find the end of its valid entries. For the
+     * segment that is appended to next, anything after that end is cleared, so
+     * new entries never run into stale bytes.
+     */
+    static JournalSegment open(Path path, long index, boolean clearTail) throws IOException {
+        JournalSegment segment;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = new JournalSegment(index, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        }
+        int end = 0;
+        while (segment.entryLength(end) > 0) {
+            end += ENTRY_HEADER_BYTES + segment.entryLength(end);
+        }
+        for (int i = end; clearTail && i < segment.size; i++) {
+            if (segment.buffer.get(i) != 0) {
+                segment.buffer.put(i, (byte) 0);
+            }
+        }
+        segment.writePosition = end;
+        return segment;
+    }
+
+    long index() {
+        return index;
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    /**
+     * Append an entry; only called by one writer at a time
+     *
+     * @return false if it does not fit in the rest of the segment
+     */
+    boolean append(byte[] payload) {
+        int offset = writePosition;
+        if (offset + ENTRY_HEADER_BYTES + payload.length > size) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        buffer.put(offset + ENTRY_HEADER_BYTES, payload);
+        buffer.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        // Length last: a reader or a restart never sees a length before its payload
+        buffer.putInt(offset, payload.length);
+        writePosition = offset + ENTRY_HEADER_BYTES + payload.length;
+        return true;
+    }
+
+    /**
+     * Length of the valid entry at the offset, or 0 if there is none
+     */
+    int entryLength(int offset) {
+        if (offset + ENTRY_HEADER_BYTES > size) {
+            return 0;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + ENTRY_HEADER_BYTES + length > size) {
+            return 0;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + ENTRY_HEADER_BYTES, length));
+        return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES) ? length : 0;
+    }
+
+    byte[] read(int offset, int length) {
+        byte[] payload = new byte[length];
+        buffer.get(offset + ENTRY_HEADER_BYTES, payload);
+        return payload;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * The mapping itself is released by the garbage collector
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
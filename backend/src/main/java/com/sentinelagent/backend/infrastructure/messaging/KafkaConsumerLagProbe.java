@@ -0,0 +1,93 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+import com.sentinelagent.backend.application.telemetry.port.ConsumerLagProbe;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Kafka implementation of the ConsumerLagProbe port.
+ * Part of the Infrastructure Layer.
+ *
+ * Compares the committed offsets of the main consumer group with the end
+ * offsets of the main topic, so the lag covers every backend instance of
+ * the group, not just the partitions assigned to this one.
+ */
+@Slf4j
+@Component
+public class KafkaConsumerLagProbe implements ConsumerLagProbe {
+
+    private static final long TIMEOUT_SECONDS = 3;
+
+    private final KafkaAdmin kafkaAdmin;
+    private volatile Admin admin;
+
+    public KafkaConsumerLagProbe(KafkaAdmin kafkaAdmin) {
+        this.kafkaAdmin = kafkaAdmin;
+    }
+
+    @Override
+    public long currentLag() {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = admin()
+                    .listConsumerGroupOffsets(TelemetryTopics.MAIN_GROUP)
+                    .partitionsToOffsetAndMetadata()
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            committed.forEach((partition, offset) -> {
+                if (offset != null && TelemetryTopics.MAIN.equals(partition.topic())) {
+                    latest.put(partition, OffsetSpec.latest());
+                }
+            });
+            if (latest.isEmpty()) {
+                return 0;
+            }
+
+            Map<TopicPartition, ListOffsetsResultInfo> ends = admin().listOffsets(latest)
+                    .all()
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            long lag = 0;
+            for (Map.Entry<TopicPartition, ListOffsetsResultInfo> end : ends.entrySet()) {
+                lag += Math.max(0, end.getValue().offset() - committed.get(end.getKey()).offset());
+            }
+            return lag;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return UNKNOWN;
+        } catch (ExecutionException | TimeoutException | RuntimeException ex) {
+            log.warn("Could not measure telemetry consumer lag: {}", ex.getMessage());
+            return UNKNOWN;
+        }
+    }
+
+    private Admin admin() {
+        if (admin == null) {
+            synchronized (this) {
+                if (admin == null) {
+                    admin = Admin.create(kafkaAdmin.getConfigurationProperties());
+                }
+            }
+        }
+        return admin;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (admin != null) {
+            admin.close();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+import com.sentinelagent.backend.application.telemetry.dto.DeadLetterReplayStatus;
+import com.sentinelagent.backend.application.telemetry.port.DeadLetterReplayer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Kafka implementation of the DeadLetterReplayer port.
+ * Part of the Infrastructure Layer.
+ *
+ * A replay reads the dead-letter topic with its own consumer group up to the
+ * end offsets seen at the start, republishes each record to the main topic
+ * with its original bytes and headers (marked as replayed), paced to the
+ * requested rate, and commits after every batch, so the next replay resumes
+ * where this one stopped. The main listeners are never involved, so a replay
+ * cannot stall live ingestion beyond the rate it adds.
+ */
+@Slf4j
+@Component
+public class KafkaDeadLetterReplayer implements DeadLetterReplayer {
+
+    private static final String GROUP_ID = "sentinel-dlt-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final ConsumerFactory<Object, Object> consumerFactory;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "dlt-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong replayed = new AtomicLong();
+    private volatile int maxRecords;
+    private volatile int recordsPerSecond;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public KafkaDeadLetterReplayer(ConsumerFactory<Object, Object> consumerFactory,
+            KafkaTemplate<String, byte[]> kafkaTemplate) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    @Override
+    public boolean start(int maxRecords, int recordsPerSecond) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        this.maxRecords = maxRecords;
+        this.recordsPerSecond = recordsPerSecond;
+        this.replayed.set(0);
+        this.startedAt = LocalDateTime.now();
+        this.finishedAt = null;
+        this.error = null;
+        worker.execute(() -> {
+            try {
+                replay(maxRecords, recordsPerSecond);
+            } catch (Exception ex) {
+                log.error("Dead-letter replay failed after {} records: {}", replayed.get(), ex.getMessage(), ex);
+                error = ex.getMessage();
+            } finally {
+                finishedAt = LocalDateTime.now();
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public DeadLetterReplayStatus status() {
+        return DeadLetterReplayStatus.builder()
+                .running(running.get())
+                .replayed(replayed.get())
+                .maxRecords(maxRecords)
+                .recordsPerSecond(recordsPerSecond)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void replay(int maxRecords, int recordsPerSecond) {
+        long intervalNanos = 1_000_000_000L / recordsPerSecond;
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(Math.min(recordsPerSecond, 500)));
+
+        try (Consumer<Object, Object> consumer = consumerFactory.createConsumer(GROUP_ID, null, null, overrides)) {
+            List<PartitionInfo> infos = consumer.partitionsFor(TelemetryTopics.DEAD_LETTER);
+            if (infos == null || infos.isEmpty()) {
+                return;
+            }
+            List<TopicPartition> partitions = infos.stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            long nextSend = System.nanoTime();
+            while (replayed.get() < maxRecords && !Thread.currentThread().isInterrupted()
+                    && !reachedEnd(consumer, endOffsets)) {
+                Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+                List<CompletableFuture<?>> sends = new ArrayList<>();
+                for (ConsumerRecord<Object, Object> record : consumer.poll(POLL_TIMEOUT)) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (replayed.get() >= maxRecords || record.offset() >= endOffsets.get(partition)) {
+                        continue; // not committed, picked up by the next replay
+                    }
+                    nextSend += intervalNanos;
+                    long wait = nextSend - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    sends.add(kafkaTemplate.send(toMainTopic(record)));
+                    commits.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                    replayed.incrementAndGet();
+                }
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+                if (!commits.isEmpty()) {
+                    consumer.commitSync(commits);
+                }
+            }
+        }
+        log.info("Dead-letter replay finished: {} records sent back to {}", replayed.get(), TelemetryTopics.MAIN);
+    }
+
+    private static boolean reachedEnd(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream().allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+    }
+
+    private static ProducerRecord<String, byte[]> toMainTopic(ConsumerRecord<Object, Object> record) {
+        Headers headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!TelemetryRetryRouter.HOP_HEADERS.contains(header.key())) {
+                headers.add(header);
+            }
+        }
+        TelemetryRetryRouter.put(headers, TelemetryRetryRouter.REPLAYED_HEADER, "true");
+        return new ProducerRecord<>(TelemetryTopics.MAIN, null, (String) record.key(), (byte[]) record.value(), headers);
+    }
+}
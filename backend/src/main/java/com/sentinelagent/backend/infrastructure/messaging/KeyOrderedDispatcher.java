@@ -0,0 +1,53 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs asynchronous tasks on an executor, concurrently across keys and one
+ * after another for the same key.
+ * Part of the Infrastructure Layer.
+ *
+ * Each key keeps only the future of its latest task; the next task of that
+ * key starts once it has completed, successfully or not. Keys with nothing
+ * pending hold no state.
+ */
+public class KeyOrderedDispatcher {
+
+    private final Executor executor;
+    private final ConcurrentHashMap<String, CompletableFuture<?>> tails = new ConcurrentHashMap<>();
+
+    public KeyOrderedDispatcher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Start {@code task} on the executor once the previous task of the same key
+     * has finished. A null key is not ordered against anything.
+     */
+    public <T> CompletableFuture<T> submit(String key, Supplier<CompletableFuture<T>> task) {
+        if (key == null) {
+            return CompletableFuture.supplyAsync(task, executor).thenCompose(future -> future);
+        }
+        AtomicReference<CompletableFuture<T>> tail = new AtomicReference<>();
+        tails.compute(key, (k, previous) -> {
+            CompletableFuture<?> after = previous != null
+                    ? previous.handle((ignored, failure) -> null)
+                    : CompletableFuture.completedFuture(null);
+            tail.set(after.thenComposeAsync(ignored -> task.get(), executor));
+            return tail.get();
+        });
+        tail.get().whenComplete((ignored, failure) -> tails.remove(key, tail.get()));
+        return tail.get();
+    }
+
+    /**
+     * Number of keys with a task pending or running
+     */
+    public int activeKeys() {
+        return tails.size();
+    }
+}
@@ -0,0 +1,196 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sentinelagent.backend.application.telemetry.dto.TelemetryData;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kafka Deserializer for agent telemetry messages.
+ * Part of the Infrastructure Layer.
+ *
+ * Reads the payload token by token straight into TelemetryData and the
+ * domain Process / NetworkConnection entries, with no intermediate message
+ * objects or tree. The encoding (JSON or CBOR) is picked from the record's
+ * content-type header, see TelemetryWireFormat. Unknown fields are skipped.
+ * Both the snake_case names historically expected by the backend and the
+ * camelCase names sent by the Go agent are accepted. CBOR records from the
+ * agent use small integer keys instead of names (the keyasint tags on the
+ * Go structs); the parser surfaces them as "1", "2", ... which are matched
+ * per object type below.
+ *
+ * An envelope is a report object whose "reports" array holds further report
+ * objects; it is returned as one TelemetryData, see TelemetryData#unpack.
+ */
+public class TelemetryDeserializer implements Deserializer<TelemetryData> {
+
+    @Override
+    public TelemetryData deserialize(String topic, byte[] data) {
+        return deserialize(topic, TelemetryWireFormat.JSON, data);
+    }
+
+    @Override
+    public TelemetryData deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(topic, TelemetryWireFormat.of(headers), data);
+    }
+
+    TelemetryData deserialize(String topic, TelemetryWireFormat format, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try (JsonParser parser = format.factory().createParser(data)) {
+            return readTelemetry(parser);
+        } catch (IOException | IllegalStateException ex) {
+            throw new SerializationException("Malformed " + format + " telemetry message on topic " + topic, ex);
+        }
+    }
+
+    static TelemetryData readTelemetry(JsonParser parser) throws IOException {
+        expectStartObject(parser.nextToken());
+        return readReport(parser);
+    }
+
+    private static TelemetryData readReport(JsonParser parser) throws IOException {
+        TelemetryData telemetry = new TelemetryData();
+        telemetry.setMessageType(TelemetryData.MessageType.FULL);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "agentId", "1" -> telemetry.setAgentId(parser.getValueAsString());
+                case "apiKey", "2" -> telemetry.setApiKey(parser.getValueAsString());
+                case "hostname", "3" -> telemetry.setHostname(parser.getValueAsString());
+                case "cpuUsage", "6" -> telemetry.setCpuUsage(parser.getValueAsDouble());
+                case "ramUsedPercent", "7" -> telemetry.setRamUsedPercent(parser.getValueAsDouble());
+                case "ram_total_mb", "ramTotalMb", "8" -> telemetry.setRamTotalMb(parser.getValueAsLong());
+                case "disk_used_percent", "diskUsedPercent", "10" -> telemetry.setDiskUsedPercent(parser.getValueAsDouble());
+                case "disk_total_gb", "diskTotalGb", "11" -> telemetry.setDiskTotalGb(parser.getValueAsLong());
+                case "bytesSentSec", "15" -> telemetry.setBytesSentSec(parser.getValueAsLong());
+                case "bytesRecvSec", "16" -> telemetry.setBytesRecvSec(parser.getValueAsLong());
+                case "messageType", "19" -> telemetry.setMessageType(messageType(parser.getValueAsString()));
+                case "sequence", "20" -> telemetry.setSequence(parser.getValueAsLong());
+                case "baseSequence", "21" -> telemetry.setBaseSequence(parser.getValueAsLong());
+                case "sequenceEpoch", "25" -> telemetry.setSequenceEpoch(parser.getValueAsLong());
+                case "processes", "13" -> telemetry.setProcesses(readProcesses(parser));
+                case "networkConnections", "14" -> telemetry.setNetworkConnections(readConnections(parser));
+                case "removedProcessPids", "22" -> telemetry.setRemovedProcessPids(readInts(parser));
+                case "removedConnections", "23" -> telemetry.setRemovedConnections(readConnections(parser));
+                case "reports", "24" -> telemetry.setReports(readReports(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return telemetry;
+    }
+
+    /**
+     * Unknown or missing types are read as FULL, as older agents send none
+     */
+    private static TelemetryData.MessageType messageType(String value) {
+        if ("DELTA".equalsIgnoreCase(value)) {
+            return TelemetryData.MessageType.DELTA;
+        }
+        if ("METRICS".equalsIgnoreCase(value)) {
+            return TelemetryData.MessageType.METRICS;
+        }
+        return TelemetryData.MessageType.FULL;
+    }
+
+    private static List<TelemetryData> readReports(JsonParser parser) throws IOException {
+        if (!startArray(parser)) {
+            return null;
+        }
+        List<TelemetryData> reports = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            reports.add(readReport(parser));
+        }
+        return reports;
+    }
+
+    private static List<Process> readProcesses(JsonParser parser) throws IOException {
+        if (!startArray(parser)) {
+            return null;
+        }
+        List<Process> processes = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Process process = new Process();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "pid", "1" -> process.setPid(parser.getValueAsInt());
+                    case "name", "2" -> process.setName(parser.getValueAsString());
+                    case "cpu", "3" -> process.setCpuUsage(parser.getValueAsDouble());
+                    case "username", "5" -> process.setUsername(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+            processes.add(process);
+        }
+        return processes;
+    }
+
+    private static List<NetworkConnection> readConnections(JsonParser parser) throws IOException {
+        if (!startArray(parser)) {
+            return null;
+        }
+        List<NetworkConnection> connections = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            NetworkConnection connection = new NetworkConnection();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "pid", "1" -> connection.setPid(parser.getValueAsInt());
+                    case "local_address", "localAddress", "2" -> connection.setLocalAddress(parser.getValueAsString());
+                    case "local_port", "localPort", "3" -> connection.setLocalPort(parser.getValueAsInt());
+                    case "remote_address", "remoteAddress", "4" -> connection.setRemoteAddress(parser.getValueAsString());
+                    case "remote_port", "remotePort", "5" -> connection.setRemotePort(parser.getValueAsInt());
+                    case "process_name", "processName", "6" -> connection.setProcessName(parser.getValueAsString());
+                    case "status", "7" -> connection.setStatus(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+            connections.add(connection);
+        }
+        return connections;
+    }
+
+    private static List<Integer> readInts(JsonParser parser) throws IOException {
+        if (!startArray(parser)) {
+            return null;
+        }
+        List<Integer> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(parser.getValueAsInt());
+        }
+        return values;
+    }
+
+    /**
+     * @return false for a JSON null, true at the start of an array
+     */
+    private static boolean startArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IllegalStateException("Expected an array but got " + parser.currentToken());
+        }
+        return true;
+    }
+
+    private static void expectStartObject(JsonToken token) {
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalStateException("Expected a JSON object but got " + token);
+        }
+    }
+}
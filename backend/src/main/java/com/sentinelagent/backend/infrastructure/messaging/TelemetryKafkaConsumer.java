@@ -1,68 +1,265 @@
 package com.sentinelagent.backend.infrastructure.messaging;
 
+import com.sentinelagent.backend.application.agent.AgentReportingAdvisor;
 import com.sentinelagent.backend.application.security.AnalyzeSecurityUseCase;
+import com.sentinelagent.backend.application.telemetry.IngestLoadShedder;
+import com.sentinelagent.backend.application.telemetry.IngestMode;
 import com.sentinelagent.backend.application.telemetry.SaveTelemetryUseCase;
 import com.sentinelagent.backend.application.telemetry.ValidateTelemetryUseCase;
 import com.sentinelagent.backend.application.telemetry.dto.TelemetryData;
-import com.sentinelagent.backend.domain.agent.Agent;
 import com.sentinelagent.backend.domain.agent.exception.InvalidAgentCredentialsException;
 import com.sentinelagent.backend.domain.telemetry.MetricReport;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Main Kafka message consumer (Telemetry Ingestion Pipeline).
  *
  * This component follows Clean Architecture principles by acting as a bridge
  * between the Infrastructure layer (Kafka) and the Application layer (Use Cases).
+ *
+ * Each message is validated and stored on the ingest executor, then analyzed
+ * on the security analysis executor, so the listener thread only waits when
+ * telemetry.pipeline.max-in-flight messages are already being processed.
+ * Messages of the same agent are validated and stored in arrival order, which
+ * delta telemetry depends on; different agents proceed concurrently. A record
+ * is acknowledged once it has been fully processed (see KafkaConsumerConfig).
+ *
+ * An envelope record carrying several reports of one agent is validated once
+ * and its reports are stored with one bulk insert; each report still gets its
+ * own security analysis. The analysis is skipped while IngestLoadShedder has
+ * degraded ingestion to let it catch up, and for reports in which no process
+ * or connection changed unless their CPU or RAM usage is critical.
+ *
+ * Records arrive as raw bytes and are parsed here, so a record that fails,
+ * including one that cannot be parsed, is handed unchanged to the
+ * TelemetryRetryRouter and never blocks its partition; it is only
+ * acknowledged once the router has published it. Retry topics are
+ * consumed by their own listeners, each waiting until its records are due.
  */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class TelemetryKafkaConsumer {
 
+    private static final long MAX_PUBLISH_BACKOFF_MS = 30_000;
+
     private final ValidateTelemetryUseCase validateTelemetryUseCase;
     private final SaveTelemetryUseCase saveTelemetryUseCase;
     private final AnalyzeSecurityUseCase analyzeSecurityUseCase;
+    private final TelemetryRetryRouter retryRouter;
+    private final IngestLoadShedder loadShedder;
+    private final AgentReportingAdvisor reportingAdvisor;
+    private final TelemetryDeserializer deserializer = new TelemetryDeserializer();
+    private final Executor analysisExecutor;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final KeyOrderedDispatcher dispatcher;
+    private final long publishBackoffMs;
+    private final ScheduledExecutorService publishRetries = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "telemetry-retry-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TelemetryKafkaConsumer(ValidateTelemetryUseCase validateTelemetryUseCase,
+            SaveTelemetryUseCase saveTelemetryUseCase,
+            AnalyzeSecurityUseCase analyzeSecurityUseCase,
+            TelemetryRetryRouter retryRouter,
+            IngestLoadShedder loadShedder,
+            AgentReportingAdvisor reportingAdvisor,
+            @Qualifier("securityAnalysisExecutor") Executor analysisExecutor,
+            @Qualifier("telemetryIngestExecutor") Executor ingestExecutor,
+            @Value("${telemetry.pipeline.max-in-flight:2000}") int maxInFlight,
+            @Value("${telemetry.retry.publish-backoff-ms:1000}") long publishBackoffMs) {
+        this.validateTelemetryUseCase = validateTelemetryUseCase;
+        this.saveTelemetryUseCase = saveTelemetryUseCase;
+        this.analyzeSecurityUseCase = analyzeSecurityUseCase;
+        this.retryRouter = retryRouter;
+        this.loadShedder = loadShedder;
+        this.reportingAdvisor = reportingAdvisor;
+        this.analysisExecutor = analysisExecutor;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.dispatcher = new KeyOrderedDispatcher(ingestExecutor);
+        this.publishBackoffMs = publishBackoffMs;
+    }
 
     @KafkaListener(
-            topics = "agent-data",
-            groupId = "sentinel-consumer-group",
+            topics = TelemetryTopics.MAIN,
+            groupId = TelemetryTopics.MAIN_GROUP,
             containerFactory = "kafkaListenerContainerFactory"
     )
-    public void onMessage(TelemetryKafkaMessage message) {
+    public void onMessage(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment)
+            throws InterruptedException {
+        process(record, acknowledgment);
+    }
 
-        log.info(" [Kafka] Receiving new data from Agent ID: {}", message.getAgentId());
+    /**
+     * Records of one retry topic share the same delay, so they become due in
+     * offset order and waiting for the head record is enough
+     */
+    @KafkaListener(id = TelemetryTopics.RETRY_1, topics = TelemetryTopics.RETRY_1,
+            containerFactory = "kafkaListenerContainerFactory",
+            properties = {"max.poll.records=50", "max.poll.interval.ms=${telemetry.retry.max-poll-interval-ms:900000}"})
+    @KafkaListener(id = TelemetryTopics.RETRY_2, topics = TelemetryTopics.RETRY_2,
+            containerFactory = "kafkaListenerContainerFactory",
+            properties = {"max.poll.records=50", "max.poll.interval.ms=${telemetry.retry.max-poll-interval-ms:900000}"})
+    @KafkaListener(id = TelemetryTopics.RETRY_3, topics = TelemetryTopics.RETRY_3,
+            containerFactory = "kafkaListenerContainerFactory",
+            properties = {"max.poll.records=50", "max.poll.interval.ms=${telemetry.retry.max-poll-interval-ms:900000}"})
+    public void onRetry(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment)
+            throws InterruptedException {
+        long wait = TelemetryRetryRouter.dueAt(record) - System.currentTimeMillis();
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+        process(record, acknowledgment);
+    }
 
+    private void process(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment)
+            throws InterruptedException {
+        TelemetryData telemetryData;
         try {
-            TelemetryData telemetryData = message.toTelemetryData();
+            telemetryData = deserializer.deserialize(record.topic(), record.headers(), record.value());
+        } catch (SerializationException ex) {
+            log.error(" Malformed telemetry record {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), ex.getMessage());
+            routeFailed(record, ex, false, acknowledgment);
+            return;
+        }
+        if (telemetryData == null) {
+            acknowledgment.acknowledge();
+            return;
+        }
+        telemetryData.setRedelivered(TelemetryRetryRouter.isRedelivered(record));
 
-            Agent agent = validateTelemetryUseCase.execute(telemetryData);
-            log.debug(" Agent identity successfully verified: {}", agent.getHostname());
+        log.info(" [Kafka] Receiving new data from Agent ID: {}", telemetryData.getAgentId());
 
-            MetricReport savedReport = saveTelemetryUseCase.execute(telemetryData);
-            log.info(
-                    " Report successfully saved. Report ID: {}",
-                    savedReport.getId().getValue()
-            );
+        List<TelemetryData> reports = telemetryData.unpack();
+        if (reports.isEmpty()) {
+            acknowledgment.acknowledge();
+            return;
+        }
+        // Reports stored by an earlier attempt whose analysis failed are only analyzed again
+        boolean storedBefore = TelemetryRetryRouter.isStored(record);
+        AtomicBoolean stored = new AtomicBoolean(storedBefore);
 
-            log.debug(" Starting AI-based security analysis...");
-            analyzeSecurityUseCase.execute(savedReport);
+        // Each report counts against the in-flight limit; an oversized envelope takes the whole limit
+        int permits = Math.min(reports.size(), maxInFlight);
+        inFlight.acquire(permits);
+        dispatcher.submit(telemetryData.getAgentId(), () -> storedBefore
+                        ? CompletableFuture.completedFuture(saveTelemetryUseCase.rebuild(reports))
+                        : validateTelemetryUseCase.execute(telemetryData)
+                                .thenCompose(agent -> {
+                                    log.debug(" Agent identity verified: {}", telemetryData.getAgentId());
+                                    return saveTelemetryUseCase.executeAll(reports);
+                                }))
+                .thenAcceptAsync(savedReports -> {
+                    stored.set(true);
+                    for (MetricReport savedReport : savedReports) {
+                        reportingAdvisor.observeMetrics(savedReport.getAgentId(),
+                                savedReport.getCpuUsage(), savedReport.getRamUsedPercent());
+                    }
+                    if (loadShedder.mode() != IngestMode.FULL) {
+                        log.debug(" Ingest is behind, skipping security analysis of {} report(s)", savedReports.size());
+                        return;
+                    }
+                    for (MetricReport savedReport : savedReports) {
+                        log.info(" Report successfully saved. Report ID: {}",
+                                savedReport.getId() != null ? savedReport.getId().getValue() : "(stored earlier)");
+                        if (savedReport.getChanges() != null && savedReport.getChanges().isEmpty()
+                                && !reportingAdvisor.isCritical(savedReport.getCpuUsage(),
+                                        savedReport.getRamUsedPercent())) {
+                            log.debug(" Nothing changed on agent {}, skipping security analysis",
+                                    savedReport.getAgentId());
+                            continue;
+                        }
+                        log.debug(" Starting AI-based security analysis...");
+                        reportingAdvisor.observeAnalysis(savedReport.getAgentId(),
+                                analyzeSecurityUseCase.execute(savedReport));
+                    }
+                }, analysisExecutor)
+                .whenComplete((ignored, failure) -> {
+                    inFlight.release(permits);
+                    if (failure == null) {
+                        acknowledgment.acknowledge();
+                    } else {
+                        logFailure(telemetryData, failure);
+                        routeFailed(record, failure, stored.get(), acknowledgment);
+                    }
+                });
+    }
+
+    /**
+     * Acknowledge a failed record once it has been handed to a retry or dead-letter
+     * topic. Until then it stays unacknowledged, so its offset is not committed
+     * and the record is consumed again after a restart; the hand-over is retried
+     * with a growing delay, up to MAX_PUBLISH_BACKOFF_MS.
+     */
+    private void routeFailed(ConsumerRecord<String, byte[]> record, Throwable failure, boolean stored,
+            Acknowledgment acknowledgment) {
+        routeFailed(record, failure, stored, acknowledgment, publishBackoffMs);
+    }
 
-        } catch (InvalidAgentCredentialsException ex) {
+    private void routeFailed(ConsumerRecord<String, byte[]> record, Throwable failure, boolean stored,
+            Acknowledgment acknowledgment, long backoffMs) {
+        retryRouter.route(record, failure, stored).whenComplete((sent, publishFailure) -> {
+            if (publishFailure == null) {
+                acknowledgment.acknowledge();
+                return;
+            }
+            log.error(" Could not hand telemetry record {}-{}@{} over for retry, trying again in {} ms: {}",
+                    record.topic(), record.partition(), record.offset(), backoffMs, publishFailure.getMessage());
+            try {
+                publishRetries.schedule(
+                        () -> routeFailed(record, failure, stored, acknowledgment,
+                                Math.min(backoffMs * 2, MAX_PUBLISH_BACKOFF_MS)),
+                        backoffMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ex) {
+                log.warn(" Shutting down, telemetry record {}-{}@{} is left unacknowledged",
+                        record.topic(), record.partition(), record.offset());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        publishRetries.shutdownNow();
+    }
+
+    private void logFailure(TelemetryData telemetryData, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof InvalidAgentCredentialsException) {
             log.error(
                     " Security alert: Unauthorized data received from Agent ID: {}. Reason: {}",
-                    message.getAgentId(),
-                    ex.getMessage()
+                    telemetryData.getAgentId(),
+                    cause.getMessage()
             );
-
-        } catch (Exception ex) {
+        } else {
             log.error(
                     " Critical error while processing Kafka message: {}",
-                    ex.getMessage(),
-                    ex
+                    cause.getMessage(),
+                    cause
             );
         }
     }
@@ -0,0 +1,161 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+import com.sentinelagent.backend.domain.agent.exception.InvalidAgentCredentialsException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Moves failed telemetry records to the next retry topic or to the dead-letter topic.
+ * Part of the Infrastructure Layer.
+ *
+ * The record is republished with its original key, bytes and headers (so
+ * the wire format is kept), plus routing headers: the attempt number, when
+ * the next attempt is due, where the record was first consumed and the
+ * latest failure. Credential failures and malformed payloads go straight to
+ * the dead-letter topic, since waiting cannot cure them.
+ */
+@Slf4j
+@Component
+public class TelemetryRetryRouter {
+
+    public static final String ATTEMPT_HEADER = "telemetry-attempt";
+    public static final String DUE_AT_HEADER = "telemetry-due-at";
+    public static final String STORED_HEADER = "telemetry-stored";
+    public static final String REPLAYED_HEADER = "telemetry-replayed";
+    public static final String ORIGINAL_TOPIC_HEADER = "telemetry-original-topic";
+    public static final String ORIGINAL_PARTITION_HEADER = "telemetry-original-partition";
+    public static final String ORIGINAL_OFFSET_HEADER = "telemetry-original-offset";
+    public static final String EXCEPTION_HEADER = "telemetry-exception";
+    public static final String EXCEPTION_MESSAGE_HEADER = "telemetry-exception-message";
+    public static final String FAILED_AT_HEADER = "telemetry-failed-at";
+
+    // Describe the current hop only; replaced on every republish
+    static final Set<String> HOP_HEADERS = Set.of(ATTEMPT_HEADER, DUE_AT_HEADER, STORED_HEADER, REPLAYED_HEADER,
+            EXCEPTION_HEADER, EXCEPTION_MESSAGE_HEADER, FAILED_AT_HEADER);
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final long initialDelayMs;
+    private final double multiplier;
+
+    public TelemetryRetryRouter(KafkaTemplate<String, byte[]> kafkaTemplate,
+            @Value("${telemetry.retry.initial-delay-ms:5000}") long initialDelayMs,
+            @Value("${telemetry.retry.multiplier:5}") double multiplier) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.initialDelayMs = initialDelayMs;
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * Republish a failed record for its next attempt
+     *
+     * @param stored whether the record's reports were already stored, so a retry only repeats the analysis
+     * @return completes once the broker has the record
+     */
+    public CompletableFuture<?> route(ConsumerRecord<String, byte[]> record, Throwable failure, boolean stored) {
+        Throwable cause = unwrap(failure);
+        int attempt = attemptOf(record) + 1;
+        long now = System.currentTimeMillis();
+
+        Headers headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!HOP_HEADERS.contains(header.key())) {
+                headers.add(header);
+            }
+        }
+        if (headers.lastHeader(ORIGINAL_TOPIC_HEADER) == null) {
+            put(headers, ORIGINAL_TOPIC_HEADER, record.topic());
+            put(headers, ORIGINAL_PARTITION_HEADER, String.valueOf(record.partition()));
+            put(headers, ORIGINAL_OFFSET_HEADER, String.valueOf(record.offset()));
+        }
+        put(headers, ATTEMPT_HEADER, String.valueOf(attempt));
+        put(headers, EXCEPTION_HEADER, cause.getClass().getName());
+        put(headers, EXCEPTION_MESSAGE_HEADER, truncate(String.valueOf(cause.getMessage())));
+        put(headers, FAILED_AT_HEADER, String.valueOf(now));
+        if (stored) {
+            put(headers, STORED_HEADER, "true");
+        }
+
+        String target;
+        if (isRetryable(cause) && attempt <= TelemetryTopics.RETRY_LEVELS) {
+            target = TelemetryTopics.retry(attempt);
+            put(headers, DUE_AT_HEADER, String.valueOf(now + delayMs(attempt)));
+        } else {
+            target = TelemetryTopics.DEAD_LETTER;
+        }
+        log.warn("Telemetry record {}-{}@{} failed ({}), sending to {}",
+                record.topic(), record.partition(), record.offset(), cause.getClass().getSimpleName(), target);
+        return kafkaTemplate.send(new ProducerRecord<>(target, null, record.key(), record.value(), headers));
+    }
+
+    /**
+     * Delay before the given retry level: initial-delay x multiplier^(level - 1)
+     */
+    long delayMs(int level) {
+        return (long) (initialDelayMs * Math.pow(multiplier, level - 1));
+    }
+
+    /**
+     * Number of failed attempts behind this record, 0 on its first delivery
+     */
+    public static int attemptOf(ConsumerRecord<?, ?> record) {
+        String attempt = header(record.headers(), ATTEMPT_HEADER);
+        return attempt != null ? Integer.parseInt(attempt) : 0;
+    }
+
+    /**
+     * Epoch millis at which a retry record may be processed, 0 if not delayed
+     */
+    public static long dueAt(ConsumerRecord<?, ?> record) {
+        String dueAt = header(record.headers(), DUE_AT_HEADER);
+        return dueAt != null ? Long.parseLong(dueAt) : 0;
+    }
+
+    /**
+     * Whether the record was seen before (retry or dead-letter replay), so newer
+     * records of its agent may already have been processed
+     */
+    public static boolean isRedelivered(ConsumerRecord<?, ?> record) {
+        return attemptOf(record) > 0 || header(record.headers(), REPLAYED_HEADER) != null;
+    }
+
+    public static boolean isStored(ConsumerRecord<?, ?> record) {
+        return "true".equals(header(record.headers(), STORED_HEADER));
+    }
+
+    private static boolean isRetryable(Throwable cause) {
+        return !(cause instanceof InvalidAgentCredentialsException || cause instanceof SerializationException);
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    static String header(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    static void put(Headers headers, String key, String value) {
+        headers.remove(key);
+        headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+}
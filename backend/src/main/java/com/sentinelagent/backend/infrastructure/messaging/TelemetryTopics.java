@@ -0,0 +1,37 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+/**
+ * Kafka topics of the telemetry ingest pipeline.
+ * Part of the Infrastructure Layer.
+ *
+ * A record that fails on the main topic moves to retry-1, retry-2, ... with a
+ * growing delay, and lands on the dead-letter topic once the retries are
+ * exhausted or when the failure cannot be cured by waiting.
+ */
+public final class TelemetryTopics {
+
+    public static final String MAIN = "agent-data";
+    public static final String DEAD_LETTER = "agent-data-dlt";
+    public static final int RETRY_LEVELS = 3;
+
+    // Consumer group of the main topic
+    public static final String MAIN_GROUP = "sentinel-consumer-group";
+
+    // Compile-time names for listener annotations, one per retry level
+    static final String RETRY_1 = MAIN + "-retry-1";
+    static final String RETRY_2 = MAIN + "-retry-2";
+    static final String RETRY_3 = MAIN + "-retry-3";
+
+    private TelemetryTopics() {
+    }
+
+    /**
+     * Topic of the given retry level, 1-based
+     */
+    public static String retry(int level) {
+        if (level < 1 || level > RETRY_LEVELS) {
+            throw new IllegalArgumentException("No retry level " + level);
+        }
+        return MAIN + "-retry-" + level;
+    }
+}
@@ -0,0 +1,60 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodings accepted for telemetry records.
+ * Part of the Infrastructure Layer.
+ *
+ * The agent names the encoding in the "content-type" record header; records
+ * without the header are JSON, as sent by older agents. Every format is read
+ * through a Jackson streaming parser, so TelemetryDeserializer handles them
+ * all with the same field-by-field code. Supporting another self-describing
+ * format only needs a new constant here.
+ */
+public enum TelemetryWireFormat {
+
+    JSON("application/json", new JsonFactory()),
+    CBOR("application/cbor", new CBORFactory());
+
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+
+    private final String contentType;
+    private final JsonFactory factory;
+
+    TelemetryWireFormat(String contentType, JsonFactory factory) {
+        this.contentType = contentType;
+        this.factory = factory;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    JsonFactory factory() {
+        return factory;
+    }
+
+    /**
+     * Resolve the format of a record from its headers
+     */
+    public static TelemetryWireFormat of(Headers headers) {
+        Header header = headers == null ? null : headers.lastHeader(CONTENT_TYPE_HEADER);
+        if (header == null || header.value() == null) {
+            return JSON;
+        }
+        String contentType = new String(header.value(), StandardCharsets.US_ASCII).trim();
+        for (TelemetryWireFormat format : values()) {
+            if (format.contentType.equalsIgnoreCase(contentType)) {
+                return format;
+            }
+        }
+        throw new SerializationException("Unsupported telemetry content type: " + contentType);
+    }
+}
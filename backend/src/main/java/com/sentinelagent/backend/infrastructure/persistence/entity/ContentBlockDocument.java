@@ -0,0 +1,33 @@
+package com.sentinelagent.backend.infrastructure.persistence.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+/**
+ * MongoDB Document for a process or connection list shared by many reports.
+ * Maps to the 'report_contents' collection.
+ *
+ * The ID is the canonical content hash, so identical lists from any agent and
+ * any report are stored once. Exactly one of the two lists is set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "report_contents")
+public class ContentBlockDocument {
+
+    @Id
+    private String id;
+
+    // Process identities without their per-report CPU usage
+    private List<MetricReportDocument.ProcessDocument> processes;
+
+    private List<MetricReportDocument.NetworkConnectionDocument> networkConnections;
+}
@@ -0,0 +1,27 @@
+package com.sentinelagent.backend.infrastructure.persistence.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * MongoDB Document for one entry of the string dictionary code table.
+ * Maps to the 'string_dictionary' collection.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "string_dictionary")
+public class DictionaryEntryDocument {
+
+    @Id
+    private int code;
+
+    @Indexed(unique = true)
+    private String value;
+}
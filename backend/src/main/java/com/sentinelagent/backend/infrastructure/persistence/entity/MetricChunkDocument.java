@@ -0,0 +1,51 @@
+package com.sentinelagent.backend.infrastructure.persistence.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.Binary;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * MongoDB Document for a compressed block of one agent's metric series.
+ * Maps to the 'metric_chunks' collection.
+ *
+ * A chunk is identified by its agent and first sample (chunkStart); chunks
+ * written before chunkStart existed have none and are never rewritten.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "metric_chunks")
+@CompoundIndex(name = "agent_window_idx", def = "{'agentId': 1, 'windowStart': 1}")
+@CompoundIndex(name = "agent_chunk_start_idx", def = "{'agentId': 1, 'chunkStart': 1}", unique = true,
+        partialFilter = "{'chunkStart': {$exists: true}}")
+public class MetricChunkDocument {
+
+    @Id
+    private String id;
+
+    private String agentId;
+
+    // Fixed window covered by this chunk: [windowStart, windowEnd)
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+
+    // First sample of the chunk
+    private LocalDateTime chunkStart;
+
+    private int sampleCount;
+
+    // Report property names of the encoded fields, in encoding order
+    private List<String> fields;
+
+    // Gorilla-encoded timestamps and values
+    private Binary data;
+}
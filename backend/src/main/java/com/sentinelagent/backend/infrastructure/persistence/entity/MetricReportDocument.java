@@ -5,21 +5,36 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * MongoDB Document for MetricReport persistence.
  * Maps to the 'agent_reports' collection.
+ *
+ * Repeated strings are stored as string dictionary codes (the *Code fields).
+ * The plain string fields are only set for values that have no code and in
+ * reports written before dictionary encoding.
+ *
+ * Process and connection lists are stored once in 'report_contents' and
+ * referenced by content hash. Reports written before that keep them inline.
+ *
+ * A report numbered by its agent is unique per (agentId, sequenceEpoch,
+ * sequence), which rejects a redelivered copy of a stored report.
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Document(collection = "agent_reports")
+@CompoundIndex(name = "agent_received_id_idx", def = "{'agentId': 1, 'receivedAt': -1, '_id': -1}")
+@CompoundIndex(name = "agent_sequence_idx", def = "{'agentId': 1, 'sequenceEpoch': 1, 'sequence': 1}",
+        unique = true, partialFilter = "{'sequence': {$exists: true}}")
 public class MetricReportDocument {
 
     @Id
@@ -29,6 +44,11 @@ public class MetricReportDocument {
     @Indexed
     private String agentId;
     private String hostname;
+    private Integer hostnameCode;
+
+    // Set only for reports numbered by their agent
+    private Long sequenceEpoch;
+    private Long sequence;
 
     // System metrics
     private double cpuUsage;
@@ -41,10 +61,20 @@ public class MetricReportDocument {
     private long bytesSentSec;
     private long bytesRecvSec;
 
-    // Details
+    // Details, by reference: CPU usage of each process in the canonical order of the block
+    private String processesHash;
+    private List<Double> processCpu;
+    private String connectionsHash;
+
+    // Details, inline (reports written before content addressing)
     private List<ProcessDocument> processes;
     private List<NetworkConnectionDocument> networkConnections;
 
+    // Entries removed by ingest filtering: process count and CPU, connection count per reason
+    private Integer omittedProcesses;
+    private Double omittedProcessCpu;
+    private Map<String, Integer> omittedConnections;
+
     @Indexed
     private LocalDateTime receivedAt;
 
@@ -55,8 +85,10 @@ public class MetricReportDocument {
     public static class ProcessDocument {
         private int pid;
         private String name;
-        private double cpuUsage;
+        private Integer nameCode;
+        private Double cpuUsage;
         private String username;
+        private Integer usernameCode;
     }
 
     @Data
@@ -70,6 +102,8 @@ public class MetricReportDocument {
         private String remoteAddress;
         private int remotePort;
         private String status;
+        private Integer statusCode;
         private String processName;
+        private Integer processNameCode;
     }
 }
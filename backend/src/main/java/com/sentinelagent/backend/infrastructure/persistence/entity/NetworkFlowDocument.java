@@ -0,0 +1,63 @@
+package com.sentinelagent.backend.infrastructure.persistence.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * MongoDB Document for one network flow of an agent within a fixed window.
+ * Maps to the 'network_flows' collection.
+ *
+ * A flow is every observation of the same process talking to the same
+ * remote address and port in the same state during the window.
+ *
+ * The remote address is also stored in numeric form for CIDR range scans:
+ * remoteIpv4 for IPv4, remoteIpv6High/Low for IPv6, each 64-bit half with
+ * its sign bit flipped so that signed ordering matches address ordering.
+ * Neither is set for an address that is not an IP literal.
+ *
+ * There is one record per agent, window and flow key; counts flushed while
+ * the window is open are added to it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "network_flows")
+@CompoundIndex(name = "agent_window_flow_idx", unique = true,
+        def = "{'agentId': 1, 'windowStart': 1, 'processName': 1, 'remoteAddress': 1, 'remotePort': 1, 'state': 1}")
+@CompoundIndex(name = "remote_ipv4_window_idx", def = "{'remoteIpv4': 1, 'windowStart': 1}",
+        partialFilter = "{'remoteIpv4': {$exists: true}}")
+@CompoundIndex(name = "remote_ipv6_window_idx", def = "{'remoteIpv6High': 1, 'remoteIpv6Low': 1, 'windowStart': 1}",
+        partialFilter = "{'remoteIpv6High': {$exists: true}}")
+public class NetworkFlowDocument {
+
+    @Id
+    private String id;
+
+    private String agentId;
+
+    // Fixed window covered by this record: [windowStart, windowEnd)
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+
+    // Flow key
+    private String processName;
+    private String remoteAddress;
+    private int remotePort;
+    private String state;
+
+    private Long remoteIpv4;
+    private Long remoteIpv6High;
+    private Long remoteIpv6Low;
+
+    private LocalDateTime firstSeen;
+    private LocalDateTime lastSeen;
+    private int observations;
+}
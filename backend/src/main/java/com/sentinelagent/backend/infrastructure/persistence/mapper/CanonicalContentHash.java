@@ -0,0 +1,106 @@
+package com.sentinelagent.backend.infrastructure.persistence.mapper;
+
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Canonical ordering and content hashing of process and connection lists.
+ *
+ * Lists are sorted into a fixed order first, so the same set of entries hashes
+ * the same regardless of the order the agent enumerated them in. Only identity
+ * fields are hashed; per-report values such as CPU usage are not.
+ */
+final class CanonicalContentHash {
+
+    static final Comparator<Process> PROCESS_ORDER = Comparator
+            .comparingInt(Process::getPid)
+            .thenComparing(Process::getName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Process::getUsername, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    static final Comparator<NetworkConnection> CONNECTION_ORDER = Comparator
+            .comparingInt(NetworkConnection::getPid)
+            .thenComparingInt(NetworkConnection::getLocalPort)
+            .thenComparing(NetworkConnection::getLocalAddress, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(NetworkConnection::getRemoteAddress, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingInt(NetworkConnection::getRemotePort)
+            .thenComparing(NetworkConnection::getStatus, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(NetworkConnection::getProcessName, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    // 128 bits of SHA-256 keep IDs short while collisions stay out of reach
+    private static final int HASH_BYTES = 16;
+
+    private CanonicalContentHash() {
+    }
+
+    /**
+     * @param processes already in {@link #PROCESS_ORDER}
+     */
+    static String ofProcesses(List<Process> processes) {
+        MessageDigest digest = sha256();
+        update(digest, "P");
+        for (Process p : processes) {
+            update(digest, p.getPid());
+            update(digest, p.getName());
+            update(digest, p.getUsername());
+        }
+        return finish(digest);
+    }
+
+    /**
+     * @param connections already in {@link #CONNECTION_ORDER}
+     */
+    static String ofConnections(List<NetworkConnection> connections) {
+        MessageDigest digest = sha256();
+        update(digest, "C");
+        for (NetworkConnection c : connections) {
+            update(digest, c.getPid());
+            update(digest, c.getLocalAddress());
+            update(digest, c.getLocalPort());
+            update(digest, c.getRemoteAddress());
+            update(digest, c.getRemotePort());
+            update(digest, c.getStatus());
+            update(digest, c.getProcessName());
+        }
+        return finish(digest);
+    }
+
+    private static void update(MessageDigest digest, int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+
+    /**
+     * Length-prefixed, so ("ab", "c") and ("a", "bc") hash differently; -1 marks null
+     */
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            update(digest, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        update(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static String finish(MessageDigest digest) {
+        byte[] hash = digest.digest();
+        return HexFormat.of().formatHex(hash, 0, HASH_BYTES);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.sentinelagent.backend.infrastructure.persistence.mapper;
+
+import com.sentinelagent.backend.application.telemetry.port.StringDictionary;
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import com.sentinelagent.backend.infrastructure.persistence.entity.ContentBlockDocument;
+import com.sentinelagent.backend.infrastructure.persistence.entity.MetricReportDocument;
+import com.sentinelagent.backend.infrastructure.persistence.repository.ReportContentStore;
+import com.sentinelagent.backend.infrastructure.persistence.repository.ReportContentStore.PendingBlock;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonBinaryWriter;
+import org.bson.RawBsonDocument;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes a MetricReport straight to BSON, in the layout of MetricReportDocument.
+ *
+ * The ingest path serializes the domain object field by field into one buffer
+ * instead of building a MetricReportDocument and letting the mapping layer
+ * convert it. Repeated strings are written as string dictionary codes, and
+ * process and connection lists are referenced by their canonical hash. The
+ * writer does no I/O for them: blocks that may be missing are handed back
+ * to the repository adapter, which stores them in the ReportContentStore
+ * before the report.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricReportBsonWriter {
+
+    private static final int INITIAL_BUFFER_BYTES = 512;
+
+    private final StringDictionary dictionary;
+    private final ReportContentStore contentStore;
+
+    /**
+     * @param pendingBlocks receives the content blocks the report refers to that
+     *                      may not be stored yet; the caller stores them first
+     */
+    public RawBsonDocument write(MetricReport report, ObjectId id, List<PendingBlock> pendingBlocks) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer(INITIAL_BUFFER_BYTES);
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            writer.writeStartDocument();
+            writer.writeObjectId("_id", id);
+            if (report.getAgentId() != null) {
+                writer.writeString("agentId", report.getAgentId());
+            }
+            writeEncoded(writer, "hostname", report.getHostname());
+            if (report.getSequenceEpoch() > 0 && report.getSequence() > 0) {
+                // Only numbered reports fall under the unique sequence index
+                writer.writeInt64("sequenceEpoch", report.getSequenceEpoch());
+                writer.writeInt64("sequence", report.getSequence());
+            }
+
+            writer.writeDouble("cpuUsage", report.getCpuUsage());
+            writer.writeDouble("ramUsedPercent", report.getRamUsedPercent());
+            writer.writeInt64("ramTotalMb", report.getRamTotalMb());
+            writer.writeDouble("diskUsedPercent", report.getDiskUsedPercent());
+            writer.writeInt64("diskTotalGb", report.getDiskTotalGb());
+            writer.writeInt64("bytesSentSec", report.getBytesSentSec());
+            writer.writeInt64("bytesRecvSec", report.getBytesRecvSec());
+
+            writeProcesses(writer, report, pendingBlocks);
+            writeConnections(writer, report, pendingBlocks);
+            writeOmitted(writer, report);
+
+            if (report.getReceivedAt() != null) {
+                writer.writeDateTime("receivedAt", toEpochMillis(report.getReceivedAt()));
+            }
+            writer.writeEndDocument();
+        }
+        return new RawBsonDocument(buffer.getInternalBuffer(), 0, buffer.getPosition());
+    }
+
+    private void writeProcesses(BsonBinaryWriter writer, MetricReport report, List<PendingBlock> pendingBlocks) {
+        if (report.getProcesses() == null || report.getProcesses().isEmpty()) {
+            return;
+        }
+        List<Process> canonical = new ArrayList<>(report.getProcesses());
+        canonical.sort(CanonicalContentHash.PROCESS_ORDER);
+        String hash = CanonicalContentHash.ofProcesses(canonical);
+        addIfPending(pendingBlocks, contentStore.pendingProcesses(report.getAgentId(), hash,
+                () -> ContentBlockDocument.builder()
+                        .id(hash)
+                        .processes(toProcessDocuments(canonical))
+                        .build()));
+
+        writer.writeString("processesHash", hash);
+        writer.writeStartArray("processCpu");
+        for (Process p : canonical) {
+            writer.writeDouble(p.getCpuUsage());
+        }
+        writer.writeEndArray();
+    }
+
+    private void writeConnections(BsonBinaryWriter writer, MetricReport report, List<PendingBlock> pendingBlocks) {
+        if (report.getNetworkConnections() == null || report.getNetworkConnections().isEmpty()) {
+            return;
+        }
+        List<NetworkConnection> canonical = new ArrayList<>(report.getNetworkConnections());
+        canonical.sort(CanonicalContentHash.CONNECTION_ORDER);
+        String hash = CanonicalContentHash.ofConnections(canonical);
+        addIfPending(pendingBlocks, contentStore.pendingConnections(report.getAgentId(), hash,
+                () -> ContentBlockDocument.builder()
+                        .id(hash)
+                        .networkConnections(toConnectionDocuments(canonical))
+                        .build()));
+
+        writer.writeString("connectionsHash", hash);
+    }
+
+    private static void addIfPending(List<PendingBlock> pendingBlocks, PendingBlock block) {
+        if (block != null) {
+            pendingBlocks.add(block);
+        }
+    }
+
+    private static void writeOmitted(BsonBinaryWriter writer, MetricReport report) {
+        if (report.getOmittedProcesses() > 0) {
+            writer.writeInt32("omittedProcesses", report.getOmittedProcesses());
+            writer.writeDouble("omittedProcessCpu", report.getOmittedProcessCpu());
+        }
+        if (report.getOmittedConnections() != null && !report.getOmittedConnections().isEmpty()) {
+            writer.writeStartDocument("omittedConnections");
+            report.getOmittedConnections().forEach(writer::writeInt32);
+            writer.writeEndDocument();
+        }
+    }
+
+    /**
+     * Write {@code <name>Code} when the value has a dictionary code, {@code <name>} otherwise
+     */
+    private void writeEncoded(BsonBinaryWriter writer, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        int code = dictionary.encode(value);
+        if (code != StringDictionary.NO_CODE) {
+            writer.writeInt32(name + "Code", code);
+        } else {
+            writer.writeString(name, value);
+        }
+    }
+
+    /**
+     * Process identities only; CPU usage is stored per report
+     */
+    private List<MetricReportDocument.ProcessDocument> toProcessDocuments(List<Process> processes) {
+        return processes.stream()
+                .map(p -> {
+                    Encoded name = encode(p.getName());
+                    Encoded username = encode(p.getUsername());
+                    return MetricReportDocument.ProcessDocument.builder()
+                            .pid(p.getPid())
+                            .name(name.value())
+                            .nameCode(name.code())
+                            .username(username.value())
+                            .usernameCode(username.code())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    private List<MetricReportDocument.NetworkConnectionDocument> toConnectionDocuments(
+            List<NetworkConnection> connections) {
+        return connections.stream()
+                .map(c -> {
+                    Encoded status = encode(c.getStatus());
+                    Encoded processName = encode(c.getProcessName());
+                    return MetricReportDocument.NetworkConnectionDocument.builder()
+                            .pid(c.getPid())
+                            .localAddress(c.getLocalAddress())
+                            .localPort(c.getLocalPort())
+                            .remoteAddress(c.getRemoteAddress())
+                            .remotePort(c.getRemotePort())
+                            .status(status.value())
+                            .statusCode(status.code())
+                            .processName(processName.value())
+                            .processNameCode(processName.code())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Look a value up once: either its dictionary code or, when it has none, the plain string
+     */
+    private Encoded encode(String value) {
+        int code = dictionary.encode(value);
+        return code != StringDictionary.NO_CODE ? new Encoded(null, code) : new Encoded(value, null);
+    }
+
+    private record Encoded(String value, Integer code) {
+    }
+
+    /**
+     * Same conversion as the mapping layer applies to LocalDateTime fields
+     */
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
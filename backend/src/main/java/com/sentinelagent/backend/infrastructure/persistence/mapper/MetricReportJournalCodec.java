@@ -0,0 +1,172 @@
+package com.sentinelagent.backend.infrastructure.persistence.mapper;
+
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import com.sentinelagent.backend.domain.telemetry.MetricReportId;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary form of a MetricReport in the ingest journal.
+ *
+ * Unlike MetricReportBsonWriter it has no side effects (string dictionary,
+ * content blocks), so a report can be journaled without touching the
+ * database. Fields are written in a fixed order after a format version.
+ */
+public final class MetricReportJournalCodec {
+
+    // Version 2 added the omitted entry aggregates
+    private static final int VERSION = 2;
+
+    private MetricReportJournalCodec() {
+    }
+
+    public static byte[] encode(MetricReport report) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(out, report.getId() != null ? report.getId().getValue() : null);
+            writeString(out, report.getAgentId());
+            writeString(out, report.getHostname());
+            out.writeLong(report.getSequenceEpoch());
+            out.writeLong(report.getSequence());
+            out.writeDouble(report.getCpuUsage());
+            out.writeDouble(report.getRamUsedPercent());
+            out.writeLong(report.getRamTotalMb());
+            out.writeDouble(report.getDiskUsedPercent());
+            out.writeLong(report.getDiskTotalGb());
+            out.writeLong(report.getBytesSentSec());
+            out.writeLong(report.getBytesRecvSec());
+            out.writeLong(report.getReceivedAt() != null
+                    ? report.getReceivedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : Long.MIN_VALUE);
+
+            List<Process> processes = report.getProcesses() != null ? report.getProcesses() : List.of();
+            out.writeInt(processes.size());
+            for (Process p : processes) {
+                out.writeInt(p.getPid());
+                writeString(out, p.getName());
+                out.writeDouble(p.getCpuUsage());
+                writeString(out, p.getUsername());
+            }
+
+            List<NetworkConnection> connections = report.getNetworkConnections() != null
+                    ? report.getNetworkConnections()
+                    : List.of();
+            out.writeInt(connections.size());
+            for (NetworkConnection c : connections) {
+                out.writeInt(c.getPid());
+                writeString(out, c.getLocalAddress());
+                out.writeInt(c.getLocalPort());
+                writeString(out, c.getRemoteAddress());
+                out.writeInt(c.getRemotePort());
+                writeString(out, c.getStatus());
+                writeString(out, c.getProcessName());
+            }
+
+            out.writeInt(report.getOmittedProcesses());
+            out.writeDouble(report.getOmittedProcessCpu());
+            Map<String, Integer> omitted = report.getOmittedConnections() != null
+                    ? report.getOmittedConnections()
+                    : Map.of();
+            out.writeInt(omitted.size());
+            for (Map.Entry<String, Integer> entry : omitted.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static MetricReport decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("Unknown journal entry version " + version);
+            }
+            String id = readString(in);
+            MetricReport.MetricReportBuilder report = MetricReport.builder()
+                    .id(id != null ? MetricReportId.of(id) : null)
+                    .agentId(readString(in))
+                    .hostname(readString(in))
+                    .sequenceEpoch(in.readLong())
+                    .sequence(in.readLong())
+                    .cpuUsage(in.readDouble())
+                    .ramUsedPercent(in.readDouble())
+                    .ramTotalMb(in.readLong())
+                    .diskUsedPercent(in.readDouble())
+                    .diskTotalGb(in.readLong())
+                    .bytesSentSec(in.readLong())
+                    .bytesRecvSec(in.readLong());
+            long receivedAt = in.readLong();
+            if (receivedAt != Long.MIN_VALUE) {
+                report.receivedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(receivedAt), ZoneId.systemDefault()));
+            }
+
+            int processCount = in.readInt();
+            List<Process> processes = new ArrayList<>(processCount);
+            for (int i = 0; i < processCount; i++) {
+                processes.add(Process.builder()
+                        .pid(in.readInt())
+                        .name(readString(in))
+                        .cpuUsage(in.readDouble())
+                        .username(readString(in))
+                        .build());
+            }
+
+            int connectionCount = in.readInt();
+            List<NetworkConnection> connections = new ArrayList<>(connectionCount);
+            for (int i = 0; i < connectionCount; i++) {
+                connections.add(NetworkConnection.builder()
+                        .pid(in.readInt())
+                        .localAddress(readString(in))
+                        .localPort(in.readInt())
+                        .remoteAddress(readString(in))
+                        .remotePort(in.readInt())
+                        .status(readString(in))
+                        .processName(readString(in))
+                        .build());
+            }
+            report.processes(processes).networkConnections(connections);
+
+            if (version >= 2) {
+                report.omittedProcesses(in.readInt()).omittedProcessCpu(in.readDouble());
+                int omittedCount = in.readInt();
+                Map<String, Integer> omitted = new LinkedHashMap<>(omittedCount);
+                for (int i = 0; i < omittedCount; i++) {
+                    omitted.put(in.readUTF(), in.readInt());
+                }
+                report.omittedConnections(omitted);
+            }
+            return report.build();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -1,8 +1,13 @@
 package com.sentinelagent.backend.infrastructure.persistence.mapper;
 
+import com.sentinelagent.backend.application.telemetry.port.StringDictionary;
 import com.sentinelagent.backend.domain.telemetry.*;
 import com.sentinelagent.backend.domain.telemetry.Process;
+import com.sentinelagent.backend.infrastructure.persistence.entity.ContentBlockDocument;
 import com.sentinelagent.backend.infrastructure.persistence.entity.MetricReportDocument;
+import com.sentinelagent.backend.infrastructure.persistence.repository.ReportContentStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
@@ -10,34 +15,26 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 /**
- * Mapper for MetricReport domain entity and MongoDB document.
+ * Maps stored MetricReport documents back to the domain entity.
+ * Dictionary codes are decoded and content-addressed process and connection
+ * lists are resolved through the ReportContentStore. Reports are written by
+ * MetricReportBsonWriter.
  */
+@Slf4j
 @Component
+@RequiredArgsConstructor
 public class MetricReportMapper {
 
-    public MetricReportDocument toDocument(MetricReport report) {
-        return MetricReportDocument.builder()
-                .id(report.getId() != null ? report.getId().getValue() : null)
-                .agentId(report.getAgentId())
-                .hostname(report.getHostname())
-                .cpuUsage(report.getCpuUsage())
-                .ramUsedPercent(report.getRamUsedPercent())
-                .ramTotalMb(report.getRamTotalMb())
-                .diskUsedPercent(report.getDiskUsedPercent())
-                .diskTotalGb(report.getDiskTotalGb())
-                .bytesSentSec(report.getBytesSentSec())
-                .bytesRecvSec(report.getBytesRecvSec())
-                .processes(mapProcessesToDocuments(report.getProcesses()))
-                .networkConnections(mapConnectionsToDocuments(report.getNetworkConnections()))
-                .receivedAt(report.getReceivedAt())
-                .build();
-    }
+    private final StringDictionary dictionary;
+    private final ReportContentStore contentStore;
 
     public MetricReport toDomain(MetricReportDocument document) {
         return MetricReport.builder()
                 .id(MetricReportId.of(document.getId()))
                 .agentId(document.getAgentId())
-                .hostname(document.getHostname())
+                .hostname(decode(document.getHostname(), document.getHostnameCode()))
+                .sequenceEpoch(document.getSequenceEpoch() != null ? document.getSequenceEpoch() : 0)
+                .sequence(document.getSequence() != null ? document.getSequence() : 0)
                 .cpuUsage(document.getCpuUsage())
                 .ramUsedPercent(document.getRamUsedPercent())
                 .ramTotalMb(document.getRamTotalMb())
@@ -45,23 +42,40 @@ public class MetricReportMapper {
                 .diskTotalGb(document.getDiskTotalGb())
                 .bytesSentSec(document.getBytesSentSec())
                 .bytesRecvSec(document.getBytesRecvSec())
-                .processes(mapDocumentsToProcesses(document.getProcesses()))
-                .networkConnections(mapDocumentsToConnections(document.getNetworkConnections()))
+                .processes(document.getProcessesHash() != null
+                        ? resolveProcesses(document)
+                        : mapDocumentsToProcesses(document.getProcesses()))
+                .networkConnections(document.getConnectionsHash() != null
+                        ? resolveConnections(document)
+                        : mapDocumentsToConnections(document.getNetworkConnections()))
+                .omittedProcesses(document.getOmittedProcesses() != null ? document.getOmittedProcesses() : 0)
+                .omittedProcessCpu(document.getOmittedProcessCpu() != null ? document.getOmittedProcessCpu() : 0)
+                .omittedConnections(document.getOmittedConnections())
                 .receivedAt(document.getReceivedAt())
                 .build();
     }
 
-    private List<MetricReportDocument.ProcessDocument> mapProcessesToDocuments(List<Process> processes) {
-        if (processes == null)
+    private List<Process> resolveProcesses(MetricReportDocument document) {
+        ContentBlockDocument block = contentStore.load(document.getProcessesHash());
+        if (block == null) {
+            log.warn("Missing process block {} of report {}", document.getProcessesHash(), document.getId());
             return Collections.emptyList();
-        return processes.stream()
-                .map(p -> MetricReportDocument.ProcessDocument.builder()
-                        .pid(p.getPid())
-                        .name(p.getName())
-                        .cpuUsage(p.getCpuUsage())
-                        .username(p.getUsername())
-                        .build())
-                .collect(Collectors.toList());
+        }
+        List<Process> processes = mapDocumentsToProcesses(block.getProcesses());
+        List<Double> cpu = document.getProcessCpu();
+        for (int i = 0; i < processes.size() && cpu != null && i < cpu.size(); i++) {
+            processes.get(i).setCpuUsage(cpu.get(i));
+        }
+        return processes;
+    }
+
+    private List<NetworkConnection> resolveConnections(MetricReportDocument document) {
+        ContentBlockDocument block = contentStore.load(document.getConnectionsHash());
+        if (block == null) {
+            log.warn("Missing connection block {} of report {}", document.getConnectionsHash(), document.getId());
+            return Collections.emptyList();
+        }
+        return mapDocumentsToConnections(block.getNetworkConnections());
     }
 
     private List<Process> mapDocumentsToProcesses(List<MetricReportDocument.ProcessDocument> docs) {
@@ -70,26 +84,9 @@ public class MetricReportMapper {
         return docs.stream()
                 .map(d -> Process.builder()
                         .pid(d.getPid())
-                        .name(d.getName())
-                        .cpuUsage(d.getCpuUsage())
-                        .username(d.getUsername())
-                        .build())
-                .collect(Collectors.toList());
-    }
-
-    private List<MetricReportDocument.NetworkConnectionDocument> mapConnectionsToDocuments(
-            List<NetworkConnection> connections) {
-        if (connections == null)
-            return Collections.emptyList();
-        return connections.stream()
-                .map(c -> MetricReportDocument.NetworkConnectionDocument.builder()
-                        .pid(c.getPid())
-                        .localAddress(c.getLocalAddress())
-                        .localPort(c.getLocalPort())
-                        .remoteAddress(c.getRemoteAddress())
-                        .remotePort(c.getRemotePort())
-                        .status(c.getStatus())
-                        .processName(c.getProcessName())
+                        .name(decode(d.getName(), d.getNameCode()))
+                        .cpuUsage(d.getCpuUsage() != null ? d.getCpuUsage() : 0.0)
+                        .username(decode(d.getUsername(), d.getUsernameCode()))
                         .build())
                 .collect(Collectors.toList());
     }
@@ -105,9 +102,13 @@ public class MetricReportMapper {
                         .localPort(d.getLocalPort())
                         .remoteAddress(d.getRemoteAddress())
                         .remotePort(d.getRemotePort())
-                        .status(d.getStatus())
-                        .processName(d.getProcessName())
+                        .status(decode(d.getStatus(), d.getStatusCode()))
+                        .processName(decode(d.getProcessName(), d.getProcessNameCode()))
                         .build())
                 .collect(Collectors.toList());
     }
+
+    private String decode(String value, Integer code) {
+        return code != null ? dictionary.decode(code) : value;
+    }
 }
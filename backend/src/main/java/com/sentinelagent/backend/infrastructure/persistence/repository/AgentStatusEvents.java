@@ -0,0 +1,29 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Status transition events shared by the blocking and reactive adapters.
+ */
+final class AgentStatusEvents {
+
+    private AgentStatusEvents() {
+    }
+
+    /**
+     * Publish the transition between two stored statuses (null when the agent did not exist or was deleted), if any
+     */
+    static void publishStatusChange(ApplicationEventPublisher eventPublisher, String agentId,
+            String previousStatus, String newStatus) {
+        if (previousStatus == null ? newStatus == null : previousStatus.equals(newStatus)) {
+            return;
+        }
+        eventPublisher.publishEvent(new AgentStatusChangedEvent(
+                AgentId.of(agentId),
+                previousStatus != null ? AgentStatus.valueOf(previousStatus) : null,
+                newStatus != null ? AgentStatus.valueOf(newStatus) : null));
+    }
+}
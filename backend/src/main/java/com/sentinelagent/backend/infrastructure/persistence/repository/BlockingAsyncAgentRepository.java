@@ -0,0 +1,52 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.sentinelagent.backend.domain.agent.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Blocking implementation of the AsyncAgentRepository port (persistence.mode=blocking, and
+ * journal, which only journals reports).
+ * Runs each operation on the calling thread and returns an already completed future.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${persistence.mode:blocking}'.matches('blocking|journal')")
+public class BlockingAsyncAgentRepository implements AsyncAgentRepository {
+
+    private final AgentRepository agentRepository;
+
+    @Override
+    public CompletableFuture<Agent> save(Agent agent) {
+        return complete(() -> agentRepository.save(agent));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Agent>> findById(AgentId id) {
+        return complete(() -> agentRepository.findById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Agent>> findPage(AgentId afterId, int limit) {
+        return complete(() -> agentRepository.findPage(afterId, limit));
+    }
+
+    @Override
+    public CompletableFuture<List<Agent>> findPageByStatus(AgentStatus status, AgentId afterId, int limit) {
+        return complete(() -> agentRepository.findPageByStatus(status, afterId, limit));
+    }
+
+    private static <T> CompletableFuture<T> complete(Supplier<T> operation) {
+        try {
+            return CompletableFuture.completedFuture(operation.get());
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+}
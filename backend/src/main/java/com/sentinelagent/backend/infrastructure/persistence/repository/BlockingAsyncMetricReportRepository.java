@@ -0,0 +1,54 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.sentinelagent.backend.domain.telemetry.AsyncMetricReportRepository;
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import com.sentinelagent.backend.domain.telemetry.MetricReportId;
+import com.sentinelagent.backend.domain.telemetry.MetricReportRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Blocking implementation of the AsyncMetricReportRepository port (persistence.mode=blocking).
+ * Runs each operation on the calling thread and returns an already completed future.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "blocking", matchIfMissing = true)
+public class BlockingAsyncMetricReportRepository implements AsyncMetricReportRepository {
+
+    private final MetricReportRepository metricReportRepository;
+
+    @Override
+    public CompletableFuture<MetricReport> save(MetricReport report) {
+        try {
+            return CompletableFuture.completedFuture(metricReportRepository.save(report));
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<MetricReport>> saveAll(List<MetricReport> reports) {
+        try {
+            return CompletableFuture.completedFuture(metricReportRepository.saveAll(reports));
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<MetricReport>> findPageByAgentId(String agentId, LocalDateTime beforeReceivedAt,
+            MetricReportId beforeId, int limit) {
+        try {
+            return CompletableFuture.completedFuture(
+                    metricReportRepository.findPageByAgentId(agentId, beforeReceivedAt, beforeId, limit));
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+}
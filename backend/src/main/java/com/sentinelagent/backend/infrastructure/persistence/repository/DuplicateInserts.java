@@ -0,0 +1,50 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reading the outcome of an unordered insertMany in which some documents hit a
+ * unique index. The other documents are stored, so only the duplicates drop out.
+ */
+final class DuplicateInserts {
+
+    private DuplicateInserts() {
+    }
+
+    /**
+     * Positions of the rejected duplicates; the exception is rethrown if anything else failed
+     */
+    static Set<Integer> positions(MongoBulkWriteException ex) {
+        if (ex.getWriteConcernError() != null) {
+            throw ex;
+        }
+        Set<Integer> positions = new HashSet<>();
+        for (BulkWriteError error : ex.getWriteErrors()) {
+            if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                throw ex;
+            }
+            positions.add(error.getIndex());
+        }
+        return positions;
+    }
+
+    static <T> List<T> without(List<T> items, Set<Integer> positions) {
+        if (positions.isEmpty()) {
+            return items;
+        }
+        List<T> kept = new ArrayList<>(items.size() - positions.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (!positions.contains(i)) {
+                kept.add(items.get(i));
+            }
+        }
+        return kept;
+    }
+}
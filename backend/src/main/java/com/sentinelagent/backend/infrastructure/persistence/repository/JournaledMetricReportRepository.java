@@ -0,0 +1,267 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.client.model.InsertManyOptions;
+import com.sentinelagent.backend.domain.telemetry.AsyncMetricReportRepository;
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import com.sentinelagent.backend.domain.telemetry.MetricReportId;
+import com.sentinelagent.backend.domain.telemetry.MetricReportRepository;
+import com.sentinelagent.backend.infrastructure.journal.IngestJournal;
+import com.sentinelagent.backend.infrastructure.journal.IngestJournal.JournalBatch;
+import com.sentinelagent.backend.infrastructure.journal.JournalPosition;
+import com.sentinelagent.backend.infrastructure.persistence.entity.MetricReportDocument;
+import com.sentinelagent.backend.infrastructure.persistence.mapper.MetricReportBsonWriter;
+import com.sentinelagent.backend.infrastructure.persistence.mapper.MetricReportJournalCodec;
+import com.sentinelagent.backend.infrastructure.persistence.repository.ReportContentStore.PendingBlock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journaled implementation of the AsyncMetricReportRepository port (persistence.mode=journal).
+ *
+ * A save completes once the reports are in the local IngestJournal, so the
+ * Kafka offset is committed without waiting for MongoDB. A background thread
+ * drains the journal into MongoDB in bulk inserts of up to flush-batch-size
+ * reports and moves the journal checkpoint on after each one; after a restart
+ * it resumes at the checkpoint. Reports re-inserted that way, and copies of a
+ * stored report (see TelemetryDeduplicator), are rejected by the unique
+ * indexes and skipped, so they are only counted in the log.
+ *
+ * A batch that fails max-flush-attempts times for another reason than an
+ * unreachable database is flushed entry by entry, and entries that still
+ * fail are set aside in the journal's rejected/ directory. The bytes not yet
+ * flushed are exposed as the sentinel.ingest.journal.pending gauge.
+ *
+ * Reports become readable once flushed, usually within flush-interval-ms.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "journal")
+public class JournaledMetricReportRepository implements AsyncMetricReportRepository, MeterBinder {
+
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private final MetricReportRepository metricReportRepository;
+    private final MetricReportBsonWriter bsonWriter;
+    private final ReportContentStore contentStore;
+    private final MongoTemplate mongoTemplate;
+    private final IngestJournal journal;
+    private final int flushBatchSize;
+    private final long flushIntervalMs;
+    private final int maxFlushAttempts;
+    private final AtomicLong rejected = new AtomicLong();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ingest-journal-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    public JournaledMetricReportRepository(MetricReportRepository metricReportRepository,
+            MetricReportBsonWriter bsonWriter,
+            ReportContentStore contentStore,
+            MongoTemplate mongoTemplate,
+            @Value("${persistence.journal.dir:data/ingest-journal}") String directory,
+            @Value("${persistence.journal.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${persistence.journal.max-segments:64}") int maxSegments,
+            @Value("${persistence.journal.sync:true}") boolean sync,
+            @Value("${persistence.journal.flush-batch-size:1000}") int flushBatchSize,
+            @Value("${persistence.journal.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${persistence.journal.max-flush-attempts:5}") int maxFlushAttempts) {
+        this.metricReportRepository = metricReportRepository;
+        this.bsonWriter = bsonWriter;
+        this.contentStore = contentStore;
+        this.mongoTemplate = mongoTemplate;
+        this.flushBatchSize = flushBatchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxFlushAttempts = maxFlushAttempts;
+        try {
+            this.journal = new IngestJournal(Path.of(directory), segmentSizeMb * 1024 * 1024, maxSegments, sync);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open the ingest journal in " + directory, ex);
+        }
+        flusher.execute(this::drain);
+    }
+
+    @Override
+    public CompletableFuture<MetricReport> save(MetricReport report) {
+        return saveAll(List.of(report)).thenApply(saved -> report);
+    }
+
+    /**
+     * All reports are returned: duplicates are only recognized when the journal is flushed
+     */
+    @Override
+    public CompletableFuture<List<MetricReport>> saveAll(List<MetricReport> reports) {
+        try {
+            List<byte[]> entries = new ArrayList<>(reports.size());
+            for (MetricReport report : reports) {
+                if (report.getId() == null) {
+                    report.setId(MetricReportId.of(new ObjectId().toHexString()));
+                }
+                entries.add(MetricReportJournalCodec.encode(report));
+            }
+            journal.append(entries);
+            return CompletableFuture.completedFuture(reports);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<MetricReport>> findPageByAgentId(String agentId, LocalDateTime beforeReceivedAt,
+            MetricReportId beforeId, int limit) {
+        try {
+            return CompletableFuture.completedFuture(
+                    metricReportRepository.findPageByAgentId(agentId, beforeReceivedAt, beforeId, limit));
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private void drain() {
+        JournalPosition position = journal.checkpoint();
+        int failedAttempts = 0;
+        while (running) {
+            try {
+                JournalBatch batch = journal.read(position, flushBatchSize);
+                if (!batch.entries().isEmpty()) {
+                    if (failedAttempts < maxFlushAttempts) {
+                        insert(batch.entries());
+                    } else {
+                        insertOneByOne(position, batch.next());
+                    }
+                    journal.checkpoint(batch.next());
+                }
+                position = batch.next();
+                failedAttempts = 0;
+                if (batch.entries().size() < flushBatchSize) {
+                    // Let the next batch fill up
+                    Thread.sleep(flushIntervalMs);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // An unreachable database is waited for; any other failure counts against the batch
+                if (!isTransient(ex)) {
+                    failedAttempts++;
+                }
+                log.warn("Ingest journal flush failed (attempt {}), retrying from {}: {}",
+                        failedAttempts, position, ex.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Flush a batch that keeps failing entry by entry, setting aside the
+     * entries that cannot be decoded or stored so the rest is not held up
+     */
+    private void insertOneByOne(JournalPosition from, JournalPosition to) {
+        JournalPosition position = from;
+        while (position.compareTo(to) < 0) {
+            JournalBatch single = journal.read(position, 1);
+            if (single.entries().isEmpty()) {
+                return;
+            }
+            try {
+                insert(single.entries());
+            } catch (RuntimeException ex) {
+                if (isTransient(ex)) {
+                    throw ex;
+                }
+                journal.setAside(position, single.entries().get(0));
+                rejected.incrementAndGet();
+                log.error("Ingest journal entry at {} could not be stored and was set aside: {}",
+                        position, ex.getMessage());
+            }
+            position = single.next();
+        }
+    }
+
+    private static boolean isTransient(RuntimeException ex) {
+        return ex instanceof TransientDataAccessException
+                || ex instanceof DataAccessResourceFailureException
+                || ex instanceof MongoSocketException
+                || ex instanceof MongoTimeoutException;
+    }
+
+    private void insert(List<byte[]> entries) {
+        List<RawBsonDocument> documents = new ArrayList<>(entries.size());
+        List<PendingBlock> pendingBlocks = new ArrayList<>();
+        for (byte[] entry : entries) {
+            MetricReport report = MetricReportJournalCodec.decode(entry);
+            documents.add(bsonWriter.write(report, new ObjectId(report.getId().getValue()), pendingBlocks));
+        }
+        contentStore.store(pendingBlocks);
+        Set<Integer> duplicates = mongoTemplate.execute(MetricReportDocument.class, collection -> {
+            try {
+                collection.withDocumentClass(RawBsonDocument.class)
+                        .insertMany(documents, new InsertManyOptions().ordered(false));
+                return Set.<Integer>of();
+            } catch (MongoBulkWriteException ex) {
+                return DuplicateInserts.positions(ex);
+            }
+        });
+        log.debug("Flushed {} journaled reports to MongoDB", documents.size() - duplicates.size());
+        if (!duplicates.isEmpty()) {
+            log.info("Skipped {} journaled reports that were already stored", duplicates.size());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sentinel.ingest.journal.pending", journal, IngestJournal::pendingBytes)
+                .baseUnit("bytes")
+                .description("Journaled telemetry not yet flushed to MongoDB")
+                .register(registry);
+        Gauge.builder("sentinel.ingest.journal.segments", journal, IngestJournal::segmentCount)
+                .description("Ingest journal segment files in use")
+                .register(registry);
+        FunctionCounter.builder("sentinel.ingest.journal.rejected", rejected, AtomicLong::get)
+                .description("Journaled reports set aside because they could not be stored")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        // Entries not flushed yet stay in the journal for the next start
+        running = false;
+        flusher.shutdownNow();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        journal.close();
+    }
+}
@@ -4,9 +4,15 @@ import com.sentinelagent.backend.domain.agent.*;
 import com.sentinelagent.backend.infrastructure.persistence.entity.AgentDocument;
 import com.sentinelagent.backend.infrastructure.persistence.mapper.AgentMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.stereotype.Repository;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -20,12 +26,27 @@ public class MongoAgentRepository implements AgentRepository {
 
     private final SpringDataAgentRepository springDataRepository;
     private final AgentMapper mapper;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Agent save(Agent agent) {
         AgentDocument document = mapper.toDocument(agent);
-        AgentDocument saved = springDataRepository.save(document);
-        return mapper.toDomain(saved);
+        if (document.getId() == null) {
+            AgentDocument saved = springDataRepository.save(document);
+            AgentStatusEvents.publishStatusChange(eventPublisher, saved.getId(), null, saved.getStatus());
+            return mapper.toDomain(saved);
+        }
+
+        // Replace atomically and get the previous version back, so every status
+        // transition is observed regardless of which use case caused it
+        AgentDocument previous = mongoTemplate.findAndReplace(
+                PageQueries.byId(document.getId()),
+                document,
+                FindAndReplaceOptions.options().upsert());
+        AgentStatusEvents.publishStatusChange(eventPublisher, document.getId(),
+                previous != null ? previous.getStatus() : null, document.getStatus());
+        return mapper.toDomain(document);
     }
 
     @Override
@@ -65,13 +86,50 @@ public class MongoAgentRepository implements AgentRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Agent> findPage(AgentId afterId, int limit) {
+        return mongoTemplate.find(PageQueries.agentPage(null, afterId, limit), AgentDocument.class).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Agent> findPageByStatus(AgentStatus status, AgentId afterId, int limit) {
+        return mongoTemplate.find(PageQueries.agentPage(status, afterId, limit), AgentDocument.class).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void deleteById(AgentId id) {
-        springDataRepository.deleteById(id.getValue());
+        AgentDocument removed = mongoTemplate.findAndRemove(PageQueries.byId(id.getValue()), AgentDocument.class);
+        if (removed != null) {
+            AgentStatusEvents.publishStatusChange(eventPublisher, removed.getId(), removed.getStatus(), null);
+        }
     }
 
     @Override
     public long countByStatus(AgentStatus status) {
         return springDataRepository.countByStatus(status.name());
     }
+
+    @Override
+    public Map<AgentStatus, Long> countAllByStatus() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("status").count().as("count"));
+        Map<AgentStatus, Long> counts = new EnumMap<>(AgentStatus.class);
+        mongoTemplate.aggregate(aggregation, AgentDocument.class, StatusCount.class)
+                .forEach(row -> {
+                    if (row.id() != null) {
+                        counts.put(AgentStatus.valueOf(row.id()), row.count());
+                    }
+                });
+        return counts;
+    }
+
+    /**
+     * Result row of the status $group aggregation
+     */
+    record StatusCount(String id, long count) {
+    }
 }
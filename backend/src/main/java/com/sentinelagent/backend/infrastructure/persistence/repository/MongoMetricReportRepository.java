@@ -1,16 +1,30 @@
 package com.sentinelagent.backend.infrastructure.persistence.repository;
 
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReplaceOptions;
+import com.sentinelagent.backend.application.telemetry.port.StringDictionary;
 import com.sentinelagent.backend.domain.telemetry.MetricReport;
 import com.sentinelagent.backend.domain.telemetry.MetricReportId;
 import com.sentinelagent.backend.domain.telemetry.MetricReportRepository;
 import com.sentinelagent.backend.infrastructure.persistence.entity.MetricReportDocument;
+import com.sentinelagent.backend.infrastructure.persistence.mapper.MetricReportBsonWriter;
 import com.sentinelagent.backend.infrastructure.persistence.mapper.MetricReportMapper;
+import com.sentinelagent.backend.infrastructure.persistence.repository.ReportContentStore.PendingBlock;
 import lombok.RequiredArgsConstructor;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -23,12 +37,65 @@ public class MongoMetricReportRepository implements MetricReportRepository {
 
     private final SpringDataMetricReportRepository springDataRepository;
     private final MetricReportMapper mapper;
+    private final MetricReportBsonWriter bsonWriter;
+    private final ReportContentStore contentStore;
+    private final MongoTemplate mongoTemplate;
+    private final StringDictionary dictionary;
 
     @Override
     public MetricReport save(MetricReport report) {
-        MetricReportDocument document = mapper.toDocument(report);
-        MetricReportDocument saved = springDataRepository.save(document);
-        return mapper.toDomain(saved);
+        // Serialized directly from the domain object; the report itself is returned with its new ID
+        boolean isNew = report.getId() == null;
+        ObjectId id = isNew ? new ObjectId() : new ObjectId(report.getId().getValue());
+        List<PendingBlock> pendingBlocks = new ArrayList<>();
+        RawBsonDocument document = bsonWriter.write(report, id, pendingBlocks);
+        contentStore.store(pendingBlocks);
+        mongoTemplate.execute(MetricReportDocument.class, collection -> {
+            MongoCollection<RawBsonDocument> raw = collection.withDocumentClass(RawBsonDocument.class);
+            return isNew
+                    ? raw.insertOne(document)
+                    : raw.replaceOne(Filters.eq("_id", id), document, new ReplaceOptions().upsert(true));
+        });
+        report.setId(MetricReportId.of(id.toHexString()));
+        return report;
+    }
+
+    @Override
+    public List<MetricReport> saveAll(List<MetricReport> reports) {
+        List<MetricReport> inserted = new ArrayList<>(reports.size());
+        List<MetricReport> saved = new ArrayList<>(reports.size());
+        List<ObjectId> ids = new ArrayList<>(reports.size());
+        List<RawBsonDocument> documents = new ArrayList<>(reports.size());
+        List<PendingBlock> pendingBlocks = new ArrayList<>();
+        for (MetricReport report : reports) {
+            if (report.getId() != null) {
+                saved.add(save(report));
+                continue;
+            }
+            ObjectId id = new ObjectId();
+            inserted.add(report);
+            ids.add(id);
+            documents.add(bsonWriter.write(report, id, pendingBlocks));
+        }
+        if (documents.isEmpty()) {
+            return saved;
+        }
+        contentStore.store(pendingBlocks);
+        // Unordered, so a duplicate does not stop the reports after it
+        Set<Integer> duplicates = mongoTemplate.execute(MetricReportDocument.class, collection -> {
+            try {
+                collection.withDocumentClass(RawBsonDocument.class)
+                        .insertMany(documents, new InsertManyOptions().ordered(false));
+                return Set.<Integer>of();
+            } catch (MongoBulkWriteException ex) {
+                return DuplicateInserts.positions(ex);
+            }
+        });
+        for (int i = 0; i < inserted.size(); i++) {
+            inserted.get(i).setId(MetricReportId.of(ids.get(i).toHexString()));
+        }
+        saved.addAll(DuplicateInserts.without(inserted, duplicates));
+        return saved;
     }
 
     @Override
@@ -46,7 +113,8 @@ public class MongoMetricReportRepository implements MetricReportRepository {
 
     @Override
     public List<MetricReport> findByHostname(String hostname) {
-        return springDataRepository.findByHostname(hostname).stream()
+        return mongoTemplate.find(PageQueries.byHostname(hostname, dictionary.encode(hostname)),
+                        MetricReportDocument.class).stream()
                 .map(mapper::toDomain)
                 .collect(Collectors.toList());
     }
@@ -65,6 +133,15 @@ public class MongoMetricReportRepository implements MetricReportRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<MetricReport> findPageByAgentId(String agentId, LocalDateTime beforeReceivedAt,
+            MetricReportId beforeId, int limit) {
+        Query query = PageQueries.reportPage(agentId, beforeReceivedAt, beforeId, limit);
+        return mongoTemplate.find(query, MetricReportDocument.class).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void deleteById(MetricReportId id) {
         springDataRepository.deleteById(id.getValue());
@@ -0,0 +1,67 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.telemetry.MetricReportId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queries shared by the blocking and reactive adapters.
+ */
+final class PageQueries {
+
+    private PageQueries() {
+    }
+
+    /**
+     * Agents ordered by _id after {@code afterId}, optionally within one status
+     * (served by the {status: 1, _id: 1} compound index)
+     */
+    static Query agentPage(AgentStatus status, AgentId afterId, int limit) {
+        Query query = new Query();
+        if (status != null) {
+            query.addCriteria(Criteria.where("status").is(status.name()));
+        }
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(afterId.getValue()));
+        }
+        return query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+    }
+
+    /**
+     * An agent's reports newest first, strictly older than (beforeReceivedAt, beforeId)
+     * (served by the {agentId: 1, receivedAt: -1, _id: -1} compound index)
+     */
+    static Query reportPage(String agentId, LocalDateTime beforeReceivedAt, MetricReportId beforeId, int limit) {
+        Criteria criteria = Criteria.where("agentId").is(agentId);
+        if (beforeReceivedAt != null && beforeId != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("receivedAt").lt(beforeReceivedAt),
+                    new Criteria().andOperator(
+                            Criteria.where("receivedAt").is(beforeReceivedAt),
+                            Criteria.where("_id").lt(beforeId.getValue())));
+        }
+        return new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "receivedAt", "_id"))
+                .limit(limit);
+    }
+
+    /**
+     * Reports of a host, matching both dictionary-encoded and plain-string hostnames
+     */
+    static Query byHostname(String hostname, int hostnameCode) {
+        Criteria plain = Criteria.where("hostname").is(hostname);
+        if (hostnameCode < 0) {
+            return new Query(plain);
+        }
+        return new Query(new Criteria().orOperator(Criteria.where("hostnameCode").is(hostnameCode), plain));
+    }
+
+    static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+}
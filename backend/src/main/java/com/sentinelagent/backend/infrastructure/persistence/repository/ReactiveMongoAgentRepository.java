@@ -0,0 +1,79 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.sentinelagent.backend.domain.agent.*;
+import com.sentinelagent.backend.infrastructure.persistence.entity.AgentDocument;
+import com.sentinelagent.backend.infrastructure.persistence.mapper.AgentMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reactive MongoDB implementation of the AsyncAgentRepository port (persistence.mode=reactive).
+ * No thread waits on the database while an operation is in flight.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "reactive")
+public class ReactiveMongoAgentRepository implements AsyncAgentRepository {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final AgentMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public CompletableFuture<Agent> save(Agent agent) {
+        AgentDocument document = mapper.toDocument(agent);
+        if (document.getId() == null) {
+            return reactiveMongoTemplate.insert(document)
+                    .doOnNext(saved -> AgentStatusEvents.publishStatusChange(
+                            eventPublisher, saved.getId(), null, saved.getStatus()))
+                    .map(mapper::toDomain)
+                    .toFuture();
+        }
+
+        // Same previous-version contract as MongoAgentRepository, so status counters stay exact
+        return reactiveMongoTemplate.findAndReplace(
+                        PageQueries.byId(document.getId()),
+                        document,
+                        FindAndReplaceOptions.options().upsert())
+                .map(previous -> Optional.ofNullable(previous.getStatus()))
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(previousStatus -> AgentStatusEvents.publishStatusChange(
+                        eventPublisher, document.getId(), previousStatus.orElse(null), document.getStatus()))
+                .map(previousStatus -> mapper.toDomain(document))
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Optional<Agent>> findById(AgentId id) {
+        return reactiveMongoTemplate.findById(id.getValue(), AgentDocument.class)
+                .map(document -> Optional.of(mapper.toDomain(document)))
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<List<Agent>> findPage(AgentId afterId, int limit) {
+        return find(PageQueries.agentPage(null, afterId, limit));
+    }
+
+    @Override
+    public CompletableFuture<List<Agent>> findPageByStatus(AgentStatus status, AgentId afterId, int limit) {
+        return find(PageQueries.agentPage(status, afterId, limit));
+    }
+
+    private CompletableFuture<List<Agent>> find(Query query) {
+        return reactiveMongoTemplate.find(query, AgentDocument.class)
+                .map(mapper::toDomain)
+                .collectList()
+                .toFuture();
+    }
+}
@@ -0,0 +1,103 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+import com.sentinelagent.backend.domain.telemetry.AsyncMetricReportRepository;
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import com.sentinelagent.backend.domain.telemetry.MetricReportId;
+import com.sentinelagent.backend.infrastructure.persistence.entity.MetricReportDocument;
+import com.sentinelagent.backend.infrastructure.persistence.mapper.MetricReportBsonWriter;
+import com.sentinelagent.backend.infrastructure.persistence.mapper.MetricReportMapper;
+import com.sentinelagent.backend.infrastructure.persistence.repository.ReportContentStore.PendingBlock;
+import lombok.RequiredArgsConstructor;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reactive MongoDB implementation of the AsyncMetricReportRepository port (persistence.mode=reactive).
+ * No thread waits on the database while an operation is in flight.
+ *
+ * Mapping to the domain may load a content block that is not cached, so it
+ * runs on the bounded elastic scheduler rather than on the driver threads.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "reactive")
+public class ReactiveMongoMetricReportRepository implements AsyncMetricReportRepository {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final MetricReportMapper mapper;
+    private final MetricReportBsonWriter bsonWriter;
+    private final ReportContentStore contentStore;
+
+    @Override
+    public CompletableFuture<MetricReport> save(MetricReport report) {
+        // Serialized on the calling thread directly from the domain object
+        ObjectId id = new ObjectId();
+        List<PendingBlock> pendingBlocks = new ArrayList<>();
+        RawBsonDocument document = bsonWriter.write(report, id, pendingBlocks);
+        return contentStore.storeReactive(pendingBlocks)
+                .thenMany(reactiveMongoTemplate.execute(MetricReportDocument.class, collection -> collection
+                        .withDocumentClass(RawBsonDocument.class)
+                        .insertOne(document)))
+                .then(Mono.fromSupplier(() -> {
+                    report.setId(MetricReportId.of(id.toHexString()));
+                    return report;
+                }))
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<List<MetricReport>> saveAll(List<MetricReport> reports) {
+        // Reports arriving here are always new, see SaveTelemetryUseCase
+        if (reports.isEmpty()) {
+            return CompletableFuture.completedFuture(reports);
+        }
+        List<ObjectId> ids = new ArrayList<>(reports.size());
+        List<RawBsonDocument> documents = new ArrayList<>(reports.size());
+        List<PendingBlock> pendingBlocks = new ArrayList<>();
+        for (MetricReport report : reports) {
+            ObjectId id = new ObjectId();
+            ids.add(id);
+            documents.add(bsonWriter.write(report, id, pendingBlocks));
+        }
+        // Unordered, so a duplicate does not stop the reports after it
+        return contentStore.storeReactive(pendingBlocks).thenMany(reactiveMongoTemplate.execute(MetricReportDocument.class, collection -> Mono
+                        .from(collection.withDocumentClass(RawBsonDocument.class)
+                                .insertMany(documents, new InsertManyOptions().ordered(false)))
+                        .thenReturn(Set.<Integer>of())
+                        .onErrorResume(MongoBulkWriteException.class,
+                                ex -> Mono.fromCallable(() -> DuplicateInserts.positions(ex)))))
+                .next()
+                .map(duplicates -> {
+                    for (int i = 0; i < reports.size(); i++) {
+                        reports.get(i).setId(MetricReportId.of(ids.get(i).toHexString()));
+                    }
+                    return DuplicateInserts.without(reports, duplicates);
+                })
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<List<MetricReport>> findPageByAgentId(String agentId, LocalDateTime beforeReceivedAt,
+            MetricReportId beforeId, int limit) {
+        return reactiveMongoTemplate.find(
+                        PageQueries.reportPage(agentId, beforeReceivedAt, beforeId, limit),
+                        MetricReportDocument.class)
+                .publishOn(Schedulers.boundedElastic())
+                .map(mapper::toDomain)
+                .collectList()
+                .toFuture();
+    }
+}
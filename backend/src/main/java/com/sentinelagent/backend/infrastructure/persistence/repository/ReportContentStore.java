@@ -0,0 +1,150 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.sentinelagent.backend.infrastructure.persistence.entity.ContentBlockDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed store of the process and connection lists referenced by reports.
+ *
+ * Each agent's last stored hash per list kind is remembered, so an unchanged
+ * list costs neither a database round trip nor building its documents.
+ * Recently used blocks are cached for reads.
+ *
+ * Writing a report only collects the blocks it needs (see
+ * MetricReportBsonWriter); the repository adapter stores them before the
+ * report, blocking or reactively to match its driver.
+ */
+@Slf4j
+@Component
+public class ReportContentStore {
+
+    private final MongoTemplate mongoTemplate;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final Map<String, String> lastProcessesHash = new ConcurrentHashMap<>();
+    private final Map<String, String> lastConnectionsHash = new ConcurrentHashMap<>();
+    private final Map<String, ContentBlockDocument> recentBlocks;
+
+    public ReportContentStore(MongoTemplate mongoTemplate, ReactiveMongoTemplate reactiveMongoTemplate,
+            @Value("${reports.content-cache-size:10000}") int cacheSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.recentBlocks = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ContentBlockDocument> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * The process block with this hash if it may not be stored yet, or null;
+     * {@code block} is only called in the first case
+     */
+    public PendingBlock pendingProcesses(String agentId, String hash, Supplier<ContentBlockDocument> block) {
+        return pending(lastProcessesHash, agentId, hash, block, true);
+    }
+
+    /**
+     * The connection block with this hash if it may not be stored yet, or null;
+     * {@code block} is only called in the first case
+     */
+    public PendingBlock pendingConnections(String agentId, String hash, Supplier<ContentBlockDocument> block) {
+        return pending(lastConnectionsHash, agentId, hash, block, false);
+    }
+
+    /**
+     * Store pending blocks on the calling thread; blocks stored before are skipped
+     */
+    public void store(List<PendingBlock> blocks) {
+        for (PendingBlock block : distinct(blocks)) {
+            try {
+                mongoTemplate.insert(block.block());
+            } catch (DuplicateKeyException ex) {
+                // Stored before by another agent, report or instance
+                log.trace("Content block {} already stored", block.block().getId());
+            }
+        }
+        blocks.forEach(this::remember);
+    }
+
+    /**
+     * Store pending blocks without blocking the subscribing thread
+     */
+    public Mono<Void> storeReactive(List<PendingBlock> blocks) {
+        if (blocks.isEmpty()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(distinct(blocks))
+                .concatMap(block -> reactiveMongoTemplate.insert(block.block())
+                        .onErrorResume(DuplicateKeyException.class, ex -> Mono.empty()))
+                .then(Mono.fromRunnable(() -> blocks.forEach(this::remember)));
+    }
+
+    /**
+     * @return the block, or null if it does not exist
+     */
+    public ContentBlockDocument load(String hash) {
+        ContentBlockDocument block = recentBlocks.get(hash);
+        if (block == null) {
+            block = mongoTemplate.findById(hash, ContentBlockDocument.class);
+            if (block != null) {
+                recentBlocks.put(hash, block);
+            }
+        }
+        return block;
+    }
+
+    private PendingBlock pending(Map<String, String> lastHashes, String agentId, String hash,
+            Supplier<ContentBlockDocument> block, boolean processes) {
+        if (agentId != null && hash.equals(lastHashes.get(agentId))) {
+            return null;
+        }
+        if (recentBlocks.containsKey(hash)) {
+            if (agentId != null) {
+                lastHashes.put(agentId, hash);
+            }
+            return null;
+        }
+        return new PendingBlock(agentId, processes, block.get());
+    }
+
+    /**
+     * Only once a block is stored may later reports skip it
+     */
+    private void remember(PendingBlock block) {
+        recentBlocks.put(block.block().getId(), block.block());
+        if (block.agentId() != null) {
+            (block.processes() ? lastProcessesHash : lastConnectionsHash).put(block.agentId(), block.block().getId());
+        }
+    }
+
+    private static Collection<PendingBlock> distinct(List<PendingBlock> blocks) {
+        Map<String, PendingBlock> byHash = new LinkedHashMap<>();
+        for (PendingBlock block : blocks) {
+            byHash.putIfAbsent(block.block().getId(), block);
+        }
+        return byHash.values();
+    }
+
+    /**
+     * A content block referenced by a report being written, to be stored
+     * before the report by the repository adapter with its own driver
+     */
+    public record PendingBlock(String agentId, boolean processes, ContentBlockDocument block) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.sentinelagent.backend.infrastructure.persistence.entity.MetricChunkDocument;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Spring Data MongoDB Repository for compressed metric chunks.
+ */
+public interface SpringDataMetricChunkRepository extends MongoRepository<MetricChunkDocument, String> {
+
+    /**
+     * Stream an agent's chunks whose window overlaps [from, to], oldest first
+     */
+    @Query(value = "{ 'agentId': ?0, 'windowStart': { $lte: ?2 }, 'windowEnd': { $gt: ?1 } }",
+            sort = "{ 'windowStart': 1, 'chunkStart': 1 }")
+    Stream<MetricChunkDocument> streamOverlapping(String agentId, LocalDateTime from, LocalDateTime to);
+}
@@ -12,7 +12,5 @@ import java.util.List;
 public interface SpringDataMetricReportRepository extends MongoRepository<MetricReportDocument, String> {
     List<MetricReportDocument> findByAgentId(String agentId);
 
-    List<MetricReportDocument> findByHostname(String hostname);
-
     List<MetricReportDocument> findByReceivedAtBetween(LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,41 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.sentinelagent.backend.infrastructure.persistence.entity.NetworkFlowDocument;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Spring Data MongoDB Repository for aggregated network flows.
+ */
+public interface SpringDataNetworkFlowRepository extends MongoRepository<NetworkFlowDocument, String> {
+
+    /**
+     * An agent's flows whose window overlaps [from, to], oldest window first
+     */
+    @Query(value = "{ 'agentId': ?0, 'windowStart': { $lte: ?2 }, 'windowEnd': { $gt: ?1 } }",
+            sort = "{ 'windowStart': 1 }")
+    List<NetworkFlowDocument> findOverlapping(String agentId, LocalDateTime from, LocalDateTime to,
+            Pageable pageable);
+
+    /**
+     * Flows of all agents to remote IPv4 addresses in [first, last] whose window overlaps [from, to]
+     */
+    @Query(value = "{ 'remoteIpv4': { $gte: ?0, $lte: ?1 }, 'windowStart': { $lte: ?3 }, 'windowEnd': { $gt: ?2 } }",
+            sort = "{ 'remoteIpv4': 1, 'windowStart': 1 }")
+    List<NetworkFlowDocument> findIpv4Range(long first, long last, LocalDateTime from, LocalDateTime to,
+            Pageable pageable);
+
+    /**
+     * Same for IPv6 in sign-flipped halves. A CIDR block either fixes the high half or
+     * spans all low halves, so independent ranges on both halves match exactly the block.
+     */
+    @Query(value = "{ 'remoteIpv6High': { $gte: ?0, $lte: ?1 }, 'remoteIpv6Low': { $gte: ?2, $lte: ?3 },"
+            + " 'windowStart': { $lte: ?5 }, 'windowEnd': { $gt: ?4 } }",
+            sort = "{ 'remoteIpv6High': 1, 'remoteIpv6Low': 1, 'windowStart': 1 }")
+    List<NetworkFlowDocument> findIpv6Range(long firstHigh, long lastHigh, long firstLow, long lastLow,
+            LocalDateTime from, LocalDateTime to, Pageable pageable);
+}
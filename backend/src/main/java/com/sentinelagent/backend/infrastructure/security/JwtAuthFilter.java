@@ -55,4 +55,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Controllers returning CompletableFuture are completed in an async dispatch,
+     * which needs the authentication re-established from the token as well
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
 }
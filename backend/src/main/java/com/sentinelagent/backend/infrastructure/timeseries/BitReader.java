@@ -0,0 +1,29 @@
+package com.sentinelagent.backend.infrastructure.timeseries;
+
+/**
+ * MSB-first reader over a bit stream produced by {@link BitWriter}.
+ */
+final class BitReader {
+
+    private final byte[] buffer;
+    private long position;
+
+    BitReader(byte[] buffer, int byteOffset) {
+        this.buffer = buffer;
+        this.position = (long) byteOffset << 3;
+    }
+
+    boolean readBit() {
+        boolean bit = (buffer[(int) (position >>> 3)] & (0x80 >>> (position & 7))) != 0;
+        position++;
+        return bit;
+    }
+
+    long readBits(int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 1) | (readBit() ? 1L : 0L);
+        }
+        return value;
+    }
+}
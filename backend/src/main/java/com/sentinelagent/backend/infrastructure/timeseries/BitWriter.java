@@ -0,0 +1,48 @@
+package com.sentinelagent.backend.infrastructure.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Append-only, MSB-first bit stream backed by a growable byte array.
+ */
+final class BitWriter {
+
+    private byte[] buffer;
+    private long bitLength;
+
+    BitWriter(int initialBytes) {
+        this.buffer = new byte[Math.max(16, initialBytes)];
+    }
+
+    void writeBit(boolean bit) {
+        ensureCapacity(1);
+        if (bit) {
+            buffer[(int) (bitLength >>> 3)] |= (byte) (0x80 >>> (bitLength & 7));
+        }
+        bitLength++;
+    }
+
+    /**
+     * Write the low {@code count} bits of {@code value}, most significant first
+     */
+    void writeBits(long value, int count) {
+        ensureCapacity(count);
+        for (int i = count - 1; i >= 0; i--) {
+            if (((value >>> i) & 1L) != 0) {
+                buffer[(int) (bitLength >>> 3)] |= (byte) (0x80 >>> (bitLength & 7));
+            }
+            bitLength++;
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bitLength + 7) >>> 3));
+    }
+
+    private void ensureCapacity(int extraBits) {
+        long neededBytes = (bitLength + extraBits + 7) >>> 3;
+        if (neededBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.max(neededBytes, buffer.length * 2L));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.sentinelagent.backend.infrastructure.timeseries;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cursor over a chunk produced by {@link GorillaChunkEncoder}.
+ *
+ * Samples are decoded lazily on each {@link #next()} into reused state, so
+ * iterating a chunk does not allocate per sample.
+ */
+public final class GorillaChunkDecoder {
+
+    private final int fieldCount;
+    private final int sampleCount;
+    private final BitReader bits;
+    private final long[] valueBits;
+    private final int[] leading;
+    private final int[] trailing;
+
+    private int position;
+    private long timestamp;
+    private long delta;
+
+    public GorillaChunkDecoder(byte[] chunk) {
+        ByteBuffer header = ByteBuffer.wrap(chunk, 0, GorillaChunkEncoder.HEADER_BYTES);
+        byte version = header.get();
+        if (version != GorillaChunkEncoder.VERSION) {
+            throw new IllegalArgumentException("Unsupported metric chunk version: " + version);
+        }
+        this.fieldCount = header.get() & 0xFF;
+        this.sampleCount = header.getInt();
+        this.bits = new BitReader(chunk, GorillaChunkEncoder.HEADER_BYTES);
+        this.valueBits = new long[fieldCount];
+        this.leading = new int[fieldCount];
+        this.trailing = new int[fieldCount];
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    public int sampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Advance to the next sample
+     *
+     * @return false once all samples have been read
+     */
+    public boolean next() {
+        if (position >= sampleCount) {
+            return false;
+        }
+
+        if (position == 0) {
+            timestamp = bits.readBits(64);
+            for (int i = 0; i < fieldCount; i++) {
+                valueBits[i] = bits.readBits(64);
+            }
+        } else {
+            delta += readDeltaOfDelta();
+            timestamp += delta;
+            for (int i = 0; i < fieldCount; i++) {
+                readValue(i);
+            }
+        }
+
+        position++;
+        return true;
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public double value(int field) {
+        return Double.longBitsToDouble(valueBits[field]);
+    }
+
+    private long readDeltaOfDelta() {
+        if (!bits.readBit()) {
+            return 0;
+        }
+        if (!bits.readBit()) {
+            return bits.readBits(7) - 63;
+        }
+        if (!bits.readBit()) {
+            return bits.readBits(9) - 255;
+        }
+        if (!bits.readBit()) {
+            return bits.readBits(12) - 2047;
+        }
+        return bits.readBits(64);
+    }
+
+    private void readValue(int field) {
+        if (!bits.readBit()) {
+            return; // unchanged
+        }
+        if (bits.readBit()) {
+            leading[field] = (int) bits.readBits(5);
+            int meaningful = (int) bits.readBits(6);
+            if (meaningful == 0) {
+                meaningful = 64;
+            }
+            trailing[field] = 64 - leading[field] - meaningful;
+        }
+        int meaningful = 64 - leading[field] - trailing[field];
+        long xor = bits.readBits(meaningful) << trailing[field];
+        valueBits[field] ^= xor;
+    }
+}
@@ -0,0 +1,140 @@
+package com.sentinelagent.backend.infrastructure.timeseries;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Streaming encoder for a block of multi-field metric samples (Gorilla-style).
+ *
+ * Timestamps are stored as delta-of-delta with variable-width buckets, and each
+ * field's doubles are XOR'ed with the field's previous value so unchanged or
+ * slowly changing values cost one or a few bits. Chunk layout:
+ * [version:1][fieldCount:1][sampleCount:4][bit stream].
+ */
+public final class GorillaChunkEncoder {
+
+    static final byte VERSION = 1;
+    static final int HEADER_BYTES = 6;
+
+    private final int fieldCount;
+    private final BitWriter bits;
+    private final long[] previousValueBits;
+    private final int[] previousLeading;
+    private final int[] previousTrailing;
+
+    private int sampleCount;
+    private long firstTimestamp;
+    private long previousTimestamp;
+    private long previousDelta;
+
+    public GorillaChunkEncoder(int fieldCount) {
+        this.fieldCount = fieldCount;
+        this.bits = new BitWriter(256);
+        this.previousValueBits = new long[fieldCount];
+        this.previousLeading = new int[fieldCount];
+        this.previousTrailing = new int[fieldCount];
+    }
+
+    /**
+     * Append one sample; {@code values} must hold exactly {@code fieldCount} entries
+     */
+    public void append(long timestamp, double[] values) {
+        if (values.length != fieldCount) {
+            throw new IllegalArgumentException("Expected " + fieldCount + " values, got " + values.length);
+        }
+
+        if (sampleCount == 0) {
+            firstTimestamp = timestamp;
+            bits.writeBits(timestamp, 64);
+            for (int i = 0; i < fieldCount; i++) {
+                long valueBits = Double.doubleToRawLongBits(values[i]);
+                bits.writeBits(valueBits, 64);
+                previousValueBits[i] = valueBits;
+                previousLeading[i] = -1;
+            }
+        } else {
+            long delta = timestamp - previousTimestamp;
+            writeDeltaOfDelta(delta - previousDelta);
+            previousDelta = delta;
+            for (int i = 0; i < fieldCount; i++) {
+                writeValue(i, Double.doubleToRawLongBits(values[i]));
+            }
+        }
+
+        previousTimestamp = timestamp;
+        sampleCount++;
+    }
+
+    public int sampleCount() {
+        return sampleCount;
+    }
+
+    public long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public long lastTimestamp() {
+        return previousTimestamp;
+    }
+
+    /**
+     * Produce the encoded chunk. The encoder may keep accepting samples afterwards.
+     */
+    public byte[] finish() {
+        byte[] body = bits.toByteArray();
+        return ByteBuffer.allocate(HEADER_BYTES + body.length)
+                .put(VERSION)
+                .put((byte) fieldCount)
+                .putInt(sampleCount)
+                .put(body)
+                .array();
+    }
+
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            bits.writeBit(false);
+        } else if (deltaOfDelta >= -63 && deltaOfDelta <= 64) {
+            bits.writeBits(0b10, 2);
+            bits.writeBits(deltaOfDelta + 63, 7);
+        } else if (deltaOfDelta >= -255 && deltaOfDelta <= 256) {
+            bits.writeBits(0b110, 3);
+            bits.writeBits(deltaOfDelta + 255, 9);
+        } else if (deltaOfDelta >= -2047 && deltaOfDelta <= 2048) {
+            bits.writeBits(0b1110, 4);
+            bits.writeBits(deltaOfDelta + 2047, 12);
+        } else {
+            bits.writeBits(0b1111, 4);
+            bits.writeBits(deltaOfDelta, 64);
+        }
+    }
+
+    private void writeValue(int field, long valueBits) {
+        long xor = valueBits ^ previousValueBits[field];
+        previousValueBits[field] = valueBits;
+
+        if (xor == 0) {
+            bits.writeBit(false);
+            return;
+        }
+        bits.writeBit(true);
+
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+
+        if (previousLeading[field] >= 0
+                && leading >= previousLeading[field]
+                && trailing >= previousTrailing[field]) {
+            // Meaningful bits fit inside the previous window: reuse it
+            bits.writeBit(false);
+            int meaningful = 64 - previousLeading[field] - previousTrailing[field];
+            bits.writeBits(xor >>> previousTrailing[field], meaningful);
+        } else {
+            int meaningful = 64 - leading - trailing;
+            bits.writeBit(true);
+            bits.writeBits(leading, 5);
+            bits.writeBits(meaningful & 0x3F, 6); // 64 is stored as 0
+            bits.writeBits(xor >>> trailing, meaningful);
+            previousLeading[field] = leading;
+            previousTrailing[field] = trailing;
+        }
+    }
+}
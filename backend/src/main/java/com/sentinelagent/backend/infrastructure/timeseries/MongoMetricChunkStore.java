@@ -0,0 +1,351 @@
+package com.sentinelagent.backend.infrastructure.timeseries;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.sentinelagent.backend.application.telemetry.port.MetricHistoryStore;
+import com.sentinelagent.backend.domain.telemetry.MetricField;
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import com.sentinelagent.backend.infrastructure.persistence.entity.MetricChunkDocument;
+import com.sentinelagent.backend.infrastructure.persistence.repository.SpringDataMetricChunkRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+
+/**
+ * MongoDB implementation of the MetricHistoryStore port.
+ *
+ * Samples of each agent are encoded into an in-memory Gorilla chunk for the
+ * current fixed window (e.g. one hour). When the window rolls over the chunk
+ * is sealed and stored as a single Binary document, replacing one full BSON
+ * document per sample. Reads stream the overlapping chunks and decode them
+ * lazily, then include the still-open chunk.
+ *
+ * A chunk is identified by its agent and first sample, and is always written
+ * with an upsert on both: open chunks are checkpointed that way periodically,
+ * so a restart loses at most one interval and starts a new chunk instead of
+ * rewriting the same range. Sealed chunks are queued and stored by the same
+ * scheduled check rather than on the ingest thread, since every agent rolls
+ * over at once; one that fails to store stays queued and is written again
+ * without ever being stored twice. Reads include the queued chunks.
+ */
+@Slf4j
+@Component
+public class MongoMetricChunkStore implements MetricHistoryStore {
+
+    static final MetricField[] CHUNK_FIELDS = {
+            MetricField.CPU_USAGE,
+            MetricField.RAM_USED_PERCENT,
+            MetricField.DISK_USED_PERCENT,
+            MetricField.BYTES_SENT_SEC,
+            MetricField.BYTES_RECV_SEC
+    };
+
+    private static final List<String> CHUNK_FIELD_NAMES = Arrays.stream(CHUNK_FIELDS)
+            .map(MetricField::getPropertyName)
+            .toList();
+
+    // Sealed chunks waiting to be stored, beyond which the oldest are dropped
+    static final int MAX_UNSAVED_CHUNKS = 10_000;
+
+    private final SpringDataMetricChunkRepository chunkRepository;
+    private final MongoTemplate mongoTemplate;
+    private final long windowMillis;
+    private final Map<String, OpenChunk> openChunks = new ConcurrentHashMap<>();
+    private final BlockingQueue<ChunkWrite> unsavedChunks = new LinkedBlockingQueue<>(MAX_UNSAVED_CHUNKS);
+
+    public MongoMetricChunkStore(SpringDataMetricChunkRepository chunkRepository, MongoTemplate mongoTemplate,
+            @Value("${timeseries.chunk-window-minutes:60}") int windowMinutes) {
+        this.chunkRepository = chunkRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.windowMillis = windowMinutes * 60_000L;
+    }
+
+    @Override
+    public void append(MetricReport report) {
+        if (report.getAgentId() == null || report.getReceivedAt() == null) {
+            return;
+        }
+        long timestamp = toEpochMillis(report.getReceivedAt());
+        long windowStart = timestamp - Math.floorMod(timestamp, windowMillis);
+        double[] values = new double[CHUNK_FIELDS.length];
+        for (int i = 0; i < CHUNK_FIELDS.length; i++) {
+            values[i] = CHUNK_FIELDS[i].valueOf(report);
+        }
+
+        OpenChunk[] sealed = new OpenChunk[1];
+        openChunks.compute(report.getAgentId(), (agentId, chunk) -> {
+            if (chunk != null && windowStart > chunk.windowStart) {
+                sealed[0] = chunk;
+                chunk = null;
+            }
+            if (chunk == null) {
+                chunk = new OpenChunk(windowStart, new GorillaChunkEncoder(CHUNK_FIELDS.length));
+            }
+            chunk.encoder.append(timestamp, values);
+            return chunk;
+        });
+
+        if (sealed[0] != null) {
+            // Every agent rolls over at the same boundary, so the scheduled flush stores it
+            enqueue(write(report.getAgentId(), sealed[0]));
+        }
+    }
+
+    @Override
+    public boolean isArchived(MetricField field) {
+        return CHUNK_FIELD_NAMES.contains(field.getPropertyName());
+    }
+
+    @Override
+    public SampleCursor readRange(String agentId, MetricField field, long fromEpochMillis, long toEpochMillis) {
+        if (!isArchived(field)) {
+            throw new IllegalArgumentException("Field is not archived: " + field.getPropertyName());
+        }
+
+        // Sealed chunks not stored yet, then the open one
+        List<ChunkWrite> inMemory = new ArrayList<>();
+        unsavedChunks.forEach(chunk -> {
+            if (chunk.agentId().equals(agentId)) {
+                inMemory.add(chunk);
+            }
+        });
+        openChunks.computeIfPresent(agentId, (id, chunk) -> {
+            inMemory.add(write(id, chunk));
+            return chunk;
+        });
+
+        Stream<MetricChunkDocument> stored = chunkRepository.streamOverlapping(
+                agentId, toLocalDateTime(fromEpochMillis), toLocalDateTime(toEpochMillis));
+        if (!inMemory.isEmpty()) {
+            // A stored copy of a chunk still in memory is an older checkpoint or a retried write
+            Set<LocalDateTime> inMemoryStarts = new HashSet<>();
+            inMemory.forEach(chunk -> inMemoryStarts.add(toLocalDateTime(chunk.chunkStart())));
+            stored = stored.filter(chunk -> !inMemoryStarts.contains(chunk.getChunkStart()));
+        }
+        return new ChunkCursor(stored, inMemory.stream().map(ChunkWrite::data).toList(), field.getPropertyName(),
+                fromEpochMillis, toEpochMillis);
+    }
+
+    /**
+     * Store the sealed chunks (including those that failed before), checkpoint
+     * the open ones, and seal chunks of agents that stopped reporting once
+     * their window has ended
+     */
+    @Scheduled(fixedDelayString = "${timeseries.seal-check-interval-ms:60000}")
+    public void flushChunks() {
+        List<ChunkWrite> sealed = new ArrayList<>();
+        unsavedChunks.drainTo(sealed);
+        List<ChunkWrite> open = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (String agentId : openChunks.keySet()) {
+            openChunks.computeIfPresent(agentId, (id, chunk) -> {
+                boolean ended = chunk.windowStart + windowMillis <= now;
+                (ended ? sealed : open).add(write(id, chunk));
+                return ended ? null : chunk;
+            });
+        }
+        persist(sealed, true);
+        persist(open, false);
+    }
+
+    @PreDestroy
+    public void flush() {
+        List<ChunkWrite> chunks = new ArrayList<>();
+        unsavedChunks.drainTo(chunks);
+        openChunks.forEach((agentId, chunk) -> {
+            if (openChunks.remove(agentId, chunk)) {
+                chunks.add(write(agentId, chunk));
+            }
+        });
+        persist(chunks, true);
+        if (!unsavedChunks.isEmpty()) {
+            log.error("Shutting down with {} metric chunks not stored", unsavedChunks.size());
+        }
+    }
+
+    /**
+     * Upsert the chunks by agent and first sample, unless the stored copy has
+     * as many samples already (a late checkpoint must not truncate a sealed
+     * chunk). Sealed chunks that fail are queued for the next check; open ones
+     * are checkpointed again anyway.
+     */
+    private void persist(List<ChunkWrite> chunks, boolean sealed) {
+        if (chunks.isEmpty()) {
+            return;
+        }
+        List<Pair<Query, Update>> upserts = new ArrayList<>(chunks.size());
+        for (ChunkWrite chunk : chunks) {
+            upserts.add(Pair.of(
+                    Query.query(Criteria.where("agentId").is(chunk.agentId())
+                            .and("chunkStart").is(toLocalDateTime(chunk.chunkStart()))
+                            .and("sampleCount").lt(chunk.sampleCount())),
+                    new Update()
+                            .set("windowStart", toLocalDateTime(chunk.windowStart()))
+                            .set("windowEnd", toLocalDateTime(chunk.windowStart() + windowMillis))
+                            .set("sampleCount", chunk.sampleCount())
+                            .set("fields", CHUNK_FIELD_NAMES)
+                            .set("data", new Binary(chunk.data()))));
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MetricChunkDocument.class)
+                    .upsert(upserts)
+                    .execute();
+            log.debug("Stored {} {} metric chunks", chunks.size(), sealed ? "sealed" : "open");
+        } catch (BulkOperationException ex) {
+            // A duplicate key means the stored copy is at least as complete
+            List<BulkWriteError> failed = ex.getErrors().stream()
+                    .filter(error -> error.getCategory() != ErrorCategory.DUPLICATE_KEY)
+                    .toList();
+            if (failed.isEmpty()) {
+                return;
+            }
+            log.warn("Failed to store {} of {} metric chunks: {}", failed.size(), chunks.size(), ex.getMessage());
+            if (sealed) {
+                failed.forEach(error -> enqueue(chunks.get(error.getIndex())));
+            }
+        } catch (Exception ex) {
+            log.warn("Failed to store {} metric chunks: {}", chunks.size(), ex.getMessage());
+            if (sealed) {
+                chunks.forEach(this::enqueue);
+            }
+        }
+    }
+
+    private void enqueue(ChunkWrite chunk) {
+        while (!unsavedChunks.offer(chunk)) {
+            ChunkWrite dropped = unsavedChunks.poll();
+            if (dropped != null) {
+                log.error("Dropping unsaved metric chunk of agent {} ({} samples): too many chunks waiting to be stored",
+                        dropped.agentId(), dropped.sampleCount());
+            }
+        }
+    }
+
+    /**
+     * Snapshot of a chunk to store; the caller holds the chunk's map entry
+     */
+    private static ChunkWrite write(String agentId, OpenChunk chunk) {
+        return new ChunkWrite(agentId, chunk.windowStart, chunk.encoder.firstTimestamp(), chunk.encoder.sampleCount(),
+                chunk.encoder.finish());
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class OpenChunk {
+        private final long windowStart;
+        private final GorillaChunkEncoder encoder;
+
+        private OpenChunk(long windowStart, GorillaChunkEncoder encoder) {
+            this.windowStart = windowStart;
+            this.encoder = encoder;
+        }
+    }
+
+    private record ChunkWrite(String agentId, long windowStart, long chunkStart, int sampleCount, byte[] data) {
+    }
+
+    /**
+     * Walks the stored chunks, then those still in memory, decoding one sample at a time
+     */
+    private static final class ChunkCursor implements SampleCursor {
+
+        private final Stream<MetricChunkDocument> stored;
+        private final Iterator<MetricChunkDocument> storedChunks;
+        private final Iterator<byte[]> inMemoryChunks;
+        private final String fieldName;
+        private final long from;
+        private final long to;
+        private GorillaChunkDecoder decoder;
+        private int fieldIndex;
+
+        private ChunkCursor(Stream<MetricChunkDocument> stored, List<byte[]> inMemoryChunks, String fieldName,
+                long from, long to) {
+            this.stored = stored;
+            this.storedChunks = stored.iterator();
+            this.inMemoryChunks = inMemoryChunks.iterator();
+            this.fieldName = fieldName;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean next() {
+            while (true) {
+                if (decoder == null && !openNextChunk()) {
+                    return false;
+                }
+                while (decoder.next()) {
+                    long timestamp = decoder.timestamp();
+                    if (timestamp >= from && timestamp <= to) {
+                        return true;
+                    }
+                }
+                decoder = null;
+            }
+        }
+
+        @Override
+        public long timestamp() {
+            return decoder.timestamp();
+        }
+
+        @Override
+        public double value() {
+            return decoder.value(fieldIndex);
+        }
+
+        @Override
+        public void close() {
+            stored.close();
+        }
+
+        private boolean openNextChunk() {
+            while (storedChunks.hasNext()) {
+                MetricChunkDocument chunk = storedChunks.next();
+                // Older chunks may have been written with a different field layout
+                fieldIndex = chunk.getFields().indexOf(fieldName);
+                if (fieldIndex >= 0) {
+                    decoder = new GorillaChunkDecoder(chunk.getData().getData());
+                    return true;
+                }
+            }
+            if (inMemoryChunks.hasNext()) {
+                fieldIndex = CHUNK_FIELD_NAMES.indexOf(fieldName);
+                decoder = new GorillaChunkDecoder(inMemoryChunks.next());
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.sentinelagent.backend.infrastructure.timeseries;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.sentinelagent.backend.application.telemetry.dto.NetworkFlowDto;
+import com.sentinelagent.backend.application.telemetry.port.NetworkFlowStore;
+import com.sentinelagent.backend.domain.telemetry.CidrBlock;
+import com.sentinelagent.backend.domain.telemetry.IpAddress;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.infrastructure.persistence.entity.NetworkFlowDocument;
+import com.sentinelagent.backend.infrastructure.persistence.repository.SpringDataNetworkFlowRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Predicate;
+
+/**
+ * MongoDB implementation of the NetworkFlowStore port.
+ *
+ * Connections of each agent are counted into the flows of an in-memory
+ * window (e.g. one hour), keyed by process, remote address, remote port and
+ * state. The counts are flushed to 'network_flows' by a scheduled task, each
+ * flow with one upsert that adds to the stored record, so a connection that
+ * stays open for the whole window costs one record instead of one entry per
+ * report, and a window flushed in several steps or by several processes
+ * still has one record per flow. A window that rolls over is queued for the
+ * next flush rather than written on the ingest thread, as every agent rolls
+ * over at the same moment. Counts that fail to flush are kept and retried.
+ * Reads combine the stored records with the counts not flushed yet.
+ *
+ * Remote addresses are parsed once per flow and window and stored in numeric
+ * form as well, so address range queries are index range scans.
+ */
+@Slf4j
+@Component
+public class MongoNetworkFlowStore implements NetworkFlowStore {
+
+    // Sealed windows waiting for a flush, beyond which the oldest are dropped
+    static final int MAX_UNSAVED_WINDOWS = 10_000;
+
+    private final SpringDataNetworkFlowRepository flowRepository;
+    private final MongoTemplate mongoTemplate;
+    private final long windowMillis;
+    private final Map<String, OpenWindow> openWindows = new ConcurrentHashMap<>();
+    private final BlockingQueue<UnsavedWindow> unsavedWindows = new LinkedBlockingQueue<>(MAX_UNSAVED_WINDOWS);
+
+    public MongoNetworkFlowStore(SpringDataNetworkFlowRepository flowRepository, MongoTemplate mongoTemplate,
+            @Value("${telemetry.flows.window-minutes:60}") int windowMinutes) {
+        this.flowRepository = flowRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.windowMillis = windowMinutes * 60_000L;
+    }
+
+    @Override
+    public void append(String agentId, List<NetworkConnection> connections, LocalDateTime observedAt) {
+        if (agentId == null || observedAt == null || connections == null || connections.isEmpty()) {
+            return;
+        }
+        long timestamp = toEpochMillis(observedAt);
+        long windowStart = timestamp - Math.floorMod(timestamp, windowMillis);
+
+        OpenWindow[] sealed = new OpenWindow[1];
+        openWindows.compute(agentId, (id, window) -> {
+            if (window != null && windowStart > window.windowStart) {
+                sealed[0] = window;
+                window = null;
+            }
+            if (window == null) {
+                window = new OpenWindow(windowStart);
+            }
+            for (NetworkConnection connection : connections) {
+                FlowKey key = new FlowKey(connection.getProcessName(), connection.getRemoteAddress(),
+                        connection.getRemotePort(), connection.getStatus());
+                window.flows.computeIfAbsent(key, k -> new FlowCounter(IpAddress.parse(k.remoteAddress()), timestamp))
+                        .observe(timestamp);
+            }
+            return window;
+        });
+
+        if (sealed[0] != null) {
+            enqueue(agentId, sealed[0]);
+        }
+    }
+
+    @Override
+    public List<NetworkFlowDto> findFlows(String agentId, LocalDateTime from, LocalDateTime to, int limit) {
+        List<NetworkFlowDto> flows = new ArrayList<>();
+        for (NetworkFlowDocument document : flowRepository.findOverlapping(agentId, from, to,
+                PageRequest.of(0, limit))) {
+            flows.add(toDto(document));
+        }
+        addUnflushed(flows, agentId, toEpochMillis(from), toEpochMillis(to), counter -> true, limit);
+        return flows;
+    }
+
+    @Override
+    public List<NetworkFlowDto> findFlowsTo(CidrBlock block, LocalDateTime from, LocalDateTime to, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<NetworkFlowDocument> stored = block.isIpv4()
+                ? flowRepository.findIpv4Range(block.getFirst().getLow(), block.getLast().getLow(), from, to, page)
+                : flowRepository.findIpv6Range(sortable(block.getFirst().getHigh()), sortable(block.getLast().getHigh()),
+                        sortable(block.getFirst().getLow()), sortable(block.getLast().getLow()), from, to, page);
+        List<NetworkFlowDto> flows = new ArrayList<>(stored.size());
+        for (NetworkFlowDocument document : stored) {
+            flows.add(toDto(document));
+        }
+
+        long fromMillis = toEpochMillis(from);
+        long toMillis = toEpochMillis(to);
+        Set<String> agentIds = new LinkedHashSet<>(openWindows.keySet());
+        unsavedWindows.forEach(unsaved -> agentIds.add(unsaved.agentId()));
+        for (String agentId : agentIds) {
+            addUnflushed(flows, agentId, fromMillis, toMillis, counter -> block.contains(counter.remoteIp), limit);
+        }
+        return flows;
+    }
+
+    /**
+     * Add the counts of the agent's queued and open windows not flushed yet
+     */
+    private void addUnflushed(List<NetworkFlowDto> flows, String agentId, long fromMillis, long toMillis,
+            Predicate<FlowCounter> filter, int limit) {
+        // Queued windows are no longer written to, only flushed
+        for (UnsavedWindow unsaved : unsavedWindows) {
+            if (agentId.equals(unsaved.agentId())) {
+                addUnflushed(flows, agentId, unsaved.window(), fromMillis, toMillis, filter, limit);
+            }
+        }
+        openWindows.computeIfPresent(agentId, (id, window) -> {
+            addUnflushed(flows, agentId, window, fromMillis, toMillis, filter, limit);
+            return window;
+        });
+    }
+
+    /**
+     * Add the window's counts to the stored record of the same flow when
+     * there is one, as a flow of their own otherwise
+     */
+    private void addUnflushed(List<NetworkFlowDto> flows, String agentId, OpenWindow window, long fromMillis,
+            long toMillis, Predicate<FlowCounter> filter, int limit) {
+        if (window.windowStart > toMillis || window.windowStart + windowMillis <= fromMillis) {
+            return;
+        }
+        LocalDateTime windowStart = toLocalDateTime(window.windowStart);
+        Map<FlowKey, NetworkFlowDto> stored = new HashMap<>();
+        for (NetworkFlowDto flow : flows) {
+            if (agentId.equals(flow.getAgentId()) && windowStart.equals(flow.getWindowStart())) {
+                stored.put(new FlowKey(flow.getProcessName(), flow.getRemoteAddress(), flow.getRemotePort(),
+                        flow.getState()), flow);
+            }
+        }
+        window.flows.forEach((key, counter) -> {
+            if (!filter.test(counter)) {
+                return;
+            }
+            NetworkFlowDto flow = stored.get(key);
+            if (flow != null) {
+                flow.setObservations(flow.getObservations() + counter.observations);
+                flow.setFirstSeen(min(flow.getFirstSeen(), toLocalDateTime(counter.firstSeen)));
+                flow.setLastSeen(max(flow.getLastSeen(), toLocalDateTime(counter.lastSeen)));
+            } else if (flows.size() < limit) {
+                flows.add(toDto(toDocument(agentId, window, key, counter)));
+            }
+        });
+    }
+
+    /**
+     * Store the sealed windows and the ones that failed before, flush the
+     * counts of every open window, and drop windows of agents that stopped
+     * reporting once they have ended
+     */
+    @Scheduled(fixedDelayString = "${telemetry.flows.flush-interval-ms:60000}")
+    public void flushWindows() {
+        flushQueued();
+
+        long now = System.currentTimeMillis();
+        for (String agentId : openWindows.keySet()) {
+            OpenWindow[] flushed = new OpenWindow[1];
+            openWindows.computeIfPresent(agentId, (id, window) -> {
+                boolean ended = window.windowStart + windowMillis <= now;
+                if (window.flows.isEmpty()) {
+                    return ended ? null : window;
+                }
+                flushed[0] = window;
+                return ended ? null : new OpenWindow(window.windowStart);
+            });
+            if (flushed[0] != null) {
+                persist(agentId, flushed[0]);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        flushQueued();
+        openWindows.forEach((agentId, window) -> {
+            if (openWindows.remove(agentId, window)) {
+                persist(agentId, window);
+            }
+        });
+        int unsaved = unsavedWindows.size() + openWindows.size();
+        if (unsaved > 0) {
+            log.error("Shutting down with the flows of {} windows not stored", unsaved);
+        }
+    }
+
+    /**
+     * Store the windows queued so far once; the ones that fail again are queued for the next flush
+     */
+    private void flushQueued() {
+        for (int queued = unsavedWindows.size(); queued > 0; queued--) {
+            UnsavedWindow unsaved = unsavedWindows.poll();
+            if (unsaved == null) {
+                break;
+            }
+            persist(unsaved.agentId(), unsaved.window());
+        }
+    }
+
+    /**
+     * Add the window's counts to the stored flows. Whatever fails is handed back to be retried.
+     */
+    private void persist(String agentId, OpenWindow window) {
+        // The window has already been detached from openWindows, so no writer can touch it
+        List<Map.Entry<FlowKey, FlowCounter>> entries = new ArrayList<>(window.flows.entrySet());
+        List<Pair<Query, Update>> upserts = new ArrayList<>(entries.size());
+        for (Map.Entry<FlowKey, FlowCounter> entry : entries) {
+            upserts.add(Pair.of(flowQuery(agentId, window.windowStart, entry.getKey()),
+                    flowUpdate(window.windowStart, entry.getValue())));
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NetworkFlowDocument.class)
+                    .upsert(upserts)
+                    .execute();
+            log.debug("Flushed flow window for agent {}: {} flows", agentId, entries.size());
+        } catch (BulkOperationException ex) {
+            // Unordered, so only the failed upserts are retried
+            OpenWindow failed = new OpenWindow(window.windowStart);
+            for (BulkWriteError error : ex.getErrors()) {
+                Map.Entry<FlowKey, FlowCounter> entry = entries.get(error.getIndex());
+                failed.flows.put(entry.getKey(), entry.getValue());
+            }
+            log.warn("Failed to store {} of {} network flows for agent {}, will retry: {}",
+                    failed.flows.size(), entries.size(), agentId, ex.getMessage());
+            requeue(agentId, failed);
+        } catch (Exception ex) {
+            log.warn("Failed to store network flows for agent {}, will retry: {}", agentId, ex.getMessage());
+            requeue(agentId, window);
+        }
+    }
+
+    /**
+     * Merge counts that failed to flush back into the agent's open window of
+     * the same start, or queue them for the next flush if that window is gone
+     */
+    private void requeue(String agentId, OpenWindow failed) {
+        boolean[] merged = new boolean[1];
+        openWindows.compute(agentId, (id, window) -> {
+            if (window == null && failed.windowStart + windowMillis > System.currentTimeMillis()) {
+                merged[0] = true;
+                return failed;
+            }
+            if (window != null && window.windowStart == failed.windowStart) {
+                merged[0] = true;
+                failed.flows.forEach((key, counter) -> window.flows.merge(key, counter, FlowCounter::add));
+            }
+            return window;
+        });
+        if (!merged[0]) {
+            enqueue(agentId, failed);
+        }
+    }
+
+    /**
+     * Queue a window for the next flush, dropping the oldest queued one when full
+     */
+    private void enqueue(String agentId, OpenWindow window) {
+        while (!unsavedWindows.offer(new UnsavedWindow(agentId, window))) {
+            UnsavedWindow dropped = unsavedWindows.poll();
+            if (dropped != null) {
+                log.error("Dropping {} unsaved network flows of agent {}: too many windows waiting to be stored",
+                        dropped.window().flows.size(), dropped.agentId());
+            }
+        }
+    }
+
+    private Query flowQuery(String agentId, long windowStart, FlowKey key) {
+        return Query.query(Criteria.where("agentId").is(agentId)
+                .and("windowStart").is(toLocalDateTime(windowStart))
+                .and("processName").is(key.processName())
+                .and("remoteAddress").is(key.remoteAddress())
+                .and("remotePort").is(key.remotePort())
+                .and("state").is(key.state()));
+    }
+
+    private Update flowUpdate(long windowStart, FlowCounter counter) {
+        Update update = new Update()
+                .inc("observations", counter.observations)
+                .min("firstSeen", toLocalDateTime(counter.firstSeen))
+                .max("lastSeen", toLocalDateTime(counter.lastSeen))
+                .setOnInsert("windowEnd", toLocalDateTime(windowStart + windowMillis));
+        // Unset rather than null, so the partial address indexes skip the record
+        if (counter.remoteIp != null && counter.remoteIp.isIpv4()) {
+            update.setOnInsert("remoteIpv4", counter.remoteIp.getLow());
+        } else if (counter.remoteIp != null) {
+            update.setOnInsert("remoteIpv6High", sortable(counter.remoteIp.getHigh()))
+                    .setOnInsert("remoteIpv6Low", sortable(counter.remoteIp.getLow()));
+        }
+        return update;
+    }
+
+    private NetworkFlowDocument toDocument(String agentId, OpenWindow window, FlowKey key, FlowCounter counter) {
+        return NetworkFlowDocument.builder()
+                .agentId(agentId)
+                .windowStart(toLocalDateTime(window.windowStart))
+                .windowEnd(toLocalDateTime(window.windowStart + windowMillis))
+                .processName(key.processName())
+                .remoteAddress(key.remoteAddress())
+                .remotePort(key.remotePort())
+                .state(key.state())
+                .firstSeen(toLocalDateTime(counter.firstSeen))
+                .lastSeen(toLocalDateTime(counter.lastSeen))
+                .observations(counter.observations)
+                .remoteIpv4(counter.remoteIp != null && counter.remoteIp.isIpv4() ? counter.remoteIp.getLow() : null)
+                .remoteIpv6High(counter.remoteIp != null && !counter.remoteIp.isIpv4()
+                        ? sortable(counter.remoteIp.getHigh()) : null)
+                .remoteIpv6Low(counter.remoteIp != null && !counter.remoteIp.isIpv4()
+                        ? sortable(counter.remoteIp.getLow()) : null)
+                .build();
+    }
+
+    /**
+     * Unsigned 64-bit half as a long whose signed order is the unsigned order
+     */
+    private static long sortable(long half) {
+        return half ^ Long.MIN_VALUE;
+    }
+
+    private static NetworkFlowDto toDto(NetworkFlowDocument document) {
+        return NetworkFlowDto.builder()
+                .agentId(document.getAgentId())
+                .processName(document.getProcessName())
+                .remoteAddress(document.getRemoteAddress())
+                .remotePort(document.getRemotePort())
+                .state(document.getState())
+                .windowStart(document.getWindowStart())
+                .firstSeen(document.getFirstSeen())
+                .lastSeen(document.getLastSeen())
+                .observations(document.getObservations())
+                .build();
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a == null || b.isBefore(a) ? b : a;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private record FlowKey(String processName, String remoteAddress, int remotePort, String state) {
+    }
+
+    private static final class FlowCounter {
+        private final IpAddress remoteIp;
+        private long firstSeen;
+        private long lastSeen;
+        private int observations;
+
+        private FlowCounter(IpAddress remoteIp, long firstSeen) {
+            this.remoteIp = remoteIp;
+            this.firstSeen = firstSeen;
+        }
+
+        private void observe(long timestamp) {
+            lastSeen = timestamp;
+            observations++;
+        }
+
+        private FlowCounter add(FlowCounter other) {
+            firstSeen = Math.min(firstSeen, other.firstSeen);
+            lastSeen = Math.max(lastSeen, other.lastSeen);
+            observations += other.observations;
+            return this;
+        }
+    }
+
+    private record UnsavedWindow(String agentId, OpenWindow window) {
+    }
+
+    private static final class OpenWindow {
+        private final long windowStart;
+        private final Map<FlowKey, FlowCounter> flows = new LinkedHashMap<>();
+
+        private OpenWindow(long windowStart) {
+            this.windowStart = windowStart;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.sentinelagent.backend.application.agent;
+
+import com.sentinelagent.backend.application.agent.AgentReportingAdvisor.Recommendation;
+import com.sentinelagent.backend.application.agent.dto.ReportDetailLevel;
+import com.sentinelagent.backend.application.telemetry.IngestLoadShedder;
+import com.sentinelagent.backend.application.telemetry.port.ConsumerLagProbe;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AgentReportingAdvisorTest {
+
+	private final IngestLoadShedder shedder = new IngestLoadShedder(
+			() -> ConsumerLagProbe.UNKNOWN, true, 1000, 10000, 0.5, 10);
+
+	@Test
+	void suspiciousAgentReportsFasterThanQuietOne() {
+		AgentReportingAdvisor advisor = advisor(0);
+		advisor.observeMetrics("calm", 12.0, 40.0);
+		advisor.observeAnalysis("flagged", "{\"risk_level\": \"High\", \"threat_type\": \"C2\"}");
+
+		assertEquals(new Recommendation(30, ReportDetailLevel.FULL), advisor.recommend("calm"));
+		assertEquals(new Recommendation(5, ReportDetailLevel.FULL), advisor.recommend("flagged"));
+	}
+
+	@Test
+	void calmAgentsBackOffWhileIngestIsDegraded() {
+		AgentReportingAdvisor advisor = advisor(60);
+		advisor.observeMetrics("hot", 97.0, 50.0);
+		shedder.update(20000);
+
+		assertEquals(new Recommendation(40, ReportDetailLevel.METRICS), advisor.recommend("new"));
+		assertEquals(new Recommendation(5, ReportDetailLevel.FULL), advisor.recommend("hot"));
+	}
+
+	private AgentReportingAdvisor advisor(int quietAfterMinutes) {
+		return new AgentReportingAdvisor(shedder, 5, 10, 30, 120, 30, quietAfterMinutes, 90);
+	}
+}
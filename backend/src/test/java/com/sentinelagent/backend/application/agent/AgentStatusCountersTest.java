@@ -0,0 +1,43 @@
+package com.sentinelagent.backend.application.agent;
+
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentRepository;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AgentStatusCountersTest {
+
+	private final AgentRepository agentRepository = mock(AgentRepository.class);
+	private final AgentStatusCounters counters = new AgentStatusCounters(agentRepository);
+
+	@Test
+	void reconcileCorrectsDriftFromTheDatabase() {
+		counters.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-1"), null, AgentStatus.ACTIVE));
+		when(agentRepository.countAllByStatus()).thenReturn(Map.of(AgentStatus.ACTIVE, 3L, AgentStatus.REVOKED, 1L));
+
+		counters.reconcile();
+
+		assertEquals(3, counters.get(AgentStatus.ACTIVE));
+		assertEquals(1, counters.get(AgentStatus.REVOKED));
+	}
+
+	@Test
+	void transitionsCountedWhileReconcilingAreKept() {
+		when(agentRepository.countAllByStatus()).thenAnswer(invocation -> {
+			// Registered after the aggregation read the collection
+			counters.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-9"), null, AgentStatus.ACTIVE));
+			return Map.of(AgentStatus.ACTIVE, 5L);
+		});
+
+		counters.reconcile();
+
+		assertEquals(6, counters.get(AgentStatus.ACTIVE));
+	}
+}
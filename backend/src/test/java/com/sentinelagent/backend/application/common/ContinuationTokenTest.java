@@ -0,0 +1,33 @@
+package com.sentinelagent.backend.application.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ContinuationTokenTest {
+
+	@Test
+	void roundTripsKeyParts() {
+		String token = ContinuationToken.encode("2026-01-01T10:15:30.123", "65a0f1c2e4b0a1b2c3d4e5f6");
+
+		assertArrayEquals(new String[] { "2026-01-01T10:15:30.123", "65a0f1c2e4b0a1b2c3d4e5f6" },
+				ContinuationToken.decode(token, 2));
+	}
+
+	@Test
+	void rejectsGarbageAndWrongArity() {
+		assertThrows(InvalidContinuationTokenException.class, () -> ContinuationToken.decode("%%%", 1));
+		assertThrows(InvalidContinuationTokenException.class,
+				() -> ContinuationToken.decode(ContinuationToken.encode("a", "b"), 1));
+	}
+
+	@Test
+	void clampsPageSize() {
+		assertEquals(PageSize.DEFAULT, PageSize.normalize(null));
+		assertEquals(PageSize.DEFAULT, PageSize.normalize(0));
+		assertEquals(PageSize.MAX, PageSize.normalize(100_000));
+		assertEquals(10, PageSize.normalize(10));
+	}
+}
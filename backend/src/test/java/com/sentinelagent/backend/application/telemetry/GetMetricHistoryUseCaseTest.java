@@ -0,0 +1,47 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.port.MetricHistoryStore;
+import com.sentinelagent.backend.domain.telemetry.MetricField;
+import com.sentinelagent.backend.domain.telemetry.exception.InvalidMetricFieldException;
+import com.sentinelagent.backend.domain.telemetry.exception.InvalidTimeRangeException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GetMetricHistoryUseCaseTest {
+
+	private static final LocalDateTime FROM = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+	private final MetricHistoryStore store = mock(MetricHistoryStore.class);
+	private final GetMetricHistoryUseCase useCase = new GetMetricHistoryUseCase(store, 31);
+
+	@Test
+	void rangesThatAreReversedOrTooLongAreRejectedBeforeReading() {
+		when(store.isArchived(any())).thenReturn(true);
+		assertThrows(InvalidTimeRangeException.class,
+				() -> useCase.execute("agent-1", "cpuUsage", FROM, FROM.minusMinutes(1)));
+		assertThrows(InvalidTimeRangeException.class,
+				() -> useCase.execute("agent-1", "cpuUsage", FROM, FROM.plusDays(32)));
+
+		verify(store, never()).readRange(anyString(), any(), anyLong(), anyLong());
+	}
+
+	@Test
+	void fieldsWithoutHistoryAreRejected() {
+		when(store.isArchived(MetricField.RAM_TOTAL_MB)).thenReturn(false);
+
+		assertThrows(InvalidMetricFieldException.class,
+				() -> useCase.execute("agent-1", "ramTotalMb", FROM, FROM.plusHours(1)));
+		assertThrows(InvalidMetricFieldException.class,
+				() -> useCase.execute("agent-1", "cpuTemperature", FROM, FROM.plusHours(1)));
+	}
+}
@@ -0,0 +1,29 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.port.RecentMetricStore;
+import com.sentinelagent.backend.domain.telemetry.exception.InvalidMetricFieldException;
+import com.sentinelagent.backend.domain.telemetry.exception.InvalidTimeRangeException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class GetRecentMetricsUseCaseTest {
+
+	private final RecentMetricStore store = mock(RecentMetricStore.class);
+	private final GetRecentMetricsUseCase useCase = new GetRecentMetricsUseCase(store);
+
+	@Test
+	void unknownFieldsAndEmptyWindowsAreRejected() {
+		assertThrows(InvalidMetricFieldException.class, () -> useCase.execute("agent-1", "cpuTemperature", 60));
+		assertThrows(InvalidTimeRangeException.class, () -> useCase.execute("agent-1", "cpuUsage", 0));
+		assertThrows(InvalidTimeRangeException.class, () -> useCase.execute("agent-1", "cpuUsage", -5));
+
+		verify(store, never()).readRange(anyString(), any(), anyLong(), anyLong(), any(), any());
+	}
+}
@@ -0,0 +1,47 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.port.ConsumerLagProbe;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngestLoadShedderTest {
+
+	private final IngestLoadShedder shedder = new IngestLoadShedder(
+			() -> ConsumerLagProbe.UNKNOWN, true, 1000, 10000, 0.5, 3);
+
+	@Test
+	void modesDegradeWithLagAndRecoverWithHysteresis() {
+		shedder.update(1500);
+		assertEquals(IngestMode.METRICS_ONLY, shedder.mode());
+
+		shedder.update(800);
+		assertEquals(IngestMode.METRICS_ONLY, shedder.mode());
+
+		shedder.update(12000);
+		assertEquals(IngestMode.SAMPLED, shedder.mode());
+
+		shedder.update(6000);
+		assertEquals(IngestMode.SAMPLED, shedder.mode());
+
+		shedder.update(4000);
+		assertEquals(IngestMode.METRICS_ONLY, shedder.mode());
+
+		shedder.update(400);
+		assertEquals(IngestMode.FULL, shedder.mode());
+	}
+
+	@Test
+	void sampledModeKeepsOneReportInNPerAgent() {
+		assertTrue(shedder.keep(IngestMode.SAMPLED, "agent-1"));
+		assertFalse(shedder.keep(IngestMode.SAMPLED, "agent-1"));
+		assertTrue(shedder.keep(IngestMode.SAMPLED, "agent-2"));
+		assertFalse(shedder.keep(IngestMode.SAMPLED, "agent-1"));
+		assertTrue(shedder.keep(IngestMode.SAMPLED, "agent-1"));
+		assertTrue(shedder.keep(IngestMode.METRICS_ONLY, "agent-1"));
+
+		assertEquals(2, shedder.reportsShed());
+	}
+}
@@ -0,0 +1,98 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.dto.TelemetryData;
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import com.sentinelagent.backend.domain.telemetry.TelemetryChanges;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryChangeTrackerTest {
+
+	private final TelemetryChangeTracker tracker = new TelemetryChangeTracker();
+
+	@Test
+	void firstReportStartsEverything() {
+		TelemetryChanges changes = tracker.track(report(List.of(process(1, "init")), List.of(connection(1, 443))));
+
+		assertEquals(1, changes.getStartedProcesses().size());
+		assertEquals(1, changes.getOpenedConnections().size());
+		assertTrue(changes.getStoppedProcesses().isEmpty());
+	}
+
+	@Test
+	void consecutiveReportsYieldOnlyTheDifference() {
+		tracker.track(report(List.of(process(1, "init"), process(2, "sshd")), List.of(connection(2, 22))));
+
+		TelemetryChanges unchanged = tracker.track(
+				report(List.of(process(2, "sshd"), process(1, "init")), List.of(connection(2, 22))));
+		assertTrue(unchanged.isEmpty());
+
+		TelemetryChanges changes = tracker.track(
+				report(List.of(process(1, "init"), process(3, "nc")), List.of(connection(3, 4444))));
+		assertEquals(List.of("nc"), changes.getStartedProcesses().stream().map(Process::getName).toList());
+		assertEquals(List.of("sshd"), changes.getStoppedProcesses().stream().map(Process::getName).toList());
+		assertEquals(4444, changes.getOpenedConnections().get(0).getRemotePort());
+		assertEquals(22, changes.getClosedConnections().get(0).getRemotePort());
+		assertEquals(3 + 4, tracker.changesDerived());
+	}
+
+	@Test
+	void pidReusedByAnotherProgramIsANewProcess() {
+		tracker.track(report(List.of(process(7, "cron")), List.of()));
+
+		TelemetryChanges changes = tracker.track(report(List.of(process(7, "miner")), List.of()));
+
+		assertEquals("miner", changes.getStartedProcesses().get(0).getName());
+		assertEquals("cron", changes.getStoppedProcesses().get(0).getName());
+	}
+
+	@Test
+	void deletedAgentStartsOver() {
+		tracker.track(report(List.of(process(1, "init")), List.of()));
+
+		tracker.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-1"), AgentStatus.ACTIVE, null));
+
+		assertEquals(1, tracker.track(report(List.of(process(1, "init")), List.of())).getStartedProcesses().size());
+	}
+
+	@Test
+	void reportsWithoutListsLeaveTheStateAlone() {
+		tracker.track(report(List.of(process(1, "init")), List.of()));
+
+		TelemetryData metricsOnly = report(List.of(), List.of());
+		metricsOnly.setDetailsMissing(true);
+		assertNull(tracker.track(metricsOnly));
+
+		TelemetryData redelivered = report(List.of(), List.of());
+		redelivered.setRedelivered(true);
+		assertNull(tracker.track(redelivered));
+
+		assertTrue(tracker.track(report(List.of(process(1, "init")), List.of())).isEmpty());
+	}
+
+	private static TelemetryData report(List<Process> processes, List<NetworkConnection> connections) {
+		TelemetryData data = new TelemetryData();
+		data.setAgentId("agent-1");
+		data.setProcesses(processes);
+		data.setNetworkConnections(connections);
+		return data;
+	}
+
+	private static Process process(int pid, String name) {
+		return Process.builder().pid(pid).name(name).build();
+	}
+
+	private static NetworkConnection connection(int pid, int remotePort) {
+		return NetworkConnection.builder().pid(pid).localAddress("10.0.0.5").localPort(50000 + remotePort)
+				.remoteAddress("203.0.113.9").remotePort(remotePort).status("ESTABLISHED").build();
+	}
+}
@@ -0,0 +1,97 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.dto.TelemetryData;
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryDeduplicatorTest {
+
+	@Test
+	void reportsAlreadySeenAreDropped() {
+		TelemetryDeduplicator deduplicator = new TelemetryDeduplicator();
+
+		assertTrue(deduplicator.accept(report(1000, 1)));
+		assertTrue(deduplicator.accept(report(1000, 2)));
+		assertFalse(deduplicator.accept(report(1000, 2)));
+		assertFalse(deduplicator.accept(report(1000, 1)));
+		assertTrue(deduplicator.accept(report(1000, 3)));
+
+		assertEquals(2, deduplicator.duplicatesDropped());
+	}
+
+	@Test
+	void reportsResentAfterNewerOnesFillTheirGapOnce() {
+		TelemetryDeduplicator deduplicator = new TelemetryDeduplicator();
+		deduplicator.accept(report(1000, 1));
+		deduplicator.accept(report(1000, 2));
+
+		// 3 and 4 failed to send and come after 5
+		assertTrue(deduplicator.accept(report(1000, 5)));
+		assertTrue(deduplicator.accept(report(1000, 4)));
+		assertTrue(deduplicator.accept(report(1000, 3)));
+		assertFalse(deduplicator.accept(report(1000, 4)));
+		assertFalse(deduplicator.accept(report(1000, 2)));
+
+		assertEquals(2, deduplicator.duplicatesDropped());
+	}
+
+	@Test
+	void reportsBelowTheTrackedGapsAreLeftToTheStore() {
+		TelemetryDeduplicator deduplicator = new TelemetryDeduplicator();
+		deduplicator.accept(report(1000, 1));
+		deduplicator.accept(report(1000, 2 + TelemetryDeduplicator.MAX_GAPS + 10));
+
+		// Too far behind to know whether it was delivered
+		assertTrue(deduplicator.accept(report(1000, 5)));
+		assertTrue(deduplicator.accept(report(1000, 12)));
+		assertFalse(deduplicator.accept(report(1000, 12)));
+	}
+
+	@Test
+	void newEpochStartsOverAndOldEpochIsDropped() {
+		TelemetryDeduplicator deduplicator = new TelemetryDeduplicator();
+		deduplicator.accept(report(1000, 50));
+
+		assertTrue(deduplicator.accept(report(2000, 1)));
+		assertFalse(deduplicator.accept(report(1000, 51)));
+	}
+
+	@Test
+	void marksOfDeletedAgentsAreForgotten() {
+		TelemetryDeduplicator deduplicator = new TelemetryDeduplicator();
+		deduplicator.accept(report(1000, 5));
+
+		deduplicator.onStatusChanged(
+				new AgentStatusChangedEvent(AgentId.of("agent-1"), AgentStatus.REVOKED, AgentStatus.ACTIVE));
+		assertFalse(deduplicator.accept(report(1000, 5)));
+		deduplicator.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-1"), AgentStatus.ACTIVE, null));
+		assertTrue(deduplicator.accept(report(1000, 5)));
+	}
+
+	@Test
+	void redeliveredAndUnnumberedReportsAreLeftToTheStore() {
+		TelemetryDeduplicator deduplicator = new TelemetryDeduplicator();
+		deduplicator.accept(report(1000, 5));
+
+		TelemetryData retried = report(1000, 3);
+		retried.setRedelivered(true);
+		assertTrue(deduplicator.accept(retried));
+		assertTrue(deduplicator.accept(report(0, 0)));
+		assertTrue(deduplicator.accept(report(0, 0)));
+		assertEquals(0, deduplicator.duplicatesDropped());
+	}
+
+	private static TelemetryData report(long epoch, long sequence) {
+		return TelemetryData.builder()
+				.agentId("agent-1")
+				.sequenceEpoch(epoch)
+				.sequence(sequence)
+				.build();
+	}
+}
@@ -0,0 +1,155 @@
+package com.sentinelagent.backend.application.telemetry;
+
+import com.sentinelagent.backend.application.telemetry.dto.TelemetryData;
+import com.sentinelagent.backend.application.telemetry.dto.TelemetryData.MessageType;
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetrySnapshotCacheTest {
+
+	@Test
+	void deltaIsAppliedOnTopOfLastSnapshot() {
+		TelemetrySnapshotCache cache = new TelemetrySnapshotCache();
+		cache.resolve(TelemetryData.builder()
+				.agentId("agent-1")
+				.messageType(MessageType.FULL)
+				.sequence(1)
+				.processes(List.of(process(1, "init", 0.1), process(200, "nginx", 2.0)))
+				.networkConnections(List.of(connection(200, 443, "LISTEN")))
+				.build());
+
+		TelemetryData resolved = cache.resolve(TelemetryData.builder()
+				.agentId("agent-1")
+				.messageType(MessageType.DELTA)
+				.sequence(2)
+				.baseSequence(1)
+				.processes(List.of(process(200, "nginx", 9.5), process(300, "sshd", 0.0)))
+				.removedProcessPids(List.of(1))
+				.networkConnections(List.of(connection(300, 22, "ESTABLISHED")))
+				.removedConnections(List.of(connection(200, 443, null)))
+				.build());
+
+		assertEquals(List.of(200, 300), resolved.getProcesses().stream().map(Process::getPid).toList());
+		assertEquals(9.5, resolved.getProcesses().get(0).getCpuUsage());
+		assertEquals(1, resolved.getNetworkConnections().size());
+		assertEquals(22, resolved.getNetworkConnections().get(0).getLocalPort());
+		assertFalse(cache.consumeResyncRequest("agent-1"));
+	}
+
+	@Test
+	void sequenceGapRequestsResyncOnce() {
+		TelemetrySnapshotCache cache = new TelemetrySnapshotCache();
+		cache.resolve(TelemetryData.builder()
+				.agentId("agent-1")
+				.sequence(5)
+				.processes(List.of(process(1, "init", 0.1)))
+				.build());
+
+		TelemetryData resolved = cache.resolve(TelemetryData.builder()
+				.agentId("agent-1")
+				.messageType(MessageType.DELTA)
+				.sequence(8)
+				.baseSequence(7)
+				.processes(List.of(process(2, "kthreadd", 0.0)))
+				.build());
+
+		assertTrue(resolved.getProcesses().isEmpty());
+		assertTrue(cache.consumeResyncRequest("agent-1"));
+		assertFalse(cache.consumeResyncRequest("agent-1"));
+	}
+
+	@Test
+	void deletedAgentIsForgotten() {
+		TelemetrySnapshotCache cache = new TelemetrySnapshotCache();
+		cache.resolve(TelemetryData.builder()
+				.agentId("agent-1")
+				.messageType(MessageType.DELTA)
+				.sequence(3)
+				.baseSequence(2)
+				.build());
+		cache.resolve(TelemetryData.builder()
+				.agentId("agent-2")
+				.messageType(MessageType.FULL)
+				.sequence(1)
+				.processes(List.of(process(1, "init", 0.1)))
+				.build());
+
+		cache.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-1"), AgentStatus.ACTIVE, null));
+		cache.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-2"), AgentStatus.ACTIVE, null));
+
+		assertFalse(cache.consumeResyncRequest("agent-1"));
+		TelemetryData resolved = cache.resolve(TelemetryData.builder()
+				.agentId("agent-2")
+				.messageType(MessageType.DELTA)
+				.sequence(2)
+				.baseSequence(1)
+				.build());
+		assertTrue(resolved.isDetailsMissing());
+	}
+
+	@Test
+	void unsequencedTelemetryPassesThrough() {
+		TelemetrySnapshotCache cache = new TelemetrySnapshotCache();
+		TelemetryData legacy = TelemetryData.builder()
+				.agentId("agent-1")
+				.processes(List.of(process(1, "init", 0.1)))
+				.build();
+
+		assertEquals(legacy, cache.resolve(legacy));
+		assertFalse(cache.consumeResyncRequest("agent-1"));
+	}
+
+	@Test
+	void redeliveredMessagesLeaveTheSnapshotAlone() {
+		TelemetrySnapshotCache cache = new TelemetrySnapshotCache();
+		cache.resolve(TelemetryData.builder()
+				.agentId("agent-1")
+				.sequence(10)
+				.processes(List.of(process(1, "init", 0.1)))
+				.build());
+
+		TelemetryData lateDelta = cache.resolve(TelemetryData.builder()
+				.agentId("agent-1")
+				.messageType(MessageType.DELTA)
+				.sequence(4)
+				.baseSequence(3)
+				.processes(List.of(process(2, "kthreadd", 0.0)))
+				.redelivered(true)
+				.build());
+		TelemetryData next = cache.resolve(TelemetryData.builder()
+				.agentId("agent-1")
+				.messageType(MessageType.DELTA)
+				.sequence(11)
+				.baseSequence(10)
+				.build());
+
+		assertTrue(lateDelta.getProcesses().isEmpty());
+		assertEquals(List.of(1), next.getProcesses().stream().map(Process::getPid).toList());
+		assertFalse(cache.consumeResyncRequest("agent-1"));
+	}
+
+	private static Process process(int pid, String name, double cpu) {
+		return Process.builder().pid(pid).name(name).cpuUsage(cpu).username("root").build();
+	}
+
+	private static NetworkConnection connection(int pid, int localPort, String status) {
+		return NetworkConnection.builder()
+				.pid(pid)
+				.localAddress("10.0.0.5")
+				.localPort(localPort)
+				.remoteAddress("0.0.0.0")
+				.remotePort(0)
+				.status(status)
+				.build();
+	}
+}
@@ -0,0 +1,101 @@
+package com.sentinelagent.backend.application.telemetry.filter;
+
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TelemetryFilterChainTest {
+
+	private final TelemetryFilterChain chain = new TelemetryFilterChain(true, "LISTEN,TIME_WAIT", true, true,
+			"10.0.0.0/8", 2, 100, "forensic-1");
+
+	@Test
+	void connectionsAreCollapsedByStateAndAddressClass() {
+		List<NetworkConnection> connections = List.of(
+				connection("0.0.0.0", "LISTEN"),
+				connection("93.184.216.34", "TIME_WAIT"),
+				connection("127.0.0.1", "ESTABLISHED"),
+				connection("::1", "ESTABLISHED"),
+				connection("::ffff:169.254.1.1", "ESTABLISHED"),
+				connection("10.1.2.3", "ESTABLISHED"),
+				connection("93.184.216.34", "ESTABLISHED"));
+
+		FilteredTelemetry filtered = chain.apply("agent-1", List.of(), connections);
+
+		assertEquals(1, filtered.getConnections().size());
+		assertEquals("93.184.216.34", filtered.getConnections().get(0).getRemoteAddress());
+		assertEquals(Map.of("state:LISTEN", 1, "state:TIME_WAIT", 1, "loopback", 2, "link-local", 1, "local", 1),
+				filtered.getOmittedConnections());
+		assertEquals(7, connections.size());
+	}
+
+	@Test
+	void idleKnownProcessesBeyondTopKAreCounted() {
+		List<Process> first = List.of(process("a", 50), process("b", 40), process("c", 1), process("d", 2));
+		// First report: every name is new, so nothing is dropped
+		assertEquals(4, chain.apply("agent-1", first, List.of()).getProcesses().size());
+
+		List<Process> second = List.of(process("a", 50), process("b", 40), process("c", 1), process("d", 2),
+				process("e", 0.5));
+		FilteredTelemetry filtered = chain.apply("agent-1", second, List.of());
+
+		assertEquals(List.of("a", "b", "e"), filtered.getProcesses().stream().map(Process::getName).toList());
+		assertEquals(2, filtered.getOmittedProcesses());
+		assertEquals(3.0, filtered.getOmittedProcessCpu(), 1e-9);
+	}
+
+	@Test
+	void processNamesOfDeletedAgentsAreForgotten() {
+		List<Process> processes = List.of(process("a", 50), process("b", 40), process("c", 1));
+		chain.apply("agent-1", processes, List.of());
+		assertEquals(2, chain.apply("agent-1", processes, List.of()).getProcesses().size());
+
+		chain.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-1"), AgentStatus.ACTIVE, null));
+
+		assertEquals(3, chain.apply("agent-1", processes, List.of()).getProcesses().size());
+	}
+
+	@Test
+	void bypassedAgentsAreStoredUnfiltered() {
+		List<NetworkConnection> connections = new ArrayList<>(List.of(connection("127.0.0.1", "LISTEN")));
+
+		assertSame(connections, chain.apply("forensic-1", List.of(), connections).getConnections());
+
+		chain.bypass("agent-2");
+		assertEquals(1, chain.apply("agent-2", List.of(), connections).getConnections().size());
+		chain.restore("agent-2");
+		assertEquals(0, chain.apply("agent-2", List.of(), connections).getConnections().size());
+	}
+
+	@Test
+	void statsCountRemovedEntriesPerFilter() {
+		chain.apply("agent-1", List.of(), List.of(connection("0.0.0.0", "LISTEN"), connection("127.0.0.1", "ESTABLISHED"),
+				connection("8.8.8.8", "ESTABLISHED")));
+
+		List<TelemetryFilterChain.FilterStats> stats = chain.stats();
+		assertEquals(List.of("connection-state", "connection-address", "top-processes"),
+				stats.stream().map(TelemetryFilterChain.FilterStats::filter).toList());
+		assertEquals(3, stats.get(0).examined());
+		assertEquals(1, stats.get(0).removed());
+		assertEquals(2, stats.get(1).examined());
+		assertEquals(1, stats.get(1).removed());
+	}
+
+	private static NetworkConnection connection(String remoteAddress, String status) {
+		return NetworkConnection.builder().remoteAddress(remoteAddress).status(status).build();
+	}
+
+	private static Process process(String name, double cpu) {
+		return Process.builder().name(name).cpuUsage(cpu).build();
+	}
+}
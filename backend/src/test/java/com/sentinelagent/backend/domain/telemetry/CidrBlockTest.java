@@ -0,0 +1,59 @@
+package com.sentinelagent.backend.domain.telemetry;
+
+import com.sentinelagent.backend.domain.telemetry.exception.InvalidCidrBlockException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CidrBlockTest {
+
+	@Test
+	void ipv4BlockSpansItsNetwork() {
+		CidrBlock block = CidrBlock.parse("203.0.113.77/24");
+
+		assertEquals(0xCB007100L, block.getFirst().getLow());
+		assertEquals(0xCB0071FFL, block.getLast().getLow());
+		assertTrue(block.contains(IpAddress.parse("203.0.113.255")));
+		assertTrue(block.contains(IpAddress.parse("::ffff:203.0.113.9")));
+		assertFalse(block.contains(IpAddress.parse("203.0.114.0")));
+		assertFalse(block.contains(IpAddress.parse("2001:db8::1")));
+	}
+
+	@Test
+	void ipv6BlocksSplitAcrossBothHalves() {
+		CidrBlock wide = CidrBlock.parse("2001:db8::/32");
+		assertEquals(0x20010DB800000000L, wide.getFirst().getHigh());
+		assertEquals(0L, wide.getFirst().getLow());
+		assertEquals(0x20010DB8FFFFFFFFL, wide.getLast().getHigh());
+		assertEquals(-1L, wide.getLast().getLow());
+		assertTrue(wide.contains(IpAddress.parse("2001:db8:ffff::1")));
+
+		CidrBlock narrow = CidrBlock.parse("2001:db8::8000:0:0/97");
+		assertEquals(narrow.getFirst().getHigh(), narrow.getLast().getHigh());
+		assertTrue(narrow.contains(IpAddress.parse("2001:db8::8000:0:1")));
+		assertFalse(narrow.contains(IpAddress.parse("2001:db8::1")));
+
+		assertTrue(CidrBlock.parse("fe80::/10").contains(IpAddress.parse("fe80::1%eth0")));
+	}
+
+	@Test
+	void bareAddressIsASingleHost() {
+		CidrBlock host = CidrBlock.parse("::1");
+
+		assertEquals(host.getFirst(), host.getLast());
+		assertTrue(host.contains(IpAddress.parse("0:0:0:0:0:0:0:1")));
+	}
+
+	@Test
+	void hostNamesAndMalformedBlocksAreRejected() {
+		assertNull(IpAddress.parse("example.com"));
+		assertNull(IpAddress.parse("256.1.1.1"));
+		assertThrows(InvalidCidrBlockException.class, () -> CidrBlock.parse("10.0.0.0/33"));
+		assertThrows(InvalidCidrBlockException.class, () -> CidrBlock.parse("localhost/8"));
+		assertThrows(InvalidCidrBlockException.class, () -> CidrBlock.parse("10.0.0.0/x"));
+	}
+}
@@ -0,0 +1,72 @@
+package com.sentinelagent.backend.infrastructure.bitmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotBitmapTest {
+
+	@Test
+	void addRemoveAndContainsAcrossSparseAndDenseForms() {
+		SlotBitmap bitmap = new SlotBitmap();
+		assertTrue(bitmap.add(5000));
+		assertFalse(bitmap.add(5000));
+		for (int slot = 0; slot < 1000; slot++) {
+			bitmap.add(slot);
+		}
+		assertEquals(1001, bitmap.cardinality());
+		assertTrue(bitmap.contains(999));
+		assertTrue(bitmap.contains(5000));
+		assertFalse(bitmap.contains(1000));
+
+		for (int slot = 0; slot < 1000; slot++) {
+			assertTrue(bitmap.remove(slot));
+		}
+		assertFalse(bitmap.remove(1));
+		assertArrayEquals(new int[]{5000}, bitmap.toArray());
+	}
+
+	@Test
+	void setOperationsMatchBitSet() {
+		Random random = new Random(42);
+		for (int round = 0; round < 50; round++) {
+			BitSet expectedA = new BitSet();
+			BitSet expectedB = new BitSet();
+			SlotBitmap a = new SlotBitmap();
+			SlotBitmap b = new SlotBitmap();
+			// Mix sparse and dense operands
+			int countA = random.nextBoolean() ? 20 : 3000;
+			int countB = random.nextBoolean() ? 20 : 3000;
+			for (int i = 0; i < countA; i++) {
+				int slot = random.nextInt(8000);
+				expectedA.set(slot);
+				a.add(slot);
+			}
+			for (int i = 0; i < countB; i++) {
+				int slot = random.nextInt(8000);
+				expectedB.set(slot);
+				b.add(slot);
+			}
+
+			BitSet and = (BitSet) expectedA.clone();
+			and.and(expectedB);
+			assertArrayEquals(and.stream().toArray(), SlotBitmap.and(a, b).toArray());
+			assertEquals(and.cardinality(), SlotBitmap.andCardinality(a, b));
+
+			BitSet or = (BitSet) expectedA.clone();
+			or.or(expectedB);
+			assertArrayEquals(or.stream().toArray(), SlotBitmap.or(a, b).toArray());
+
+			BitSet andNot = (BitSet) expectedA.clone();
+			andNot.andNot(expectedB);
+			assertArrayEquals(andNot.stream().toArray(), SlotBitmap.andNot(a, b).toArray());
+			assertEquals(andNot.cardinality(), SlotBitmap.andNot(a, b).cardinality());
+		}
+	}
+}
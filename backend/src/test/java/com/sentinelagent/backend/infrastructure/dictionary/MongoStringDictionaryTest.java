@@ -0,0 +1,114 @@
+package com.sentinelagent.backend.infrastructure.dictionary;
+
+import com.sentinelagent.backend.application.telemetry.port.StringDictionary;
+import com.sentinelagent.backend.infrastructure.persistence.entity.DictionaryEntryDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MongoStringDictionaryTest {
+
+	@Test
+	void assignsStableDenseCodes() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		MongoStringDictionary dictionary = new MongoStringDictionary(mongoTemplate, 100);
+
+		int chrome = dictionary.encode("chrome");
+		int svchost = dictionary.encode("svchost.exe");
+
+		assertEquals(0, chrome);
+		assertEquals(1, svchost);
+		assertEquals(chrome, dictionary.encode(new String("chrome")));
+		assertEquals("svchost.exe", dictionary.decode(svchost));
+		verify(mongoTemplate, times(2)).insert(any(DictionaryEntryDocument.class));
+	}
+
+	@Test
+	void internReturnsCanonicalInstance() {
+		MongoStringDictionary dictionary = new MongoStringDictionary(mock(MongoTemplate.class), 100);
+
+		String first = dictionary.intern(new String("ESTABLISHED"));
+		String second = dictionary.intern(new String("ESTABLISHED"));
+
+		assertSame(first, second);
+	}
+
+	@Test
+	void loadsPersistedTableAndSkipsCodesTakenByAnotherInstance() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.find(any(Query.class), eq(DictionaryEntryDocument.class)))
+				.thenReturn(List.of(new DictionaryEntryDocument(0, "root")))
+				.thenReturn(List.of(new DictionaryEntryDocument(1, "nginx")));
+		when(mongoTemplate.insert(new DictionaryEntryDocument(1, "sshd")))
+				.thenThrow(new DuplicateKeyException("code 1 taken"));
+
+		MongoStringDictionary dictionary = new MongoStringDictionary(mongoTemplate, 100);
+		dictionary.load();
+
+		assertEquals(0, dictionary.encode("root"));
+		assertEquals(2, dictionary.encode("sshd"));
+		assertEquals("nginx", dictionary.decode(1));
+	}
+
+	@Test
+	void fullDictionaryLeavesValuesUnencoded() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		MongoStringDictionary dictionary = new MongoStringDictionary(mongoTemplate, 1);
+
+		dictionary.encode("bash");
+		String unique = new String("tmp-8f3a");
+
+		assertEquals(StringDictionary.NO_CODE, dictionary.encode(unique));
+		assertSame(unique, dictionary.intern(unique));
+		assertNull(dictionary.decode(StringDictionary.NO_CODE));
+		// Once full, unknown values are not even tried
+		dictionary.encode("tmp-41c2");
+		verify(mongoTemplate, times(1)).insert(any(DictionaryEntryDocument.class));
+	}
+
+	@Test
+	void assigningGivesUpAfterBoundedAttempts() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.insert(any(DictionaryEntryDocument.class)))
+				.thenThrow(new DuplicateKeyException("code taken"));
+		MongoStringDictionary dictionary = new MongoStringDictionary(mongoTemplate, 100);
+
+		assertEquals(StringDictionary.NO_CODE, dictionary.encode("contended"));
+		verify(mongoTemplate, times(5)).insert(any(DictionaryEntryDocument.class));
+	}
+
+	@Test
+	void concurrentEncodesOfANewValueInsertItOnce() throws Exception {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		MongoStringDictionary dictionary = new MongoStringDictionary(mongoTemplate, 100);
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+
+		List<Future<Integer>> codes = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			codes.add(threads.submit(() -> dictionary.encode("powershell.exe")));
+		}
+		for (Future<Integer> code : codes) {
+			assertEquals(0, code.get(5, TimeUnit.SECONDS));
+		}
+		threads.shutdown();
+		verify(mongoTemplate, times(1)).insert(any(DictionaryEntryDocument.class));
+	}
+}
@@ -0,0 +1,69 @@
+package com.sentinelagent.backend.infrastructure.hotstore;
+
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import com.sentinelagent.backend.domain.telemetry.TelemetryChanges;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AgentSlotRegistryTest {
+
+	private final AgentSlotRegistry registry = new AgentSlotRegistry(2);
+
+	@Test
+	void agentsThatFindNoFreeSlotAreNotRemembered() {
+		assertEquals(0, registry.slotOf("agent-1"));
+		assertEquals(1, registry.slotOf("agent-2"));
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(AgentSlotRegistry.NO_SLOT, registry.slotOf("spoofed-" + i));
+		}
+		assertEquals(AgentSlotRegistry.NO_SLOT, registry.lookup("spoofed-0"));
+
+		// Once a slot is free, an agent turned away before gets it
+		registry.release("agent-1");
+		assertEquals(0, registry.slotOf("spoofed-0"));
+		assertEquals("spoofed-0", registry.agentAt(0));
+	}
+
+	@Test
+	void deletedAgentsReleaseTheirSlotAndRevokedOnesKeepIt() {
+		List<Integer> released = new ArrayList<>();
+		registry.addReleaseListener(released::add);
+		registry.slotOf("agent-1");
+		registry.slotOf("agent-2");
+
+		registry.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-1"), AgentStatus.ACTIVE, AgentStatus.REVOKED));
+		assertEquals(0, registry.lookup("agent-1"));
+
+		registry.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-1"), AgentStatus.REVOKED, null));
+		assertEquals(AgentSlotRegistry.NO_SLOT, registry.lookup("agent-1"));
+		assertNull(registry.agentAt(0));
+		assertEquals(List.of(0), released);
+
+		// Cleared again right before it is reused
+		assertEquals(0, registry.slotOf("agent-3"));
+		assertEquals(List.of(0, 0), released);
+	}
+
+	@Test
+	void aReusedSlotCarriesNothingOfItsPreviousAgent() {
+		AgentSlotRegistry single = new AgentSlotRegistry(1);
+		BitmapProcessIndex processIndex = new BitmapProcessIndex(single, 10);
+		Process sshd = Process.builder().pid(3).name("sshd").build();
+		processIndex.apply("agent-1", List.of(sshd), TelemetryChanges.builder().startedProcesses(List.of(sshd)).build(),
+				true);
+
+		single.release("agent-1");
+		assertEquals(0, single.slotOf("agent-2"));
+
+		assertEquals(List.of(), processIndex.agentsRunning("sshd"));
+	}
+}
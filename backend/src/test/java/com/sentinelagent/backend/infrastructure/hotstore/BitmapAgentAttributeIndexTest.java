@@ -0,0 +1,146 @@
+package com.sentinelagent.backend.infrastructure.hotstore;
+
+import com.sentinelagent.backend.application.agent.dto.AgentFilter;
+import com.sentinelagent.backend.application.agent.dto.AgentSearchDto;
+import com.sentinelagent.backend.domain.agent.Agent;
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentRepository;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import com.sentinelagent.backend.domain.agent.exception.InvalidAgentStatusException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BitmapAgentAttributeIndexTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+	private static final long NOW_MILLIS = NOW.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+	private final BitmapAgentAttributeIndex index =
+			new BitmapAgentAttributeIndex(new AgentSlotRegistry(16), mock(AgentRepository.class));
+
+	@Test
+	void filtersAreOrWithinAnAttributeAndAndAcrossAttributes() {
+		index.rebuild(List.of(
+				agent("a1", AgentStatus.ACTIVE, "Linux", "1.4.0", 1),
+				agent("a2", AgentStatus.ACTIVE, "Windows", "1.4.0", 3),
+				agent("a3", AgentStatus.INACTIVE, "Linux", "1.3.2", 90),
+				agent("a4", AgentStatus.ACTIVE, "macOS", "1.4.0", 2)));
+
+		AgentSearchDto result = search(AgentFilter.builder()
+				.statuses(List.of("active"))
+				.operatingSystems(List.of("Linux", "Windows"))
+				.build());
+
+		assertEquals(2, result.getTotal());
+		assertEquals(List.of("a1", "a2"), result.getAgentIds());
+		assertEquals(Map.of("ACTIVE", 2), result.getStatus());
+		assertEquals(Map.of("Linux", 1, "Windows", 1), result.getOperatingSystem());
+		assertEquals(Map.of("1.4.0", 2), result.getAgentVersion());
+
+		AgentSearchDto recent = search(AgentFilter.builder().seenWithinMinutes(2).build());
+		assertEquals(List.of("a1", "a4"), recent.getAgentIds());
+	}
+
+	@Test
+	void facetsCountEveryMatchingAgentIncludingHeartbeatRecency() {
+		index.rebuild(List.of(
+				agent("a1", AgentStatus.ACTIVE, "Linux", "1.4.0", 1),
+				agent("a2", AgentStatus.ACTIVE, "Linux", "1.4.0", 10),
+				agent("a3", AgentStatus.INACTIVE, null, "1.3.2", 90),
+				agent("a4", AgentStatus.REVOKED, "Linux", "1.3.2", 3000)));
+
+		AgentSearchDto result = search(new AgentFilter());
+
+		assertEquals(4, result.getTotal());
+		assertEquals(Map.of("ACTIVE", 2, "INACTIVE", 1, "REVOKED", 1), result.getStatus());
+		assertEquals(Map.of("Linux", 3, BitmapAgentAttributeIndex.UNKNOWN, 1), result.getOperatingSystem());
+		assertEquals(Map.of("5m", 1, "15m", 2, "1h", 2, "24h", 3, "older", 1), result.getLastHeartbeat());
+	}
+
+	@Test
+	void heartbeatsAndStatusEventsMoveAnAgentBetweenBitmaps() {
+		Agent agent = agent("a1", AgentStatus.INACTIVE, "Linux", "1.3.2", 120);
+		index.index(agent);
+
+		agent.setStatus(AgentStatus.ACTIVE);
+		agent.setAgentVersion("1.4.0");
+		agent.setLastHeartbeat(NOW);
+		index.index(agent);
+
+		AgentSearchDto result = search(new AgentFilter());
+		assertEquals(Map.of("ACTIVE", 1), result.getStatus());
+		assertEquals(Map.of("1.4.0", 1), result.getAgentVersion());
+		assertEquals(1, result.getLastHeartbeat().get("5m"));
+
+		index.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("a1"), AgentStatus.ACTIVE, AgentStatus.REVOKED));
+		assertEquals(Map.of("REVOKED", 1), search(new AgentFilter()).getStatus());
+		assertEquals(0, search(AgentFilter.builder().statuses(List.of("ACTIVE")).build()).getTotal());
+
+		index.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("a1"), AgentStatus.REVOKED, null));
+		assertEquals(0, search(new AgentFilter()).getTotal());
+	}
+
+	@Test
+	void statusFilterIsCaseInsensitiveInAnyLocaleAndRejectsUnknownStatuses() {
+		index.rebuild(List.of(agent("a1", AgentStatus.ACTIVE, "Linux", "1.4.0", 1)));
+		Locale defaultLocale = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+		try {
+			assertEquals(1, search(AgentFilter.builder().statuses(List.of("active")).build()).getTotal());
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+
+		assertThrows(InvalidAgentStatusException.class,
+				() -> search(AgentFilter.builder().statuses(List.of("sleeping")).build()));
+	}
+
+	@Test
+	void updatesWhileAReloadReadsTheDatabaseAreKept() {
+		AgentRepository repository = mock(AgentRepository.class);
+		BitmapAgentAttributeIndex reloading = new BitmapAgentAttributeIndex(new AgentSlotRegistry(16), repository);
+		Agent stale = agent("a1", AgentStatus.ACTIVE, "Linux", "1.3.2", 1);
+		when(repository.findAll()).thenAnswer(invocation -> {
+			// A heartbeat lands after the snapshot was read
+			reloading.index(agent("a1", AgentStatus.ACTIVE, "Linux", "1.4.0", 0));
+			return List.of(stale, agent("a2", AgentStatus.INACTIVE, "Windows", "1.3.2", 30));
+		});
+
+		reloading.reload();
+
+		AgentSearchDto result = reloading.search(new AgentFilter(), 50, NOW_MILLIS);
+		assertEquals(List.of("a1", "a2"), result.getAgentIds());
+		assertEquals(Map.of("1.4.0", 1, "1.3.2", 1), result.getAgentVersion());
+
+		// Without new updates the next reload takes the database as it is
+		when(repository.findAll()).thenReturn(List.of(stale));
+		reloading.reload();
+		assertEquals(Map.of("1.3.2", 1), reloading.search(new AgentFilter(), 50, NOW_MILLIS).getAgentVersion());
+	}
+
+	private AgentSearchDto search(AgentFilter filter) {
+		return index.search(filter, 50, NOW_MILLIS);
+	}
+
+	private static Agent agent(String id, AgentStatus status, String os, String version, int minutesSinceHeartbeat) {
+		return Agent.builder()
+				.id(AgentId.of(id))
+				.hostname(id + ".example.org")
+				.status(status)
+				.operatingSystem(os)
+				.agentVersion(version)
+				.lastHeartbeat(NOW.minusMinutes(minutesSinceHeartbeat))
+				.build();
+	}
+}
@@ -0,0 +1,111 @@
+package com.sentinelagent.backend.infrastructure.hotstore;
+
+import com.sentinelagent.backend.domain.agent.AgentId;
+import com.sentinelagent.backend.domain.agent.AgentStatus;
+import com.sentinelagent.backend.domain.agent.AgentStatusChangedEvent;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import com.sentinelagent.backend.domain.telemetry.TelemetryChanges;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BitmapProcessIndexTest {
+
+	private final BitmapProcessIndex index = new BitmapProcessIndex(new AgentSlotRegistry(16), 10);
+
+	@Test
+	void namesAreIndexedUntilTheirLastProcessStops() {
+		Process nginx1 = process(1, "nginx");
+		Process nginx2 = process(2, "nginx");
+		Process nginx7 = process(7, "/usr/sbin/NGINX");
+		index.apply("agent-1", List.of(nginx1, nginx2), started(nginx1, nginx2), false);
+		index.apply("agent-2", List.of(nginx7), started(nginx7), false);
+
+		assertEquals(List.of("agent-1", "agent-2"), index.agentsRunning("nginx"));
+
+		index.apply("agent-1", List.of(nginx2), stopped(nginx1), false);
+		assertEquals(List.of("agent-1", "agent-2"), index.agentsRunning("Nginx"));
+
+		index.apply("agent-1", List.of(), stopped(nginx2), false);
+		assertEquals(List.of("agent-2"), index.agentsRunning("nginx"));
+
+		index.apply("agent-2", List.of(), stopped(nginx7), false);
+		assertEquals(List.of(), index.agentsRunning("nginx"));
+	}
+
+	@Test
+	void windowsPathsAndExeSuffixAreNormalized() {
+		Process cmd = process(4, "C:\\Windows\\System32\\CMD.EXE");
+		index.apply("agent-1", List.of(cmd), started(cmd), false);
+
+		assertEquals(List.of("agent-1"), index.agentsRunning("cmd.exe"));
+		assertEquals(List.of("agent-1"), index.agentsRunning("cmd"));
+	}
+
+	@Test
+	void stoppingAnUnknownProcessIsIgnored() {
+		index.apply("agent-1", List.of(), started(), false);
+		index.apply("agent-1", List.of(), stopped(process(9, "ghost")), false);
+
+		assertEquals(List.of(), index.agentsRunning("ghost"));
+	}
+
+	@Test
+	void agentsThatAreNoLongerActiveAreDropped() {
+		Process sshd = process(3, "sshd");
+		index.apply("agent-1", List.of(sshd), started(sshd), false);
+		index.apply("agent-2", List.of(sshd), started(sshd), false);
+		index.apply("agent-3", List.of(sshd), started(sshd), false);
+
+		index.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-1"), AgentStatus.ACTIVE, AgentStatus.INACTIVE));
+		index.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-2"), AgentStatus.ACTIVE, AgentStatus.REVOKED));
+		assertEquals(List.of("agent-3"), index.agentsRunning("sshd"));
+
+		index.onStatusChanged(new AgentStatusChangedEvent(AgentId.of("agent-3"), AgentStatus.ACTIVE, null));
+		assertEquals(List.of(), index.agentsRunning("sshd"));
+
+		// A reactivated agent's next report indexes all of its processes, not just the changes
+		index.apply("agent-1", List.of(sshd), started(), false);
+		assertEquals(List.of("agent-1"), index.agentsRunning("sshd"));
+	}
+
+	@Test
+	void agentsThatStopReportingAreDroppedAfterTheTimeout() {
+		Process sshd = process(3, "sshd");
+		index.apply("agent-1", List.of(sshd), started(sshd), false);
+		long now = System.currentTimeMillis();
+
+		index.dropSilentAgents(now + 9 * 60_000L);
+		assertEquals(List.of("agent-1"), index.agentsRunning("sshd"));
+
+		index.dropSilentAgents(now + 11 * 60_000L);
+		assertEquals(List.of(), index.agentsRunning("sshd"));
+	}
+
+	@Test
+	void fullReportsReplaceWhatTheChangesMissed() {
+		Process sshd = process(3, "sshd");
+		Process cron = process(5, "cron");
+		index.apply("agent-1", List.of(sshd), started(sshd), false);
+
+		// Changes lost while the report was not analyzed are corrected by the next snapshot
+		index.apply("agent-1", List.of(cron), started(), true);
+
+		assertEquals(List.of(), index.agentsRunning("sshd"));
+		assertEquals(List.of("agent-1"), index.agentsRunning("cron"));
+	}
+
+	private static TelemetryChanges started(Process... processes) {
+		return TelemetryChanges.builder().startedProcesses(List.of(processes)).build();
+	}
+
+	private static TelemetryChanges stopped(Process... processes) {
+		return TelemetryChanges.builder().stoppedProcesses(List.of(processes)).build();
+	}
+
+	private static Process process(int pid, String name) {
+		return Process.builder().pid(pid).name(name).build();
+	}
+}
@@ -0,0 +1,57 @@
+package com.sentinelagent.backend.infrastructure.hotstore;
+
+import com.sentinelagent.backend.application.hunting.port.RemoteEndpointIndex.Contact;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BucketedRemoteEndpointIndexTest {
+
+	private static final long MINUTE = 60_000L;
+
+	private final BucketedRemoteEndpointIndex index =
+			new BucketedRemoteEndpointIndex(new AgentSlotRegistry(16), 60, 5);
+
+	@Test
+	void pivotsFromAnAddressToEveryAgentAndProcess() {
+		long now = System.currentTimeMillis();
+		index.record("agent-1", List.of(connection("curl", "203.0.113.9", 443)), now - 10 * MINUTE);
+		index.record("agent-1", List.of(connection("curl", "203.0.113.9", 443)), now - MINUTE);
+		index.record("agent-2", List.of(connection("powershell.exe", "::ffff:203.0.113.9", 8443),
+				connection("chrome", "198.51.100.1", 443)), now - 2 * MINUTE);
+
+		List<Contact> contacts = index.contacts("203.0.113.9");
+
+		assertEquals(List.of(new Contact("agent-1", "curl", now - MINUTE),
+				new Contact("agent-2", "powershell.exe", now - 2 * MINUTE)), contacts);
+	}
+
+	@Test
+	void contactsExpireWithTheirBucket() {
+		long now = System.currentTimeMillis();
+		index.record("agent-1", List.of(connection("nc", "198.51.100.7", 4444)), now - 2 * 60 * MINUTE);
+		index.record("agent-2", List.of(connection("nc", "198.51.100.7", 4444)), now - 65 * MINUTE);
+
+		assertEquals(List.of(), index.contacts("198.51.100.7"));
+
+		index.record("agent-3", List.of(connection("nc", "198.51.100.7", 4444)), now);
+		assertEquals(1, index.contacts("198.51.100.7").size());
+	}
+
+	@Test
+	void listeningSocketsAndNonLiteralsAreIgnored() {
+		long now = System.currentTimeMillis();
+		index.record("agent-1", List.of(connection("sshd", "0.0.0.0", 0), connection("x", "*", 0)), now);
+
+		assertEquals(List.of(), index.contacts("0.0.0.0"));
+		assertEquals(List.of(), index.contacts("not-an-ip"));
+	}
+
+	private static NetworkConnection connection(String process, String remote, int port) {
+		return NetworkConnection.builder().processName(process).remoteAddress(remote).remotePort(port)
+				.status("ESTABLISHED").build();
+	}
+}
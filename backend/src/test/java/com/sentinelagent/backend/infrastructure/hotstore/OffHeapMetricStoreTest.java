@@ -0,0 +1,54 @@
+package com.sentinelagent.backend.infrastructure.hotstore;
+
+import com.sentinelagent.backend.domain.telemetry.MetricField;
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OffHeapMetricStoreTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+	@Test
+	void keepsOnlyTheLastSamplesInOrder() {
+		OffHeapMetricStore store = new OffHeapMetricStore(new AgentSlotRegistry(4), 3);
+		for (int i = 0; i < 5; i++) {
+			store.append(MetricReport.builder()
+					.agentId("agent-1")
+					.cpuUsage(i * 10.0)
+					.bytesSentSec(i * 100L)
+					.receivedAt(START.plusSeconds(i * 10L))
+					.build());
+		}
+
+		long[] timestamps = new long[8];
+		double[] values = new double[8];
+		int count = store.readRange("agent-1", MetricField.CPU_USAGE, 0, Long.MAX_VALUE, timestamps, values);
+
+		assertEquals(3, count);
+		assertEquals(20.0, values[0]);
+		assertEquals(40.0, values[2]);
+		assertEquals(millis(START.plusSeconds(20)), timestamps[0]);
+
+		count = store.readRange("agent-1", MetricField.BYTES_SENT_SEC, millis(START.plusSeconds(30)), Long.MAX_VALUE,
+				timestamps, values);
+		assertEquals(2, count);
+		assertEquals(300.0, values[0]);
+	}
+
+	@Test
+	void unknownAgentReadsNothing() {
+		OffHeapMetricStore store = new OffHeapMetricStore(new AgentSlotRegistry(4), 3);
+
+		assertEquals(0, store.readRange("missing", MetricField.CPU_USAGE, 0, Long.MAX_VALUE, new long[1],
+				new double[1]));
+	}
+
+	private static long millis(LocalDateTime time) {
+		return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+}
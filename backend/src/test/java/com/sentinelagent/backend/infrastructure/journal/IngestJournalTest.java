@@ -0,0 +1,136 @@
+package com.sentinelagent.backend.infrastructure.journal;
+
+import com.sentinelagent.backend.infrastructure.journal.IngestJournal.JournalBatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IngestJournalTest {
+
+	private static final int SEGMENT_BYTES = 40;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void entriesAreReadInOrderAcrossSegments() throws Exception {
+		try (IngestJournal journal = new IngestJournal(directory, SEGMENT_BYTES, 8, true)) {
+			journal.append(entries("report-1", "report-2", "report-3", "report-4", "report-5"));
+
+			JournalBatch first = journal.read(journal.checkpoint(), 3);
+			JournalBatch rest = journal.read(first.next(), 10);
+
+			assertEquals(List.of("report-1", "report-2", "report-3"), strings(first));
+			assertEquals(List.of("report-4", "report-5"), strings(rest));
+			assertEquals(3, journal.segmentCount());
+		}
+	}
+
+	@Test
+	void checkpointDeletesFlushedSegmentsAndRestartResumesThere() throws Exception {
+		JournalPosition flushed;
+		try (IngestJournal journal = new IngestJournal(directory, SEGMENT_BYTES, 8, true)) {
+			journal.append(entries("report-1", "report-2", "report-3", "report-4", "report-5"));
+			flushed = journal.read(journal.checkpoint(), 3).next();
+			journal.checkpoint(flushed);
+			assertEquals(2, journal.segmentCount());
+		}
+
+		try (IngestJournal reopened = new IngestJournal(directory, SEGMENT_BYTES, 8, true)) {
+			assertEquals(flushed, reopened.checkpoint());
+			reopened.append(entries("report-6"));
+			assertEquals(List.of("report-4", "report-5", "report-6"),
+					strings(reopened.read(reopened.checkpoint(), 10)));
+		}
+	}
+
+	@Test
+	void tornEntryAtTheEndIsDiscardedOnRestart() throws Exception {
+		try (IngestJournal journal = new IngestJournal(directory, SEGMENT_BYTES, 8, true)) {
+			journal.append(entries("report-1", "report-2"));
+		}
+		// Corrupt the payload of the second entry, as a crash in the middle of the write would
+		try (RandomAccessFile file = new RandomAccessFile(
+				directory.resolve(String.format("%020d.journal", 0)).toFile(), "rw")) {
+			file.seek(JournalSegment.ENTRY_HEADER_BYTES * 2 + "report-1".length() + 1);
+			file.write('X');
+		}
+
+		try (IngestJournal reopened = new IngestJournal(directory, SEGMENT_BYTES, 8, true)) {
+			reopened.append(entries("report-3"));
+			assertEquals(List.of("report-1", "report-3"), strings(reopened.read(reopened.checkpoint(), 10)));
+		}
+	}
+
+	@Test
+	void appendFailsWhenAllSegmentsAreUnflushed() throws Exception {
+		try (IngestJournal journal = new IngestJournal(directory, SEGMENT_BYTES, 2, false)) {
+			assertThrows(IllegalStateException.class,
+					() -> journal.append(entries("report-1", "report-2", "report-3", "report-4", "report-5")));
+		}
+	}
+
+	@Test
+	void concurrentAppendsAreAllDurableAndReadable() throws Exception {
+		try (IngestJournal journal = new IngestJournal(directory, 4096, 64, true)) {
+			ExecutorService writers = Executors.newFixedThreadPool(8);
+			List<Future<?>> appends = new ArrayList<>();
+			for (int writer = 0; writer < 8; writer++) {
+				int id = writer;
+				appends.add(writers.submit(() -> {
+					for (int i = 0; i < 50; i++) {
+						journal.append(entries("w" + id + "-" + i));
+					}
+				}));
+			}
+			for (Future<?> append : appends) {
+				append.get(10, TimeUnit.SECONDS);
+			}
+			writers.shutdown();
+
+			List<String> read = strings(journal.read(journal.checkpoint(), 1000));
+			assertEquals(400, read.size());
+			assertEquals(400, new HashSet<>(read).size());
+		}
+	}
+
+	@Test
+	void checkpointIsReplacedWithoutLeavingItsTemporaryFile() throws Exception {
+		JournalPosition flushed;
+		try (IngestJournal journal = new IngestJournal(directory, SEGMENT_BYTES, 8, true)) {
+			journal.append(entries("report-1", "report-2"));
+			journal.checkpoint(journal.read(journal.checkpoint(), 1).next());
+			flushed = journal.read(journal.checkpoint(), 1).next();
+			journal.checkpoint(flushed);
+		}
+
+		assertFalse(Files.exists(directory.resolve("checkpoint.tmp")));
+		try (IngestJournal reopened = new IngestJournal(directory, SEGMENT_BYTES, 8, true)) {
+			assertEquals(flushed, reopened.checkpoint());
+		}
+	}
+
+	private static List<byte[]> entries(String... values) {
+		return Arrays.stream(values).map(v -> v.getBytes(StandardCharsets.UTF_8)).toList();
+	}
+
+	private static List<String> strings(JournalBatch batch) {
+		return batch.entries().stream().map(e -> new String(e, StandardCharsets.UTF_8)).toList();
+	}
+}
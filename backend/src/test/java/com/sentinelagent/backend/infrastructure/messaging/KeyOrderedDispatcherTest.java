@@ -0,0 +1,74 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyOrderedDispatcherTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private final KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher(executor);
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void tasksOfOneKeyRunInSubmissionOrderEvenAfterFailures() throws Exception {
+		List<Integer> order = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> gate = new CompletableFuture<>();
+
+		CompletableFuture<Integer> first = dispatcher.submit("agent-1", () -> gate.thenApply(ignored -> {
+			order.add(1);
+			throw new IllegalStateException("storage down");
+		}));
+		CompletableFuture<Integer> second = dispatcher.submit("agent-1", () -> {
+			order.add(2);
+			return CompletableFuture.completedFuture(2);
+		});
+
+		assertFalse(second.isDone());
+		gate.complete(null);
+
+		assertEquals(2, second.get(5, TimeUnit.SECONDS));
+		assertTrue(first.isCompletedExceptionally());
+		assertEquals(List.of(1, 2), order);
+	}
+
+	@Test
+	void differentKeysDoNotWaitForEachOther() throws Exception {
+		CompletableFuture<Void> blocked = dispatcher.submit("agent-1", CompletableFuture::new);
+		CountDownLatch ran = new CountDownLatch(1);
+
+		dispatcher.submit("agent-2", () -> {
+			ran.countDown();
+			return CompletableFuture.completedFuture(null);
+		});
+
+		assertTrue(ran.await(5, TimeUnit.SECONDS));
+		assertFalse(blocked.isDone());
+	}
+
+	@Test
+	void completedKeysHoldNoState() throws Exception {
+		dispatcher.submit("agent-1", () -> CompletableFuture.completedFuture(1)).get(5, TimeUnit.SECONDS);
+		dispatcher.submit(null, () -> CompletableFuture.completedFuture(2)).get(5, TimeUnit.SECONDS);
+
+		for (int i = 0; i < 50 && dispatcher.activeKeys() > 0; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, dispatcher.activeKeys());
+	}
+}
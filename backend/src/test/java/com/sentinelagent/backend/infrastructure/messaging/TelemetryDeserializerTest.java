@@ -0,0 +1,102 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+import com.sentinelagent.backend.application.telemetry.dto.TelemetryData;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryDeserializerTest {
+
+	private final TelemetryDeserializer deserializer = new TelemetryDeserializer();
+
+	@Test
+	void readsGoAgentReportAndSkipsUnknownFields() {
+		String json = """
+				{"agentId":"agent-1","apiKey":"k","hostname":"web-01","osVersion":"ubuntu 22.04",
+				 "cpuUsage":12.5,"ramUsedPercent":40.0,"ramTotalMb":16000,"ramUsedMb":6400,
+				 "diskUsedPercent":55.5,"diskTotalGb":512,"bytesSentSec":1000,"bytesRecvSec":2000,
+				 "processes":[{"pid":42,"name":"nginx","cpu":3.5,"memPercent":1.2,"username":"www","status":"S"}],
+				 "networkConnections":[{"pid":42,"localAddress":"10.0.0.5","localPort":443,
+				   "remoteAddress":"203.0.113.9","remotePort":51000,"processName":"nginx",
+				   "status":"ESTABLISHED","protocol":1}],
+				 "timestamp":"2026-01-01T00:00:00Z","uptimeSeconds":3600}
+				""";
+
+		TelemetryData data = deserialize(json);
+
+		assertEquals("agent-1", data.getAgentId());
+		assertEquals(16000, data.getRamTotalMb());
+		assertEquals(512, data.getDiskTotalGb());
+		assertEquals(TelemetryData.MessageType.FULL, data.getMessageType());
+		assertEquals("nginx", data.getProcesses().get(0).getName());
+		assertEquals(3.5, data.getProcesses().get(0).getCpuUsage());
+		assertEquals("203.0.113.9", data.getNetworkConnections().get(0).getRemoteAddress());
+		assertEquals(51000, data.getNetworkConnections().get(0).getRemotePort());
+	}
+
+	@Test
+	void readsSnakeCaseFieldsAndDeltaMessages() {
+		String json = """
+				{"agentId":"agent-1","ram_total_mb":8000,"messageType":"DELTA","sequence":7,"baseSequence":6,
+				 "processes":null,
+				 "networkConnections":[{"pid":1,"local_address":"::1","local_port":22,"remote_address":"::1",
+				   "remote_port":40000,"process_name":"sshd","status":"ESTABLISHED"}],
+				 "removedProcessPids":[10,11],
+				 "removedConnections":[{"pid":2,"localAddress":"10.0.0.5","localPort":80}]}
+				""";
+
+		TelemetryData data = deserialize(json);
+
+		assertEquals(8000, data.getRamTotalMb());
+		assertEquals(TelemetryData.MessageType.DELTA, data.getMessageType());
+		assertEquals(7, data.getSequence());
+		assertEquals(6, data.getBaseSequence());
+		assertNull(data.getProcesses());
+		assertEquals("sshd", data.getNetworkConnections().get(0).getProcessName());
+		assertEquals(List.of(10, 11), data.getRemovedProcessPids());
+		assertEquals(80, data.getRemovedConnections().get(0).getLocalPort());
+	}
+
+	@Test
+	void envelopeReportsAreBoundToTheEnvelopeCredentials() {
+		String json = """
+				{"agentId":"agent-1","apiKey":"k1","reports":[
+				 {"hostname":"web-01","cpuUsage":10.0,"sequence":1},
+				 {"agentId":"agent-2","apiKey":"forged","hostname":"web-01","cpuUsage":20.0,"sequence":2,
+				  "messageType":"DELTA","baseSequence":1}]}
+				""";
+
+		TelemetryData envelope = deserialize(json);
+		List<TelemetryData> reports = envelope.unpack();
+
+		assertTrue(envelope.isEnvelope());
+		assertEquals(2, reports.size());
+		assertEquals(10.0, reports.get(0).getCpuUsage());
+		assertEquals(TelemetryData.MessageType.DELTA, reports.get(1).getMessageType());
+		for (TelemetryData report : reports) {
+			assertEquals("agent-1", report.getAgentId());
+			assertEquals("k1", report.getApiKey());
+		}
+
+		TelemetryData single = deserialize("{\"agentId\":\"agent-1\"}");
+		assertEquals(List.of(single), single.unpack());
+	}
+
+	@Test
+	void malformedPayloadFailsWithSerializationException() {
+		assertThrows(SerializationException.class, () -> deserialize("[1,2,3]"));
+		assertThrows(SerializationException.class, () -> deserialize("{\"processes\":{\"pid\":1}}"));
+		assertThrows(SerializationException.class, () -> deserialize("{\"agentId\":"));
+	}
+
+	private TelemetryData deserialize(String json) {
+		return deserializer.deserialize("agent-data", json.getBytes(StandardCharsets.UTF_8));
+	}
+}
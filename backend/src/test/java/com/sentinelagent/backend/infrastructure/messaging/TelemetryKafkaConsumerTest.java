@@ -0,0 +1,66 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+import com.sentinelagent.backend.application.agent.AgentReportingAdvisor;
+import com.sentinelagent.backend.application.security.AnalyzeSecurityUseCase;
+import com.sentinelagent.backend.application.telemetry.IngestLoadShedder;
+import com.sentinelagent.backend.application.telemetry.SaveTelemetryUseCase;
+import com.sentinelagent.backend.application.telemetry.ValidateTelemetryUseCase;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class TelemetryKafkaConsumerTest {
+
+	private final TelemetryRetryRouter retryRouter = mock(TelemetryRetryRouter.class);
+	private final Acknowledgment acknowledgment = mock(Acknowledgment.class);
+	private final TelemetryKafkaConsumer consumer = new TelemetryKafkaConsumer(
+			mock(ValidateTelemetryUseCase.class), mock(SaveTelemetryUseCase.class),
+			mock(AnalyzeSecurityUseCase.class), retryRouter, mock(IngestLoadShedder.class),
+			mock(AgentReportingAdvisor.class), Runnable::run, Runnable::run, 10, 10);
+
+	@AfterEach
+	void close() {
+		consumer.close();
+	}
+
+	@Test
+	void recordIsNotAcknowledgedWhileItCannotBeHandedOver() throws Exception {
+		doReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+				.when(retryRouter).route(any(), any(), anyBoolean());
+
+		consumer.onMessage(malformedRecord(), acknowledgment);
+
+		verify(retryRouter, timeout(1000).atLeast(3)).route(any(), any(), anyBoolean());
+		verify(acknowledgment, never()).acknowledge();
+	}
+
+	@Test
+	void recordIsAcknowledgedOnceAHandOverRetrySucceeds() throws Exception {
+		doReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")),
+				CompletableFuture.completedFuture(null))
+				.when(retryRouter).route(any(), any(), anyBoolean());
+
+		consumer.onMessage(malformedRecord(), acknowledgment);
+
+		verify(acknowledgment, timeout(1000)).acknowledge();
+		verify(retryRouter, atLeast(2)).route(any(), any(), anyBoolean());
+	}
+
+	private static ConsumerRecord<String, byte[]> malformedRecord() {
+		return new ConsumerRecord<>(TelemetryTopics.MAIN, 0, 42L, "agent-1",
+				"{\"agentId\":".getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,118 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+import com.sentinelagent.backend.domain.agent.exception.InvalidAgentCredentialsException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TelemetryRetryRouterTest {
+
+	private static final byte[] PAYLOAD = {(byte) 0xa1, 0x01, 0x61, 0x61};
+
+	@SuppressWarnings("unchecked")
+	private final KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+	private final TelemetryRetryRouter router = new TelemetryRetryRouter(kafkaTemplate, 5000, 5);
+
+	@BeforeEach
+	void acceptSends() {
+		when(kafkaTemplate.send(ArgumentMatchers.<ProducerRecord<String, byte[]>>any())).thenReturn(CompletableFuture.completedFuture(null));
+	}
+
+	@Test
+	void transientFailureMovesToTheNextRetryLevelWithTheOriginalRecord() {
+		ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(TelemetryTopics.MAIN, 2, 41L, "agent-1", PAYLOAD);
+		record.headers().add(TelemetryWireFormat.CONTENT_TYPE_HEADER, "application/cbor".getBytes(StandardCharsets.US_ASCII));
+		long before = System.currentTimeMillis();
+
+		router.route(record, new CompletionException(new IllegalStateException("mongo timeout")), false);
+
+		ProducerRecord<String, byte[]> sent = sent();
+		assertEquals(TelemetryTopics.retry(1), sent.topic());
+		assertEquals("agent-1", sent.key());
+		assertArrayEquals(PAYLOAD, sent.value());
+		Headers headers = sent.headers();
+		assertEquals("application/cbor", header(headers, TelemetryWireFormat.CONTENT_TYPE_HEADER));
+		assertEquals("1", header(headers, TelemetryRetryRouter.ATTEMPT_HEADER));
+		assertEquals(TelemetryTopics.MAIN, header(headers, TelemetryRetryRouter.ORIGINAL_TOPIC_HEADER));
+		assertEquals("41", header(headers, TelemetryRetryRouter.ORIGINAL_OFFSET_HEADER));
+		assertEquals(IllegalStateException.class.getName(), header(headers, TelemetryRetryRouter.EXCEPTION_HEADER));
+		assertEquals("mongo timeout", header(headers, TelemetryRetryRouter.EXCEPTION_MESSAGE_HEADER));
+		assertTrue(Long.parseLong(header(headers, TelemetryRetryRouter.DUE_AT_HEADER)) >= before + 5000);
+		assertNull(header(headers, TelemetryRetryRouter.STORED_HEADER));
+	}
+
+	@Test
+	void exhaustedRetriesEndOnTheDeadLetterTopicKeepingTheFirstOrigin() {
+		ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(TelemetryTopics.retry(3), 0, 7L, "agent-1", PAYLOAD);
+		TelemetryRetryRouter.put(record.headers(), TelemetryRetryRouter.ATTEMPT_HEADER, "3");
+		TelemetryRetryRouter.put(record.headers(), TelemetryRetryRouter.ORIGINAL_OFFSET_HEADER, "41");
+		TelemetryRetryRouter.put(record.headers(), TelemetryRetryRouter.ORIGINAL_TOPIC_HEADER, TelemetryTopics.MAIN);
+		TelemetryRetryRouter.put(record.headers(), TelemetryRetryRouter.DUE_AT_HEADER, "1");
+
+		router.route(record, new RuntimeException("llm unavailable"), true);
+
+		Headers headers = sent().headers();
+		assertEquals(TelemetryTopics.DEAD_LETTER, sent().topic());
+		assertEquals("4", header(headers, TelemetryRetryRouter.ATTEMPT_HEADER));
+		assertEquals("41", header(headers, TelemetryRetryRouter.ORIGINAL_OFFSET_HEADER));
+		assertEquals("true", header(headers, TelemetryRetryRouter.STORED_HEADER));
+		assertNull(header(headers, TelemetryRetryRouter.DUE_AT_HEADER));
+	}
+
+	@Test
+	void credentialFailuresAreNotRetried() {
+		ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(TelemetryTopics.MAIN, 0, 1L, "agent-1", PAYLOAD);
+
+		router.route(record, new InvalidAgentCredentialsException(), false);
+
+		assertEquals(TelemetryTopics.DEAD_LETTER, sent().topic());
+	}
+
+	@Test
+	void delaysGrowExponentially() {
+		assertEquals(5_000, router.delayMs(1));
+		assertEquals(25_000, router.delayMs(2));
+		assertEquals(125_000, router.delayMs(3));
+	}
+
+	@Test
+	void redeliveryIsReadFromTheHeaders() {
+		ConsumerRecord<String, byte[]> fresh = new ConsumerRecord<>(TelemetryTopics.MAIN, 0, 1L, "agent-1", PAYLOAD);
+		ConsumerRecord<String, byte[]> replayed = new ConsumerRecord<>(TelemetryTopics.MAIN, 0, 2L, "agent-1", PAYLOAD);
+		TelemetryRetryRouter.put(replayed.headers(), TelemetryRetryRouter.REPLAYED_HEADER, "true");
+
+		assertFalse(TelemetryRetryRouter.isRedelivered(fresh));
+		assertTrue(TelemetryRetryRouter.isRedelivered(replayed));
+		assertEquals(0, TelemetryRetryRouter.attemptOf(replayed));
+	}
+
+	@SuppressWarnings("unchecked")
+	private ProducerRecord<String, byte[]> sent() {
+		ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+		verify(kafkaTemplate).send(captor.capture());
+		return captor.getValue();
+	}
+
+	private static String header(Headers headers, String key) {
+		return TelemetryRetryRouter.header(headers, key);
+	}
+}
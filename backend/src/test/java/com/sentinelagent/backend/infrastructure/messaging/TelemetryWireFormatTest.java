@@ -0,0 +1,156 @@
+package com.sentinelagent.backend.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.sentinelagent.backend.application.telemetry.dto.TelemetryData;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryWireFormatTest {
+
+	private final TelemetryDeserializer deserializer = new TelemetryDeserializer();
+
+	@Test
+	void contentTypeHeaderSelectsTheFormat() {
+		assertEquals(TelemetryWireFormat.JSON, TelemetryWireFormat.of(new RecordHeaders()));
+		assertEquals(TelemetryWireFormat.CBOR, TelemetryWireFormat.of(headers("application/cbor")));
+		assertEquals(TelemetryWireFormat.JSON, TelemetryWireFormat.of(headers("application/json")));
+		assertThrows(SerializationException.class, () -> TelemetryWireFormat.of(headers("application/x-protobuf")));
+	}
+
+	@Test
+	void cborReportDecodesLikeJsonAndIsSmaller() throws Exception {
+		Map<String, Object> report = agentReport(50, 100);
+		byte[] json = new ObjectMapper().writeValueAsBytes(report);
+		byte[] cbor = agentCbor(report);
+
+		TelemetryData fromJson = deserializer.deserialize("telemetry", new RecordHeaders(), json);
+		TelemetryData fromCbor = deserializer.deserialize("telemetry", headers("application/cbor"), cbor);
+
+		assertEquals(fromJson, fromCbor);
+		assertEquals(50, fromCbor.getProcesses().size());
+		assertEquals(100, fromCbor.getNetworkConnections().size());
+		assertTrue(cbor.length < json.length, "CBOR " + cbor.length + " bytes vs JSON " + json.length);
+	}
+
+	@Test
+	void namedCborKeysAreAcceptedToo() throws Exception {
+		byte[] cbor = new ObjectMapper(new CBORFactory()).writeValueAsBytes(agentReport(2, 2));
+
+		TelemetryData data = deserializer.deserialize("telemetry", headers("application/cbor"), cbor);
+
+		assertEquals("web-01.prod.example.com", data.getHostname());
+		assertEquals(2, data.getNetworkConnections().size());
+	}
+
+	private static RecordHeaders headers(String contentType) {
+		RecordHeaders headers = new RecordHeaders();
+		headers.add(TelemetryWireFormat.CONTENT_TYPE_HEADER, contentType.getBytes(StandardCharsets.US_ASCII));
+		return headers;
+	}
+
+	/**
+	 * Encodes like the Go agent: integer keys from the keyasint struct tags
+	 */
+	static byte[] agentCbor(Map<String, Object> report) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (CBORGenerator generator = new CBORFactory().createGenerator(out)) {
+			writeObject(generator, report, REPORT_KEYS);
+		}
+		return out.toByteArray();
+	}
+
+	private static final List<String> REPORT_KEYS = List.of("agentId", "apiKey", "hostname", "osVersion",
+			"agentVersion", "cpuUsage", "ramUsedPercent", "ramTotalMb", "ramUsedMb", "diskUsedPercent",
+			"diskTotalGb", "diskUsedGb", "processes", "networkConnections", "bytesSentSec", "bytesRecvSec",
+			"timestamp", "uptimeSeconds", "messageType", "sequence", "baseSequence", "removedProcessPids",
+			"removedConnections");
+	private static final List<String> PROCESS_KEYS = List.of("pid", "name", "cpu", "memPercent", "username",
+			"status");
+	private static final List<String> CONNECTION_KEYS = List.of("pid", "localAddress", "localPort",
+			"remoteAddress", "remotePort", "processName", "status", "protocol");
+
+	@SuppressWarnings("unchecked")
+	private static void writeObject(CBORGenerator generator, Map<String, Object> object, List<String> keys)
+			throws IOException {
+		generator.writeStartObject();
+		for (Map.Entry<String, Object> entry : object.entrySet()) {
+			generator.writeFieldId(keys.indexOf(entry.getKey()) + 1);
+			if (entry.getValue() instanceof List<?> list) {
+				List<String> elementKeys = entry.getKey().equals("processes") ? PROCESS_KEYS : CONNECTION_KEYS;
+				generator.writeStartArray();
+				for (Object element : list) {
+					writeObject(generator, (Map<String, Object>) element, elementKeys);
+				}
+				generator.writeEndArray();
+			} else {
+				generator.writeObject(entry.getValue());
+			}
+		}
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Same field names and types as the Go agent's MetricReport
+	 */
+	static Map<String, Object> agentReport(int processCount, int connectionCount) {
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("agentId", "6a0f4c1e-52b3-4d8e-9d0a-3f7c2b1e9a44");
+		report.put("apiKey", "sk_2c7d9e1f4a6b8c0d2e4f6a8b0c2d4e6f");
+		report.put("hostname", "web-01.prod.example.com");
+		report.put("osVersion", "ubuntu 22.04");
+		report.put("agentVersion", "1.1.0");
+		report.put("cpuUsage", 37.52);
+		report.put("ramUsedPercent", 61.03);
+		report.put("ramTotalMb", 16384);
+		report.put("ramUsedMb", 9999);
+		report.put("diskUsedPercent", 70.25);
+		report.put("diskTotalGb", 512);
+		report.put("diskUsedGb", 360);
+		List<Map<String, Object>> processes = new ArrayList<>();
+		for (int i = 0; i < processCount; i++) {
+			Map<String, Object> process = new LinkedHashMap<>();
+			process.put("pid", 1000 + i);
+			process.put("name", "worker-" + (i % 7));
+			process.put("cpu", i * 0.37);
+			process.put("memPercent", i * 0.11);
+			process.put("username", i % 3 == 0 ? "root" : "www-data");
+			process.put("status", "S");
+			processes.add(process);
+		}
+		report.put("processes", processes);
+		List<Map<String, Object>> connections = new ArrayList<>();
+		for (int i = 0; i < connectionCount; i++) {
+			Map<String, Object> connection = new LinkedHashMap<>();
+			connection.put("pid", 1000 + (i % processCount));
+			connection.put("localAddress", "10.0.0.5");
+			connection.put("localPort", 443);
+			connection.put("remoteAddress", "203.0.113." + (i % 250));
+			connection.put("remotePort", 40000 + i);
+			connection.put("processName", "worker-" + (i % 7));
+			connection.put("status", "ESTABLISHED");
+			connection.put("protocol", "tcp");
+			connections.add(connection);
+		}
+		report.put("networkConnections", connections);
+		report.put("bytesSentSec", 120000);
+		report.put("bytesRecvSec", 340000);
+		report.put("timestamp", "2026-03-01T08:30:15.123456789Z");
+		report.put("uptimeSeconds", 864000);
+		return report;
+	}
+}
@@ -0,0 +1,77 @@
+package com.sentinelagent.backend.infrastructure.persistence.mapper;
+
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CanonicalContentHashTest {
+
+	@Test
+	void processHashIgnoresOrderAndCpuUsage() {
+		List<Process> first = canonical(List.of(
+				process(4, "System", "SYSTEM", 1.5),
+				process(812, "svchost.exe", "NETWORK SERVICE", 0.2)));
+		List<Process> second = canonical(List.of(
+				process(812, "svchost.exe", "NETWORK SERVICE", 7.0),
+				process(4, "System", "SYSTEM", 0.0)));
+
+		assertEquals(CanonicalContentHash.ofProcesses(first), CanonicalContentHash.ofProcesses(second));
+	}
+
+	@Test
+	void processHashChangesWithIdentity() {
+		List<Process> before = canonical(List.of(process(100, "chrome", "alice", 3.0)));
+		List<Process> renamed = canonical(List.of(process(100, "chrome.exe", "alice", 3.0)));
+		List<Process> shifted = canonical(List.of(process(100, "chrom", "ealice", 3.0)));
+
+		assertNotEquals(CanonicalContentHash.ofProcesses(before), CanonicalContentHash.ofProcesses(renamed));
+		assertNotEquals(CanonicalContentHash.ofProcesses(before), CanonicalContentHash.ofProcesses(shifted));
+	}
+
+	@Test
+	void connectionHashIgnoresOrderButNotState() {
+		NetworkConnection web = connection(100, "10.0.0.5", 52000, "142.250.74.36", 443, "ESTABLISHED");
+		NetworkConnection dns = connection(812, "10.0.0.5", 53000, "10.0.0.1", 53, "ESTABLISHED");
+
+		String hash = CanonicalContentHash.ofConnections(canonicalConnections(List.of(web, dns)));
+
+		assertEquals(hash, CanonicalContentHash.ofConnections(canonicalConnections(List.of(dns, web))));
+		assertNotEquals(hash, CanonicalContentHash.ofConnections(canonicalConnections(List.of(dns,
+				connection(100, "10.0.0.5", 52000, "142.250.74.36", 443, "TIME_WAIT")))));
+	}
+
+	private static List<Process> canonical(List<Process> processes) {
+		List<Process> sorted = new ArrayList<>(processes);
+		sorted.sort(CanonicalContentHash.PROCESS_ORDER);
+		return sorted;
+	}
+
+	private static List<NetworkConnection> canonicalConnections(List<NetworkConnection> connections) {
+		List<NetworkConnection> sorted = new ArrayList<>(connections);
+		sorted.sort(CanonicalContentHash.CONNECTION_ORDER);
+		return sorted;
+	}
+
+	private static Process process(int pid, String name, String username, double cpu) {
+		return Process.builder().pid(pid).name(name).username(username).cpuUsage(cpu).build();
+	}
+
+	private static NetworkConnection connection(int pid, String localAddress, int localPort, String remoteAddress,
+			int remotePort, String status) {
+		return NetworkConnection.builder()
+				.pid(pid)
+				.localAddress(localAddress)
+				.localPort(localPort)
+				.remoteAddress(remoteAddress)
+				.remotePort(remotePort)
+				.status(status)
+				.processName("proc-" + pid)
+				.build();
+	}
+}
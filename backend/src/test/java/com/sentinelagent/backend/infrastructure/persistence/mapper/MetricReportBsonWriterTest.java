@@ -0,0 +1,123 @@
+package com.sentinelagent.backend.infrastructure.persistence.mapper;
+
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.domain.telemetry.Process;
+import com.sentinelagent.backend.infrastructure.dictionary.MongoStringDictionary;
+import com.sentinelagent.backend.infrastructure.persistence.entity.ContentBlockDocument;
+import com.sentinelagent.backend.infrastructure.persistence.entity.MetricReportDocument;
+import com.sentinelagent.backend.infrastructure.persistence.repository.ReportContentStore;
+import com.sentinelagent.backend.infrastructure.persistence.repository.ReportContentStore.PendingBlock;
+import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class MetricReportBsonWriterTest {
+
+	@Test
+	void writesTheLayoutTheMappingLayerReads() {
+		MongoStringDictionary dictionary = new MongoStringDictionary(mock(MongoTemplate.class), 100);
+		ReportContentStore contentStore = mock(ReportContentStore.class);
+		MetricReportBsonWriter writer = new MetricReportBsonWriter(dictionary, contentStore);
+
+		LocalDateTime receivedAt = LocalDateTime.of(2026, 3, 1, 8, 30, 15);
+		MetricReport report = MetricReport.builder()
+				.agentId("agent-1")
+				.hostname("web-01")
+				.cpuUsage(37.5)
+				.ramUsedPercent(61.0)
+				.ramTotalMb(16384)
+				.diskUsedPercent(70.25)
+				.diskTotalGb(512)
+				.bytesSentSec(1200)
+				.bytesRecvSec(3400)
+				.processes(List.of(
+						Process.builder().pid(900).name("nginx").username("www").cpuUsage(4.0).build(),
+						Process.builder().pid(1).name("systemd").username("root").cpuUsage(0.5).build()))
+				.networkConnections(List.of(NetworkConnection.builder()
+						.pid(900).localAddress("10.0.0.5").localPort(443)
+						.remoteAddress("203.0.113.9").remotePort(51000)
+						.status("ESTABLISHED").processName("nginx").build()))
+				.receivedAt(receivedAt)
+				.build();
+		ObjectId id = new ObjectId();
+
+		Document bson = writer.write(report, id, new ArrayList<>()).decode(new DocumentCodec());
+		MetricReportDocument document = converter().read(MetricReportDocument.class, bson);
+
+		assertEquals(id.toHexString(), document.getId());
+		assertEquals("agent-1", document.getAgentId());
+		assertNull(document.getHostname());
+		assertEquals("web-01", dictionary.decode(document.getHostnameCode()));
+		assertEquals(37.5, document.getCpuUsage());
+		assertEquals(16384, document.getRamTotalMb());
+		assertEquals(70.25, document.getDiskUsedPercent());
+		assertEquals(3400, document.getBytesRecvSec());
+		assertEquals(receivedAt, document.getReceivedAt());
+		assertNotNull(document.getProcessesHash());
+		assertEquals(List.of(0.5, 4.0), document.getProcessCpu()); // canonical (pid) order
+		assertNotNull(document.getConnectionsHash());
+		assertNull(document.getProcesses());
+		verify(contentStore).pendingProcesses(eq("agent-1"), eq(document.getProcessesHash()), any());
+		verify(contentStore).pendingConnections(eq("agent-1"), anyString(), any());
+	}
+
+	@Test
+	void contentBlocksAreHandedBackInsteadOfStoredWhileWriting() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		ReportContentStore contentStore = new ReportContentStore(mongoTemplate, mock(ReactiveMongoTemplate.class), 100);
+		MetricReportBsonWriter writer = new MetricReportBsonWriter(
+				new MongoStringDictionary(mock(MongoTemplate.class), 100), contentStore);
+		MetricReport report = MetricReport.builder()
+				.agentId("agent-1")
+				.processes(List.of(Process.builder().pid(1).name("systemd").build()))
+				.networkConnections(List.of(NetworkConnection.builder().pid(1).status("LISTEN").build()))
+				.build();
+
+		List<PendingBlock> pending = new ArrayList<>();
+		writer.write(report, new ObjectId(), pending);
+
+		assertEquals(2, pending.size());
+		verifyNoInteractions(mongoTemplate);
+
+		contentStore.store(pending);
+		verify(mongoTemplate, times(2)).insert(any(ContentBlockDocument.class));
+
+		List<PendingBlock> unchanged = new ArrayList<>();
+		writer.write(report, new ObjectId(), unchanged);
+		assertEquals(List.of(), unchanged);
+	}
+
+	private static MappingMongoConverter converter() {
+		MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+		MongoMappingContext context = new MongoMappingContext();
+		context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		context.afterPropertiesSet();
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		return converter;
+	}
+}
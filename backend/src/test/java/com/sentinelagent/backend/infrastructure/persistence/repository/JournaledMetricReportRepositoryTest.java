@@ -0,0 +1,107 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import com.sentinelagent.backend.domain.telemetry.MetricReportRepository;
+import com.sentinelagent.backend.infrastructure.persistence.entity.MetricReportDocument;
+import com.sentinelagent.backend.infrastructure.persistence.mapper.MetricReportBsonWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.CollectionCallback;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JournaledMetricReportRepositoryTest {
+
+	@TempDir
+	Path directory;
+
+	private final MetricReportBsonWriter bsonWriter = mock(MetricReportBsonWriter.class);
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private JournaledMetricReportRepository repository;
+
+	@AfterEach
+	void close() throws InterruptedException {
+		repository.close();
+	}
+
+	@Test
+	void entryThatKeepsFailingIsSetAsideAndTheRestIsFlushed() throws Exception {
+		when(bsonWriter.write(any(), any(), any())).thenReturn(RawBsonDocument.parse("{}"));
+		doThrow(new IllegalStateException("cannot encode"))
+				.when(bsonWriter).write(argThat(report -> report != null && "poison".equals(report.getAgentId())), any(), any());
+		when(mongoTemplate.execute(eq(MetricReportDocument.class), ArgumentMatchers.<CollectionCallback<Object>>any()))
+				.thenReturn(Set.of());
+		repository = open();
+
+		repository.saveAll(List.of(report("agent-1"), report("poison"), report("agent-2"))).join();
+
+		awaitTrue(() -> registry.get("sentinel.ingest.journal.pending").gauge().value() == 0);
+		assertEquals(1, registry.get("sentinel.ingest.journal.rejected").functionCounter().count());
+		assertEquals(1, rejectedFiles());
+	}
+
+	@Test
+	void unreachableDatabaseIsWaitedForWithoutSettingEntriesAside() throws Exception {
+		when(bsonWriter.write(any(), any(), any())).thenReturn(RawBsonDocument.parse("{}"));
+		when(mongoTemplate.execute(eq(MetricReportDocument.class), ArgumentMatchers.<CollectionCallback<Object>>any()))
+				.thenThrow(new DataAccessResourceFailureException("connection refused"));
+		repository = open();
+
+		repository.saveAll(List.of(report("agent-1"))).join();
+		Thread.sleep(3500);
+
+		assertTrue(registry.get("sentinel.ingest.journal.pending").gauge().value() > 0);
+		assertEquals(0, registry.get("sentinel.ingest.journal.rejected").functionCounter().count());
+		assertFalse(Files.exists(directory.resolve("rejected")));
+	}
+
+	private JournaledMetricReportRepository open() {
+		JournaledMetricReportRepository opened = new JournaledMetricReportRepository(
+				mock(MetricReportRepository.class), bsonWriter, mock(ReportContentStore.class), mongoTemplate, directory.toString(), 1, 4, false,
+				100, 10, 2);
+		opened.bindTo(registry);
+		return opened;
+	}
+
+	private long rejectedFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory.resolve("rejected"))) {
+			return files.count();
+		}
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+			Thread.sleep(20);
+		}
+	}
+
+	private static MetricReport report(String agentId) {
+		return MetricReport.builder().agentId(agentId).hostname(agentId).receivedAt(LocalDateTime.now()).build();
+	}
+}
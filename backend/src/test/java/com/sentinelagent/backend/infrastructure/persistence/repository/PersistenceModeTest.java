@@ -0,0 +1,73 @@
+package com.sentinelagent.backend.infrastructure.persistence.repository;
+
+import com.sentinelagent.backend.domain.agent.AgentRepository;
+import com.sentinelagent.backend.domain.agent.AsyncAgentRepository;
+import com.sentinelagent.backend.domain.telemetry.AsyncMetricReportRepository;
+import com.sentinelagent.backend.domain.telemetry.MetricReportRepository;
+import com.sentinelagent.backend.infrastructure.persistence.mapper.AgentMapper;
+import com.sentinelagent.backend.infrastructure.persistence.mapper.MetricReportBsonWriter;
+import com.sentinelagent.backend.infrastructure.persistence.mapper.MetricReportMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Every persistence.mode must leave exactly one adapter per async repository port
+ */
+class PersistenceModeTest {
+
+	@TempDir
+	Path journalDir;
+
+	private final ApplicationContextRunner runner = new ApplicationContextRunner()
+			.withBean(AgentRepository.class, () -> mock(AgentRepository.class))
+			.withBean(MetricReportRepository.class, () -> mock(MetricReportRepository.class))
+			.withBean(MongoTemplate.class, () -> mock(MongoTemplate.class))
+			.withBean(ReactiveMongoTemplate.class, () -> mock(ReactiveMongoTemplate.class))
+			.withBean(AgentMapper.class, () -> mock(AgentMapper.class))
+			.withBean(MetricReportMapper.class, () -> mock(MetricReportMapper.class))
+			.withBean(MetricReportBsonWriter.class, () -> mock(MetricReportBsonWriter.class))
+			.withBean(ReportContentStore.class, () -> mock(ReportContentStore.class))
+			.withUserConfiguration(BlockingAsyncAgentRepository.class, ReactiveMongoAgentRepository.class,
+					BlockingAsyncMetricReportRepository.class, ReactiveMongoMetricReportRepository.class,
+					JournaledMetricReportRepository.class);
+
+	@Test
+	void blockingIsTheDefault() {
+		runner.run(context -> {
+			assertThat(context).hasSingleBean(AsyncAgentRepository.class);
+			assertThat(context).getBean(AsyncAgentRepository.class).isInstanceOf(BlockingAsyncAgentRepository.class);
+			assertThat(context).getBean(AsyncMetricReportRepository.class)
+					.isInstanceOf(BlockingAsyncMetricReportRepository.class);
+		});
+	}
+
+	@Test
+	void journalModeJournalsReportsAndReadsAgentsBlocking() {
+		runner.withPropertyValues("persistence.mode=journal", "persistence.journal.dir=" + journalDir,
+						"persistence.journal.segment-size-mb=1")
+				.run(context -> {
+					assertThat(context).hasNotFailed();
+					assertThat(context).getBean(AsyncAgentRepository.class)
+							.isInstanceOf(BlockingAsyncAgentRepository.class);
+					assertThat(context).getBean(AsyncMetricReportRepository.class)
+							.isInstanceOf(JournaledMetricReportRepository.class);
+				});
+	}
+
+	@Test
+	void reactiveModeUsesTheReactiveAdapters() {
+		runner.withPropertyValues("persistence.mode=reactive").run(context -> {
+			assertThat(context).getBean(AsyncAgentRepository.class).isInstanceOf(ReactiveMongoAgentRepository.class);
+			assertThat(context).getBean(AsyncMetricReportRepository.class)
+					.isInstanceOf(ReactiveMongoMetricReportRepository.class);
+		});
+	}
+}
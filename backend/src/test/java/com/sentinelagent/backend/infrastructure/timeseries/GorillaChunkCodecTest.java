@@ -0,0 +1,129 @@
+package com.sentinelagent.backend.infrastructure.timeseries;
+
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GorillaChunkCodecTest {
+
+	private static final int FIELDS = 5;
+	private static final int SAMPLES = 360; // one hour at a 10s interval
+
+	@Test
+	void roundTripsTimestampsAndValuesBitExact() {
+		double[][] values = new double[SAMPLES][];
+		long[] timestamps = new long[SAMPLES];
+		GorillaChunkEncoder encoder = new GorillaChunkEncoder(FIELDS);
+		FleetSeries series = new FleetSeries(42);
+		for (int i = 0; i < SAMPLES; i++) {
+			timestamps[i] = series.nextTimestamp();
+			values[i] = series.nextValues();
+			encoder.append(timestamps[i], values[i]);
+		}
+
+		GorillaChunkDecoder decoder = new GorillaChunkDecoder(encoder.finish());
+		assertEquals(SAMPLES, decoder.sampleCount());
+		for (int i = 0; i < SAMPLES; i++) {
+			assertTrue(decoder.next());
+			assertEquals(timestamps[i], decoder.timestamp());
+			for (int f = 0; f < FIELDS; f++) {
+				assertEquals(Double.doubleToRawLongBits(values[i][f]), Double.doubleToRawLongBits(decoder.value(f)));
+			}
+		}
+		assertFalse(decoder.next());
+	}
+
+	@Test
+	void handlesIrregularGapsAndSpecialValues() {
+		long[] timestamps = { 0L, 10_000L, 10_001L, 9_000_000_000L, 9_000_000_000L, 8_000_000_000L };
+		double[] specials = { 0.0, -0.0, Double.NaN, Double.MAX_VALUE, Double.MIN_VALUE, -1.5 };
+		GorillaChunkEncoder encoder = new GorillaChunkEncoder(1);
+		for (int i = 0; i < timestamps.length; i++) {
+			encoder.append(timestamps[i], new double[] { specials[i] });
+		}
+
+		GorillaChunkDecoder decoder = new GorillaChunkDecoder(encoder.finish());
+		for (int i = 0; i < timestamps.length; i++) {
+			assertTrue(decoder.next());
+			assertEquals(timestamps[i], decoder.timestamp());
+			assertEquals(Double.doubleToRawLongBits(specials[i]), Double.doubleToRawLongBits(decoder.value(0)));
+		}
+	}
+
+	@Test
+	void compressesFleetSeriesFarBelowPerSampleBson() {
+		long chunkBytes = 0;
+		long bsonBytes = 0;
+		for (int agent = 0; agent < 20; agent++) {
+			FleetSeries series = new FleetSeries(agent);
+			GorillaChunkEncoder encoder = new GorillaChunkEncoder(FIELDS);
+			for (int i = 0; i < SAMPLES; i++) {
+				long timestamp = series.nextTimestamp();
+				double[] values = series.nextValues();
+				encoder.append(timestamp, values);
+				bsonBytes += bsonSize("agent-" + agent, timestamp, values);
+			}
+			chunkBytes += encoder.finish().length;
+		}
+
+		double ratio = (double) bsonBytes / chunkBytes;
+		assertTrue(ratio > 4.0, "compression ratio was only " + ratio);
+	}
+
+	private static int bsonSize(String agentId, long timestamp, double[] values) {
+		BsonDocument document = new BsonDocument()
+				.append("agentId", new BsonString(agentId))
+				.append("receivedAt", new BsonDateTime(timestamp))
+				.append("cpuUsage", new BsonDouble(values[0]))
+				.append("ramUsedPercent", new BsonDouble(values[1]))
+				.append("diskUsedPercent", new BsonDouble(values[2]))
+				.append("bytesSentSec", new BsonInt64((long) values[3]))
+				.append("bytesRecvSec", new BsonInt64((long) values[4]));
+		return new RawBsonDocument(document, new BsonDocumentCodec()).getByteBuffer().remaining();
+	}
+
+	/**
+	 * Deterministic stand-in for a recorded agent: jittered 10s interval,
+	 * noisy CPU, slowly drifting RAM, near-constant disk and bursty byte rates.
+	 */
+	private static final class FleetSeries {
+		private final Random random;
+		private long timestamp = 1_767_268_800_000L;
+		private double cpu = 12.0;
+		private double ram = 61.0;
+		private double disk = 47.3;
+
+		private FleetSeries(long seed) {
+			this.random = new Random(seed);
+		}
+
+		long nextTimestamp() {
+			timestamp += 10_000 + random.nextInt(21) - 10;
+			return timestamp;
+		}
+
+		double[] nextValues() {
+			cpu = Math.max(0, Math.min(100, cpu + random.nextGaussian() * 3));
+			if (random.nextInt(4) == 0) {
+				ram = Math.max(0, Math.min(100, ram + random.nextGaussian() * 0.2));
+			}
+			if (random.nextInt(60) == 0) {
+				disk += 0.01;
+			}
+			long sent = random.nextInt(5) == 0 ? random.nextInt(2_000_000) : 0;
+			long recv = random.nextInt(3) == 0 ? random.nextInt(8_000_000) : 0;
+			return new double[] { Math.round(cpu * 10) / 10.0, ram, disk, sent, recv };
+		}
+	}
+}
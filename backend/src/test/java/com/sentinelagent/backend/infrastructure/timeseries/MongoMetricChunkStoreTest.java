@@ -0,0 +1,146 @@
+package com.sentinelagent.backend.infrastructure.timeseries;
+
+import com.sentinelagent.backend.application.telemetry.port.MetricHistoryStore.SampleCursor;
+import com.sentinelagent.backend.domain.telemetry.MetricField;
+import com.sentinelagent.backend.domain.telemetry.MetricReport;
+import com.sentinelagent.backend.infrastructure.persistence.entity.MetricChunkDocument;
+import com.sentinelagent.backend.infrastructure.persistence.repository.SpringDataMetricChunkRepository;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MongoMetricChunkStoreTest {
+
+	private static final LocalDateTime WINDOW = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+	private final SpringDataMetricChunkRepository repository = mock(SpringDataMetricChunkRepository.class);
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final BulkOperations bulk = mock(BulkOperations.class);
+	private final MongoMetricChunkStore store = new MongoMetricChunkStore(repository, mongoTemplate, 60);
+
+	@BeforeEach
+	void setUp() {
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(MetricChunkDocument.class))).thenReturn(bulk);
+		when(bulk.upsert(anyList())).thenReturn(bulk);
+	}
+
+	@Test
+	void sealedChunksAreQueuedForTheFlushAndUpsertedByAgentAndFirstSample() {
+		when(repository.streamOverlapping(anyString(), any(), any())).thenReturn(Stream.empty());
+		store.append(report(WINDOW.plusMinutes(1), 10));
+		store.append(report(WINDOW.plusMinutes(2), 20));
+		store.append(report(WINDOW.plusMinutes(61), 30));
+
+		// Nothing is written on the ingest thread, but reads already see the sealed chunk
+		verify(bulk, never()).upsert(anyList());
+		assertEquals(List.of(10.0, 20.0, 30.0), cpu(WINDOW, WINDOW.plusHours(2)));
+
+		store.flushChunks();
+		Pair<Query, Update> upsert = upserts(1).get(0).get(0);
+		Document key = upsert.getFirst().getQueryObject();
+		assertEquals("agent-1", key.get("agentId"));
+		assertEquals(WINDOW.plusMinutes(1), key.get("chunkStart"));
+		// Never replaces a stored copy that is as complete
+		assertEquals(new Document("$lt", 2), key.get("sampleCount"));
+		Document set = upsert.getSecond().getUpdateObject().get("$set", Document.class);
+		assertEquals(WINDOW, set.get("windowStart"));
+		assertEquals(2, set.get("sampleCount"));
+	}
+
+	@Test
+	void sealedChunksThatFailToStoreAreRetried() {
+		when(bulk.execute()).thenThrow(new DataAccessResourceFailureException("down")).thenReturn(null);
+		store.append(report(WINDOW.plusMinutes(1), 10));
+		store.append(report(WINDOW.plusMinutes(61), 30));
+
+		store.flushChunks();
+		store.flushChunks();
+
+		// Both chunks again, the second sealed as its window has ended too
+		List<Pair<Query, Update>> retried = upserts(2).get(1);
+		assertEquals(2, retried.size());
+		assertEquals(WINDOW.plusMinutes(1), retried.get(0).getFirst().getQueryObject().get("chunkStart"));
+		assertEquals(WINDOW.plusMinutes(61), retried.get(1).getFirst().getQueryObject().get("chunkStart"));
+
+		store.flushChunks();
+		upserts(2);
+	}
+
+	@Test
+	void openChunksAreCheckpointedAndReadOnlyOnce() {
+		LocalDateTime now = LocalDateTime.now().withNano(0);
+		store.append(report(now, 42));
+		store.flushChunks();
+		Pair<Query, Update> checkpoint = upserts(1).get(0).get(0);
+		assertEquals(now, checkpoint.getFirst().getQueryObject().get("chunkStart"));
+
+		// The stored checkpoint of the open chunk is skipped in favor of the chunk itself
+		GorillaChunkEncoder older = new GorillaChunkEncoder(MongoMetricChunkStore.CHUNK_FIELDS.length);
+		older.append(millis(now.minusHours(2)), new double[]{7, 0, 0, 0, 0});
+		when(repository.streamOverlapping(anyString(), any(), any())).thenReturn(Stream.of(
+				chunk(now.minusHours(2), older.finish()),
+				chunk(now, checkpoint.getSecond().getUpdateObject().get("$set", Document.class)
+						.get("data", Binary.class).getData())));
+
+		assertEquals(List.of(7.0, 42.0), cpu(now.minusHours(3), now.plusMinutes(1)));
+	}
+
+	private List<Double> cpu(LocalDateTime from, LocalDateTime to) {
+		List<Double> values = new ArrayList<>();
+		try (SampleCursor cursor = store.readRange("agent-1", MetricField.CPU_USAGE, millis(from), millis(to))) {
+			while (cursor.next()) {
+				values.add(cursor.value());
+			}
+		}
+		return values;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<List<Pair<Query, Update>>> upserts(int times) {
+		ArgumentCaptor<List<Pair<Query, Update>>> captor = ArgumentCaptor.forClass(List.class);
+		verify(bulk, times(times)).upsert(captor.capture());
+		return captor.getAllValues();
+	}
+
+	private static MetricChunkDocument chunk(LocalDateTime chunkStart, byte[] data) {
+		return MetricChunkDocument.builder()
+				.agentId("agent-1")
+				.chunkStart(chunkStart)
+				.fields(List.of("cpuUsage", "ramUsedPercent", "diskUsedPercent", "bytesSentSec", "bytesRecvSec"))
+				.data(new Binary(data))
+				.build();
+	}
+
+	private static MetricReport report(LocalDateTime receivedAt, double cpu) {
+		return MetricReport.builder().agentId("agent-1").receivedAt(receivedAt).cpuUsage(cpu).build();
+	}
+
+	private static long millis(LocalDateTime time) {
+		return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+}
@@ -0,0 +1,211 @@
+package com.sentinelagent.backend.infrastructure.timeseries;
+
+import com.sentinelagent.backend.application.telemetry.dto.NetworkFlowDto;
+import com.sentinelagent.backend.domain.telemetry.CidrBlock;
+import com.sentinelagent.backend.domain.telemetry.NetworkConnection;
+import com.sentinelagent.backend.infrastructure.persistence.entity.NetworkFlowDocument;
+import com.sentinelagent.backend.infrastructure.persistence.repository.SpringDataNetworkFlowRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MongoNetworkFlowStoreTest {
+
+	private static final LocalDateTime WINDOW = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+	private final SpringDataNetworkFlowRepository repository = mock(SpringDataNetworkFlowRepository.class);
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final BulkOperations bulk = mock(BulkOperations.class);
+	private final MongoNetworkFlowStore store = new MongoNetworkFlowStore(repository, mongoTemplate, 60);
+
+	@BeforeEach
+	void setUp() {
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(NetworkFlowDocument.class))).thenReturn(bulk);
+		when(bulk.upsert(anyList())).thenReturn(bulk);
+	}
+
+	@Test
+	void connectionsSeenInManyReportsBecomeOneFlowPerWindow() {
+		NetworkConnection https = connection("curl", "203.0.113.9", 443, "ESTABLISHED");
+		NetworkConnection dns = connection("systemd-resolved", "1.1.1.1", 53, "ESTABLISHED");
+		store.append("agent-1", List.of(https, dns), WINDOW.plusMinutes(1));
+		store.append("agent-1", List.of(https), WINDOW.plusMinutes(2));
+		store.append("agent-1", List.of(https), WINDOW.plusMinutes(3));
+		verify(bulk, never()).upsert(anyList());
+
+		// The next window seals the previous one, which waits for the flush
+		store.append("agent-1", List.of(https), WINDOW.plusMinutes(61));
+		verify(bulk, never()).upsert(anyList());
+
+		store.flushWindows();
+		List<Pair<Query, Update>> sealed = upserts(2).get(0);
+		assertEquals(2, sealed.size());
+		Document key = sealed.get(0).getFirst().getQueryObject();
+		assertEquals("agent-1", key.get("agentId"));
+		assertEquals(WINDOW, key.get("windowStart"));
+		assertEquals("curl", key.get("processName"));
+		assertEquals(443, key.get("remotePort"));
+		Document update = sealed.get(0).getSecond().getUpdateObject();
+		assertEquals(3, update.get("$inc", Document.class).get("observations"));
+		assertEquals(WINDOW.plusMinutes(1), update.get("$min", Document.class).get("firstSeen"));
+		assertEquals(WINDOW.plusMinutes(3), update.get("$max", Document.class).get("lastSeen"));
+		assertEquals(WINDOW.plusHours(1), update.get("$setOnInsert", Document.class).get("windowEnd"));
+		assertEquals(1, sealed.get(1).getSecond().getUpdateObject().get("$inc", Document.class).get("observations"));
+	}
+
+	@Test
+	void openWindowsAreFlushedPeriodicallyAndReadsAddWhatIsNotFlushedYet() {
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime windowStart = now.truncatedTo(ChronoUnit.HOURS);
+		NetworkConnection ssh = connection("sshd", "198.51.100.7", 22, "ESTABLISHED");
+		store.append("agent-1", List.of(ssh), now);
+		store.append("agent-1", List.of(ssh), now);
+
+		store.flushWindows();
+		assertEquals(2, observations(upserts(1).get(0).get(0)));
+
+		// Only the counts since the last flush go out next time
+		store.append("agent-1", List.of(ssh), now);
+		when(repository.findOverlapping(anyString(), any(), any(), any())).thenReturn(List.of(NetworkFlowDocument.builder()
+				.agentId("agent-1").windowStart(windowStart).processName("sshd").remoteAddress("198.51.100.7")
+				.remotePort(22).state("ESTABLISHED").firstSeen(now).lastSeen(now).observations(2).build()));
+		List<NetworkFlowDto> flows = store.findFlows("agent-1", windowStart, windowStart.plusHours(1), 50);
+		assertEquals(1, flows.size());
+		assertEquals(3, flows.get(0).getObservations());
+
+		store.flushWindows();
+		assertEquals(1, observations(upserts(2).get(1).get(0)));
+	}
+
+	@Test
+	void countsThatFailToFlushAreRetried() {
+		LocalDateTime now = LocalDateTime.now();
+		NetworkConnection ssh = connection("sshd", "198.51.100.7", 22, "ESTABLISHED");
+		store.append("agent-1", List.of(ssh), now);
+		when(bulk.execute()).thenThrow(new DataAccessResourceFailureException("down")).thenReturn(null);
+
+		store.flushWindows();
+		store.append("agent-1", List.of(ssh), now);
+		store.flushWindows();
+
+		List<List<Pair<Query, Update>>> upserts = upserts(2);
+		assertEquals(1, upserts.get(1).size());
+		assertEquals(2, observations(upserts.get(1).get(0)));
+	}
+
+	@Test
+	void sealedWindowsThatFailToFlushAreRetriedOnTheNextFlush() {
+		NetworkConnection https = connection("curl", "203.0.113.9", 443, "ESTABLISHED");
+		store.append("agent-1", List.of(https), WINDOW.plusMinutes(1));
+		when(bulk.execute()).thenThrow(new DataAccessResourceFailureException("down")).thenReturn(null);
+
+		store.append("agent-1", List.of(https), WINDOW.plusMinutes(61));
+		store.flushWindows();
+		store.flushWindows();
+
+		// The sealed window fails, the ended open one is stored, then the sealed one again
+		List<List<Pair<Query, Update>>> upserts = upserts(3);
+		assertEquals(WINDOW, upserts.get(0).get(0).getFirst().getQueryObject().get("windowStart"));
+		assertEquals(WINDOW.plusHours(1), upserts.get(1).get(0).getFirst().getQueryObject().get("windowStart"));
+		assertEquals(WINDOW, upserts.get(2).get(0).getFirst().getQueryObject().get("windowStart"));
+	}
+
+	@Test
+	void readsIncludeSealedWindowsWaitingForTheFlush() {
+		when(repository.findOverlapping(anyString(), any(), any(), any())).thenReturn(List.of());
+		when(repository.findIpv4Range(anyLong(), anyLong(), any(), any(), any())).thenReturn(List.of());
+		NetworkConnection https = connection("curl", "203.0.113.9", 443, "ESTABLISHED");
+		store.append("agent-1", List.of(https), WINDOW.plusMinutes(1));
+		store.append("agent-1", List.of(https), WINDOW.plusMinutes(61));
+
+		assertEquals(2, store.findFlows("agent-1", WINDOW, WINDOW.plusHours(2), 50).size());
+		assertEquals(2, store.findFlowsTo(CidrBlock.parse("203.0.113.0/24"), WINDOW, WINDOW.plusHours(2), 50).size());
+	}
+
+	@Test
+	void readsIncludeTheOpenWindow() {
+		when(repository.findOverlapping(anyString(), any(), any(), any())).thenReturn(List.of());
+		store.append("agent-1", List.of(connection("sshd", "198.51.100.7", 22, "ESTABLISHED")),
+				WINDOW.plusMinutes(5));
+
+		List<NetworkFlowDto> flows = store.findFlows("agent-1", WINDOW, WINDOW.plusHours(1), 50);
+		assertEquals(1, flows.size());
+		assertEquals("198.51.100.7", flows.get(0).getRemoteAddress());
+
+		assertEquals(0, store.findFlows("agent-1", WINDOW.plusHours(2), WINDOW.plusHours(3), 50).size());
+	}
+
+	@Test
+	void cidrQueriesScanNumericRanges() {
+		when(repository.findIpv4Range(anyLong(), anyLong(), any(), any(), any())).thenReturn(List.of());
+		store.append("agent-1", List.of(connection("curl", "203.0.113.9", 443, "ESTABLISHED"),
+				connection("curl", "198.51.100.1", 443, "ESTABLISHED")), WINDOW.plusMinutes(5));
+		store.append("agent-2", List.of(connection("wget", "203.0.113.200", 80, "ESTABLISHED")),
+				WINDOW.plusMinutes(6));
+
+		List<NetworkFlowDto> flows = store.findFlowsTo(CidrBlock.parse("203.0.113.0/24"),
+				WINDOW, WINDOW.plusHours(1), 50);
+
+		verify(repository).findIpv4Range(eq(0xCB007100L), eq(0xCB0071FFL), eq(WINDOW), eq(WINDOW.plusHours(1)), any());
+		assertEquals(2, flows.size());
+		assertEquals(List.of("agent-1", "agent-2"),
+				flows.stream().map(NetworkFlowDto::getAgentId).sorted().toList());
+	}
+
+	@Test
+	void sealedFlowsCarrySortableNumericAddresses() {
+		store.append("agent-1", List.of(connection("curl", "10.0.0.1", 443, "ESTABLISHED"),
+				connection("curl", "ffff::1", 443, "ESTABLISHED")), WINDOW);
+		store.flush();
+
+		List<Pair<Query, Update>> sealed = upserts(1).get(0);
+		Document ipv4 = sealed.get(0).getSecond().getUpdateObject().get("$setOnInsert", Document.class);
+		Document ipv6 = sealed.get(1).getSecond().getUpdateObject().get("$setOnInsert", Document.class);
+		assertEquals(0x0A000001L, ipv4.get("remoteIpv4"));
+		assertFalse(ipv4.containsKey("remoteIpv6High"));
+		// 0xffff... sorts above 0x0000... although it is negative as a signed long
+		assertTrue(ipv6.getLong("remoteIpv6High") > 0);
+		assertEquals(Long.MIN_VALUE + 1, ipv6.get("remoteIpv6Low"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<List<Pair<Query, Update>>> upserts(int times) {
+		ArgumentCaptor<List<Pair<Query, Update>>> captor = ArgumentCaptor.forClass(List.class);
+		verify(bulk, times(times)).upsert(captor.capture());
+		return captor.getAllValues();
+	}
+
+	private static Object observations(Pair<Query, Update> upsert) {
+		return upsert.getSecond().getUpdateObject().get("$inc", Document.class).get("observations");
+	}
+
+	private static NetworkConnection connection(String process, String remote, int port, String state) {
+		return NetworkConnection.builder().processName(process).remoteAddress(remote).remotePort(port)
+				.status(state).build();
+	}
+}